@@ -0,0 +1,193 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Something that happened in a Maven build executed by a phase, like a module which has been built.
+ *
+ * @since 3.0.0
+ */
+public final class BuildEvent
+{
+    /**
+     * The kinds of events.
+     */
+    public enum Type
+    {
+        /**
+         * A module is being built, see {@link BuildEvent#getModule()}.
+         */
+        MODULE_STARTED,
+
+        /**
+         * A module has been built, see {@link BuildEvent#getModule()}, {@link BuildEvent#getResult()} and
+         * {@link BuildEvent#getDuration()}.
+         */
+        MODULE_FINISHED,
+
+        /**
+         * The tests of a module have been run, see {@link BuildEvent#getTestsRun()} and the following methods.
+         */
+        TESTS_COMPLETED,
+
+        /**
+         * The build has ended, see {@link BuildEvent#getResult()} and {@link BuildEvent#getDuration()}.
+         */
+        BUILD_FINISHED
+    }
+
+    public static final String SUCCESS = "SUCCESS";
+
+    public static final String FAILURE = "FAILURE";
+
+    public static final String SKIPPED = "SKIPPED";
+
+    private final Type type;
+
+    private final String module;
+
+    private final String result;
+
+    private final long duration;
+
+    private final int testsRun;
+
+    private final int failures;
+
+    private final int errors;
+
+    private final int skipped;
+
+    private BuildEvent( Type type, String module, String result, long duration, int testsRun, int failures,
+                        int errors, int skipped )
+    {
+        this.type = type;
+        this.module = module;
+        this.result = result;
+        this.duration = duration;
+        this.testsRun = testsRun;
+        this.failures = failures;
+        this.errors = errors;
+        this.skipped = skipped;
+    }
+
+    public static BuildEvent moduleStarted( String module )
+    {
+        return new BuildEvent( Type.MODULE_STARTED, module, null, -1, 0, 0, 0, 0 );
+    }
+
+    /**
+     * @param duration the duration in milliseconds, <code>-1</code> if unknown
+     */
+    public static BuildEvent moduleFinished( String module, String result, long duration )
+    {
+        return new BuildEvent( Type.MODULE_FINISHED, module, result, duration, 0, 0, 0, 0 );
+    }
+
+    /**
+     * @param module the module the tests belong to, <code>null</code> if unknown
+     */
+    public static BuildEvent testsCompleted( String module, int testsRun, int failures, int errors, int skipped )
+    {
+        return new BuildEvent( Type.TESTS_COMPLETED, module, null, -1, testsRun, failures, errors, skipped );
+    }
+
+    /**
+     * @param duration the duration in milliseconds, <code>-1</code> if unknown
+     */
+    public static BuildEvent buildFinished( String result, long duration )
+    {
+        return new BuildEvent( Type.BUILD_FINISHED, null, result, duration, 0, 0, 0, 0 );
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return the name of the module, <code>null</code> for the whole build
+     */
+    public String getModule()
+    {
+        return module;
+    }
+
+    /**
+     * @return {@link #SUCCESS}, {@link #FAILURE} or {@link #SKIPPED} for finished modules and builds, otherwise
+     *         <code>null</code>
+     */
+    public String getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return the duration in milliseconds for finished modules and builds, <code>-1</code> if unknown
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+
+    public int getTestsRun()
+    {
+        return testsRun;
+    }
+
+    public int getFailures()
+    {
+        return failures;
+    }
+
+    public int getErrors()
+    {
+        return errors;
+    }
+
+    public int getSkipped()
+    {
+        return skipped;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( type.name() );
+        if ( module != null )
+        {
+            builder.append( ' ' ).append( module );
+        }
+        if ( result != null )
+        {
+            builder.append( ' ' ).append( result );
+        }
+        if ( duration >= 0 )
+        {
+            builder.append( ' ' ).append( duration ).append( " ms" );
+        }
+        if ( type == Type.TESTS_COMPLETED )
+        {
+            builder.append( " run: " ).append( testsRun ).append( ", failures: " ).append( failures )
+                .append( ", errors: " ).append( errors ).append( ", skipped: " ).append( skipped );
+        }
+        return builder.toString();
+    }
+}
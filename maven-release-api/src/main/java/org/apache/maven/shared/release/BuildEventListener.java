@@ -0,0 +1,37 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Informed about the events of the Maven builds executed by the phases while they happen. A release manager listener
+ * implementing this interface receives the events of every phase.
+ *
+ * @since 3.0.0
+ */
+public interface BuildEventListener
+{
+    /**
+     * Called on the thread reading the output of the build, so it must not block.
+     *
+     * @param metrics the metrics of the phase executing the build
+     * @param event the event
+     */
+    void buildEvent( PhaseMetrics metrics, BuildEvent event );
+}
@@ -0,0 +1,837 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects output of a release. Output is kept in memory up to a limit, everything beyond is written to a temporary
+ * file. The output of other sinks can be appended without copying it; linked sinks share the memory limit and the
+ * temporary file of the sink they are appended to. The temporary file is deleted once all sinks sharing it have been
+ * closed, so a sink which is no longer needed must be closed.
+ *
+ * @since 3.0.0
+ */
+public class OutputSink
+    implements Closeable
+{
+    /**
+     * The system property with the number of characters a sink keeps in memory.
+     */
+    public static final String MEMORY_LIMIT_PROPERTY = "maven.release.output.memoryLimit";
+
+    private static final int DEFAULT_MEMORY_LIMIT = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Charset SPILL_CHARSET = Charset.forName( "UTF-8" );
+
+    /**
+     * Held while sinks are linked, which is the only time the stores of two sinks are locked at once.
+     */
+    private static final Object LINK_LOCK = new Object();
+
+    /**
+     * The output, in the order it has been appended.
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * The memory and the temporary file shared with the linked sinks.
+     */
+    private volatile Store store;
+
+    /**
+     * Creates a sink that keeps as many characters in memory as the system property {@value #MEMORY_LIMIT_PROPERTY}
+     * says, one million by default.
+     */
+    public OutputSink()
+    {
+        this( Integer.getInteger( MEMORY_LIMIT_PROPERTY, DEFAULT_MEMORY_LIMIT ) );
+    }
+
+    /**
+     * @param memoryLimit the number of characters to keep in memory, together with the sinks which are appended to
+     *            this one
+     */
+    public OutputSink( int memoryLimit )
+    {
+        this.store = new Store( memoryLimit, this );
+    }
+
+    public void append( CharSequence text )
+    {
+        if ( text.length() == 0 )
+        {
+            return;
+        }
+
+        Store s = lock();
+        try
+        {
+            Segment last = segments.isEmpty() ? null : segments.get( segments.size() - 1 );
+            if ( last instanceof TextSegment )
+            {
+                ( (TextSegment) last ).text.append( text );
+            }
+            else
+            {
+                segments.add( new TextSegment( text ) );
+            }
+            s.memorySize += text.length();
+
+            if ( s.memorySize > s.memoryLimit )
+            {
+                s.spill();
+            }
+        }
+        finally
+        {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the output of another sink. The output is not copied, later changes of the other sink show up in this
+     * sink as well. From now on the other sink shares the memory limit and the temporary file of this one, output it
+     * has written to its own temporary file already is moved to the shared one.
+     *
+     * @param sink the sink to append
+     */
+    public void append( OutputSink sink )
+    {
+        synchronized ( LINK_LOCK )
+        {
+            Store s = lock();
+            try
+            {
+                if ( sink == this || sink.contains( this ) )
+                {
+                    throw new IllegalArgumentException( "Cannot append a sink to itself" );
+                }
+
+                Store other = sink.lock();
+                try
+                {
+                    if ( other != s )
+                    {
+                        s.merge( other );
+                    }
+                }
+                finally
+                {
+                    other.lock.unlock();
+                }
+                segments.add( new SinkSegment( sink ) );
+
+                if ( s.memorySize > s.memoryLimit )
+                {
+                    s.spill();
+                }
+            }
+            finally
+            {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return a writer appending to this sink
+     */
+    public Writer getWriter()
+    {
+        return new Writer()
+        {
+            @Override
+            public void write( char[] cbuf, int off, int len )
+            {
+                OutputSink.this.append( new String( cbuf, off, len ) );
+            }
+
+            @Override
+            public void write( String str, int off, int len )
+            {
+                OutputSink.this.append( str.substring( off, off + len ) );
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+    }
+
+    /**
+     * @return a reader of the output which has been appended so far; reading fails with an
+     *         {@link IllegalStateException} once the sink has been closed
+     */
+    public Reader getReader()
+    {
+        Store s = lock();
+        try
+        {
+            s.flush();
+
+            List<Segment> snapshot = new ArrayList<>( segments.size() );
+            for ( Segment segment : segments )
+            {
+                if ( segment instanceof TextSegment )
+                {
+                    final String text = ( (TextSegment) segment ).text.toString();
+                    snapshot.add( new Segment()
+                    {
+                        @Override
+                        Reader open()
+                        {
+                            return new StringReader( text );
+                        }
+                    } );
+                }
+                else if ( segment instanceof FileSegment )
+                {
+                    FileSegment fileSegment = (FileSegment) segment;
+                    snapshot.add( new SpilledSegment( s, s.file, fileSegment.start, fileSegment.end ) );
+                }
+                else
+                {
+                    snapshot.add( segment );
+                }
+            }
+            return new SegmentReader( snapshot.iterator() );
+        }
+        finally
+        {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the output as a single string, prefer {@link #getReader()} for output which may be large
+     */
+    @Override
+    public String toString()
+    {
+        StringWriter writer = new StringWriter();
+        char[] buffer = new char[BUFFER_SIZE];
+        try ( Reader reader = getReader() )
+        {
+            int n;
+            while ( ( n = reader.read( buffer ) ) >= 0 )
+            {
+                writer.write( buffer, 0, n );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Cannot read output: " + e.getMessage(), e );
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Discards the output. The sinks which have been appended are closed as well. The temporary file is deleted once
+     * no other sink shares it. The sink is empty afterwards.
+     */
+    @Override
+    public void close()
+    {
+        Store s = lock();
+        try
+        {
+            for ( Segment segment : segments )
+            {
+                if ( segment instanceof SinkSegment )
+                {
+                    ( (SinkSegment) segment ).sink.close();
+                }
+                else if ( segment instanceof TextSegment )
+                {
+                    s.memorySize -= ( (TextSegment) segment ).text.length();
+                }
+            }
+            segments.clear();
+
+            s.sinks.remove( this );
+            if ( s.sinks.isEmpty() )
+            {
+                s.delete();
+            }
+            store = new Store( s.memoryLimit, this );
+        }
+        finally
+        {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the temporary file, or <code>null</code> if all output is in memory
+     */
+    File getSpillFile()
+    {
+        Store s = lock();
+        try
+        {
+            return s.file;
+        }
+        finally
+        {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the store of this sink, which may have been merged into another one.
+     *
+     * @return the locked store
+     */
+    private Store lock()
+    {
+        while ( true )
+        {
+            Store s = store;
+            while ( s.target != null )
+            {
+                s = s.target;
+            }
+            s.lock.lock();
+            if ( s.target == null )
+            {
+                store = s;
+                return s;
+            }
+            s.lock.unlock();
+        }
+    }
+
+    private boolean contains( OutputSink sink )
+    {
+        Store s = lock();
+        try
+        {
+            for ( Segment segment : segments )
+            {
+                if ( segment instanceof SinkSegment )
+                {
+                    OutputSink linked = ( (SinkSegment) segment ).sink;
+                    if ( linked == sink || linked.contains( sink ) )
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        finally
+        {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the text segments of this sink to the spill file, joining them with the preceding segments of the file.
+     */
+    private void spill( Store s )
+    {
+        for ( int i = 0; i < segments.size(); i++ )
+        {
+            Segment segment = segments.get( i );
+            if ( segment instanceof TextSegment )
+            {
+                long start = s.getPosition();
+                s.write( ( (TextSegment) segment ).text );
+                long end = s.getPosition();
+
+                Segment previous = i > 0 ? segments.get( i - 1 ) : null;
+                if ( previous instanceof FileSegment && ( (FileSegment) previous ).end == start )
+                {
+                    ( (FileSegment) previous ).end = end;
+                    segments.remove( i-- );
+                }
+                else
+                {
+                    segments.set( i, new FileSegment( start, end ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * The memory limit and the spill file of a group of linked sinks. The store guards the state of its sinks.
+     */
+    private static final class Store
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final int memoryLimit;
+
+        private final List<OutputSink> sinks = new ArrayList<>();
+
+        /**
+         * The number of characters of all text segments of the sinks.
+         */
+        private int memorySize;
+
+        private File file;
+
+        private CountingOutputStream stream;
+
+        private Writer writer;
+
+        /**
+         * The store the sinks have been moved to.
+         */
+        private volatile Store target;
+
+        Store( int memoryLimit, OutputSink sink )
+        {
+            this.memoryLimit = memoryLimit;
+            sinks.add( sink );
+        }
+
+        /**
+         * Moves all text segments of the sinks to the spill file.
+         */
+        void spill()
+        {
+            for ( OutputSink sink : sinks )
+            {
+                sink.spill( this );
+            }
+            memorySize = 0;
+        }
+
+        /**
+         * Takes over the sinks of another store, appending its spill file to this one.
+         */
+        void merge( Store other )
+        {
+            if ( other.file != null )
+            {
+                long base = getPosition();
+                other.flush();
+                try ( InputStream in = new FileInputStream( other.file ) )
+                {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int n;
+                    while ( ( n = in.read( buffer ) ) >= 0 )
+                    {
+                        stream.write( buffer, 0, n );
+                    }
+                }
+                catch ( IOException e )
+                {
+                    throw new IllegalStateException( "Cannot move output from " + other.file + " to " + file, e );
+                }
+                for ( OutputSink sink : other.sinks )
+                {
+                    for ( Segment segment : sink.segments )
+                    {
+                        if ( segment instanceof FileSegment )
+                        {
+                            ( (FileSegment) segment ).start += base;
+                            ( (FileSegment) segment ).end += base;
+                        }
+                    }
+                }
+                other.delete();
+            }
+
+            for ( OutputSink sink : other.sinks )
+            {
+                sink.store = this;
+            }
+            sinks.addAll( other.sinks );
+            memorySize += other.memorySize;
+            other.sinks.clear();
+            other.memorySize = 0;
+            other.target = this;
+        }
+
+        long getPosition()
+        {
+            try
+            {
+                if ( writer == null )
+                {
+                    file = File.createTempFile( "release-output", ".log" );
+                    stream = new CountingOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+                    writer = new OutputStreamWriter( stream, SPILL_CHARSET );
+                }
+                writer.flush();
+                return stream.count;
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalStateException( "Cannot write output to " + file, e );
+            }
+        }
+
+        void write( CharSequence text )
+        {
+            try
+            {
+                writer.append( text );
+            }
+            catch ( IOException e )
+            {
+                throw new IllegalStateException( "Cannot write output to " + file, e );
+            }
+        }
+
+        void flush()
+        {
+            if ( writer != null )
+            {
+                try
+                {
+                    writer.flush();
+                }
+                catch ( IOException e )
+                {
+                    throw new IllegalStateException( "Cannot write output to " + file, e );
+                }
+            }
+        }
+
+        /**
+         * Closes and deletes the spill file.
+         */
+        void delete()
+        {
+            if ( writer != null )
+            {
+                try
+                {
+                    writer.close();
+                }
+                catch ( IOException e )
+                {
+                    // the file is deleted anyway
+                }
+                file.delete();
+                writer = null;
+                stream = null;
+                file = null;
+            }
+        }
+    }
+
+    /**
+     * A part of the output.
+     */
+    private abstract static class Segment
+    {
+        abstract Reader open()
+            throws IOException;
+    }
+
+    /**
+     * Output in memory, which may still be appended to.
+     */
+    private static final class TextSegment
+        extends Segment
+    {
+        private final StringBuilder text;
+
+        TextSegment( CharSequence text )
+        {
+            this.text = new StringBuilder( text );
+        }
+
+        @Override
+        Reader open()
+        {
+            return new StringReader( text.toString() );
+        }
+    }
+
+    /**
+     * Output in the spill file of the store, which may be extended by the next spill or moved by a merge.
+     */
+    private static final class FileSegment
+        extends Segment
+    {
+        private long start;
+
+        private long end;
+
+        FileSegment( long start, long end )
+        {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        Reader open()
+        {
+            // only snapshots are read
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A range of a spill file as it has been when a reader was created.
+     */
+    private static final class SpilledSegment
+        extends Segment
+    {
+        private final Store store;
+
+        private final File file;
+
+        private final long start;
+
+        private final long end;
+
+        SpilledSegment( Store store, File file, long start, long end )
+        {
+            this.store = store;
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        Reader open()
+            throws IOException
+        {
+            InputStream in;
+            store.lock.lock();
+            try
+            {
+                if ( store.file != file )
+                {
+                    throw new IllegalStateException( "The output has been discarded or moved since the reader has "
+                        + "been created" );
+                }
+                in = new FileInputStream( file );
+            }
+            finally
+            {
+                store.lock.unlock();
+            }
+            try
+            {
+                long skipped = 0;
+                while ( skipped < start )
+                {
+                    skipped += in.skip( start - skipped );
+                }
+            }
+            catch ( IOException e )
+            {
+                in.close();
+                throw e;
+            }
+            return new InputStreamReader( new RangeInputStream( in, end - start ), SPILL_CHARSET );
+        }
+    }
+
+    private static final class SinkSegment
+        extends Segment
+    {
+        private final OutputSink sink;
+
+        SinkSegment( OutputSink sink )
+        {
+            this.sink = sink;
+        }
+
+        @Override
+        Reader open()
+        {
+            return sink.getReader();
+        }
+    }
+
+    /**
+     * Reads the segments one after another, a segment is opened once the previous one has been read.
+     */
+    private static final class SegmentReader
+        extends Reader
+    {
+        private final Iterator<Segment> segments;
+
+        private Reader current;
+
+        SegmentReader( Iterator<Segment> segments )
+        {
+            this.segments = segments;
+        }
+
+        @Override
+        public int read( char[] cbuf, int off, int len )
+            throws IOException
+        {
+            if ( len == 0 )
+            {
+                return 0;
+            }
+            while ( true )
+            {
+                if ( current == null )
+                {
+                    if ( !segments.hasNext() )
+                    {
+                        return -1;
+                    }
+                    current = segments.next().open();
+                }
+
+                int n = current.read( cbuf, off, len );
+                if ( n > 0 )
+                {
+                    return n;
+                }
+                current.close();
+                current = null;
+            }
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            if ( current != null )
+            {
+                current.close();
+                current = null;
+            }
+        }
+    }
+
+    private static final class CountingOutputStream
+        extends FilterOutputStream
+    {
+        private long count;
+
+        CountingOutputStream( OutputStream out )
+        {
+            super( out );
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            out.write( b );
+            count++;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            out.write( b, off, len );
+            count += len;
+        }
+    }
+
+    /**
+     * Reads up to a number of bytes from a stream.
+     */
+    private static final class RangeInputStream
+        extends FilterInputStream
+    {
+        private long remaining;
+
+        RangeInputStream( InputStream in, long length )
+        {
+            super( in );
+            this.remaining = length;
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            if ( remaining <= 0 )
+            {
+                return -1;
+            }
+            int b = in.read();
+            if ( b >= 0 )
+            {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len )
+            throws IOException
+        {
+            if ( remaining <= 0 )
+            {
+                return -1;
+            }
+            int n = in.read( b, off, (int) Math.min( len, remaining ) );
+            if ( n > 0 )
+            {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip( long n )
+            throws IOException
+        {
+            long skipped = in.skip( Math.min( n, remaining ) );
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available()
+            throws IOException
+        {
+            return (int) Math.min( in.available(), remaining );
+        }
+    }
+}
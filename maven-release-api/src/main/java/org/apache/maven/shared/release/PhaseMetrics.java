@@ -0,0 +1,258 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measurements of a single execution of a release phase. While the release manager executes a phase, the metrics of
+ * the phase are {@link #current() current} on the executing thread, so that the components used by the phase can
+ * record their work.
+ *
+ * @since 3.0.0
+ */
+public class PhaseMetrics
+{
+    private static final ThreadLocal<PhaseMetrics> CURRENT = new ThreadLocal<>();
+
+    private final String phase;
+
+    private volatile long wallTime;
+
+    private volatile long cpuTime = -1;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private final AtomicLong pomsProcessed = new AtomicLong();
+
+    private final AtomicLong scmCalls = new AtomicLong();
+
+    private final AtomicLong scmTime = new AtomicLong();
+
+    private final AtomicLong forkedBuilds = new AtomicLong();
+
+    private final AtomicLong forkedBuildTime = new AtomicLong();
+
+    private final List<BuildEvent> buildEvents = new CopyOnWriteArrayList<>();
+
+    private volatile BuildEventListener buildEventListener;
+
+    public PhaseMetrics( String phase )
+    {
+        this.phase = phase;
+    }
+
+    /**
+     * @return the metrics of the phase executed by the current thread, or <code>null</code> if there is none
+     */
+    public static PhaseMetrics current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes metrics current on this thread.
+     *
+     * @param metrics the metrics to record to, may be <code>null</code>
+     * @return the metrics which were current before, to be restored with {@link #restore(PhaseMetrics)}
+     */
+    public static PhaseMetrics attach( PhaseMetrics metrics )
+    {
+        PhaseMetrics previous = CURRENT.get();
+        CURRENT.set( metrics );
+        return previous;
+    }
+
+    /**
+     * @param previous the metrics returned by {@link #attach(PhaseMetrics)}
+     */
+    public static void restore( PhaseMetrics previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+
+    /**
+     * Records a POM which has been read and written by the current phase, if any.
+     *
+     * @param bytesRead the size of the POM read
+     * @param bytesWritten the size of the POM written
+     */
+    public static void recordPom( long bytesRead, long bytesWritten )
+    {
+        PhaseMetrics metrics = current();
+        if ( metrics != null )
+        {
+            metrics.pomsProcessed.incrementAndGet();
+            metrics.bytesRead.addAndGet( bytesRead );
+            metrics.bytesWritten.addAndGet( bytesWritten );
+        }
+    }
+
+    /**
+     * Records an SCM operation of the current phase, if any.
+     *
+     * @param nanos the duration of the operation
+     */
+    public static void recordScmCall( long nanos )
+    {
+        PhaseMetrics metrics = current();
+        if ( metrics != null )
+        {
+            metrics.scmCalls.incrementAndGet();
+            metrics.scmTime.addAndGet( nanos );
+        }
+    }
+
+    /**
+     * Records a Maven build executed by the current phase, if any.
+     *
+     * @param nanos the duration of the build
+     */
+    public static void recordForkedBuild( long nanos )
+    {
+        PhaseMetrics metrics = current();
+        if ( metrics != null )
+        {
+            metrics.forkedBuilds.incrementAndGet();
+            metrics.forkedBuildTime.addAndGet( nanos );
+        }
+    }
+
+    /**
+     * @param listener the listener to inform about the build events of the phase, may be <code>null</code>
+     */
+    public void setBuildEventListener( BuildEventListener listener )
+    {
+        this.buildEventListener = listener;
+    }
+
+    /**
+     * Records an event of a Maven build executed by the phase and passes it to the listener, if any.
+     *
+     * @param event the event
+     */
+    public void addBuildEvent( BuildEvent event )
+    {
+        buildEvents.add( event );
+        BuildEventListener listener = buildEventListener;
+        if ( listener != null )
+        {
+            listener.buildEvent( this, event );
+        }
+    }
+
+    /**
+     * @return the events of the Maven builds executed by the phase, in the order they happened
+     */
+    public List<BuildEvent> getBuildEvents()
+    {
+        return Collections.unmodifiableList( buildEvents );
+    }
+
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return the wall clock time of the phase in nanoseconds
+     */
+    public long getWallTime()
+    {
+        return wallTime;
+    }
+
+    public void setWallTime( long wallTime )
+    {
+        this.wallTime = wallTime;
+    }
+
+    /**
+     * @return the CPU time of the thread executing the phase in nanoseconds, <code>-1</code> if not supported
+     */
+    public long getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    public void setCpuTime( long cpuTime )
+    {
+        this.cpuTime = cpuTime;
+    }
+
+    /**
+     * @return the number of bytes of the POMs read
+     */
+    public long getBytesRead()
+    {
+        return bytesRead.get();
+    }
+
+    /**
+     * @return the number of bytes of the POMs written
+     */
+    public long getBytesWritten()
+    {
+        return bytesWritten.get();
+    }
+
+    public long getPomsProcessed()
+    {
+        return pomsProcessed.get();
+    }
+
+    public long getScmCalls()
+    {
+        return scmCalls.get();
+    }
+
+    /**
+     * @return the time spent in SCM operations in nanoseconds
+     */
+    public long getScmTime()
+    {
+        return scmTime.get();
+    }
+
+    public long getForkedBuilds()
+    {
+        return forkedBuilds.get();
+    }
+
+    /**
+     * @return the time spent in Maven builds in nanoseconds
+     */
+    public long getForkedBuildTime()
+    {
+        return forkedBuildTime.get();
+    }
+}
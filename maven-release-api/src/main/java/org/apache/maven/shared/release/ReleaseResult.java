@@ -21,6 +21,10 @@ package org.apache.maven.shared.release;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author Edwin Punzalan
@@ -29,7 +33,9 @@ public class ReleaseResult
 {
     public static final int UNDEFINED = -1, SUCCESS = 0, ERROR = 1;
 
-    private StringBuilder stdOut = new StringBuilder();
+    private final OutputSink output;
+
+    private final List<PhaseMetrics> phaseMetrics = new CopyOnWriteArrayList<>();
 
     private int resultCode = UNDEFINED;
 
@@ -39,31 +45,45 @@ public class ReleaseResult
 
     private static final String LS = System.getProperty( "line.separator" );
 
+    public ReleaseResult()
+    {
+        this( new OutputSink() );
+    }
+
+    /**
+     * @param output the sink to collect the output in
+     * @since 3.0.0
+     */
+    public ReleaseResult( OutputSink output )
+    {
+        this.output = output;
+    }
+
     public void appendInfo( String message )
     {
-        stdOut.append( "[INFO] " ).append( message ).append( LS );
+        output.append( "[INFO] " + message + LS );
     }
 
     public void appendWarn( String message )
     {
-        stdOut.append( "[WARN] " ).append( message ).append( LS );
+        output.append( "[WARN] " + message + LS );
     }
 
     public void appendDebug( String message )
     {
-        stdOut.append( "[DEBUG] " ).append( message ).append( LS );
+        output.append( "[DEBUG] " + message + LS );
     }
 
     public void appendDebug( String message, Exception e )
     {
         appendDebug( message );
 
-        stdOut.append( getStackTrace( e ) ).append( LS );
+        output.append( getStackTrace( e ) + LS );
     }
 
     public void appendError( String message )
     {
-        stdOut.append( "[ERROR] " ).append( message ).append( LS );
+        output.append( "[ERROR] " + message + LS );
 
         setResultCode( ERROR );
     }
@@ -77,17 +97,78 @@ public class ReleaseResult
     {
         appendError( message );
 
-        stdOut.append( getStackTrace( e ) ).append( LS );
+        output.append( getStackTrace( e ) + LS );
     }
 
     public void appendOutput( String message )
     {
-        stdOut.append( message );
+        output.append( String.valueOf( message ) );
     }
 
+    /**
+     * Appends the output of another result without copying it.
+     *
+     * @param result the result to append the output of
+     * @since 3.0.0
+     */
+    public void appendOutput( ReleaseResult result )
+    {
+        output.append( result.output );
+    }
+
+    /**
+     * @return the output as a single string, prefer {@link #getOutputReader()} for output which may be large
+     */
     public String getOutput()
     {
-        return stdOut.toString();
+        return output.toString();
+    }
+
+    /**
+     * @return a reader of the output
+     * @since 3.0.0
+     */
+    public Reader getOutputReader()
+    {
+        return output.getReader();
+    }
+
+    /**
+     * @return the sink collecting the output
+     * @since 3.0.0
+     */
+    public OutputSink getOutputSink()
+    {
+        return output;
+    }
+
+    /**
+     * Discards the output, which may have been written to a temporary file. Must be called once a result which is not
+     * returned to the caller is no longer needed.
+     *
+     * @since 3.0.0
+     */
+    public void dispose()
+    {
+        output.close();
+    }
+
+    /**
+     * @param metrics the metrics of an executed phase
+     * @since 3.0.0
+     */
+    public void addPhaseMetrics( PhaseMetrics metrics )
+    {
+        phaseMetrics.add( metrics );
+    }
+
+    /**
+     * @return the metrics of the executed phases, in the order the phases have completed
+     * @since 3.0.0
+     */
+    public List<PhaseMetrics> getPhaseMetrics()
+    {
+        return Collections.unmodifiableList( phaseMetrics );
     }
 
     public int getResultCode()
@@ -361,6 +361,14 @@ public interface ReleaseDescriptor
      */
     String getScmTagNameFormat();
 
+    /**
+     * Get the number of threads used to rewrite the POMs of the reactor, {@code 1} means sequential.
+     * 
+     * @return int
+     * @since 3.0.0
+     */
+    int getPomTransformThreads();
+
     /**
      * Get the role-hint for the NamingPolicy implementation used to calculate the project branch and tag names.
      * 
@@ -414,6 +422,111 @@ public interface ReleaseDescriptor
      */
     Scm getOriginalScmInfo( String projectKey );
 
+    /**
+     * Get whether to write the metrics of the executed phases to <code>release-metrics.json</code> next to
+     * <code>release.properties</code>.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isMetricsReport();
+
+    /**
+     * Get whether to run the goals with a number of threads derived from the reactor size, the available processors
+     * and the physical memory, unless the additional arguments set one.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isAdaptiveThreads();
+
+    /**
+     * Get whether to append the changes of the release configuration to a journal next to
+     * <code>release.properties</code>, which is compacted into it once the release has been prepared.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isJournalReleaseProperties();
+
+    /**
+     * Get whether to perform the release with the outputs of the preparation goals when the tagged sources match the
+     * sources they have been built from.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isReuseBuild();
+
+    /**
+     * Get the fingerprint of the sources the preparation goals have been run on.
+     *
+     * @return the fingerprint, or <code>null</code> if the outputs of the preparation goals are not to be reused
+     * @since 3.0.0
+     */
+    String getSourceFingerprint();
+
+    /**
+     * Get the fingerprint of the outputs of the preparation goals.
+     *
+     * @return the fingerprint, or <code>null</code> if the outputs of the preparation goals are not to be reused
+     * @since 3.0.0
+     */
+    String getOutputFingerprint();
+
+    /**
+     * Get whether to keep the commits and the tag of the release local until the end of the preparation, then push
+     * them at once.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isDeferPush();
+
+    /**
+     * Get the revision the local commits of the release are based on while their push is deferred.
+     *
+     * @return the revision, or <code>null</code> if nothing is waiting to be pushed
+     * @since 3.0.0
+     */
+    String getDeferredPushBase();
+
+    /**
+     * Get the number of projects whose commits are pushed together when committing by project.
+     *
+     * @return the number of projects, <code>0</code> to push the commits of all projects at once
+     * @since 3.0.0
+     */
+    int getCommitByProjectBatchSize();
+
+    /**
+     * Get whether to check for local modifications in the directories of the reactor projects and the
+     * {@link #getCheckModificationRoots() additional roots} only.
+     *
+     * @return boolean
+     * @since 3.0.0
+     */
+    boolean isScopedCheckModifications();
+
+    /**
+     * Get the directories, relative to the working directory, to check for local modifications in addition to the
+     * directories of the reactor projects.
+     *
+     * @return List
+     * @since 3.0.0
+     */
+    List<String> getCheckModificationRoots();
+
+    /**
+     * Get the checksum of the POM the phase in progress has written for a project, if a previous run of the phase
+     * has completed the project.
+     *
+     * @param projectKey the versionless key of the project
+     * @return the checksum, or <code>null</code> if the project has not been completed
+     * @since 3.0.0
+     */
+    String getProjectCheckpoint( String projectKey );
+
     // Modifiable
     void addDependencyOriginalVersion( String versionlessKey, String string );
 
@@ -433,5 +546,20 @@ public interface ReleaseDescriptor
 
     void setScmSourceUrl( String scmUrl );
 
+    void setSourceFingerprint( String sourceFingerprint );
+
+    void setOutputFingerprint( String outputFingerprint );
+
+    void setDeferredPushBase( String deferredPushBase );
+
+    /**
+     * Record that the phase in progress has completed a project. Ignored unless the release manager runs the phase.
+     *
+     * @param projectKey the versionless key of the project
+     * @param checksum the checksum of the POM written for the project
+     * @since 3.0.0
+     */
+    void addProjectCheckpoint( String projectKey, String checksum );
+
 
 }
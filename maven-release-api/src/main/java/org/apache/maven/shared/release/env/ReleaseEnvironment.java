@@ -48,4 +48,17 @@ public interface ReleaseEnvironment
      * @since 2.4
      */
     Locale getLocale();
+
+    /**
+     * @return the time in minutes an execution of goals may take, <code>0</code> for no limit
+     * @since 3.0.0
+     */
+    int getTimeout();
+
+    /**
+     * @return the time in seconds an execution of goals may run without writing any output, <code>0</code> for no
+     *         limit
+     * @since 3.0.0
+     */
+    int getInactivityTimeout();
 }
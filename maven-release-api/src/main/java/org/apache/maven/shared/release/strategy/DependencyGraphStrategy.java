@@ -0,0 +1,44 @@
+package org.apache.maven.shared.release.strategy;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strategy which declares the prerequisites of its prepare phases, so that independent phases can run concurrently.
+ * 
+ * The prepare phases remain the phases to execute. A phase without an entry in the dependencies depends on the phase
+ * before it, like with a plain {@link Strategy}. Only phases implementing
+ * {@link org.apache.maven.shared.release.phase.ReadOnlyPhase} run concurrently, any other phase runs alone once its
+ * prerequisites have completed.
+ * 
+ * @since 3.0.0
+ */
+public interface DependencyGraphStrategy
+    extends Strategy
+{
+    /**
+     * The prerequisites of the prepare phases, keyed by phase. 
+     * 
+     * @return the phases each phase depends on, or {@code null} to execute the prepare phases one after another
+     */
+    Map<String, List<String>> getPreparePhaseDependencies();
+}
@@ -20,22 +20,36 @@ package org.apache.maven.shared.release;
  */
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.config.JournaledReleaseDescriptorStore;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder.BuilderReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStore;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStoreException;
 import org.apache.maven.shared.release.config.ReleaseUtils;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.phase.ProjectCheckpoints;
+import org.apache.maven.shared.release.phase.ReadOnlyPhase;
 import org.apache.maven.shared.release.phase.ReleasePhase;
 import org.apache.maven.shared.release.phase.ResourceGenerator;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.strategy.DependencyGraphStrategy;
 import org.apache.maven.shared.release.strategy.Strategy;
+import org.apache.maven.shared.release.transform.PomCache;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
@@ -66,8 +80,31 @@ public class DefaultReleaseManager
     @Requirement( hint = "properties" )
     private ReleaseDescriptorStore configStore;
 
+    /**
+     * The configuration storage of releases that journal their properties.
+     */
+    @Requirement( hint = "journaled" )
+    private ReleaseDescriptorStore journaledConfigStore;
+
+    /**
+     * The POMs parsed during the current release.
+     */
+    @Requirement
+    private PomCache pomCache;
+
+    /**
+     * The tool giving the SCM repositories of the current release.
+     */
+    @Requirement
+    private ScmRepositoryConfigurator scmRepositoryConfigurator;
+
     private static final int PHASE_SKIP = 0, PHASE_START = 1, PHASE_END = 2, GOAL_END = 12, ERROR = 99;
 
+    /**
+     * The minimum time between two saves of the checkpoints of a running phase, in nanoseconds.
+     */
+    private static final long CHECKPOINT_INTERVAL = TimeUnit.SECONDS.toNanos( 1 );
+
     @Override
     public ReleaseResult prepareWithResult( ReleasePrepareRequest prepareRequest )
     {
@@ -97,7 +134,15 @@ public class DefaultReleaseManager
     public void prepare( ReleasePrepareRequest prepareRequest )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        prepare( prepareRequest, new ReleaseResult() );
+        ReleaseResult result = new ReleaseResult();
+        try
+        {
+            prepare( prepareRequest, result );
+        }
+        finally
+        {
+            result.dispose();
+        }
     }
 
     private void prepare( ReleasePrepareRequest prepareRequest, ReleaseResult result )
@@ -141,9 +186,33 @@ public class DefaultReleaseManager
 
         goalStart( prepareRequest.getReleaseManagerListener(), "prepare", preparePhases );
 
-        // Later, it would be a good idea to introduce a proper workflow tool so that the release can be made up of a
-        // more flexible set of steps.
+        pomCache.clear();
 
+        Map<String, List<String>> dependencies = getPreparePhaseDependencies( releaseStrategy );
+        try
+        {
+            if ( dependencies != null )
+            {
+                prepareConcurrently( prepareRequest, result, config, preparePhases, dependencies );
+            }
+            else
+            {
+                prepareSequentially( prepareRequest, result, config, preparePhases );
+            }
+        }
+        finally
+        {
+            writeMetricsReport( config, "prepare", result );
+            releaseEnded();
+        }
+
+        updateListener( prepareRequest.getReleaseManagerListener(), "prepare", GOAL_END );
+    }
+
+    private void prepareSequentially( ReleasePrepareRequest prepareRequest, ReleaseResult result,
+                                      BuilderReleaseDescriptor config, List<String> preparePhases )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
         String completedPhase = config.getCompletedPhase();
         int index = preparePhases.indexOf( completedPhase );
 
@@ -176,34 +245,40 @@ public class DefaultReleaseManager
 
             updateListener( prepareRequest.getReleaseManagerListener(), name, PHASE_START );
 
+            // checkpoints of another phase are worthless, those of this phase let a resumed run skip projects
+            if ( !name.equals( config.getCheckpointPhase() ) )
+            {
+                config.clearProjectCheckpoints();
+                config.setCheckpointPhase( name );
+            }
+
             ReleaseResult phaseResult = null;
+            PhaseMetrics metrics = createMetrics( prepareRequest.getReleaseManagerListener(), name );
             try
             {
-                if ( BooleanUtils.isTrue( prepareRequest.getDryRun() ) )
-                {
-                    phaseResult = phase.simulate( config,
-                                                  prepareRequest.getReleaseEnvironment(),
-                                                  prepareRequest.getReactorProjects() );
-                }
-                else
-                {
-                    phaseResult = phase.execute( config,
-                                                 prepareRequest.getReleaseEnvironment(),
-                                                 prepareRequest.getReactorProjects() );
-                }
+                phaseResult = executePhase( phase, prepareRequest, config, metrics );
+            }
+            catch ( ReleaseExecutionException | ReleaseFailureException | RuntimeException e )
+            {
+                writeCheckpoints( config );
+                throw e;
             }
             finally
             {
                 if ( result != null && phaseResult != null )
                 {
-                    result.appendOutput(  phaseResult.getOutput() );
+                    result.appendOutput( phaseResult );
                 }
+                reportMetrics( prepareRequest.getReleaseManagerListener(), result, metrics );
             }
 
             config.setCompletedPhase( name );
+            config.addCompletedPhase( name );
+            config.setCheckpointPhase( null );
+            config.clearProjectCheckpoints();
             try
             {
-                configStore.write( config );
+                getConfigStore( config ).write( config );
             }
             catch ( ReleaseDescriptorStoreException e )
             {
@@ -213,8 +288,292 @@ public class DefaultReleaseManager
 
             updateListener( prepareRequest.getReleaseManagerListener(), name, PHASE_END );
         }
+    }
 
-        updateListener( prepareRequest.getReleaseManagerListener(), "prepare", GOAL_END );
+    private void prepareConcurrently( final ReleasePrepareRequest prepareRequest, final ReleaseResult result,
+                                      final BuilderReleaseDescriptor config, final List<String> preparePhases,
+                                      Map<String, List<String>> dependencies )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        final ReleaseManagerListener listener = prepareRequest.getReleaseManagerListener();
+
+
+        // a release prepared sequentially has completed all phases up to the completed phase
+        Set<String> completedPhases = new LinkedHashSet<>(
+            preparePhases.subList( 0, preparePhases.indexOf( config.getCompletedPhase() ) + 1 ) );
+        completedPhases.addAll( config.getCompletedPhases() );
+        completedPhases.retainAll( preparePhases );
+
+        for ( String name : preparePhases )
+        {
+            if ( completedPhases.contains( name ) )
+            {
+                updateListener( listener, name, PHASE_SKIP );
+            }
+            else if ( !releasePhases.containsKey( name ) )
+            {
+                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+            }
+        }
+
+        Set<String> readOnlyPhases = new HashSet<>();
+        for ( String name : preparePhases )
+        {
+            if ( releasePhases.get( name ) instanceof ReadOnlyPhase )
+            {
+                readOnlyPhases.add( name );
+            }
+        }
+
+        PhaseScheduler scheduler = new PhaseScheduler( preparePhases, dependencies, readOnlyPhases );
+
+        if ( completedPhases.size() == preparePhases.size() )
+        {
+            logInfo( result, "Release preparation already completed. You can now continue with release:perform, "
+                + "or start again using the -Dresume=false flag" );
+        }
+        else if ( !completedPhases.isEmpty() )
+        {
+            logInfo( result, "Resuming release, skipping the completed phases " + completedPhases );
+        }
+
+        // checkpoints cannot tell apart the projects of concurrent phases
+        config.setCheckpointPhase( null );
+        config.clearProjectCheckpoints();
+
+        // the metrics of the started phases, reported on this thread once a phase is completed
+        final Map<String, PhaseMetrics> phaseMetrics = Collections.synchronizedMap(
+            new HashMap<String, PhaseMetrics>() );
+
+        try
+        {
+            scheduler.run( completedPhases, new PhaseScheduler.PhaseRunner()
+            {
+                @Override
+                public void start( String name )
+                {
+                    updateListener( listener, name, PHASE_START );
+                    phaseMetrics.put( name, createMetrics( listener, name ) );
+                }
+
+                @Override
+                public ReleaseResult execute( String name )
+                    throws ReleaseExecutionException, ReleaseFailureException
+                {
+                    return executePhase( releasePhases.get( name ), prepareRequest, config,
+                                         phaseMetrics.get( name ) );
+                }
+
+                @Override
+                public void complete( String name, ReleaseResult phaseResult, boolean idle )
+                    throws ReleaseExecutionException
+                {
+                    if ( result != null && phaseResult != null )
+                    {
+                        result.appendOutput( phaseResult );
+                    }
+                    reportMetrics( listener, result, phaseMetrics.remove( name ) );
+
+                    config.addCompletedPhase( name );
+                    String completedPhase = getLastCompletedPhase( preparePhases, config.getCompletedPhases() );
+                    if ( completedPhase != null )
+                    {
+                        config.setCompletedPhase( completedPhase );
+                    }
+
+                    // running phases may modify the configuration while it is written
+                    if ( idle )
+                    {
+                        try
+                        {
+                            getConfigStore( config ).write( config );
+                        }
+                        catch ( ReleaseDescriptorStoreException e )
+                        {
+                            throw new ReleaseExecutionException( "Error writing release properties after completing "
+                                + "phase", e );
+                        }
+                    }
+
+                    updateListener( listener, name, PHASE_END );
+                }
+
+                @Override
+                public void fail( String name, Exception failure )
+                {
+                    if ( result != null )
+                    {
+                        result.appendError( "Phase '" + name + "' failed: " + failure.getMessage() );
+                    }
+
+                    PhaseMetrics metrics = phaseMetrics.remove( name );
+                    if ( metrics != null )
+                    {
+                        reportMetrics( listener, result, metrics );
+                    }
+                }
+            } );
+        }
+        catch ( ReleaseExecutionException | ReleaseFailureException | RuntimeException e )
+        {
+            // the phases which have not finished
+            for ( PhaseMetrics metrics : phaseMetrics.values() )
+            {
+                reportMetrics( listener, result, metrics );
+            }
+            writeCheckpoints( config );
+            throw e;
+        }
+    }
+
+    /**
+     * @return the last phase of the phases which have been completed without a gap, or <code>null</code> if the first
+     *         phase has not been completed
+     */
+    private static String getLastCompletedPhase( List<String> phases, Set<String> completedPhases )
+    {
+        String lastCompletedPhase = null;
+        for ( String name : phases )
+        {
+            if ( !completedPhases.contains( name ) )
+            {
+                break;
+            }
+            lastCompletedPhase = name;
+        }
+        return lastCompletedPhase;
+    }
+
+    private ReleaseResult executePhase( ReleasePhase phase, ReleasePrepareRequest prepareRequest,
+                                        BuilderReleaseDescriptor config, PhaseMetrics metrics )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        return executePhase( phase, config, prepareRequest.getReleaseEnvironment(),
+                             prepareRequest.getReactorProjects(), prepareRequest.getDryRun(), metrics );
+    }
+
+    /**
+     * Executes or simulates a phase with its metrics current on this thread. The CPU time only covers this thread,
+     * not the threads or processes the phase delegates to.
+     */
+    private ReleaseResult executePhase( ReleasePhase phase, ReleaseDescriptor config,
+                                        ReleaseEnvironment releaseEnvironment, List<MavenProject> reactorProjects,
+                                        Boolean dryRun, PhaseMetrics metrics )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        PhaseMetrics previous = PhaseMetrics.attach( metrics );
+        ProjectCheckpoints.Writer previousWriter = ProjectCheckpoints.attach( new CheckpointWriter() );
+        long start = System.nanoTime();
+        long cpuStart = getCurrentThreadCpuTime();
+        try
+        {
+            if ( BooleanUtils.isTrue( dryRun ) )
+            {
+                return phase.simulate( config, releaseEnvironment, reactorProjects );
+            }
+            else
+            {
+                return phase.execute( config, releaseEnvironment, reactorProjects );
+            }
+        }
+        finally
+        {
+            metrics.setWallTime( System.nanoTime() - start );
+            if ( cpuStart >= 0 )
+            {
+                metrics.setCpuTime( getCurrentThreadCpuTime() - cpuStart );
+            }
+            ProjectCheckpoints.restore( previousWriter );
+            PhaseMetrics.restore( previous );
+        }
+    }
+
+    /**
+     * @return the CPU time of the current thread in nanoseconds, or <code>-1</code> if it is not measured
+     */
+    private static long getCurrentThreadCpuTime()
+    {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if ( threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled() )
+        {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+    private static PhaseMetrics createMetrics( ReleaseManagerListener listener, String name )
+    {
+        PhaseMetrics metrics = new PhaseMetrics( name );
+        if ( listener instanceof BuildEventListener )
+        {
+            metrics.setBuildEventListener( (BuildEventListener) listener );
+        }
+        return metrics;
+    }
+
+    private void reportMetrics( ReleaseManagerListener listener, ReleaseResult result, PhaseMetrics metrics )
+    {
+        if ( result != null )
+        {
+            result.addPhaseMetrics( metrics );
+        }
+        if ( listener instanceof ReleaseManagerMetricsListener )
+        {
+            ( (ReleaseManagerMetricsListener) listener ).phaseMetrics( metrics );
+        }
+    }
+
+    private void writeMetricsReport( ReleaseDescriptor config, String goal, ReleaseResult result )
+    {
+        if ( config.isMetricsReport() && config.getWorkingDirectory() != null )
+        {
+            File file = new File( config.getWorkingDirectory(), PhaseMetricsReport.FILE_NAME );
+            try
+            {
+                PhaseMetricsReport.write( file, goal, result.getPhaseMetrics() );
+            }
+            catch ( IOException e )
+            {
+                getLogger().warn( "Error writing " + file.getName() + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Saves the progress of a running or failed phase, so resuming the release continues with the remaining phases
+     * and projects.
+     */
+    private void writeCheckpoints( ReleaseDescriptor config )
+    {
+        try
+        {
+            getConfigStore( config ).write( config );
+        }
+        catch ( ReleaseDescriptorStoreException e )
+        {
+            getLogger().warn( "Error writing the progress of the release: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Saves the checkpoints of a running phase once per {@link #CHECKPOINT_INTERVAL}, so a release which is killed
+     * only repeats the projects of the last interval when resumed.
+     */
+    private class CheckpointWriter
+        implements ProjectCheckpoints.Writer
+    {
+        private long lastWrite = System.nanoTime();
+
+        @Override
+        public synchronized void write( ReleaseDescriptor releaseDescriptor )
+        {
+            long now = System.nanoTime();
+            if ( now - lastWrite >= CHECKPOINT_INTERVAL )
+            {
+                lastWrite = now;
+                writeCheckpoints( releaseDescriptor );
+            }
+        }
     }
 
     @Override
@@ -230,20 +589,29 @@ public class DefaultReleaseManager
 
         goalStart( rollbackRequest.getReleaseManagerListener(), "rollback", rollbackPhases );
 
-        for ( String name : rollbackPhases )
-        {
-            ReleasePhase phase = releasePhases.get( name );
+        pomCache.clear();
 
-            if ( phase == null )
+        try
+        {
+            for ( String name : rollbackPhases )
             {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                ReleasePhase phase = releasePhases.get( name );
 
-            updateListener( rollbackRequest.getReleaseManagerListener(), name, PHASE_START );
-            phase.execute( releaseDescriptor,
-                           rollbackRequest.getReleaseEnvironment(),
-                           rollbackRequest.getReactorProjects() );
-            updateListener( rollbackRequest.getReleaseManagerListener(), name, PHASE_END );
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
+
+                updateListener( rollbackRequest.getReleaseManagerListener(), name, PHASE_START );
+                dispose( phase.execute( releaseDescriptor,
+                                        rollbackRequest.getReleaseEnvironment(),
+                                        rollbackRequest.getReactorProjects() ) );
+                updateListener( rollbackRequest.getReleaseManagerListener(), name, PHASE_END );
+            }
+        }
+        finally
+        {
+            releaseEnded();
         }
 
         //call release:clean so that resume will not be possible anymore after a rollback
@@ -280,7 +648,15 @@ public class DefaultReleaseManager
     public void perform( ReleasePerformRequest performRequest )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        perform( performRequest, new ReleaseResult() );
+        ReleaseResult result = new ReleaseResult();
+        try
+        {
+            perform( performRequest, result );
+        }
+        finally
+        {
+            result.dispose();
+        }
     }
 
     private void perform( ReleasePerformRequest performRequest, ReleaseResult result )
@@ -296,6 +672,31 @@ public class DefaultReleaseManager
 
         goalStart( performRequest.getReleaseManagerListener(), "perform", performPhases );
 
+        pomCache.clear();
+
+        try
+        {
+            performPhases( performRequest, result, releaseDescriptor, performPhases );
+        }
+        finally
+        {
+            writeMetricsReport( releaseDescriptor, "perform", result );
+            releaseEnded();
+        }
+
+        if ( BooleanUtils.isNotFalse( performRequest.getClean() ) )
+        {
+            // call release:clean so that resume will not be possible anymore after a perform
+            clean( performRequest );
+        }
+
+        updateListener( performRequest.getReleaseManagerListener(), "perform", GOAL_END );
+    }
+
+    private void performPhases( ReleasePerformRequest performRequest, ReleaseResult result,
+                                ReleaseDescriptor releaseDescriptor, List<String> performPhases )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
         for ( String name : performPhases )
         {
             ReleasePhase phase = releasePhases.get( name );
@@ -308,39 +709,24 @@ public class DefaultReleaseManager
             updateListener( performRequest.getReleaseManagerListener(), name, PHASE_START );
 
             ReleaseResult phaseResult = null;
+            PhaseMetrics metrics = createMetrics( performRequest.getReleaseManagerListener(), name );
             try
             {
-                if ( BooleanUtils.isTrue( performRequest.getDryRun() ) )
-                {
-                    phaseResult = phase.simulate( releaseDescriptor,
-                                                 performRequest.getReleaseEnvironment(),
-                                                 performRequest.getReactorProjects() );
-                }
-                else
-                {
-                    phaseResult = phase.execute( releaseDescriptor,
-                                                 performRequest.getReleaseEnvironment(),
-                                                 performRequest.getReactorProjects() );
-                }
+                phaseResult = executePhase( phase, releaseDescriptor, performRequest.getReleaseEnvironment(),
+                                            performRequest.getReactorProjects(), performRequest.getDryRun(),
+                                            metrics );
             }
             finally
             {
                 if ( result != null && phaseResult != null )
                 {
-                    result.appendOutput( phaseResult.getOutput() );
+                    result.appendOutput( phaseResult );
                 }
+                reportMetrics( performRequest.getReleaseManagerListener(), result, metrics );
             }
 
             updateListener( performRequest.getReleaseManagerListener(), name, PHASE_END );
         }
-
-        if ( BooleanUtils.isNotFalse( performRequest.getClean() ) )
-        {
-            // call release:clean so that resume will not be possible anymore after a perform
-            clean( performRequest );
-        }
-
-        updateListener( performRequest.getReleaseManagerListener(), "perform", GOAL_END );
     }
 
     @Override
@@ -378,30 +764,39 @@ public class DefaultReleaseManager
 
         goalStart( branchRequest.getReleaseManagerListener(), "branch", branchPhases );
 
-        for ( String name : branchPhases )
-        {
-            ReleasePhase phase = releasePhases.get( name );
+        pomCache.clear();
 
-            if ( phase == null )
+        try
+        {
+            for ( String name : branchPhases )
             {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                ReleasePhase phase = releasePhases.get( name );
 
-            updateListener( branchRequest.getReleaseManagerListener(), name, PHASE_START );
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
 
-            if ( dryRun )
-            {
-                phase.simulate( releaseDescriptor,
-                                branchRequest.getReleaseEnvironment(),
-                                branchRequest.getReactorProjects() );
-            }
-            else // getDryRun is null or FALSE
-            {
-                phase.execute( releaseDescriptor,
-                               branchRequest.getReleaseEnvironment(),
-                               branchRequest.getReactorProjects() );
+                updateListener( branchRequest.getReleaseManagerListener(), name, PHASE_START );
+
+                if ( dryRun )
+                {
+                    dispose( phase.simulate( releaseDescriptor,
+                                             branchRequest.getReleaseEnvironment(),
+                                             branchRequest.getReactorProjects() ) );
+                }
+                else // getDryRun is null or FALSE
+                {
+                    dispose( phase.execute( releaseDescriptor,
+                                            branchRequest.getReleaseEnvironment(),
+                                            branchRequest.getReactorProjects() ) );
+                }
+                updateListener( branchRequest.getReleaseManagerListener(), name, PHASE_END );
             }
-            updateListener( branchRequest.getReleaseManagerListener(), name, PHASE_END );
+        }
+        finally
+        {
+            releaseEnded();
         }
 
         if ( !dryRun )
@@ -446,20 +841,29 @@ public class DefaultReleaseManager
 
         goalStart( updateVersionsRequest.getReleaseManagerListener(), "updateVersions", updateVersionsPhases );
 
-        for ( String name : updateVersionsPhases )
-        {
-            ReleasePhase phase = releasePhases.get( name );
+        pomCache.clear();
 
-            if ( phase == null )
+        try
+        {
+            for ( String name : updateVersionsPhases )
             {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                ReleasePhase phase = releasePhases.get( name );
 
-            updateListener( updateVersionsRequest.getReleaseManagerListener(), name, PHASE_START );
-            phase.execute( releaseDescriptor,
-                           updateVersionsRequest.getReleaseEnvironment(),
-                           updateVersionsRequest.getReactorProjects() );
-            updateListener( updateVersionsRequest.getReleaseManagerListener(), name, PHASE_END );
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
+
+                updateListener( updateVersionsRequest.getReleaseManagerListener(), name, PHASE_START );
+                dispose( phase.execute( releaseDescriptor,
+                                        updateVersionsRequest.getReleaseEnvironment(),
+                                        updateVersionsRequest.getReactorProjects() ) );
+                updateListener( updateVersionsRequest.getReleaseManagerListener(), name, PHASE_END );
+            }
+        }
+        finally
+        {
+            releaseEnded();
         }
 
         clean( updateVersionsRequest );
@@ -496,7 +900,8 @@ public class DefaultReleaseManager
         try
         {
             updateListener( listener, "verify-release-configuration", PHASE_START );
-            BuilderReleaseDescriptor descriptor = ReleaseUtils.buildReleaseDescriptor( configStore.read( builder ) );
+            ReleaseDescriptorStore store = getConfigStore( ReleaseUtils.buildReleaseDescriptor( builder ) );
+            BuilderReleaseDescriptor descriptor = ReleaseUtils.buildReleaseDescriptor( store.read( builder ) );
             updateListener( listener, "verify-release-configuration", PHASE_END );
             return descriptor;
         }
@@ -529,7 +934,9 @@ public class DefaultReleaseManager
         ReleaseDescriptor releaseDescriptor =
             ReleaseUtils.buildReleaseDescriptor( cleanRequest.getReleaseDescriptorBuilder() );
 
-        configStore.delete( releaseDescriptor );
+        getConfigStore( releaseDescriptor ).delete( releaseDescriptor );
+
+        pomCache.clear();
 
         Strategy releaseStrategy = getStrategy( releaseDescriptor.getReleaseStrategyId() );
 
@@ -543,13 +950,49 @@ public class DefaultReleaseManager
             
             if ( phase instanceof ResourceGenerator )
             {
-                ( (ResourceGenerator) phase ).clean( cleanRequest.getReactorProjects() );
+                dispose( ( (ResourceGenerator) phase ).clean( cleanRequest.getReactorProjects() ) );
             }
         }
 
         updateListener( cleanRequest.getReleaseManagerListener(), "cleanup", PHASE_END );
     }
 
+    /**
+     * The journaled store is used if the release asks for it, and to resume a release that has left a journal.
+     */
+    private ReleaseDescriptorStore getConfigStore( ReleaseDescriptor releaseDescriptor )
+    {
+        if ( JournaledReleaseDescriptorStore.isJournaled( releaseDescriptor ) )
+        {
+            return journaledConfigStore;
+        }
+        return configStore;
+    }
+
+    /**
+     * Drops what was cached for the goal that has ended, the decrypted credentials and encrypted passwords in
+     * particular.
+     */
+    private void releaseEnded()
+    {
+        scmRepositoryConfigurator.clearCache();
+        if ( journaledConfigStore instanceof JournaledReleaseDescriptorStore )
+        {
+            ( (JournaledReleaseDescriptorStore) journaledConfigStore ).clearCache();
+        }
+    }
+
+    /**
+     * Discards the output of a phase which is not reported.
+     */
+    private static void dispose( ReleaseResult result )
+    {
+        if ( result != null )
+        {
+            result.dispose();
+        }
+    }
+
     void setConfigStore( ReleaseDescriptorStore configStore )
     {
         this.configStore = configStore;
@@ -597,6 +1040,20 @@ public class DefaultReleaseManager
         return strategy;
     }
 
+    private Map<String, List<String>> getPreparePhaseDependencies( Strategy strategy )
+    {
+        if ( strategy.getPreparePhases() == null )
+        {
+            strategy = strategies.get( "default" );
+        }
+
+        if ( strategy instanceof DependencyGraphStrategy )
+        {
+            return ( (DependencyGraphStrategy) strategy ).getPreparePhaseDependencies();
+        }
+        return null;
+    }
+
     private List<String> getGoalPhases( Strategy strategy, String goal )
     {
         List<String> phases;
@@ -0,0 +1,114 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of the executed phases as JSON.
+ *
+ * @since 3.0.0
+ */
+final class PhaseMetricsReport
+{
+    /**
+     * The name of the report, which is written next to <code>release.properties</code>.
+     */
+    static final String FILE_NAME = "release-metrics.json";
+
+    private PhaseMetricsReport()
+    {
+        // noop
+    }
+
+    static void write( File file, String goal, List<PhaseMetrics> metrics )
+        throws IOException
+    {
+        try ( Writer writer = new OutputStreamWriter( Files.newOutputStream( file.toPath() ), "UTF-8" ) )
+        {
+            writer.write( "{\n  \"goal\": " + quote( goal ) + ",\n  \"phases\": [" );
+            for ( int i = 0; i < metrics.size(); i++ )
+            {
+                PhaseMetrics phase = metrics.get( i );
+                writer.write( i == 0 ? "\n" : ",\n" );
+                writer.write( "    {\"phase\": " + quote( phase.getPhase() )
+                    + ", \"wallTimeMillis\": " + millis( phase.getWallTime() )
+                    + ", \"cpuTimeMillis\": " + millis( phase.getCpuTime() )
+                    + ", \"bytesRead\": " + phase.getBytesRead()
+                    + ", \"bytesWritten\": " + phase.getBytesWritten()
+                    + ", \"pomsProcessed\": " + phase.getPomsProcessed()
+                    + ", \"scmCalls\": " + phase.getScmCalls()
+                    + ", \"scmTimeMillis\": " + millis( phase.getScmTime() )
+                    + ", \"forkedBuilds\": " + phase.getForkedBuilds()
+                    + ", \"forkedBuildTimeMillis\": " + millis( phase.getForkedBuildTime() )
+                    + ", \"modules\": [" + modules( phase.getBuildEvents() ) + "]}" );
+            }
+            writer.write( "\n  ]\n}\n" );
+        }
+    }
+
+    private static String modules( List<BuildEvent> events )
+    {
+        StringBuilder modules = new StringBuilder();
+        for ( BuildEvent event : events )
+        {
+            if ( event.getType() == BuildEvent.Type.MODULE_FINISHED )
+            {
+                modules.append( modules.length() == 0 ? "" : ", " ).append( "{\"module\": " )
+                    .append( quote( event.getModule() ) )
+                    .append( ", \"result\": " ).append( quote( event.getResult() ) )
+                    .append( ", \"durationMillis\": " ).append( event.getDuration() ).append( '}' );
+            }
+        }
+        return modules.toString();
+    }
+
+    private static long millis( long nanos )
+    {
+        return nanos < 0 ? nanos : TimeUnit.NANOSECONDS.toMillis( nanos );
+    }
+
+    private static String quote( String value )
+    {
+        StringBuilder quoted = new StringBuilder( value.length() + 2 ).append( '"' );
+        for ( char c : value.toCharArray() )
+        {
+            if ( c == '"' || c == '\\' )
+            {
+                quoted.append( '\\' ).append( c );
+            }
+            else if ( c < ' ' )
+            {
+                quoted.append( String.format( "\\u%04x", (int) c ) );
+            }
+            else
+            {
+                quoted.append( c );
+            }
+        }
+        return quoted.append( '"' ).toString();
+    }
+}
@@ -0,0 +1,277 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executes the phases of a goal in the order given by their prerequisites. A phase is started as soon as its
+ * prerequisites have completed, read-only phases run concurrently to each other. Any other phase modifies the release
+ * descriptor or the working copy, which are not thread-safe, so it only starts when no phase is running and no other
+ * phase starts until it has finished. The callbacks which are not executing a phase are invoked on the calling thread.
+ *
+ * @since 3.0.0
+ */
+class PhaseScheduler
+{
+    /**
+     * The callbacks of the scheduler.
+     */
+    interface PhaseRunner
+    {
+        /**
+         * Called on the calling thread before the phase is executed.
+         */
+        void start( String phase );
+
+        /**
+         * Executes the phase, possibly concurrently to other phases.
+         */
+        ReleaseResult execute( String phase )
+            throws ReleaseExecutionException, ReleaseFailureException;
+
+        /**
+         * Called on the calling thread once the phase has been executed successfully.
+         *
+         * @param idle <code>true</code> if no other phase is running
+         */
+        void complete( String phase, ReleaseResult result, boolean idle )
+            throws ReleaseExecutionException, ReleaseFailureException;
+
+        /**
+         * Called on the calling thread if the phase, or the completion of the phase, has failed.
+         */
+        void fail( String phase, Exception failure );
+    }
+
+    private final List<String> phases;
+
+    private final Map<String, List<String>> prerequisites = new HashMap<>();
+
+    private final Set<String> readOnlyPhases;
+
+    /**
+     * @param phases the phases to execute, a phase without dependencies depends on the phase before it
+     * @param dependencies the prerequisites of the phases, keyed by phase
+     * @param readOnlyPhases the phases which may run concurrently to each other
+     * @throws ReleaseExecutionException if a prerequisite is not one of the phases, or the dependencies are cyclic
+     */
+    PhaseScheduler( List<String> phases, Map<String, List<String>> dependencies, Set<String> readOnlyPhases )
+        throws ReleaseExecutionException
+    {
+        this.phases = phases;
+        this.readOnlyPhases = readOnlyPhases;
+
+        for ( int i = 0; i < phases.size(); i++ )
+        {
+            String phase = phases.get( i );
+            List<String> phasePrerequisites = dependencies.get( phase );
+            if ( phasePrerequisites == null )
+            {
+                phasePrerequisites = new ArrayList<>( phases.subList( Math.max( 0, i - 1 ), i ) );
+            }
+            for ( String prerequisite : phasePrerequisites )
+            {
+                if ( !phases.contains( prerequisite ) )
+                {
+                    throw new ReleaseExecutionException( "Phase '" + phase + "' depends on phase '" + prerequisite
+                        + "', which is not part of the goal" );
+                }
+            }
+            prerequisites.put( phase, phasePrerequisites );
+        }
+
+        checkCycles();
+    }
+
+    private void checkCycles()
+        throws ReleaseExecutionException
+    {
+        Set<String> completed = new HashSet<>();
+        Set<String> pending = new LinkedHashSet<>( phases );
+        while ( !pending.isEmpty() )
+        {
+            List<String> ready = getReadyPhases( pending, completed );
+            if ( ready.isEmpty() )
+            {
+                throw new ReleaseExecutionException( "Cyclic dependencies between the phases " + pending );
+            }
+            pending.removeAll( ready );
+            completed.addAll( ready );
+        }
+    }
+
+    /**
+     * @param phase a phase
+     * @return the phases the phase depends on
+     */
+    List<String> getPrerequisites( String phase )
+    {
+        return prerequisites.get( phase );
+    }
+
+    /**
+     * Executes the phases which have not been completed yet. When a phase fails, no more phases are started and the
+     * failure is thrown once the running phases have finished. Those are still completed.
+     *
+     * @param completed the phases that have already been completed
+     * @param runner the callbacks
+     */
+    void run( Collection<String> completed, final PhaseRunner runner )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        Set<String> done = new HashSet<>( completed );
+        Set<String> pending = new LinkedHashSet<>( phases );
+        pending.removeAll( done );
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        CompletionService<ReleaseResult> completionService = new ExecutorCompletionService<>( executor );
+        Map<Future<ReleaseResult>, String> running = new HashMap<>();
+        Exception failure = null;
+        try
+        {
+            while ( true )
+            {
+                if ( failure == null )
+                {
+                    for ( final String phase : getReadyPhases( pending, done ) )
+                    {
+                        if ( !canStart( phase, running.values() ) )
+                        {
+                            continue;
+                        }
+
+                        pending.remove( phase );
+                        runner.start( phase );
+                        Future<ReleaseResult> future = completionService.submit( new Callable<ReleaseResult>()
+                        {
+                            @Override
+                            public ReleaseResult call()
+                                throws Exception
+                            {
+                                return runner.execute( phase );
+                            }
+                        } );
+                        running.put( future, phase );
+                    }
+                }
+
+                if ( running.isEmpty() )
+                {
+                    break;
+                }
+
+                Future<ReleaseResult> future = completionService.take();
+                String phase = running.remove( future );
+                try
+                {
+                    ReleaseResult result = future.get();
+                    done.add( phase );
+                    runner.complete( phase, result, running.isEmpty() );
+                }
+                catch ( ExecutionException e )
+                {
+                    failure = addFailure( failure, e.getCause() );
+                    runner.fail( phase, (Exception) e.getCause() );
+                }
+                catch ( ReleaseExecutionException | ReleaseFailureException | RuntimeException e )
+                {
+                    failure = addFailure( failure, e );
+                    runner.fail( phase, e );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            failure = addFailure( failure, e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if ( failure instanceof ReleaseExecutionException )
+        {
+            throw (ReleaseExecutionException) failure;
+        }
+        else if ( failure instanceof ReleaseFailureException )
+        {
+            throw (ReleaseFailureException) failure;
+        }
+        else if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        else if ( failure != null )
+        {
+            throw new ReleaseExecutionException( failure.getMessage(), failure );
+        }
+    }
+
+    /**
+     * @return <code>true</code> if no phase is running, or the phase and all running phases are read-only
+     */
+    private boolean canStart( String phase, Collection<String> running )
+    {
+        return running.isEmpty() || readOnlyPhases.contains( phase ) && readOnlyPhases.containsAll( running );
+    }
+
+    private List<String> getReadyPhases( Set<String> pending, Set<String> done )
+    {
+        List<String> ready = new ArrayList<>();
+        for ( String phase : pending )
+        {
+            if ( done.containsAll( prerequisites.get( phase ) ) )
+            {
+                ready.add( phase );
+            }
+        }
+        return ready;
+    }
+
+    private static Exception addFailure( Exception failure, Throwable t )
+    {
+        if ( t instanceof Error )
+        {
+            throw (Error) t;
+        }
+        if ( failure == null )
+        {
+            return (Exception) t;
+        }
+        failure.addSuppressed( t );
+        return failure;
+    }
+}
@@ -0,0 +1,397 @@
+package org.apache.maven.shared.release.config;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder.BuilderReleaseDescriptor;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Release configuration store that appends the changes of every write to a journal next to
+ * <code>release.properties</code> instead of rewriting the whole file. Every record is synced to disk, a record that
+ * has not been written completely is ignored when reading. Once the <code>end-release</code> phase has completed, the
+ * journal is compacted into a new <code>release.properties</code>, which is replaced atomically.
+ * <p>
+ * Only the disk writes are incremental: the descriptor does not track which of its values have changed, so every
+ * write still converts the whole descriptor to properties and compares them with the last known ones. The cost of a
+ * write in memory therefore grows with the number of modules, not with the number of changes.
+ *
+ * @since 3.0.0
+ */
+@Component( role = ReleaseDescriptorStore.class, hint = "journaled" )
+public class JournaledReleaseDescriptorStore
+    extends PropertiesReleaseDescriptorStore
+{
+    /**
+     * The phase after which the journal is compacted.
+     */
+    private static final String END_RELEASE_PHASE = "end-release";
+
+    private static final String SET_PREFIX = "+";
+
+    private static final String REMOVE_PREFIX = "-";
+
+    /**
+     * Size of the length and checksum around every record.
+     */
+    private static final int RECORD_OVERHEAD = 4 + 8;
+
+    /**
+     * The last known state of every properties file, keyed by its absolute path.
+     */
+    private final Map<File, Journal> journals = new HashMap<>();
+
+    /**
+     * Encrypted values are salted, so every encryption gives another result. Reusing the first one avoids journaling
+     * a password on every write. Kept until the release ends, see {@link #clearCache()}.
+     */
+    private final Map<String, String> encrypted = new ConcurrentHashMap<>();
+
+    @Override
+    protected synchronized Properties loadProperties( File file )
+        throws ReleaseDescriptorStoreException
+    {
+        Properties properties = new Properties();
+        properties.putAll( getJournal( file ).properties );
+        return properties;
+    }
+
+    @Override
+    public synchronized void write( BuilderReleaseDescriptor config, File file )
+        throws ReleaseDescriptorStoreException
+    {
+        Properties properties = toProperties( config );
+        Journal journal = getJournal( file );
+
+        try
+        {
+            if ( END_RELEASE_PHASE.equals( config.getCompletedPhase() ) )
+            {
+                compact( journal, properties );
+            }
+            else
+            {
+                append( journal, properties );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new ReleaseDescriptorStoreException(
+                "Error writing properties file '" + file.getName() + "': " + e.getMessage(), e );
+        }
+    }
+
+    @Override
+    public synchronized void delete( ReleaseDescriptor config )
+    {
+        super.delete( config );
+
+        File file = getDefaultReleasePropertiesFile( config );
+        File journalFile = getJournalFile( file );
+        if ( journalFile.exists() )
+        {
+            journalFile.delete();
+        }
+        journals.remove( file.getAbsoluteFile() );
+    }
+
+    @Override
+    protected String encrypt( String value )
+    {
+        String result = encrypted.get( value );
+        if ( result == null )
+        {
+            result = super.encrypt( value );
+            encrypted.put( value, result );
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the passwords encrypted and the properties read during the release that has ended.
+     */
+    public synchronized void clearCache()
+    {
+        encrypted.clear();
+        journals.clear();
+    }
+
+    /**
+     * @param file the properties file
+     * @return the journal of the properties file, <code>release.properties.journal</code> for the default file
+     */
+    public static File getJournalFile( File file )
+    {
+        return new File( file.getParentFile(), file.getName() + ".journal" );
+    }
+
+    /**
+     * @param config the release configuration
+     * @return <code>true</code> if the release journals its properties, or a previous run has left a journal
+     */
+    public static boolean isJournaled( ReleaseDescriptor config )
+    {
+        return config.isJournalReleaseProperties()
+            || getJournalFile( getDefaultReleasePropertiesFile( config ) ).exists();
+    }
+
+    private Journal getJournal( File file )
+        throws ReleaseDescriptorStoreException
+    {
+        File key = file.getAbsoluteFile();
+        Journal journal = journals.get( key );
+        if ( journal == null || !journal.isCurrent() )
+        {
+            journal = readJournal( key );
+            journals.put( key, journal );
+        }
+        return journal;
+    }
+
+    private Journal readJournal( File file )
+        throws ReleaseDescriptorStoreException
+    {
+        Journal journal = new Journal( file, super.loadProperties( file ) );
+
+        File journalFile = journal.journalFile;
+        if ( journalFile.exists() )
+        {
+            long available = journalFile.length();
+            try ( DataInputStream in =
+                new DataInputStream( new BufferedInputStream( new FileInputStream( journalFile ) ) ) )
+            {
+                byte[] payload;
+                while ( ( payload = readRecord( in, available - journal.length ) ) != null )
+                {
+                    apply( payload, journal.properties );
+                    journal.length += RECORD_OVERHEAD + payload.length;
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new ReleaseDescriptorStoreException(
+                    "Error reading journal file '" + journalFile.getName() + "': " + e.getMessage(), e );
+            }
+
+            if ( journal.length < available )
+            {
+                getLogger().warn( "Ignoring incomplete record at the end of " + journalFile.getName() );
+            }
+        }
+        journal.updateSnapshotState();
+
+        return journal;
+    }
+
+    /**
+     * @return the payload of the next record, or <code>null</code> if there is no complete and valid record left
+     */
+    private static byte[] readRecord( DataInputStream in, long available )
+        throws IOException
+    {
+        try
+        {
+            if ( available < RECORD_OVERHEAD )
+            {
+                return null;
+            }
+            int length = in.readInt();
+            if ( length < 0 || length > available - RECORD_OVERHEAD )
+            {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully( payload );
+            long checksum = in.readLong();
+            return checksum == checksum( payload ) ? payload : null;
+        }
+        catch ( EOFException e )
+        {
+            return null;
+        }
+    }
+
+    private static void apply( byte[] payload, Properties properties )
+        throws IOException
+    {
+        Properties delta = new Properties();
+        delta.load( new ByteArrayInputStream( payload ) );
+        for ( String name : delta.stringPropertyNames() )
+        {
+            if ( name.startsWith( SET_PREFIX ) )
+            {
+                properties.setProperty( name.substring( 1 ), delta.getProperty( name ) );
+            }
+            else if ( name.startsWith( REMOVE_PREFIX ) )
+            {
+                properties.remove( name.substring( 1 ) );
+            }
+        }
+    }
+
+    private void append( Journal journal, Properties properties )
+        throws IOException
+    {
+        Properties delta = new Properties();
+        for ( String name : properties.stringPropertyNames() )
+        {
+            String value = properties.getProperty( name );
+            if ( !value.equals( journal.properties.getProperty( name ) ) )
+            {
+                delta.setProperty( SET_PREFIX + name, value );
+            }
+        }
+        for ( String name : journal.properties.stringPropertyNames() )
+        {
+            if ( properties.getProperty( name ) == null )
+            {
+                delta.setProperty( REMOVE_PREFIX + name, "" );
+            }
+        }
+
+        if ( delta.isEmpty() )
+        {
+            return;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        delta.store( out, null );
+        byte[] payload = out.toByteArray();
+
+        ByteBuffer record = ByteBuffer.allocate( RECORD_OVERHEAD + payload.length );
+        record.putInt( payload.length ).put( payload ).putLong( checksum( payload ) );
+        record.flip();
+
+        try ( FileChannel channel = FileChannel.open( journal.journalFile.toPath(), StandardOpenOption.CREATE,
+                                                      StandardOpenOption.WRITE ) )
+        {
+            // drops an incomplete record left behind by a crash
+            channel.truncate( journal.length );
+            channel.position( journal.length );
+            while ( record.hasRemaining() )
+            {
+                channel.write( record );
+            }
+            channel.force( true );
+        }
+
+        journal.properties = properties;
+        journal.length += RECORD_OVERHEAD + payload.length;
+    }
+
+    private void compact( Journal journal, Properties properties )
+        throws IOException
+    {
+        File file = journal.file;
+        File tempFile = new File( file.getParentFile(), file.getName() + ".tmp" );
+        try ( FileOutputStream out = new FileOutputStream( tempFile ) )
+        {
+            properties.store( out, "release configuration" );
+            out.getFD().sync();
+        }
+
+        try
+        {
+            Files.move( tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch ( AtomicMoveNotSupportedException e )
+        {
+            Files.move( tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+
+        // a crash before this point replays the journal on top of the new snapshot, which gives the same result
+        Files.deleteIfExists( journal.journalFile.toPath() );
+
+        journal.properties = properties;
+        journal.length = 0;
+        journal.updateSnapshotState();
+    }
+
+    private static long checksum( byte[] payload )
+    {
+        CRC32 crc = new CRC32();
+        crc.update( payload, 0, payload.length );
+        return crc.getValue();
+    }
+
+    /**
+     * The properties of a snapshot with its journal applied, and the state of the files they were read from.
+     */
+    private static final class Journal
+    {
+        private final File file;
+
+        private final File journalFile;
+
+        private Properties properties;
+
+        /**
+         * The length of the valid records in the journal file.
+         */
+        private long length;
+
+        private long snapshotLastModified;
+
+        private long snapshotLength;
+
+        Journal( File file, Properties properties )
+        {
+            this.file = file;
+            this.journalFile = getJournalFile( file );
+            this.properties = properties;
+        }
+
+        void updateSnapshotState()
+        {
+            snapshotLastModified = file.lastModified();
+            snapshotLength = file.length();
+        }
+
+        /**
+         * @return <code>false</code> if the files have been changed by someone else
+         */
+        boolean isCurrent()
+        {
+            return journalFile.length() == length && file.lastModified() == snapshotLastModified
+                && file.length() == snapshotLength;
+        }
+    }
+}
@@ -77,6 +77,33 @@ public class PropertiesReleaseDescriptorStore
 
     public ReleaseDescriptorBuilder read( ReleaseDescriptorBuilder mergeDescriptor, File file )
         throws ReleaseDescriptorStoreException
+    {
+        Properties properties = loadProperties( file );
+
+        ReleaseDescriptorBuilder builder;
+        if ( mergeDescriptor != null )
+        {
+            builder = mergeDescriptor;
+        }
+        else
+        {
+           builder = new ReleaseDescriptorBuilder(); 
+        }
+        
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+
+        return builder;
+    }
+
+    /**
+     * Loads the stored properties.
+     *
+     * @param file the properties file
+     * @return the properties, empty if the file does not exist
+     * @throws ReleaseDescriptorStoreException if the file cannot be read
+     */
+    protected Properties loadProperties( File file )
+        throws ReleaseDescriptorStoreException
     {
         Properties properties = new Properties();
 
@@ -93,20 +120,7 @@ public class PropertiesReleaseDescriptorStore
             throw new ReleaseDescriptorStoreException(
                 "Error reading properties file '" + file.getName() + "': " + e.getMessage(), e );
         }
-
-        ReleaseDescriptorBuilder builder;
-        if ( mergeDescriptor != null )
-        {
-            builder = mergeDescriptor;
-        }
-        else
-        {
-           builder = new ReleaseDescriptorBuilder(); 
-        }
-        
-        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
-
-        return builder;
+        return properties;
     }
 
     @Override
@@ -128,9 +142,33 @@ public class PropertiesReleaseDescriptorStore
 
     public void write( BuilderReleaseDescriptor config, File file )
         throws ReleaseDescriptorStoreException
+    {
+        Properties properties = toProperties( config );
+
+        try ( OutputStream outStream = new FileOutputStream( file ) )
+        {
+            properties.store( outStream, "release configuration" );
+        }
+        catch ( IOException e )
+        {
+            throw new ReleaseDescriptorStoreException(
+                "Error writing properties file '" + file.getName() + "': " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * @param config the configuration
+     * @return the properties to store for the configuration
+     */
+    protected Properties toProperties( BuilderReleaseDescriptor config )
     {
         Properties properties = new Properties();
         properties.setProperty( "completedPhase", config.getCompletedPhase() );
+        if ( !config.getCompletedPhases().isEmpty() )
+        {
+            properties.setProperty( "completedPhases",
+                                    StringUtils.join( config.getCompletedPhases().iterator(), "," ) );
+        }
         if ( config.isCommitByProject() ) //default is false
         {
             properties.setProperty( "commitByProject", "true" );
@@ -146,16 +184,7 @@ public class PropertiesReleaseDescriptorStore
         }
         if ( config.getScmPassword() != null )
         {
-            String password = config.getScmPassword();
-            try
-            {
-                password = encryptAndDecorate( password );
-            }
-            catch ( IllegalStateException | SecDispatcherException | PlexusCipherException e )
-            {
-                getLogger().debug( e.getMessage() );
-            }
-            properties.setProperty( "scm.password", password );
+            properties.setProperty( "scm.password", encrypt( config.getScmPassword() ) );
         }
         if ( config.getScmPrivateKey() != null )
         {
@@ -163,16 +192,7 @@ public class PropertiesReleaseDescriptorStore
         }
         if ( config.getScmPrivateKeyPassPhrase() != null )
         {
-            String passPhrase = config.getScmPrivateKeyPassPhrase();
-            try
-            {
-                passPhrase = encryptAndDecorate( passPhrase );
-            }
-            catch ( IllegalStateException | SecDispatcherException | PlexusCipherException e )
-            {
-                getLogger().debug( e.getMessage() );
-            }
-            properties.setProperty( "scm.passphrase", passPhrase  );
+            properties.setProperty( "scm.passphrase", encrypt( config.getScmPrivateKeyPassPhrase() ) );
         }
         if ( config.getScmTagBase() != null )
         {
@@ -240,6 +260,27 @@ public class PropertiesReleaseDescriptorStore
             properties.setProperty( "workItem", config.getWorkItem() );
         }
 
+        if ( config.getCheckpointPhase() != null )
+        {
+            properties.setProperty( "checkpoint.phase", config.getCheckpointPhase() );
+
+            for ( Map.Entry<String, String> entry : config.getProjectCheckpoints().entrySet() )
+            {
+                properties.setProperty( "checkpoint.project." + entry.getKey(), entry.getValue() );
+            }
+        }
+
+        if ( config.getSourceFingerprint() != null && config.getOutputFingerprint() != null )
+        {
+            properties.setProperty( "fingerprint.sources", config.getSourceFingerprint() );
+            properties.setProperty( "fingerprint.outputs", config.getOutputFingerprint() );
+        }
+
+        if ( config.getDeferredPushBase() != null )
+        {
+            properties.setProperty( "scm.deferredPushBase", config.getDeferredPushBase() );
+        }
+
         // others boolean properties are not written to the properties file because the value from the caller is always
         // used
 
@@ -299,14 +340,23 @@ public class PropertiesReleaseDescriptorStore
             processResolvedDependencies( properties, config.getResolvedSnapshotDependencies() );
         }
 
-        try ( OutputStream outStream = new FileOutputStream( file ) )
+        return properties;
+    }
+
+    /**
+     * @param value a password or passphrase
+     * @return the encrypted value, or the value itself if it cannot be encrypted
+     */
+    protected String encrypt( String value )
+    {
+        try
         {
-            properties.store( outStream, "release configuration" );
+            return encryptAndDecorate( value );
         }
-        catch ( IOException e )
+        catch ( IllegalStateException | SecDispatcherException | PlexusCipherException e )
         {
-            throw new ReleaseDescriptorStoreException(
-                "Error writing properties file '" + file.getName() + "': " + e.getMessage(), e );
+            getLogger().debug( e.getMessage() );
+            return value;
         }
     }
 
@@ -323,7 +373,7 @@ public class PropertiesReleaseDescriptorStore
         }
     }
 
-    private static File getDefaultReleasePropertiesFile( ReleaseDescriptor mergeDescriptor )
+    protected static File getDefaultReleasePropertiesFile( ReleaseDescriptor mergeDescriptor )
     {
         return new File( mergeDescriptor.getWorkingDirectory(), "release.properties" );
     }
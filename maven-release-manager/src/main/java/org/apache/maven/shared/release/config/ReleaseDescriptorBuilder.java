@@ -116,6 +116,12 @@ public class ReleaseDescriptorBuilder
         return this;
     }
 
+    public ReleaseDescriptorBuilder addCompletedPhase( String completedPhase )
+    {
+        releaseDescriptor.addCompletedPhase( completedPhase );
+        return this;
+    }
+
     public ReleaseDescriptorBuilder setCompletionGoals( String completionGoals )
     {
         releaseDescriptor.setCompletionGoals( completionGoals );
@@ -182,6 +188,12 @@ public class ReleaseDescriptorBuilder
         return this;
     }
 
+    public ReleaseDescriptorBuilder setPomTransformThreads( int pomTransformThreads )
+    {
+        releaseDescriptor.setPomTransformThreads( pomTransformThreads );
+        return this;
+    }
+
     public ReleaseDescriptorBuilder setPreparationGoals( String preparationGoals )
     {
         releaseDescriptor.setPreparationGoals( preparationGoals );
@@ -380,6 +392,84 @@ public class ReleaseDescriptorBuilder
         return this;
     }
 
+    public ReleaseDescriptorBuilder setMetricsReport( boolean metricsReport )
+    {
+        releaseDescriptor.setMetricsReport( metricsReport );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setAdaptiveThreads( boolean adaptiveThreads )
+    {
+        releaseDescriptor.setAdaptiveThreads( adaptiveThreads );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setReuseBuild( boolean reuseBuild )
+    {
+        releaseDescriptor.setReuseBuild( reuseBuild );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setSourceFingerprint( String sourceFingerprint )
+    {
+        releaseDescriptor.setSourceFingerprint( sourceFingerprint );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setOutputFingerprint( String outputFingerprint )
+    {
+        releaseDescriptor.setOutputFingerprint( outputFingerprint );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setDeferPush( boolean deferPush )
+    {
+        releaseDescriptor.setDeferPush( deferPush );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setDeferredPushBase( String deferredPushBase )
+    {
+        releaseDescriptor.setDeferredPushBase( deferredPushBase );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setCommitByProjectBatchSize( int commitByProjectBatchSize )
+    {
+        releaseDescriptor.setCommitByProjectBatchSize( commitByProjectBatchSize );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setScopedCheckModifications( boolean scopedCheckModifications )
+    {
+        releaseDescriptor.setScopedCheckModifications( scopedCheckModifications );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setCheckModificationRoots( List<String> checkModificationRoots )
+    {
+        releaseDescriptor.setCheckModificationRoots( checkModificationRoots );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setJournalReleaseProperties( boolean journalReleaseProperties )
+    {
+        releaseDescriptor.setJournalReleaseProperties( journalReleaseProperties );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder setCheckpointPhase( String checkpointPhase )
+    {
+        releaseDescriptor.setCheckpointPhase( checkpointPhase );
+        return this;
+    }
+
+    public ReleaseDescriptorBuilder addProjectCheckpoint( String key, String checksum )
+    {
+        releaseDescriptor.getProjectCheckpoints().put( key, checksum );
+        return this;
+    }
+
     public void putOriginalVersion( String projectKey, String version )
     {
         releaseDescriptor.addOriginalVersion( projectKey, version );
@@ -20,13 +20,15 @@ package org.apache.maven.shared.release.config;
  */
 
 import java.util.Arrays;
-import java.util.Iterator;
-import java.util.Map.Entry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder.BuilderReleaseDescriptor;
 import org.apache.maven.shared.release.scm.IdentifiedScm;
+import org.codehaus.plexus.util.StringUtils;
 
 /**
  * Class providing utility methods used during the release process
@@ -35,9 +37,19 @@ import org.apache.maven.shared.release.scm.IdentifiedScm;
  */
 public class ReleaseUtils
 {
-    private static final String DEVELOPMENT_KEY = "dev";
+    private static final String PROJECT_RELEASE_PREFIX = "project.rel.";
 
-    private static final String RELEASE_KEY = "rel";
+    private static final String PROJECT_DEVELOPMENT_PREFIX = "project.dev.";
+
+    private static final String PROJECT_SCM_PREFIX = "project.scm.";
+
+    private static final String DEPENDENCY_PREFIX = "dependency.";
+
+    private static final String PROJECT_CHECKPOINT_PREFIX = "checkpoint.project.";
+
+    private static final String DEPENDENCY_RELEASE_SUFFIX = ".release";
+
+    private static final String DEPENDENCY_DEVELOPMENT_SUFFIX = ".development";
 
     private ReleaseUtils()
     {
@@ -49,207 +61,229 @@ public class ReleaseUtils
         return builder.build();
     }
 
+    /**
+     * Copies the properties of a <code>release.properties</code> file to a builder. Every property is classified by
+     * its prefix in a single pass, so reading a large reactor takes time linear in the number of properties.
+     *
+     * @param properties the properties
+     * @param builder the builder to copy the properties to
+     */
     public static void copyPropertiesToReleaseDescriptor( Properties properties, ReleaseDescriptorBuilder builder )
     {
-        if ( properties.containsKey( "completedPhase" ) )
-        {
-            builder.setCompletedPhase( properties.getProperty( "completedPhase" ) );
-        }
-        if ( properties.containsKey( "commitByProject" ) )
-        {
-            builder.setCommitByProject( Boolean.parseBoolean( properties.getProperty( "commitByProject" ) ) );
-        }
-        if ( properties.containsKey( "scm.id" ) )
-        {
-            builder.setScmId( properties.getProperty( "scm.id" ) );
-        }
-        if ( properties.containsKey( "scm.url" ) )
-        {
-            builder.setScmSourceUrl( properties.getProperty( "scm.url" ) );
-        }
-        if ( properties.containsKey( "scm.username" ) )
-        {
-            builder.setScmUsername( properties.getProperty( "scm.username" ) );
-        }
-        if ( properties.containsKey( "scm.password" ) )
-        {
-            builder.setScmPassword( properties.getProperty( "scm.password" ) );
-        }
-        if ( properties.containsKey( "scm.privateKey" ) )
-        {
-            builder.setScmPrivateKey( properties.getProperty( "scm.privateKey" ) );
-        }
-        if ( properties.containsKey( "scm.passphrase" ) )
-        {
-            builder.setScmPrivateKeyPassPhrase( properties.getProperty( "scm.passphrase" ) );
-        }
-        if ( properties.containsKey( "scm.tagBase" ) )
-        {
-            builder.setScmTagBase( properties.getProperty( "scm.tagBase" ) );
-        }
-        if ( properties.containsKey( "scm.tagNameFormat" ) )
-        {
-            builder.setScmTagNameFormat( properties.getProperty( "scm.tagNameFormat" ) );
-        }
-        if ( properties.containsKey( "scm.branchBase" ) )
-        {
-            builder.setScmBranchBase( properties.getProperty( "scm.branchBase" ) );
-        }
-        if ( properties.containsKey( "scm.tag" ) )
-        {
-            builder.setScmReleaseLabel( properties.getProperty( "scm.tag" ) );
-        }
-        if ( properties.containsKey( "scm.commentPrefix" ) )
-        {
-            builder.setScmCommentPrefix( properties.getProperty( "scm.commentPrefix" ) );
-        }
-        if ( properties.containsKey( "exec.additionalArguments" ) )
-        {
-            builder.setAdditionalArguments( properties.getProperty( "exec.additionalArguments" ) );
-        }
-        if ( properties.containsKey( "exec.pomFileName" ) )
-        {
-            builder.setPomFileName( properties.getProperty( "exec.pomFileName" ) );
-        }
-        if ( properties.containsKey( "exec.activateProfiles" ) )
-        {
-            builder.setActivateProfiles( Arrays.asList( properties.getProperty( "exec.pomFileName" ).split( "," ) ) );
-        }
-        if ( properties.containsKey( "preparationGoals" ) )
-        {
-            builder.setPreparationGoals( properties.getProperty( "preparationGoals" ) );
-        }
-        if ( properties.containsKey( "completionGoals" ) )
-        {
-            builder.setCompletionGoals( properties.getProperty( "completionGoals" ) );
-        }
-        if ( properties.containsKey( "projectVersionPolicyId" ) )
-        {
-            builder.setProjectVersionPolicyId( properties.getProperty( "projectVersionPolicyId" ) );
-        }
-        if ( properties.containsKey( "projectNamingPolicyId" ) )
-        {
-            builder.setProjectNamingPolicyId( properties.getProperty( "projectNamingPolicyId" ) );
-        }
-        if ( properties.containsKey( "releaseStrategyId" ) )
-        {
-            builder.setReleaseStrategyId( properties.getProperty( "releaseStrategyId" ) );
-        }
-        if ( properties.containsKey( "exec.snapshotReleasePluginAllowed" ) )
-        {
-            String snapshotReleasePluginAllowedStr = properties.getProperty( "exec.snapshotReleasePluginAllowed" );
-            builder.setSnapshotReleasePluginAllowed( Boolean.valueOf( snapshotReleasePluginAllowedStr ) );
-        }
-        if ( properties.containsKey( "remoteTagging" ) )
-        {
-            String remoteTaggingStr = properties.getProperty( "remoteTagging" );
-            builder.setRemoteTagging( Boolean.valueOf( remoteTaggingStr ) );
-        }
-        if ( properties.containsKey( "pushChanges" ) )
-        {
-            String pushChanges = properties.getProperty( "pushChanges" );
-            builder.setPushChanges( Boolean.valueOf( pushChanges ) );
-        }
-        if ( properties.containsKey( "workItem" ) )
-        {
-            builder.setWorkItem( properties.getProperty( "workItem" ) );
-        }
-
-        loadResolvedDependencies( properties, builder );
-
-        // boolean properties are not written to the properties file because the value from the caller is always used
+        Map<String, IdentifiedScm> scms = new HashMap<>();
+        Set<String> emptyScms = new HashSet<>();
 
-        for ( Iterator<?> i = properties.keySet().iterator(); i.hasNext(); )
+        for ( Map.Entry<Object, Object> entry : properties.entrySet() )
         {
-            String property = (String) i.next();
-            if ( property.startsWith( "project.rel." ) )
+            String property = (String) entry.getKey();
+            String value = (String) entry.getValue();
+
+            if ( property.startsWith( PROJECT_RELEASE_PREFIX ) )
             {
-                builder.addReleaseVersion( property.substring( "project.rel.".length() ),
-                                                     properties.getProperty( property ) );
+                builder.addReleaseVersion( property.substring( PROJECT_RELEASE_PREFIX.length() ), value );
             }
-            else if ( property.startsWith( "project.dev." ) )
+            else if ( property.startsWith( PROJECT_DEVELOPMENT_PREFIX ) )
             {
-                builder.addDevelopmentVersion( property.substring( "project.dev.".length() ),
-                                                         properties.getProperty( property ) );
+                builder.addDevelopmentVersion( property.substring( PROJECT_DEVELOPMENT_PREFIX.length() ), value );
             }
-            else if ( property.startsWith( "project.scm." ) )
+            else if ( property.startsWith( PROJECT_SCM_PREFIX ) )
             {
-                int index = property.lastIndexOf( '.' );
-                if ( index > "project.scm.".length() )
-                {
-                    String key = property.substring( "project.scm.".length(), index );
-
-                    if ( builder.build().getOriginalScmInfo( key ) == null )
-                    {
-                        if ( properties.getProperty( "project.scm." + key + ".empty" ) != null )
-                        {
-                            builder.addOriginalScmInfo( key, null );
-                        }
-                        else
-                        {
-                            IdentifiedScm scm = new IdentifiedScm();
-                            scm.setConnection( properties.getProperty( "project.scm." + key + ".connection" ) );
-                            scm.setDeveloperConnection(
-                                properties.getProperty( "project.scm." + key + ".developerConnection" ) );
-                            scm.setUrl( properties.getProperty( "project.scm." + key + ".url" ) );
-                            scm.setTag( properties.getProperty( "project.scm." + key + ".tag" ) );
-                            scm.setId( properties.getProperty( "project.scm." + key + ".id" ) );
-
-                            builder.addOriginalScmInfo( key, scm );
-                        }
-                    }
-                }
+                copyScmProperty( property, value, scms, emptyScms );
+            }
+            else if ( property.startsWith( DEPENDENCY_PREFIX ) )
+            {
+                copyDependencyProperty( property, value, builder );
+            }
+            else if ( property.startsWith( PROJECT_CHECKPOINT_PREFIX ) )
+            {
+                builder.addProjectCheckpoint( property.substring( PROJECT_CHECKPOINT_PREFIX.length() ), value );
+            }
+            else
+            {
+                copyProperty( property, value, builder );
             }
         }
-    }
 
-    private static void loadResolvedDependencies( Properties prop, ReleaseDescriptorBuilder builder )
-    {
-        Set entries = prop.entrySet();
-        Iterator<Entry<String, String>> iterator = entries.iterator();
-        String propertyName;
-        Entry<String, String> currentEntry;
+        // boolean properties are not written to the properties file because the value from the caller is always used
 
-        while ( iterator.hasNext() )
+        BuilderReleaseDescriptor descriptor = builder.build();
+        for ( Map.Entry<String, IdentifiedScm> entry : scms.entrySet() )
         {
-            currentEntry = iterator.next();
-            propertyName = currentEntry.getKey();
-
-            if ( propertyName.startsWith( "dependency." ) )
+            if ( descriptor.getOriginalScmInfo( entry.getKey() ) == null )
             {
-                String artifactVersionlessKey;
-                int startIndex = "dependency.".length();
-                int endIndex;
-                String versionType;
+                builder.addOriginalScmInfo( entry.getKey(),
+                                            emptyScms.contains( entry.getKey() ) ? null : entry.getValue() );
+            }
+        }
+    }
 
-                if ( propertyName.indexOf( ".development" ) != -1 )
-                {
-                    endIndex = propertyName.lastIndexOf( ".development" );
-                    versionType = DEVELOPMENT_KEY;
-                }
-                else if ( propertyName.indexOf( ".release" ) != -1 )
-                {
-                    endIndex = propertyName.lastIndexOf( ".release" );
-                    versionType = RELEASE_KEY;
-                }
-                else
+    private static void copyProperty( String property, String value, ReleaseDescriptorBuilder builder )
+    {
+        switch ( property )
+        {
+            case "completedPhase":
+                builder.setCompletedPhase( value );
+                break;
+            case "completedPhases":
+                for ( String phase : StringUtils.split( value, "," ) )
                 {
-                    // MRELEASE-834, probably a maven-dependency-plugin property
-                    continue;
+                    builder.addCompletedPhase( phase );
                 }
+                break;
+            case "commitByProject":
+                builder.setCommitByProject( Boolean.parseBoolean( value ) );
+                break;
+            case "scm.id":
+                builder.setScmId( value );
+                break;
+            case "scm.url":
+                builder.setScmSourceUrl( value );
+                break;
+            case "scm.username":
+                builder.setScmUsername( value );
+                break;
+            case "scm.password":
+                builder.setScmPassword( value );
+                break;
+            case "scm.privateKey":
+                builder.setScmPrivateKey( value );
+                break;
+            case "scm.passphrase":
+                builder.setScmPrivateKeyPassPhrase( value );
+                break;
+            case "scm.tagBase":
+                builder.setScmTagBase( value );
+                break;
+            case "scm.tagNameFormat":
+                builder.setScmTagNameFormat( value );
+                break;
+            case "scm.branchBase":
+                builder.setScmBranchBase( value );
+                break;
+            case "scm.tag":
+                builder.setScmReleaseLabel( value );
+                break;
+            case "scm.commentPrefix":
+                builder.setScmCommentPrefix( value );
+                break;
+            case "exec.additionalArguments":
+                builder.setAdditionalArguments( value );
+                break;
+            case "exec.pomFileName":
+                builder.setPomFileName( value );
+                break;
+            case "exec.activateProfiles":
+                builder.setActivateProfiles( Arrays.asList( value.split( "," ) ) );
+                break;
+            case "preparationGoals":
+                builder.setPreparationGoals( value );
+                break;
+            case "completionGoals":
+                builder.setCompletionGoals( value );
+                break;
+            case "projectVersionPolicyId":
+                builder.setProjectVersionPolicyId( value );
+                break;
+            case "projectNamingPolicyId":
+                builder.setProjectNamingPolicyId( value );
+                break;
+            case "releaseStrategyId":
+                builder.setReleaseStrategyId( value );
+                break;
+            case "exec.snapshotReleasePluginAllowed":
+                builder.setSnapshotReleasePluginAllowed( Boolean.valueOf( value ) );
+                break;
+            case "remoteTagging":
+                builder.setRemoteTagging( Boolean.valueOf( value ) );
+                break;
+            case "pushChanges":
+                builder.setPushChanges( Boolean.valueOf( value ) );
+                break;
+            case "workItem":
+                builder.setWorkItem( value );
+                break;
+            case "checkpoint.phase":
+                builder.setCheckpointPhase( value );
+                break;
+            case "fingerprint.sources":
+                builder.setSourceFingerprint( value );
+                break;
+            case "fingerprint.outputs":
+                builder.setOutputFingerprint( value );
+                break;
+            case "scm.deferredPushBase":
+                builder.setDeferredPushBase( value );
+                break;
+            default:
+                // not part of the release configuration
+        }
+    }
 
-                artifactVersionlessKey = propertyName.substring( startIndex, endIndex );
+    /**
+     * Collects a <code>project.scm.<i>key</i>.<i>attribute</i></code> property.
+     */
+    private static void copyScmProperty( String property, String value, Map<String, IdentifiedScm> scms,
+                                         Set<String> emptyScms )
+    {
+        int index = property.lastIndexOf( '.' );
+        if ( index <= PROJECT_SCM_PREFIX.length() )
+        {
+            return;
+        }
 
-                if ( RELEASE_KEY.equals( versionType ) )
-                {
-                    builder.addDependencyReleaseVersion( artifactVersionlessKey, currentEntry.getValue() );
-                }
-                else if ( DEVELOPMENT_KEY.equals( versionType ) )
-                {
-                    builder.addDependencyDevelopmentVersion( artifactVersionlessKey, currentEntry.getValue() );
-                }
-            }
+        String key = property.substring( PROJECT_SCM_PREFIX.length(), index );
+        IdentifiedScm scm = scms.get( key );
+        if ( scm == null )
+        {
+            scm = new IdentifiedScm();
+            // only the stored attributes, not the default tag
+            scm.setTag( null );
+            scms.put( key, scm );
+        }
+
+        switch ( property.substring( index + 1 ) )
+        {
+            case "connection":
+                scm.setConnection( value );
+                break;
+            case "developerConnection":
+                scm.setDeveloperConnection( value );
+                break;
+            case "url":
+                scm.setUrl( value );
+                break;
+            case "tag":
+                scm.setTag( value );
+                break;
+            case "id":
+                scm.setId( value );
+                break;
+            case "empty":
+                emptyScms.add( key );
+                break;
+            default:
+                // unknown attribute
+        }
+    }
+
+    /**
+     * Reads a <code>dependency.<i>key</i>.release</code> or <code>dependency.<i>key</i>.development</code> property.
+     */
+    private static void copyDependencyProperty( String property, String value, ReleaseDescriptorBuilder builder )
+    {
+        if ( property.endsWith( DEPENDENCY_DEVELOPMENT_SUFFIX ) )
+        {
+            builder.addDependencyDevelopmentVersion(
+                property.substring( DEPENDENCY_PREFIX.length(),
+                                    property.length() - DEPENDENCY_DEVELOPMENT_SUFFIX.length() ), value );
+        }
+        else if ( property.endsWith( DEPENDENCY_RELEASE_SUFFIX ) )
+        {
+            builder.addDependencyReleaseVersion(
+                property.substring( DEPENDENCY_PREFIX.length(),
+                                    property.length() - DEPENDENCY_RELEASE_SUFFIX.length() ), value );
         }
+        // else MRELEASE-834, probably a maven-dependency-plugin property
     }
 
 }
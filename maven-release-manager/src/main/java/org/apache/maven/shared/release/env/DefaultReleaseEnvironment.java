@@ -43,6 +43,10 @@ public class DefaultReleaseEnvironment
 
     private Locale locale = Locale.ENGLISH;
 
+    private int timeout;
+
+    private int inactivityTimeout;
+
     @Override
     public File getMavenHome()
     {
@@ -121,4 +125,28 @@ public class DefaultReleaseEnvironment
         this.locale = locale;
         return this;
     }
+
+    @Override
+    public int getTimeout()
+    {
+        return timeout;
+    }
+
+    public DefaultReleaseEnvironment setTimeout( int timeout )
+    {
+        this.timeout = timeout;
+        return this;
+    }
+
+    @Override
+    public int getInactivityTimeout()
+    {
+        return inactivityTimeout;
+    }
+
+    public DefaultReleaseEnvironment setInactivityTimeout( int inactivityTimeout )
+    {
+        this.inactivityTimeout = inactivityTimeout;
+        return this;
+    }
 }
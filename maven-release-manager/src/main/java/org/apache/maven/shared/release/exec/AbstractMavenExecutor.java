@@ -20,8 +20,17 @@ package org.apache.maven.shared.release.exec;
  */
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Server;
@@ -33,6 +42,7 @@ import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.LogEnabled;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.StringUtils;
 import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
 import org.sonatype.plexus.components.cipher.PlexusCipher;
@@ -47,9 +57,32 @@ import org.sonatype.plexus.components.sec.dispatcher.model.SettingsSecurity;
  *
  */
 public abstract class AbstractMavenExecutor
-    implements MavenExecutor, LogEnabled
+    implements MavenExecutor, LogEnabled, Disposable
 {
 
+    /**
+     * The time in minutes an execution may take, overriding {@link ReleaseEnvironment#getTimeout()}. A limit for the
+     * executions running a goal can be set with this property followed by a dot and the goal, like
+     * <code>maven.release.timeout.deploy</code>; the largest limit of the goals of an execution applies.
+     *
+     * @since 3.0.0
+     */
+    public static final String TIMEOUT_PROPERTY = "maven.release.timeout";
+
+    /**
+     * The time in seconds an execution may run without writing any output, overriding
+     * {@link ReleaseEnvironment#getInactivityTimeout()}.
+     *
+     * @since 3.0.0
+     */
+    public static final String INACTIVITY_TIMEOUT_PROPERTY = "maven.release.inactivityTimeout";
+
+    private static final int HEX_RADIX = 16;
+
+    private static final long MINUTE = 60 * 1000;
+
+    private static final long SECOND = 1000;
+
     private Logger logger;
 
     /**
@@ -65,6 +98,17 @@ public abstract class AbstractMavenExecutor
     @Requirement
     private PlexusCipher cipher;
 
+    /**
+     * The files with the encrypted settings, by the digest of the settings and the settings security file.
+     */
+    private final Map<String, File> settingsFiles = new HashMap<>();
+
+    private String masterPassword;
+
+    private String masterPasswordFile;
+
+    private long masterPasswordLastModified;
+
     protected AbstractMavenExecutor()
     {
     }
@@ -106,11 +150,118 @@ public abstract class AbstractMavenExecutor
         this.logger = logger;
     }
 
+    /**
+     * @return the time in milliseconds the execution of the goals may take, <code>0</code> for no limit
+     */
+    static long getTimeout( List<String> goals, ReleaseEnvironment releaseEnvironment )
+    {
+        long timeout = -1;
+        for ( String goal : goals )
+        {
+            timeout = Math.max( timeout, Long.getLong( TIMEOUT_PROPERTY + "." + goal, -1 ) );
+        }
+        if ( timeout < 0 )
+        {
+            timeout = Long.getLong( TIMEOUT_PROPERTY, releaseEnvironment.getTimeout() );
+        }
+        return timeout * MINUTE;
+    }
+
+    /**
+     * @return the time in milliseconds the execution of the goals may run without writing any output,
+     *         <code>0</code> for no limit
+     */
+    static long getInactivityTimeout( ReleaseEnvironment releaseEnvironment )
+    {
+        return Long.getLong( INACTIVITY_TIMEOUT_PROPERTY, releaseEnvironment.getInactivityTimeout() ) * SECOND;
+    }
+
+
+    /**
+     * Writes the settings with encrypted passwords to a file which can be passed to Maven. The file is written once
+     * for the same settings and reused by later executions until this component is disposed.
+     *
+     * @param settings the settings to write
+     * @return the file with the encrypted settings
+     * @throws IOException if the file cannot be written
+     */
+    protected synchronized File getSettingsFile( Settings settings )
+        throws IOException
+    {
+        StringWriter content = new StringWriter();
+        new SettingsXpp3Writer().write( content, settings );
+        // the passwords are encrypted with the master password, which may change in between
+        File securityFile = new File( getSecurityFile() );
+        content.append( '\n' ).append( securityFile.getAbsolutePath() );
+        content.append( '\n' ).append( Long.toString( securityFile.lastModified() ) );
+        String key = digest( content.toString() );
+
+        File settingsFile = settingsFiles.get( key );
+        if ( settingsFile != null && settingsFile.exists() )
+        {
+            return settingsFile;
+        }
+
+        settingsFile = File.createTempFile( "release-settings", ".xml" );
+        settingsFile.deleteOnExit();
+        settingsFile.setReadable( false, false );
+        settingsFile.setReadable( true, true );
+        try ( FileWriter fileWriter = new FileWriter( settingsFile ) )
+        {
+            getSettingsWriter().write( fileWriter, encryptSettings( settings ) );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            settingsFile.delete();
+            throw e;
+        }
+        settingsFiles.put( key, settingsFile );
+        return settingsFile;
+    }
+
+    private static String digest( String content )
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance( "SHA-256" ).digest( content.getBytes( StandardCharsets.UTF_8 ) );
+            return new BigInteger( 1, digest ).toString( HEX_RADIX );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        for ( File settingsFile : settingsFiles.values() )
+        {
+            settingsFile.delete();
+        }
+        settingsFiles.clear();
+        masterPassword = null;
+    }
 
     protected Settings encryptSettings( Settings settings )
     {
         Settings encryptedSettings = SettingsUtils.copySettings( settings );
 
+        // the copy shares the servers and proxies, which must not be changed
+        List<Server> servers = new ArrayList<>();
+        for ( Server server : settings.getServers() )
+        {
+            servers.add( server.clone() );
+        }
+        encryptedSettings.setServers( servers );
+
+        List<Proxy> proxies = new ArrayList<>();
+        for ( Proxy proxy : settings.getProxies() )
+        {
+            proxies.add( proxy.clone() );
+        }
+        encryptedSettings.setProxies( proxies );
+
         for ( Server server : encryptedSettings.getServers() )
         {
             String password = server.getPassword();
@@ -162,6 +313,11 @@ public abstract class AbstractMavenExecutor
     // From org.apache.maven.cli.MavenCli.encryption(CliRequest)
     private String encryptAndDecorate( String passwd )
         throws IllegalStateException, SecDispatcherException, PlexusCipherException
+    {
+        return new DefaultPlexusCipher().encryptAndDecorate( passwd, getMasterPassword() );
+    }
+
+    private String getSecurityFile()
     {
         String configurationFile = secDispatcher.getConfigurationFile();
 
@@ -170,7 +326,21 @@ public abstract class AbstractMavenExecutor
             configurationFile = System.getProperty( "user.home" ) + configurationFile.substring( 1 );
         }
 
-        String file = System.getProperty( DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION, configurationFile );
+        return System.getProperty( DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION, configurationFile );
+    }
+
+    /**
+     * @return the decrypted master password, which is only read again when the settings security file has changed
+     */
+    private synchronized String getMasterPassword()
+        throws IllegalStateException, SecDispatcherException, PlexusCipherException
+    {
+        String file = getSecurityFile();
+        long lastModified = new File( file ).lastModified();
+        if ( masterPassword != null && file.equals( masterPasswordFile ) && lastModified == masterPasswordLastModified )
+        {
+            return masterPassword;
+        }
 
         String master = null;
 
@@ -186,8 +356,10 @@ public abstract class AbstractMavenExecutor
         }
 
         DefaultPlexusCipher cipher = new DefaultPlexusCipher();
-        String masterPasswd = cipher.decryptDecorated( master, DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION );
-        return cipher.encryptAndDecorate( passwd, masterPasswd );
+        masterPassword = cipher.decryptDecorated( master, DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION );
+        masterPasswordFile = file;
+        masterPasswordLastModified = lastModified;
+        return masterPassword;
     }
 
     private boolean isEncryptedString( String str )
@@ -0,0 +1,370 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+
+/**
+ * Passes the lines of a build to another handler on a separate thread, so that the build does not wait for slow
+ * logging. The lines are queued and handed over in batches. When the queue is full, the lines are dropped, the build
+ * waits, or the lines are spilled to a temporary file, as set by the system property {@value #OVERFLOW_PROPERTY}.
+ * <p>
+ * All queued lines have been handled once the handler has been {@link #close() closed}. A line the other handler fails
+ * on is skipped, the number of such lines is reported at the end.
+ *
+ * @since 3.0.0
+ */
+class AsyncOutputHandler
+    implements InvocationOutputHandler, Runnable, AutoCloseable
+{
+    /**
+     * The system property with the number of lines which can be queued, <code>0</code> to handle every line right
+     * away.
+     */
+    public static final String QUEUE_SIZE_PROPERTY = "maven.release.output.queueSize";
+
+    /**
+     * The system property with what happens to a line when the queue is full, <code>drop</code>, <code>block</code>
+     * or <code>spill</code>.
+     */
+    public static final String OVERFLOW_PROPERTY = "maven.release.output.overflow";
+
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+    private static final long BLOCK_WAIT = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+    /**
+     * What happens to a line when the queue is full.
+     */
+    enum Overflow
+    {
+        /**
+         * The line is dropped, the number of dropped lines is reported at the end.
+         */
+        DROP,
+
+        /**
+         * The build waits until there is room in the queue.
+         */
+        BLOCK,
+
+        /**
+         * The line and all following lines are written to a temporary file until it has been handled.
+         */
+        SPILL
+    }
+
+    private final InvocationOutputHandler handler;
+
+    private final int capacity;
+
+    private final Overflow overflow;
+
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The number of lines the handler has failed on, only accessed by the writer until it has ended.
+     */
+    private long failed;
+
+    private RuntimeException failure;
+
+    private final Object spillLock = new Object();
+
+    /**
+     * Whether lines are spilled, the queue is empty then.
+     */
+    private volatile boolean spilling;
+
+    private File spillFile;
+
+    private Writer spillWriter;
+
+    private volatile boolean idle;
+
+    private volatile boolean closed;
+
+    private final Thread writer;
+
+    /**
+     * @param handler the handler to pass the lines to, on a separate thread
+     * @param capacity the number of lines which can be queued
+     * @param overflow what happens to a line when the queue is full
+     */
+    AsyncOutputHandler( InvocationOutputHandler handler, int capacity, Overflow overflow )
+    {
+        this.handler = handler;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        writer = new Thread( this, "build-output-writer" );
+        writer.setDaemon( true );
+        writer.start();
+    }
+
+    /**
+     * @param handler the handler to pass the lines to
+     * @return an asynchronous handler as configured by the system properties, or the handler itself if lines are not
+     *         to be queued
+     */
+    static InvocationOutputHandler wrap( InvocationOutputHandler handler )
+    {
+        int capacity = Integer.getInteger( QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE );
+        if ( handler == null || capacity <= 0 )
+        {
+            return handler;
+        }
+        String overflow = System.getProperty( OVERFLOW_PROPERTY, Overflow.BLOCK.name() );
+        return new AsyncOutputHandler( handler, capacity, Overflow.valueOf( overflow.toUpperCase( Locale.ENGLISH ) ) );
+    }
+
+    @Override
+    public void consumeLine( String line )
+    {
+        if ( !spilling && size.get() < capacity )
+        {
+            enqueue( line );
+            return;
+        }
+
+        switch ( overflow )
+        {
+            case DROP:
+                dropped.incrementAndGet();
+                break;
+            case SPILL:
+                spill( line );
+                break;
+            default:
+                while ( size.get() >= capacity && !closed && writer.isAlive() )
+                {
+                    LockSupport.parkNanos( this, BLOCK_WAIT );
+                }
+                if ( writer.isAlive() )
+                {
+                    enqueue( line );
+                }
+                else
+                {
+                    // nothing takes the line off the queue any more
+                    handler.consumeLine( line );
+                }
+        }
+    }
+
+    private void enqueue( String line )
+    {
+        queue.add( line );
+        size.incrementAndGet();
+        if ( idle )
+        {
+            LockSupport.unpark( writer );
+        }
+    }
+
+    private void spill( String line )
+    {
+        synchronized ( spillLock )
+        {
+            try
+            {
+                if ( spillWriter == null )
+                {
+                    spillFile = File.createTempFile( "maven-release-output", ".log" );
+                    spillFile.deleteOnExit();
+                    spillWriter = Files.newBufferedWriter( spillFile.toPath(), StandardCharsets.UTF_8 );
+                }
+                spillWriter.write( line );
+                spillWriter.write( '\n' );
+                spilling = true;
+            }
+            catch ( IOException e )
+            {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Waits until all lines have been handled and stops the thread handling them.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        LockSupport.unpark( writer );
+        boolean interrupted = false;
+        while ( writer.isAlive() )
+        {
+            try
+            {
+                writer.join();
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+        if ( dropped.get() > 0 )
+        {
+            handler.consumeLine( dropped.get() + " lines of the build output have been dropped" );
+        }
+        if ( failed > 0 )
+        {
+            handler.consumeLine( failed + " lines of the build output could not be handled: " + failure );
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        List<String> batch = new ArrayList<>( BATCH_SIZE );
+        while ( true )
+        {
+            // read before draining, so that no line queued before closing is missed
+            boolean last = closed;
+
+            String line = queue.poll();
+            while ( line != null )
+            {
+                batch.add( line );
+                line = batch.size() < BATCH_SIZE ? queue.poll() : null;
+            }
+            if ( !batch.isEmpty() )
+            {
+                size.addAndGet( -batch.size() );
+                for ( String batchLine : batch )
+                {
+                    handle( batchLine );
+                }
+                batch.clear();
+                continue;
+            }
+
+            if ( spilling )
+            {
+                handleSpill();
+                continue;
+            }
+
+            if ( last )
+            {
+                return;
+            }
+            idle = true;
+            if ( queue.isEmpty() && !spilling && !closed )
+            {
+                LockSupport.parkNanos( this, IDLE_WAIT );
+            }
+            idle = false;
+        }
+    }
+
+    /**
+     * Passes a line to the handler, a failing handler must not end the writer as the build would wait for it.
+     */
+    private void handle( String line )
+    {
+        try
+        {
+            handler.consumeLine( line );
+        }
+        catch ( RuntimeException e )
+        {
+            failed++;
+            if ( failure == null )
+            {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Handles the spilled lines, lines spilled meanwhile go to a new file.
+     */
+    private void handleSpill()
+    {
+        File file;
+        synchronized ( spillLock )
+        {
+            if ( spillWriter == null )
+            {
+                // everything has been handled, new lines can be queued again
+                spilling = false;
+                return;
+            }
+            file = spillFile;
+            try
+            {
+                spillWriter.close();
+            }
+            catch ( IOException e )
+            {
+                // read what has been written
+            }
+            spillWriter = null;
+            spillFile = null;
+        }
+
+        try ( BufferedReader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 ) )
+        {
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                handle( line );
+            }
+        }
+        catch ( IOException e )
+        {
+            handle( "Cannot read the spilled build output: " + e.getMessage() );
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.release.BuildEvent;
+import org.apache.maven.shared.release.PhaseMetrics;
+
+/**
+ * Recognizes the modules, tests and results in the console output of a Maven build and records them as
+ * {@link BuildEvent}s in the metrics of the phase. As an output stream it passes everything to another stream and
+ * parses it on the way.
+ * <p>
+ * The tests are attributed to the module built last, unless the build is multithreaded: the modules are built
+ * concurrently then, and their tests are recorded without a module.
+ *
+ * @since 3.0.0
+ */
+class BuildOutputParser
+    extends OutputStream
+{
+    /**
+     * Longer lines are not parsed, Maven does not print anything of interest in them.
+     */
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private static final long SECOND = 1000;
+
+    private static final long MINUTE = SECONDS_PER_MINUTE * SECOND;
+
+    private static final long HOUR = SECONDS_PER_MINUTE * MINUTE;
+
+    private static final Pattern ANSI_ESCAPE = Pattern.compile( "\u001B\\[[;\\d]*m" );
+
+    private static final Pattern LEVEL = Pattern.compile( "^\\[(?:DEBUG|INFO|WARN|WARNING|ERROR)\\] " );
+
+    // only printed with more than one thread, like "Using the MultiThreadedBuilder implementation with a thread
+    // count of 4"
+    private static final Pattern MULTITHREADED =
+        Pattern.compile( "^Using the \\w+ implementation with a thread count of \\d+$" );
+
+    // not the archives of the build, like "Building jar: /path/to/module.jar"
+    private static final Pattern MODULE_STARTED =
+        Pattern.compile( "^Building (?!\\w+: )(.+?) (\\S+?)(?:\\s+\\[\\d+/\\d+\\])?$" );
+
+    private static final Pattern REACTOR_SUMMARY = Pattern.compile( "^Reactor Summary\\b.*" );
+
+    private static final Pattern MODULE_FINISHED =
+        Pattern.compile( "^(.+?) \\.* ?(SUCCESS|FAILURE|SKIPPED)(?: \\[\\s*([\\d.,:]+) ?(s|min|h)\\])?$" );
+
+    // not the results of a single test class, which end with ", Time elapsed: ..."
+    private static final Pattern TESTS_COMPLETED =
+        Pattern.compile( "^Tests run: (\\d+), Failures: (\\d+), Errors: (\\d+), Skipped: (\\d+)$" );
+
+    private static final Pattern BUILD_FINISHED = Pattern.compile( "^BUILD (SUCCESS|FAILURE)$" );
+
+    private static final Pattern TOTAL_TIME = Pattern.compile( "^Total time: *([\\d.,:]+) ?(s|min|h)\\b.*" );
+
+    private final PhaseMetrics metrics;
+
+    private final OutputStream out;
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private boolean overflow;
+
+    private String module;
+
+    private boolean multithreaded;
+
+    private boolean summary;
+
+    private boolean modulesFinished;
+
+    private String result;
+
+    /**
+     * @param metrics the metrics to record the events in
+     * @param out the stream to pass the output to, may be <code>null</code>
+     */
+    BuildOutputParser( PhaseMetrics metrics, OutputStream out )
+    {
+        this.metrics = metrics;
+        this.out = out;
+    }
+
+    /**
+     * Parses the output passed to a stream if a phase is executing on the current thread.
+     *
+     * @param out the stream to pass the output to, may be <code>null</code>
+     * @return the stream to write the output to
+     */
+    static OutputStream parse( OutputStream out )
+    {
+        // the metrics are bound to the thread of the phase, not to the threads reading the output of the build
+        PhaseMetrics metrics = PhaseMetrics.current();
+        return metrics != null ? new BuildOutputParser( metrics, out ) : out;
+    }
+
+    @Override
+    public void write( int b )
+        throws IOException
+    {
+        if ( out != null )
+        {
+            out.write( b );
+        }
+        append( b );
+    }
+
+    @Override
+    public void write( byte[] b, int off, int len )
+        throws IOException
+    {
+        if ( out != null )
+        {
+            out.write( b, off, len );
+        }
+        int end = off + len;
+        int start = off;
+        for ( int i = off; i < end; i++ )
+        {
+            if ( b[i] == '\n' )
+            {
+                append( b, start, i - start );
+                endLine();
+                start = i + 1;
+            }
+        }
+        append( b, start, end - start );
+    }
+
+    @Override
+    public void flush()
+        throws IOException
+    {
+        if ( out != null )
+        {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            if ( line.size() > 0 )
+            {
+                endLine();
+            }
+            finish();
+        }
+        finally
+        {
+            if ( out != null )
+            {
+                out.close();
+            }
+        }
+    }
+
+    private void append( int b )
+    {
+        if ( b == '\n' )
+        {
+            endLine();
+        }
+        else if ( line.size() < MAX_LINE_LENGTH )
+        {
+            line.write( b );
+        }
+        else
+        {
+            overflow = true;
+        }
+    }
+
+    private void append( byte[] b, int off, int len )
+    {
+        int room = MAX_LINE_LENGTH - line.size();
+        if ( len > room )
+        {
+            overflow = true;
+            line.write( b, off, room );
+        }
+        else
+        {
+            line.write( b, off, len );
+        }
+    }
+
+    private void endLine()
+    {
+        if ( !overflow )
+        {
+            consumeLine( new String( line.toByteArray(), Charset.defaultCharset() ) );
+        }
+        line.reset();
+        overflow = false;
+    }
+
+    /**
+     * Parses a line of the output. The lines of the standard and the error output may be passed from different
+     * threads.
+     *
+     * @param rawLine the line, without line terminator
+     */
+    synchronized void consumeLine( String rawLine )
+    {
+        String text = ANSI_ESCAPE.matcher( rawLine ).replaceAll( "" ).trim();
+        text = LEVEL.matcher( text ).replaceFirst( "" ).trim();
+        if ( text.isEmpty() )
+        {
+            return;
+        }
+
+        // one matcher tries all patterns, most lines do not match any of them
+        Matcher matcher = BUILD_FINISHED.matcher( text );
+        if ( matcher.matches() )
+        {
+            // the duration follows on the next lines
+            summary = false;
+            result = matcher.group( 1 );
+        }
+        else if ( summary && matcher.usePattern( MODULE_FINISHED ).matches() )
+        {
+            long duration = matcher.group( 3 ) != null ? parseDuration( matcher.group( 3 ), matcher.group( 4 ) ) : -1;
+            metrics.addBuildEvent( BuildEvent.moduleFinished( matcher.group( 1 ), matcher.group( 2 ), duration ) );
+            modulesFinished = true;
+        }
+        else if ( matcher.usePattern( REACTOR_SUMMARY ).matches() )
+        {
+            summary = true;
+        }
+        else if ( matcher.usePattern( MULTITHREADED ).matches() )
+        {
+            multithreaded = true;
+        }
+        else if ( matcher.usePattern( MODULE_STARTED ).matches() )
+        {
+            module = matcher.group( 1 );
+            metrics.addBuildEvent( BuildEvent.moduleStarted( module ) );
+        }
+        else if ( matcher.usePattern( TESTS_COMPLETED ).matches() )
+        {
+            // the module built last is not necessarily the one which has run the tests
+            String testModule = multithreaded ? null : module;
+            metrics.addBuildEvent( BuildEvent.testsCompleted( testModule, Integer.parseInt( matcher.group( 1 ) ),
+                                                              Integer.parseInt( matcher.group( 2 ) ),
+                                                              Integer.parseInt( matcher.group( 3 ) ),
+                                                              Integer.parseInt( matcher.group( 4 ) ) ) );
+        }
+        else if ( result != null && matcher.usePattern( TOTAL_TIME ).matches() )
+        {
+            buildFinished( parseDuration( matcher.group( 1 ), matcher.group( 2 ) ) );
+        }
+    }
+
+    /**
+     * Records the result of the build if its duration has not been printed.
+     */
+    synchronized void finish()
+    {
+        if ( result != null )
+        {
+            buildFinished( -1 );
+        }
+    }
+
+    private void buildFinished( long duration )
+    {
+        // a build of a single module has no reactor summary
+        if ( !modulesFinished && module != null )
+        {
+            metrics.addBuildEvent( BuildEvent.moduleFinished( module, result, duration ) );
+        }
+        metrics.addBuildEvent( BuildEvent.buildFinished( result, duration ) );
+        result = null;
+        module = null;
+        multithreaded = false;
+        modulesFinished = false;
+    }
+
+    /**
+     * @param value the duration as printed by Maven, like <code>1.234</code>, <code>01:02</code> or
+     *            <code>1:02.345</code>
+     * @param unit <code>s</code>, <code>min</code> or <code>h</code>, the unit of the first part of the value
+     * @return the duration in milliseconds, <code>-1</code> if it cannot be parsed
+     */
+    static long parseDuration( String value, String unit )
+    {
+        String[] parts = value.replace( ',', '.' ).split( ":" );
+        double duration = 0;
+        try
+        {
+            for ( String part : parts )
+            {
+                duration = duration * SECONDS_PER_MINUTE + Double.parseDouble( part );
+            }
+        }
+        catch ( NumberFormatException e )
+        {
+            return -1;
+        }
+
+        // "01:02 min" are minutes and seconds, "01:02 h" hours and minutes
+        long lastUnit;
+        if ( "h".equals( unit ) )
+        {
+            lastUnit = parts.length > 1 ? MINUTE : HOUR;
+        }
+        else if ( "min".equals( unit ) )
+        {
+            lastUnit = parts.length > 1 ? SECOND : MINUTE;
+        }
+        else
+        {
+            lastUnit = SECOND;
+        }
+        return Math.round( duration * lastUnit );
+    }
+}
@@ -0,0 +1,409 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.output.WriterOutputStream;
+import org.apache.maven.Maven;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequestPopulationException;
+import org.apache.maven.execution.MavenExecutionRequestPopulator;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
+import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.apache.maven.settings.building.SettingsBuildingRequest;
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.release.BuildEvent;
+import org.apache.maven.shared.release.OutputSink;
+import org.apache.maven.shared.release.PhaseMetrics;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Executes the goals inside the running Maven, which saves starting a new JVM and loading Maven and the plugins
+ * again for every execution. The goals get their own execution request and session, the session of the running
+ * build is restored afterwards. The additional arguments are parsed like the invoker does, alternate settings files
+ * included. The standard output of the build is copied to the output of the release.
+ * <p>
+ * The build is not isolated from the running Maven: it shares its core, its core extensions and the plugin realms
+ * already loaded, only the context class loader is switched to the one of the core. Therefore the goals are run by
+ * the invoker instead if the release environment asks for another Maven or Java home, or if the working directory
+ * configures the core in {@code .mvn}.
+ *
+ * @since 3.0.0
+ */
+@Component( role = MavenExecutor.class, hint = "embedded" )
+public class EmbeddedMavenExecutor
+    extends InvokerMavenExecutor
+{
+    @Requirement
+    private Maven maven;
+
+    @Requirement
+    private MavenExecutionRequestPopulator populator;
+
+    /**
+     * The files in {@code .mvn} which configure the core or the JVM of Maven.
+     */
+    private static final String[] CORE_CONFIGURATION = { "extensions.xml", "jvm.config", "maven.config" };
+
+    private static final int CAPTURE_BUFFER_SIZE = 8192;
+
+    @Requirement
+    private LegacySupport legacySupport;
+
+    @Requirement
+    private SettingsBuilder settingsBuilder;
+
+    @Override
+    public void executeGoals( File workingDirectory, List<String> goals, ReleaseEnvironment releaseEnvironment,
+                              boolean interactive, String additionalArguments, String pomFileName,
+                              ReleaseResult result )
+        throws MavenExecutorException
+    {
+        String forkReason = getForkReason( workingDirectory, releaseEnvironment );
+        if ( forkReason != null )
+        {
+            getLogger().info( forkReason + ", the goals cannot run inside the running Maven" );
+            super.executeGoals( workingDirectory, goals, releaseEnvironment, interactive, additionalArguments,
+                                pomFileName, result );
+            return;
+        }
+
+        MavenExecutionRequest request =
+            createExecutionRequest( workingDirectory, goals, releaseEnvironment, interactive, additionalArguments,
+                                    pomFileName, result );
+
+        String message = "Executing goals " + goals + " in " + workingDirectory;
+        getLogger().info( message );
+        result.appendInfo( message );
+
+        MavenSession session = legacySupport.getSession();
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        MavenExecutionResult executionResult;
+
+        // the loggers of the running Maven print to the standard output, which is copied for the duration of the build
+        OutputSink stdOutSink = new OutputSink();
+        OutputStream stdOutCapture =
+            new WriterOutputStream( stdOutSink.getWriter(), Charset.defaultCharset(), CAPTURE_BUFFER_SIZE, true );
+        PrintStream stdOut = System.out;
+        result.getOutputSink().append( stdOutSink );
+        long start = System.currentTimeMillis();
+        try
+        {
+            System.setOut( new PrintStream( new TeeOutputStream( stdOut, "", stdOutCapture ), true ) );
+            // the build must not see the classes of the plugin running the release
+            thread.setContextClassLoader( Maven.class.getClassLoader() );
+
+            executionResult = maven.execute( request );
+        }
+        catch ( RuntimeException e )
+        {
+            throw new MavenExecutorException( "Error executing Maven.", e );
+        }
+        finally
+        {
+            thread.setContextClassLoader( contextClassLoader );
+            System.setOut( stdOut );
+            IOUtil.close( stdOutCapture );
+            legacySupport.setSession( session );
+        }
+
+        PhaseMetrics metrics = PhaseMetrics.current();
+        if ( metrics != null )
+        {
+            metrics.addBuildEvent( BuildEvent.buildFinished( executionResult.hasExceptions() ? BuildEvent.FAILURE
+                            : BuildEvent.SUCCESS, System.currentTimeMillis() - start ) );
+        }
+
+        if ( executionResult.hasExceptions() )
+        {
+            List<Throwable> exceptions = executionResult.getExceptions();
+            for ( Throwable exception : exceptions )
+            {
+                result.appendError( String.valueOf( exception ) );
+            }
+            throw new MavenExecutorException( "Maven execution failed: " + exceptions.get( 0 ).getMessage(),
+                                              exceptions.get( 0 ) );
+        }
+    }
+
+    MavenExecutionRequest createExecutionRequest( File workingDirectory, List<String> goals,
+                                                  ReleaseEnvironment releaseEnvironment, boolean interactive,
+                                                  String additionalArguments, String pomFileName,
+                                                  final ReleaseResult result )
+        throws MavenExecutorException
+    {
+        InvocationRequest invocation = new DefaultInvocationRequest().setInteractive( interactive );
+        if ( pomFileName != null )
+        {
+            invocation.setPomFileName( pomFileName );
+        }
+        setupRequest( invocation, getInvokerLogger(), additionalArguments );
+
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setStartTime( new Date() );
+        request.setBaseDirectory( workingDirectory );
+        request.setPom( new File( workingDirectory, invocation.getPomFileName() != null ? invocation.getPomFileName()
+                        : "pom.xml" ) );
+        request.setGoals( goals );
+        request.setInteractiveMode( invocation.isInteractive() );
+        request.setOffline( invocation.isOffline() );
+        request.setRecursive( invocation.isRecursive() );
+        request.setUpdateSnapshots( invocation.isUpdateSnapshots() );
+        request.setShowErrors( invocation.isShowErrors() );
+        request.setLoggingLevel( invocation.isDebug() || getLogger().isDebugEnabled()
+                        ? MavenExecutionRequest.LOGGING_LEVEL_DEBUG : MavenExecutionRequest.LOGGING_LEVEL_INFO );
+
+        Properties systemProperties = new Properties();
+        systemProperties.putAll( System.getProperties() );
+        request.setSystemProperties( systemProperties );
+        if ( invocation.getProperties() != null )
+        {
+            request.setUserProperties( invocation.getProperties() );
+        }
+
+        if ( invocation.getProfiles() != null )
+        {
+            request.setActiveProfiles( invocation.getProfiles() );
+        }
+        if ( InvocationRequest.CHECKSUM_POLICY_FAIL.equals( invocation.getGlobalChecksumPolicy() ) )
+        {
+            request.setGlobalChecksumPolicy( MavenExecutionRequest.CHECKSUM_POLICY_FAIL );
+        }
+        else if ( InvocationRequest.CHECKSUM_POLICY_WARN.equals( invocation.getGlobalChecksumPolicy() ) )
+        {
+            request.setGlobalChecksumPolicy( MavenExecutionRequest.CHECKSUM_POLICY_WARN );
+        }
+        request.setReactorFailureBehavior( getReactorFailureBehavior( invocation.getFailureBehavior() ) );
+        if ( invocation.getThreads() != null )
+        {
+            request.setThreadCount( invocation.getThreads().replace( "C", "" ) );
+            request.setPerCoreThreadCount( invocation.getThreads().contains( "C" ) );
+        }
+        if ( invocation.getToolchainsFile() != null )
+        {
+            request.setUserToolchainsFile( invocation.getToolchainsFile() );
+        }
+        Settings settings = releaseEnvironment.getSettings();
+        if ( invocation.getUserSettingsFile() != null || invocation.getGlobalSettingsFile() != null )
+        {
+            settings = buildSettings( invocation, request );
+        }
+
+        File localRepoDir = releaseEnvironment.getLocalRepositoryDirectory();
+        if ( localRepoDir != null )
+        {
+            request.setLocalRepositoryPath( localRepoDir );
+        }
+
+        // the projects may be built by other threads, which do not see the metrics of the phase
+        final PhaseMetrics metrics = PhaseMetrics.current();
+        request.setExecutionListener( new AbstractExecutionListener()
+        {
+            private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+
+            @Override
+            public void projectStarted( ExecutionEvent event )
+            {
+                result.appendInfo( "Building " + event.getProject().getName() );
+                startTimes.put( event.getProject().getId(), System.currentTimeMillis() );
+                if ( metrics != null )
+                {
+                    metrics.addBuildEvent( BuildEvent.moduleStarted( event.getProject().getName() ) );
+                }
+            }
+
+            @Override
+            public void projectSucceeded( ExecutionEvent event )
+            {
+                projectFinished( event, BuildEvent.SUCCESS );
+            }
+
+            @Override
+            public void projectFailed( ExecutionEvent event )
+            {
+                result.appendInfo( "Failed " + event.getProject().getName() );
+                projectFinished( event, BuildEvent.FAILURE );
+            }
+
+            @Override
+            public void projectSkipped( ExecutionEvent event )
+            {
+                projectFinished( event, BuildEvent.SKIPPED );
+            }
+
+            private void projectFinished( ExecutionEvent event, String projectResult )
+            {
+                Long startTime = startTimes.remove( event.getProject().getId() );
+                if ( metrics != null )
+                {
+                    long duration = startTime != null ? System.currentTimeMillis() - startTime : -1;
+                    metrics.addBuildEvent(
+                        BuildEvent.moduleFinished( event.getProject().getName(), projectResult, duration ) );
+                }
+            }
+        } );
+
+        try
+        {
+            if ( settings != null )
+            {
+                populator.populateFromSettings( request, settings );
+            }
+            populator.populateDefaults( request );
+        }
+        catch ( MavenExecutionRequestPopulationException e )
+        {
+            throw new MavenExecutorException( "Failed to set up the Maven execution request.", e );
+        }
+
+        return request;
+    }
+
+    /**
+     * @return why the goals cannot run inside the running Maven, or <code>null</code> if they can
+     */
+    String getForkReason( File workingDirectory, ReleaseEnvironment releaseEnvironment )
+    {
+        File mavenHome = releaseEnvironment.getMavenHome();
+        if ( mavenHome != null && !isSameFile( mavenHome, System.getProperty( "maven.home" ) ) )
+        {
+            return "The Maven home " + mavenHome + " is not the one of the running Maven";
+        }
+        File javaHome = releaseEnvironment.getJavaHome();
+        if ( javaHome != null && !isSameFile( javaHome, System.getProperty( "java.home" ) )
+            && !isSameFile( new File( javaHome, "jre" ), System.getProperty( "java.home" ) ) )
+        {
+            return "The Java home " + javaHome + " is not the one of the running Maven";
+        }
+        for ( String name : CORE_CONFIGURATION )
+        {
+            File file = new File( workingDirectory, ".mvn" + File.separator + name );
+            if ( file.isFile() )
+            {
+                return file + " configures Maven";
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameFile( File file, String path )
+    {
+        if ( path == null )
+        {
+            return false;
+        }
+        try
+        {
+            return file.getCanonicalFile().equals( new File( path ).getCanonicalFile() );
+        }
+        catch ( IOException e )
+        {
+            return file.getAbsoluteFile().equals( new File( path ).getAbsoluteFile() );
+        }
+    }
+
+    /**
+     * Reads the settings like the command line does if an alternate settings file is given, the other file is
+     * looked up at its default location.
+     */
+    private Settings buildSettings( InvocationRequest invocation, MavenExecutionRequest request )
+        throws MavenExecutorException
+    {
+        File userSettingsFile = invocation.getUserSettingsFile();
+        if ( userSettingsFile == null )
+        {
+            userSettingsFile = new File( System.getProperty( "user.home" ), ".m2" + File.separator + "settings.xml" );
+        }
+        File globalSettingsFile = invocation.getGlobalSettingsFile();
+        if ( globalSettingsFile == null && System.getProperty( "maven.home" ) != null )
+        {
+            globalSettingsFile =
+                new File( System.getProperty( "maven.home" ), "conf" + File.separator + "settings.xml" );
+        }
+        request.setUserSettingsFile( userSettingsFile );
+        request.setGlobalSettingsFile( globalSettingsFile );
+
+        SettingsBuildingRequest settingsRequest = new DefaultSettingsBuildingRequest();
+        settingsRequest.setUserSettingsFile( userSettingsFile );
+        settingsRequest.setGlobalSettingsFile( globalSettingsFile );
+        settingsRequest.setSystemProperties( request.getSystemProperties() );
+        settingsRequest.setUserProperties( request.getUserProperties() );
+        try
+        {
+            return settingsBuilder.build( settingsRequest ).getEffectiveSettings();
+        }
+        catch ( SettingsBuildingException e )
+        {
+            throw new MavenExecutorException( "Failed to read the settings: " + e.getMessage(), e );
+        }
+    }
+
+    private static String getReactorFailureBehavior( String failureBehavior )
+    {
+        if ( InvocationRequest.REACTOR_FAIL_AT_END.equals( failureBehavior ) )
+        {
+            return MavenExecutionRequest.REACTOR_FAIL_AT_END;
+        }
+        else if ( InvocationRequest.REACTOR_FAIL_NEVER.equals( failureBehavior ) )
+        {
+            return MavenExecutionRequest.REACTOR_FAIL_NEVER;
+        }
+        return MavenExecutionRequest.REACTOR_FAIL_FAST;
+    }
+
+    void setMaven( Maven maven )
+    {
+        this.maven = maven;
+    }
+
+    void setPopulator( MavenExecutionRequestPopulator populator )
+    {
+        this.populator = populator;
+    }
+
+    void setLegacySupport( LegacySupport legacySupport )
+    {
+        this.legacySupport = legacySupport;
+    }
+}
@@ -20,23 +20,30 @@ package org.apache.maven.shared.release.exec;
  */
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 
-import org.apache.maven.settings.io.xpp3.SettingsXpp3Writer;
+import org.apache.commons.io.output.WriterOutputStream;
+import org.apache.maven.shared.release.OutputSink;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.Commandline;
 
 /**
  * Fork Maven to executed a series of goals.
+ * <p>
+ * An execution can be limited in time with {@link ReleaseEnvironment#getTimeout()} and
+ * {@link ReleaseEnvironment#getInactivityTimeout()}, or the system properties {@value #TIMEOUT_PROPERTY} and
+ * {@value #INACTIVITY_TIMEOUT_PROPERTY}. When a limit is exceeded, the forked JVMs are asked for a thread dump, which
+ * ends up in the output of the execution, and are then terminated.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
@@ -44,6 +51,18 @@ import org.codehaus.plexus.util.cli.Commandline;
 public class ForkedMavenExecutor
     extends AbstractMavenExecutor
 {
+    private static final int CAPTURE_BUFFER_SIZE = 8192;
+
+    /**
+     * The time in milliseconds a terminated process gets to end before it is killed.
+     */
+    private static final long TERMINATE_WAIT = 30000;
+
+    /**
+     * The time in milliseconds to wait for the rest of the output once the process has ended.
+     */
+    private static final long DRAIN_TIMEOUT = 10000;
+
     /**
      * Command line factory.
      */
@@ -76,90 +95,86 @@ public class ForkedMavenExecutor
             // Have to serialize to a file as if Maven is embedded, there may not actually be a settings.xml on disk
             try
             {
-                settingsFile = File.createTempFile( "release-settings", ".xml" );
-                SettingsXpp3Writer writer = getSettingsWriter();
-                
-                try ( FileWriter fileWriter = new FileWriter( settingsFile ) )
-                {
-                    writer.write( fileWriter, encryptSettings( releaseEnvironment.getSettings() ) );
-                }
+                settingsFile = getSettingsFile( releaseEnvironment.getSettings() );
             }
             catch ( IOException e )
             {
                 throw new MavenExecutorException( "Could not create temporary file for release settings.xml", e );
             }
         }
-        try
-        {
 
-            Commandline cl =
-                commandLineFactory.createCommandLine( mavenPath + File.separator + "bin" + File.separator + "mvn" );
+        Commandline cl =
+            commandLineFactory.createCommandLine( mavenPath + File.separator + "bin" + File.separator + "mvn" );
 
-            cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
 
-            cl.addEnvironment( "MAVEN_TERMINATE_CMD", "on" );
+        cl.addEnvironment( "MAVEN_TERMINATE_CMD", "on" );
 
-            cl.addEnvironment( "M2_HOME", mavenPath );
+        cl.addEnvironment( "M2_HOME", mavenPath );
 
-            if ( settingsFile != null )
-            {
-                cl.createArg().setValue( "-s" );
-                cl.createArg().setFile( settingsFile );
-            }
+        if ( settingsFile != null )
+        {
+            cl.createArg().setValue( "-s" );
+            cl.createArg().setFile( settingsFile );
+        }
 
-            if ( pomFileName != null )
-            {
-                cl.createArg().setValue( "-f" );
-                cl.createArg().setValue( pomFileName );
-            }
+        if ( pomFileName != null )
+        {
+            cl.createArg().setValue( "-f" );
+            cl.createArg().setValue( pomFileName );
+        }
 
-            for ( String goal : goals )
-            {
-                cl.createArg().setValue( goal );
-            }
+        for ( String goal : goals )
+        {
+            cl.createArg().setValue( goal );
+        }
 
-            if ( !interactive )
-            {
-                cl.createArg().setValue( "--batch-mode" );
-            }
+        if ( !interactive )
+        {
+            cl.createArg().setValue( "--batch-mode" );
+        }
 
-            if ( !StringUtils.isEmpty( additionalArguments ) )
-            {
-                cl.createArg().setLine( additionalArguments );
-            }
+        if ( !StringUtils.isEmpty( additionalArguments ) )
+        {
+            cl.createArg().setLine( additionalArguments );
+        }
 
-            TeeOutputStream stdOut = new TeeOutputStream( System.out );
+        // the output of a build can be large, it is collected in a sink which spills it to disk
+        OutputSink stdOutSink = new OutputSink();
+        OutputStream stdOutCapture = BuildOutputParser.parse(
+            new WriterOutputStream( stdOutSink.getWriter(), Charset.defaultCharset(), CAPTURE_BUFFER_SIZE, true ) );
 
-            TeeOutputStream stdErr = new TeeOutputStream( System.err );
+        // the exception of a failed build only carries the last lines
+        int tailLines = TeeOutputStream.getDefaultTailLines();
+        TeeOutputStream stdOut = new TeeOutputStream( System.out, "    ", stdOutCapture, tailLines );
 
-            try
-            {
-                relResult.appendInfo( "Executing: " + cl.toString() );
-                getLogger().info( "Executing: " + cl.toString() );
+        TeeOutputStream stdErr = new TeeOutputStream( System.err, "    ", null, tailLines );
 
-                int result = executeCommandLine( cl, System.in, stdOut, stdErr );
+        relResult.appendInfo( "Executing: " + cl.toString() );
+        relResult.getOutputSink().append( stdOutSink );
+        try
+        {
+            getLogger().info( "Executing: " + cl.toString() );
 
-                if ( result != 0 )
-                {
-                    throw new MavenExecutorException( "Maven execution failed, exit code: \'" + result + "\'", result,
-                                                      stdOut.toString(), stdErr.toString() );
-                }
-            }
-            catch ( CommandLineException e )
-            {
-                throw new MavenExecutorException( "Can't run goal " + goals, stdOut.toString(), stdErr.toString(), e );
-            }
-            finally
+            // there is nothing to read from the console in batch mode
+            int result = executeCommandLine( cl, interactive ? System.in : null, stdOut, stdErr,
+                                             getTimeout( goals, releaseEnvironment ),
+                                             getInactivityTimeout( releaseEnvironment ) );
+
+            if ( result != 0 )
             {
-                relResult.appendOutput( stdOut.toString() );
+                throw new MavenExecutorException( "Maven execution failed, exit code: \'" + result + "\'", result,
+                                                  stdOut.toString(), stdErr.toString() );
             }
         }
+        catch ( CommandLineException e )
+        {
+            throw new MavenExecutorException( "Can't run goal " + goals + ": " + e.getMessage(), stdOut.toString(),
+                                              stdErr.toString(), e );
+        }
         finally
         {
-            if ( settingsFile != null && settingsFile.exists() && !settingsFile.delete() )
-            {
-                settingsFile.deleteOnExit();
-            }
+            IOUtil.close( stdOutCapture );
         }
     }
 
@@ -168,10 +183,26 @@ public class ForkedMavenExecutor
         this.commandLineFactory = commandLineFactory;
     }
 
-
     public static int executeCommandLine( Commandline cl, InputStream systemIn, OutputStream systemOut,
                                           OutputStream systemErr )
         throws CommandLineException
+    {
+        return executeCommandLine( cl, systemIn, systemOut, systemErr, 0, 0 );
+    }
+
+    /**
+     * Executes a command line and ends the process when it exceeds a limit.
+     *
+     * @param timeout the time in milliseconds the process may run, <code>0</code> for no limit
+     * @param inactivityTimeout the time in milliseconds the process may run without writing any output,
+     *            <code>0</code> for no limit
+     * @return the exit code of the process
+     * @throws CommandLineException if the process cannot be executed or has been ended because of a limit
+     * @since 3.0.0
+     */
+    public static int executeCommandLine( Commandline cl, InputStream systemIn, OutputStream systemOut,
+                                          OutputStream systemErr, long timeout, long inactivityTimeout )
+        throws CommandLineException
     {
         if ( cl == null )
         {
@@ -180,6 +211,15 @@ public class ForkedMavenExecutor
 
         Process p = cl.execute();
 
+        ProcessWatchdog watchdog = null;
+        if ( timeout > 0 || inactivityTimeout > 0 )
+        {
+            watchdog = new ProcessWatchdog( p, timeout, inactivityTimeout, TERMINATE_WAIT );
+            systemOut = watchdog.watch( systemOut );
+            systemErr = watchdog.watch( systemErr );
+            watchdog.start();
+        }
+
         //processes.put( new Long( cl.getPid() ), p );
 
         RawStreamPumper inputFeeder = null;
@@ -188,6 +228,17 @@ public class ForkedMavenExecutor
         {
             inputFeeder = new RawStreamPumper( systemIn, p.getOutputStream(), true );
         }
+        else
+        {
+            try
+            {
+                p.getOutputStream().close();
+            }
+            catch ( IOException e )
+            {
+                //ignore
+            }
+        }
 
         RawStreamPumper outputPumper = new RawStreamPumper( p.getInputStream(), systemOut );
         RawStreamPumper errorPumper = new RawStreamPumper( p.getErrorStream(), systemErr );
@@ -209,16 +260,27 @@ public class ForkedMavenExecutor
             {
                 inputFeeder.setDone();
             }
-            outputPumper.setDone();
-            errorPumper.setDone();
+
+            // a child process which inherited the streams may keep them open
+            outputPumper.drain( DRAIN_TIMEOUT );
+            errorPumper.drain( DRAIN_TIMEOUT );
 
             //processes.remove( new Long( cl.getPid() ) );
 
+            if ( watchdog != null )
+            {
+                watchdog.stop();
+                if ( watchdog.getExpiry() != null )
+                {
+                    throw new CommandLineException( watchdog.getExpiry() + ", the process has been killed." );
+                }
+            }
+
             return returnValue;
         }
         catch ( InterruptedException ex )
         {
-            //killProcess( cl.getPid() );
+            p.destroy();
             throw new CommandLineException( "Error while executing external command, process killed.", ex );
         }
         finally
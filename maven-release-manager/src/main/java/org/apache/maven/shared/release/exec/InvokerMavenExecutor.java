@@ -19,9 +19,11 @@ package org.apache.maven.shared.release.exec;
  * under the License.
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
@@ -30,7 +32,7 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.PosixParser;
-import org.apache.maven.settings.io.xpp3.SettingsXpp3Writer;
+import org.apache.maven.shared.invoker.CommandLineConfigurationException;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
 import org.apache.maven.shared.invoker.DefaultInvoker;
 import org.apache.maven.shared.invoker.InvocationOutputHandler;
@@ -38,15 +40,21 @@ import org.apache.maven.shared.invoker.InvocationRequest;
 import org.apache.maven.shared.invoker.InvocationResult;
 import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.InvokerLogger;
+import org.apache.maven.shared.invoker.MavenCommandLineBuilder;
 import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.shared.release.PhaseMetrics;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
 
 /**
- * Fork Maven using the maven-invoker shared library.
+ * Fork Maven using the maven-invoker shared library. The invoker cannot end the process, so an execution limited in
+ * time with {@link ReleaseEnvironment#getTimeout()} or {@link ReleaseEnvironment#getInactivityTimeout()} runs the
+ * command line of the invoker like {@link ForkedMavenExecutor} does.
  */
 @Component( role = MavenExecutor.class, hint = "invoker" )
 @SuppressWarnings( "static-access" )
@@ -312,7 +320,16 @@ public class InvokerMavenExecutor
                               ReleaseResult result )
         throws MavenExecutorException
     {
-        InvocationOutputHandler handler = getOutputHandler();
+        // the build must not wait for the console
+        InvocationOutputHandler output = AsyncOutputHandler.wrap( getOutputHandler() );
+        InvocationOutputHandler handler = output;
+        PhaseMetrics metrics = PhaseMetrics.current();
+        BuildOutputParser parser = null;
+        if ( metrics != null )
+        {
+            parser = new BuildOutputParser( metrics, null );
+            handler = new ParsingHandler( handler, parser );
+        }
         InvokerLogger bridge = getInvokerLogger();
 
         File mavenPath = null;
@@ -353,13 +370,7 @@ public class InvokerMavenExecutor
             // Have to serialize to a file as if Maven is embedded, there may not actually be a settings.xml on disk
             try
             {
-                settingsFile = File.createTempFile( "release-settings", ".xml" );
-                SettingsXpp3Writer writer = getSettingsWriter();
-                
-                try ( FileWriter fileWriter = new FileWriter( settingsFile ) )
-                {
-                    writer.write( fileWriter, encryptSettings( releaseEnvironment.getSettings() ) );
-                }
+                settingsFile = getSettingsFile( releaseEnvironment.getSettings() );
                 req.setUserSettingsFile( settingsFile );
             }
             catch ( IOException e )
@@ -367,19 +378,27 @@ public class InvokerMavenExecutor
                 throw new MavenExecutorException( "Could not create temporary file for release settings.xml", e );
             }
         }
-        try
+
+        File localRepoDir = releaseEnvironment.getLocalRepositoryDirectory();
+        if ( localRepoDir != null )
         {
-            File localRepoDir = releaseEnvironment.getLocalRepositoryDirectory();
-            if ( localRepoDir != null )
-            {
-                req.setLocalRepositoryDirectory( localRepoDir );
-            }
+            req.setLocalRepositoryDirectory( localRepoDir );
+        }
 
-            setupRequest( req, bridge, additionalArguments );
+        setupRequest( req, bridge, additionalArguments );
 
-            req.setGoals( goals );
+        req.setGoals( goals );
 
-            try
+        try
+        {
+            int exitCode;
+            long timeout = getTimeout( goals, releaseEnvironment );
+            long inactivityTimeout = getInactivityTimeout( releaseEnvironment );
+            if ( timeout > 0 || inactivityTimeout > 0 )
+            {
+                exitCode = execute( req, mavenPath, bridge, handler, timeout, inactivityTimeout );
+            }
+            else
             {
                 InvocationResult invocationResult = invoker.execute( req );
 
@@ -388,27 +407,66 @@ public class InvokerMavenExecutor
                     throw new MavenExecutorException( "Error executing Maven.",
                                                       invocationResult.getExecutionException() );
                 }
-                if ( invocationResult.getExitCode() != 0 )
-                {
-                    throw new MavenExecutorException(
-                        "Maven execution failed, exit code: \'" + invocationResult.getExitCode() + "\'",
-                        invocationResult.getExitCode(), "", "" );
-                }
+                exitCode = invocationResult.getExitCode();
             }
-            catch ( MavenInvocationException e )
+            if ( exitCode != 0 )
             {
-                throw new MavenExecutorException( "Failed to invoke Maven build.", e );
+                throw new MavenExecutorException( "Maven execution failed, exit code: \'" + exitCode + "\'",
+                                                  exitCode, "", "" );
             }
         }
+        catch ( MavenInvocationException e )
+        {
+            throw new MavenExecutorException( "Failed to invoke Maven build.", e );
+        }
         finally
         {
-            if ( settingsFile != null && settingsFile.exists() && !settingsFile.delete() )
+            if ( output instanceof AsyncOutputHandler )
+            {
+                ( (AsyncOutputHandler) output ).close();
+            }
+            if ( parser != null )
             {
-                settingsFile.deleteOnExit();
+                parser.finish();
             }
         }
     }
 
+    /**
+     * Executes the request like {@link DefaultInvoker} does, but ends the process when it exceeds a limit.
+     *
+     * @return the exit code of the process
+     */
+    private static int execute( InvocationRequest req, File mavenHome, InvokerLogger logger,
+                                InvocationOutputHandler handler, long timeout, long inactivityTimeout )
+        throws MavenExecutorException
+    {
+        MavenCommandLineBuilder builder = new MavenCommandLineBuilder();
+        builder.setLogger( logger );
+        builder.setMavenHome( mavenHome );
+
+        LineOutputStream out = new LineOutputStream( handler );
+        LineOutputStream err = new LineOutputStream( handler );
+        try
+        {
+            Commandline cl = builder.build( req );
+            return ForkedMavenExecutor.executeCommandLine( cl, null, out, err, timeout, inactivityTimeout );
+        }
+        catch ( CommandLineConfigurationException e )
+        {
+            throw new MavenExecutorException( "Failed to invoke Maven build.", e );
+        }
+        catch ( CommandLineException e )
+        {
+            throw new MavenExecutorException( "Error executing Maven.", e );
+        }
+        finally
+        {
+            out.close();
+            err.close();
+        }
+    }
+
     protected InvokerLogger getInvokerLogger()
     {
         return new LoggerBridge( getLogger() );
@@ -435,6 +493,71 @@ public class InvokerMavenExecutor
         }
     }
 
+    /**
+     * Passes the lines of the output of a process to a handler, as the invoker does.
+     */
+    private static final class LineOutputStream
+        extends OutputStream
+    {
+        private final InvocationOutputHandler handler;
+
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        LineOutputStream( InvocationOutputHandler handler )
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        public void write( int b )
+        {
+            if ( b == '\n' )
+            {
+                consumeLine();
+            }
+            else
+            {
+                line.write( b );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if ( line.size() > 0 )
+            {
+                consumeLine();
+            }
+        }
+
+        private void consumeLine()
+        {
+            String s = new String( line.toByteArray(), Charset.defaultCharset() );
+            line.reset();
+            handler.consumeLine( s.endsWith( "\r" ) ? s.substring( 0, s.length() - 1 ) : s );
+        }
+    }
+
+    private static final class ParsingHandler
+        implements InvocationOutputHandler
+    {
+        private final InvocationOutputHandler handler;
+
+        private final BuildOutputParser parser;
+
+        ParsingHandler( InvocationOutputHandler handler, BuildOutputParser parser )
+        {
+            this.handler = handler;
+            this.parser = parser;
+        }
+
+        public void consumeLine( String line )
+        {
+            handler.consumeLine( line );
+            parser.consumeLine( line );
+        }
+    }
+
     private static final class LoggerBridge
         implements InvokerLogger
     {
@@ -0,0 +1,314 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * A long-lived JVM which executes Maven builds handed to it by the {@link MavenWorkerPool}, one at a time. Every
+ * build gets a new <code>MavenCli</code> and the system properties the worker has been started with. The CLI builds
+ * its own container, extensions and plugin realms for every build, only the core classes of Maven on the classpath of
+ * the worker stay loaded and compiled for the next build.
+ * <p>
+ * The worker listens on a loopback port, which it announces with a secret in a file of the pool directory. It exits
+ * after a number of builds, when the memory used after a build exceeds a threshold or when it has been idle too
+ * long, and removes the file then.
+ * <p>
+ * Protocol: the client sends the secret, the working directory, and the arguments. The worker acknowledges the request
+ * with a single byte before it starts the build, then answers with frames of a type byte, followed by the length and
+ * the bytes of standard or error output, or by the exit code for the last frame.
+ *
+ * @since 3.0.0
+ */
+public final class MavenWorker
+{
+    /**
+     * The system property with the class implementing <code>doMain(String[], String, PrintStream, PrintStream)</code>.
+     */
+    public static final String CLI_PROPERTY = "maven.release.worker.cli";
+
+    static final int STDOUT = 1;
+
+    static final int STDERR = 2;
+
+    static final int EXIT = 0;
+
+    static final int ACCEPTED = 3;
+
+    static final String PORT = "port";
+
+    static final String SECRET = "secret";
+
+    private static final int SECRET_BITS = 130;
+
+    private static final int SECRET_RADIX = 32;
+
+    private static final int FRAME_SIZE = 8192;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString( "rw-------" );
+
+    private final File file;
+
+    private final int maxBuilds;
+
+    private final long maxMemory;
+
+    private final int idleTimeout;
+
+    private final Properties systemProperties = new Properties();
+
+    private final String secret = new BigInteger( SECRET_BITS, new SecureRandom() ).toString( SECRET_RADIX );
+
+    private MavenWorker( File file, int maxBuilds, long maxMemory, int idleTimeout )
+    {
+        this.file = file;
+        this.maxBuilds = maxBuilds;
+        this.maxMemory = maxMemory;
+        this.idleTimeout = idleTimeout;
+        systemProperties.putAll( System.getProperties() );
+    }
+
+    /**
+     * @param args the file to announce the worker in, the maximum number of builds, the maximum memory in bytes and
+     *            the idle timeout in milliseconds
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        MavenWorker worker =
+            new MavenWorker( new File( args[0] ), Integer.parseInt( args[1] ), Long.parseLong( args[2] ),
+                             Integer.parseInt( args[3] ) );
+        worker.run();
+        System.exit( 0 );
+    }
+
+    private void run()
+        throws Exception
+    {
+        Class<?> cliClass = Class.forName( System.getProperty( CLI_PROPERTY, "org.apache.maven.cli.MavenCli" ) );
+        Method doMain = cliClass.getMethod( "doMain", String[].class, String.class, PrintStream.class,
+                                            PrintStream.class );
+
+        try ( ServerSocket server = new ServerSocket( 0, 1, InetAddress.getByName( null ) ) )
+        {
+            server.setSoTimeout( idleTimeout );
+            announce( server.getLocalPort() );
+
+            int builds = 0;
+            boolean retired = false;
+            while ( !retired )
+            {
+                try ( Socket socket = server.accept() )
+                {
+                    DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+                    if ( !secret.equals( in.readUTF() ) )
+                    {
+                        continue;
+                    }
+                    DataOutputStream out =
+                        new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+                    int exitCode = execute( in, out, cliClass, doMain );
+
+                    // no client may connect once the last one has been answered
+                    retired = ++builds >= maxBuilds || getUsedMemory() > maxMemory;
+                    if ( retired )
+                    {
+                        file.delete();
+                    }
+
+                    out.writeByte( EXIT );
+                    out.writeInt( exitCode );
+                    out.flush();
+                }
+                catch ( SocketTimeoutException e )
+                {
+                    break;
+                }
+                catch ( IOException e )
+                {
+                    // the client has gone, wait for the next one
+                }
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    private void announce( int port )
+        throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty( PORT, Integer.toString( port ) );
+        properties.setProperty( SECRET, secret );
+
+        // the file must be complete once it is found, and the secret must never be readable by others
+        Path tempFile = Paths.get( file.getPath() + ".tmp" );
+        Files.deleteIfExists( tempFile );
+        try
+        {
+            Files.createFile( tempFile, PosixFilePermissions.asFileAttribute( OWNER_ONLY ) );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            // not a POSIX file system, the directory in the home of the user has to protect it
+            Files.createFile( tempFile );
+        }
+        try ( OutputStream out = Files.newOutputStream( tempFile ) )
+        {
+            properties.store( out, null );
+        }
+        Files.move( tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    /**
+     * @return the exit code of the build
+     */
+    private int execute( DataInputStream in, DataOutputStream out, Class<?> cliClass, Method doMain )
+        throws IOException
+    {
+        String workingDirectory = in.readUTF();
+        String[] args = new String[in.readInt()];
+        for ( int i = 0; i < args.length; i++ )
+        {
+            args[i] = in.readUTF();
+        }
+
+        // from now on the client must not hand the build to another worker
+        out.writeByte( ACCEPTED );
+        out.flush();
+
+        PrintStream stdOut = new PrintStream( new BufferedOutputStream( new FrameOutputStream( out, STDOUT ),
+                                                                        FRAME_SIZE ) );
+        PrintStream stdErr = new PrintStream( new BufferedOutputStream( new FrameOutputStream( out, STDERR ),
+                                                                        FRAME_SIZE ) );
+        PrintStream systemOut = System.out;
+        PrintStream systemErr = System.err;
+        int exitCode;
+        try
+        {
+            System.setOut( stdOut );
+            System.setErr( stdErr );
+            System.setProperty( "maven.multiModuleProjectDirectory", workingDirectory );
+
+            // a new CLI, with a new container, so that nothing of the previous build is seen
+            exitCode = (Integer) doMain.invoke( cliClass.newInstance(), args, workingDirectory, stdOut, stdErr );
+        }
+        catch ( InvocationTargetException e )
+        {
+            e.getCause().printStackTrace( stdErr );
+            exitCode = 1;
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            e.printStackTrace( stdErr );
+            exitCode = 1;
+        }
+        finally
+        {
+            System.setOut( systemOut );
+            System.setErr( systemErr );
+            Properties properties = new Properties();
+            properties.putAll( systemProperties );
+            System.setProperties( properties );
+        }
+
+        stdOut.flush();
+        stdErr.flush();
+        return exitCode;
+    }
+
+    private static long getUsedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Writes every chunk as a frame of the given type.
+     */
+    private static final class FrameOutputStream
+        extends OutputStream
+    {
+        private final DataOutputStream out;
+
+        private final int type;
+
+        FrameOutputStream( DataOutputStream out, int type )
+        {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            synchronized ( out )
+            {
+                out.writeByte( type );
+                out.writeInt( len );
+                out.write( b, off, len );
+            }
+        }
+
+        @Override
+        public void flush()
+            throws IOException
+        {
+            synchronized ( out )
+            {
+                out.flush();
+            }
+        }
+    }
+}
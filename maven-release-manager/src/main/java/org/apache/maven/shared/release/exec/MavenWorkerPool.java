@@ -0,0 +1,465 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * The {@link MavenWorker}s started with the same command and environment, which are shared by all processes of the
+ * user. A worker is in use while a process holds the lock of its file, idle workers are reused and new ones are
+ * started when all of them are in use.
+ *
+ * @since 3.0.0
+ */
+class MavenWorkerPool
+{
+    private static final String PREFIX = "worker-";
+
+    private static final String SUFFIX = ".properties";
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private static final int CONNECT_TIMEOUT = 5000;
+
+    private static final long START_TIMEOUT = 60000;
+
+    private static final long START_POLL_INTERVAL = 50;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * The number of bytes of the hash naming the directory of a pool.
+     */
+    private static final int KEY_LENGTH = 16;
+
+    private final File directory;
+
+    private final List<String> command;
+
+    private final Map<String, String> environment;
+
+    private int maxBuilds;
+
+    private long maxMemory;
+
+    private int idleTimeout;
+
+    /**
+     * @param directory the directory the workers announce themselves in
+     * @param classpath the classpath of a worker, which has to contain Maven and this class
+     * @param jvmArguments the arguments of the JVM of a worker
+     * @param environment the environment variables of a worker
+     */
+    MavenWorkerPool( File directory, List<File> classpath, List<String> jvmArguments,
+                     Map<String, String> environment )
+    {
+        command = new ArrayList<>();
+        command.add( new File( System.getProperty( "java.home" ), "bin" + File.separator + "java" ).getPath() );
+        command.addAll( jvmArguments );
+        command.add( "-cp" );
+        command.add( StringUtils.join( classpath.iterator(), File.pathSeparator ) );
+        command.add( MavenWorker.class.getName() );
+        this.environment = new TreeMap<>( environment );
+
+        // workers started differently must not be mixed up, the environment may hold credentials or MAVEN_OPTS
+        this.directory = new File( directory, getKey( command, this.environment ) );
+    }
+
+    /**
+     * @return a hash of the command and the environment, which does not disclose the environment
+     */
+    private static String getKey( List<String> command, Map<String, String> environment )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+            for ( String argument : command )
+            {
+                update( digest, argument );
+            }
+            for ( Map.Entry<String, String> entry : environment.entrySet() )
+            {
+                update( digest, entry.getKey() );
+                update( digest, entry.getValue() );
+            }
+
+            StringBuilder key = new StringBuilder();
+            for ( byte b : Arrays.copyOf( digest.digest(), KEY_LENGTH ) )
+            {
+                key.append( String.format( "%02x", b ) );
+            }
+            return key.toString();
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static void update( MessageDigest digest, String value )
+    {
+        digest.update( value.getBytes( StandardCharsets.UTF_8 ) );
+        // separates the values, so that moving characters between values changes the key
+        digest.update( (byte) 0 );
+    }
+
+    void setMaxBuilds( int maxBuilds )
+    {
+        this.maxBuilds = maxBuilds;
+    }
+
+    void setMaxMemory( long maxMemory )
+    {
+        this.maxMemory = maxMemory;
+    }
+
+    void setIdleTimeout( int idleTimeout )
+    {
+        this.idleTimeout = idleTimeout;
+    }
+
+    File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Executes a build in an idle worker, or in a new one if there is none.
+     *
+     * @return the exit code of the build
+     */
+    int execute( File workingDirectory, List<String> args, OutputStream stdOut, OutputStream stdErr )
+        throws IOException
+    {
+        directory.mkdirs();
+
+        for ( int attempt = 1;; attempt++ )
+        {
+            try ( Lease lease = acquire() )
+            {
+                return execute( lease, workingDirectory, args, stdOut, stdErr );
+            }
+            catch ( WorkerEndedException e )
+            {
+                // an idle worker may end while it is being connected to, it has not accepted the build then
+                if ( attempt >= MAX_ATTEMPTS )
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private int execute( Lease lease, File workingDirectory, List<String> args, OutputStream stdOut,
+                         OutputStream stdErr )
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( lease.socket.getInputStream() ) );
+        try
+        {
+            DataOutputStream out =
+                new DataOutputStream( new BufferedOutputStream( lease.socket.getOutputStream() ) );
+            out.writeUTF( lease.secret );
+            out.writeUTF( workingDirectory.getAbsolutePath() );
+            out.writeInt( args.size() );
+            for ( String arg : args )
+            {
+                out.writeUTF( arg );
+            }
+            out.flush();
+
+            if ( in.readByte() != MavenWorker.ACCEPTED )
+            {
+                throw new IOException( "The Maven worker has not accepted the build" );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new WorkerEndedException( e );
+        }
+
+        // the build may have had effects once it has been accepted, so it is never repeated after a failure
+        int type = in.readByte();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while ( true )
+        {
+            if ( type == MavenWorker.EXIT )
+            {
+                return in.readInt();
+            }
+            OutputStream target = type == MavenWorker.STDERR ? stdErr : stdOut;
+            int remaining = in.readInt();
+            while ( remaining > 0 )
+            {
+                int read = in.read( buffer, 0, Math.min( buffer.length, remaining ) );
+                if ( read < 0 )
+                {
+                    throw new IOException( "The Maven worker has ended unexpectedly" );
+                }
+                target.write( buffer, 0, read );
+                remaining -= read;
+            }
+            if ( in.available() == 0 )
+            {
+                target.flush();
+            }
+            type = in.readByte();
+        }
+    }
+
+    private Lease acquire()
+        throws IOException
+    {
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                String name = file.getName();
+                if ( name.startsWith( PREFIX ) && name.endsWith( SUFFIX ) )
+                {
+                    Lease lease = tryAcquire( file );
+                    if ( lease != null )
+                    {
+                        return lease;
+                    }
+                }
+                else if ( name.startsWith( PREFIX ) && name.endsWith( SUFFIX + LOCK_SUFFIX ) && !new File(
+                    directory, name.substring( 0, name.length() - LOCK_SUFFIX.length() ) ).exists() )
+                {
+                    deleteStaleLock( file );
+                }
+            }
+        }
+
+        File file = new File( directory, PREFIX + UUID.randomUUID() + SUFFIX );
+        Lease lease = tryAcquire( start( file ) );
+        if ( lease == null )
+        {
+            throw new IOException( "Cannot connect to the new Maven worker" );
+        }
+        return lease;
+    }
+
+    private File start( File file )
+        throws IOException
+    {
+        List<String> workerCommand = new ArrayList<>( command );
+        workerCommand.add( file.getAbsolutePath() );
+        workerCommand.add( Integer.toString( maxBuilds ) );
+        workerCommand.add( Long.toString( maxMemory ) );
+        workerCommand.add( Integer.toString( idleTimeout ) );
+
+        // the worker outlives this process, so it must not write to a pipe of this process
+        File log = new File( directory, file.getName() + ".log" );
+        ProcessBuilder processBuilder = new ProcessBuilder( workerCommand );
+        processBuilder.environment().clear();
+        processBuilder.environment().putAll( environment );
+        Process process = processBuilder.redirectErrorStream( true ).redirectOutput( log )
+            .redirectInput( ProcessBuilder.Redirect.from( nullFile() ) ).start();
+
+        long deadline = System.currentTimeMillis() + START_TIMEOUT;
+        while ( !file.exists() )
+        {
+            if ( !isAlive( process ) || System.currentTimeMillis() > deadline )
+            {
+                process.destroy();
+                throw new IOException( "The Maven worker could not be started, see " + log );
+            }
+            try
+            {
+                Thread.sleep( START_POLL_INTERVAL );
+            }
+            catch ( InterruptedException e )
+            {
+                process.destroy();
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while starting a Maven worker", e );
+            }
+        }
+        log.delete();
+        return file;
+    }
+
+    private static File nullFile()
+    {
+        return new File( File.separatorChar == '\\' ? "NUL" : "/dev/null" );
+    }
+
+    private static boolean isAlive( Process process )
+    {
+        try
+        {
+            process.exitValue();
+            return false;
+        }
+        catch ( IllegalThreadStateException e )
+        {
+            return true;
+        }
+    }
+
+    /**
+     * @return the lease of the worker, or <code>null</code> if it is in use or has ended
+     */
+    private Lease tryAcquire( File file )
+        throws IOException
+    {
+        RandomAccessFile lockFile = new RandomAccessFile( new File( directory, file.getName() + LOCK_SUFFIX ), "rw" );
+        FileLock lock = null;
+        Socket socket = null;
+        try
+        {
+            lock = lockFile.getChannel().tryLock();
+            if ( lock == null || !file.exists() )
+            {
+                return null;
+            }
+
+            Properties properties = new Properties();
+            try ( InputStream in = new FileInputStream( file ) )
+            {
+                properties.load( in );
+            }
+
+            socket = new Socket();
+            socket.connect( new InetSocketAddress( InetAddress.getByName( null ),
+                                                   Integer.parseInt( properties.getProperty( MavenWorker.PORT ) ) ),
+                            CONNECT_TIMEOUT );
+            Lease lease = new Lease( lockFile, socket, properties.getProperty( MavenWorker.SECRET ) );
+            lockFile = null;
+            return lease;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // the worker has ended without removing its file
+            if ( lock != null )
+            {
+                file.delete();
+            }
+            if ( socket != null )
+            {
+                socket.close();
+            }
+            return null;
+        }
+        finally
+        {
+            if ( lockFile != null )
+            {
+                lockFile.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the lock file of a worker which has ended, unless another process is about to use it.
+     */
+    private static void deleteStaleLock( File file )
+    {
+        try ( RandomAccessFile lockFile = new RandomAccessFile( file, "rw" );
+              FileLock lock = lockFile.getChannel().tryLock() )
+        {
+            if ( lock != null )
+            {
+                file.delete();
+            }
+        }
+        catch ( IOException | OverlappingFileLockException e )
+        {
+            // in use
+        }
+    }
+
+    /**
+     * The worker has ended before it has accepted the build.
+     */
+    private static final class WorkerEndedException
+        extends IOException
+    {
+        WorkerEndedException( IOException cause )
+        {
+            super( "The Maven worker has ended unexpectedly", cause );
+        }
+    }
+
+    /**
+     * The exclusive use of a worker.
+     */
+    private static final class Lease
+        implements AutoCloseable
+    {
+        private final RandomAccessFile lockFile;
+
+        private final Socket socket;
+
+        private final String secret;
+
+        Lease( RandomAccessFile lockFile, Socket socket, String secret )
+        {
+            this.lockFile = lockFile;
+            this.socket = socket;
+            this.secret = secret;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            try
+            {
+                socket.close();
+            }
+            finally
+            {
+                // closing the file releases the lock
+                lockFile.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.output.WriterOutputStream;
+import org.apache.maven.shared.release.OutputSink;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+
+/**
+ * Executes the goals in a pool of long-lived Maven JVMs, which are shared by all builds of the user on the machine.
+ * The JVM startup and the loading and compilation of the Maven core classes are paid once per worker instead of once
+ * per execution. Each build still creates its own container, so extensions and plugins are loaded again. A worker
+ * is recycled after a number of builds, when it uses too much memory, or when it has been idle for a while; see the
+ * system properties {@value #MAX_BUILDS_PROPERTY}, {@value #MAX_MEMORY_PROPERTY} and {@value #IDLE_TIMEOUT_PROPERTY}.
+ * <p>
+ * The environment of a worker is the one of the build which started it, builds with another environment use other
+ * workers.
+ *
+ * @since 3.0.0
+ */
+@Component( role = MavenExecutor.class, hint = "pooled" )
+public class PooledMavenExecutor
+    extends AbstractMavenExecutor
+{
+    /**
+     * The number of builds after which a worker is recycled.
+     */
+    public static final String MAX_BUILDS_PROPERTY = "maven.release.worker.maxBuilds";
+
+    /**
+     * The memory in megabytes a worker may still use after a build.
+     */
+    public static final String MAX_MEMORY_PROPERTY = "maven.release.worker.maxMemory";
+
+    /**
+     * The time in minutes after which an idle worker ends.
+     */
+    public static final String IDLE_TIMEOUT_PROPERTY = "maven.release.worker.idleTimeout";
+
+    /**
+     * The arguments of the JVM of a worker, separated by spaces.
+     */
+    public static final String JVM_ARGUMENTS_PROPERTY = "maven.release.worker.jvmArguments";
+
+    private static final int DEFAULT_MAX_BUILDS = 20;
+
+    private static final int DEFAULT_MAX_MEMORY = 512;
+
+    private static final int DEFAULT_IDLE_TIMEOUT = 30;
+
+    private static final int CAPTURE_BUFFER_SIZE = 8192;
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private static final int MINUTE = 60 * 1000;
+
+    @Override
+    public void executeGoals( File workingDirectory, List<String> goals, ReleaseEnvironment releaseEnvironment,
+                              boolean interactive, String additionalArguments, String pomFileName,
+                              ReleaseResult relResult )
+        throws MavenExecutorException
+    {
+        File mavenHome = releaseEnvironment.getMavenHome();
+        if ( mavenHome == null )
+        {
+            mavenHome = new File( System.getProperty( "maven.home" ) );
+        }
+
+        MavenWorkerPool pool;
+        try
+        {
+            pool = createPool( mavenHome );
+        }
+        catch ( IOException e )
+        {
+            throw new MavenExecutorException( "Cannot determine the classpath of a Maven worker", e );
+        }
+
+        File settingsFile = null;
+        if ( releaseEnvironment.getSettings() != null )
+        {
+            try
+            {
+                settingsFile = getSettingsFile( releaseEnvironment.getSettings() );
+            }
+            catch ( IOException e )
+            {
+                throw new MavenExecutorException( "Could not create temporary file for release settings.xml", e );
+            }
+        }
+
+        List<String> args = new ArrayList<>();
+        if ( settingsFile != null )
+        {
+            args.add( "-s" );
+            args.add( settingsFile.getAbsolutePath() );
+        }
+        if ( pomFileName != null )
+        {
+            args.add( "-f" );
+            args.add( pomFileName );
+        }
+        args.addAll( goals );
+        if ( !interactive )
+        {
+            args.add( "--batch-mode" );
+        }
+        if ( !StringUtils.isEmpty( additionalArguments ) )
+        {
+            try
+            {
+                args.addAll( Arrays.asList( CommandLineUtils.translateCommandline( additionalArguments ) ) );
+            }
+            catch ( Exception e )
+            {
+                throw new MavenExecutorException( "Failed to parse the additional arguments", e );
+            }
+        }
+
+        OutputSink stdOutSink = new OutputSink();
+        OutputStream stdOutCapture = BuildOutputParser.parse(
+            new WriterOutputStream( stdOutSink.getWriter(), Charset.defaultCharset(), CAPTURE_BUFFER_SIZE, true ) );
+        int tailLines = TeeOutputStream.getDefaultTailLines();
+        TeeOutputStream stdOut = new TeeOutputStream( System.out, "    ", stdOutCapture, tailLines );
+        TeeOutputStream stdErr = new TeeOutputStream( System.err, "    ", null, tailLines );
+
+        String message = "Executing in a Maven worker: mvn " + StringUtils.join( args.iterator(), " " );
+        getLogger().info( message );
+        relResult.appendInfo( message );
+        relResult.getOutputSink().append( stdOutSink );
+        try
+        {
+            int result = pool.execute( workingDirectory, args, stdOut, stdErr );
+            if ( result != 0 )
+            {
+                throw new MavenExecutorException( "Maven execution failed, exit code: \'" + result + "\'", result,
+                                                  stdOut.toString(), stdErr.toString() );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new MavenExecutorException( "Can't run goal " + goals, stdOut.toString(), stdErr.toString(), e );
+        }
+        finally
+        {
+            IOUtil.close( stdOutCapture );
+        }
+    }
+
+    MavenWorkerPool createPool( File mavenHome )
+        throws IOException
+    {
+        List<File> classpath = new ArrayList<>();
+        addJars( classpath, new File( mavenHome, "boot" ) );
+        addJars( classpath, new File( mavenHome, "lib" ) );
+        classpath.add( new File( mavenHome, "conf" + File.separator + "logging" ) );
+        try
+        {
+            classpath.add( new File( MavenWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI() ) );
+        }
+        catch ( URISyntaxException e )
+        {
+            throw new IOException( e );
+        }
+
+        List<String> jvmArguments = new ArrayList<>();
+        String arguments = System.getProperty( JVM_ARGUMENTS_PROPERTY );
+        if ( !StringUtils.isEmpty( arguments ) )
+        {
+            jvmArguments.addAll( Arrays.asList( StringUtils.split( arguments ) ) );
+        }
+        jvmArguments.add( "-Dmaven.home=" + mavenHome.getAbsolutePath() );
+
+        File directory = new File( System.getProperty( "user.home" ),
+                                   ".m2" + File.separator + "release-workers" );
+        MavenWorkerPool pool = new MavenWorkerPool( directory, classpath, jvmArguments, System.getenv() );
+        pool.setMaxBuilds( Integer.getInteger( MAX_BUILDS_PROPERTY, DEFAULT_MAX_BUILDS ) );
+        pool.setMaxMemory( Integer.getInteger( MAX_MEMORY_PROPERTY, DEFAULT_MAX_MEMORY ) * MEGABYTE );
+        pool.setIdleTimeout( Integer.getInteger( IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT ) * MINUTE );
+        return pool;
+    }
+
+    private static void addJars( List<File> classpath, File directory )
+    {
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            Arrays.sort( files );
+            for ( File file : files )
+            {
+                if ( file.getName().endsWith( ".jar" ) )
+                {
+                    classpath.add( file );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Ends a process which runs too long or has not written any output for too long. The process and all its
+ * descendants are first asked for a thread dump, which Java processes write to their standard output, then
+ * terminated and finally killed if they are still running after a grace period. As the identifiers of the ended
+ * processes may have been reused meanwhile, only the processes which still have the same start time, command and
+ * ancestors are killed.
+ * <p>
+ * Only the process itself can be ended where the signals cannot be sent, that is on Windows.
+ *
+ * @since 3.0.0
+ */
+class ProcessWatchdog
+    implements Runnable
+{
+    /**
+     * The time in milliseconds the processes get to write their thread dumps.
+     */
+    private static final long DUMP_WAIT = 2000;
+
+    private static final long POLL_INTERVAL = 100;
+
+    private static final long MAX_SLEEP = 1000;
+
+    /**
+     * The columns of the process table: the identifier, the parent identifier, the five words of the start time and
+     * the command.
+     */
+    private static final int PS_COLUMNS = 8;
+
+    private final Process process;
+
+    private final long timeout;
+
+    private final long inactivityTimeout;
+
+    private final long terminateWait;
+
+    private volatile long lastActivity;
+
+    private volatile String expiry;
+
+    private volatile boolean stopped;
+
+    private Thread thread;
+
+    /**
+     * @param process the process to watch
+     * @param timeout the time in milliseconds the process may run, <code>0</code> for no limit
+     * @param inactivityTimeout the time in milliseconds the process may run without writing any output,
+     *            <code>0</code> for no limit
+     * @param terminateWait the time in milliseconds the process gets to end once it has been terminated, before it
+     *            is killed
+     */
+    ProcessWatchdog( Process process, long timeout, long inactivityTimeout, long terminateWait )
+    {
+        this.process = process;
+        this.timeout = timeout;
+        this.inactivityTimeout = inactivityTimeout;
+        this.terminateWait = terminateWait;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * @param out the stream the output of the process is written to
+     * @return a stream which counts everything written to it as activity of the process
+     */
+    OutputStream watch( OutputStream out )
+    {
+        return new FilterOutputStream( out )
+        {
+            @Override
+            public void write( int b )
+                throws IOException
+            {
+                lastActivity = System.currentTimeMillis();
+                out.write( b );
+            }
+
+            @Override
+            public void write( byte[] b, int off, int len )
+                throws IOException
+            {
+                lastActivity = System.currentTimeMillis();
+                out.write( b, off, len );
+            }
+        };
+    }
+
+    void start()
+    {
+        thread = new Thread( this, "process-watchdog" );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    /**
+     * Stops watching once the process has ended. If the process has been ended by the watchdog, waits until all its
+     * descendants have been ended too.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void stop()
+        throws InterruptedException
+    {
+        synchronized ( this )
+        {
+            stopped = true;
+            if ( expiry == null )
+            {
+                thread.interrupt();
+            }
+        }
+        thread.join();
+    }
+
+    /**
+     * @return why the process has been ended, <code>null</code> if it has not
+     */
+    String getExpiry()
+    {
+        return expiry;
+    }
+
+    @Override
+    public void run()
+    {
+        long start = System.currentTimeMillis();
+        try
+        {
+            while ( !stopped )
+            {
+                long now = System.currentTimeMillis();
+                long sleep = MAX_SLEEP;
+                if ( timeout > 0 )
+                {
+                    if ( now - start >= timeout )
+                    {
+                        expire( "The execution has not ended within " + toSeconds( timeout ) + " seconds" );
+                        return;
+                    }
+                    sleep = Math.min( sleep, start + timeout - now );
+                }
+                if ( inactivityTimeout > 0 )
+                {
+                    if ( now - lastActivity >= inactivityTimeout )
+                    {
+                        expire( "The execution has not written any output for " + toSeconds( inactivityTimeout )
+                            + " seconds" );
+                        return;
+                    }
+                    sleep = Math.min( sleep, lastActivity + inactivityTimeout - now );
+                }
+                Thread.sleep( sleep );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            // stopped
+        }
+    }
+
+    private void expire( String reason )
+        throws InterruptedException
+    {
+        synchronized ( this )
+        {
+            if ( stopped )
+            {
+                return;
+            }
+            expiry = reason;
+        }
+
+        long pid = getPid( process );
+        Map<Long, ProcessInfo> tree =
+            pid > 0 ? getProcessTree( pid, getProcesses() ) : Collections.<Long, ProcessInfo>emptyMap();
+
+        // other processes, like the shell running Maven, would end on a SIGQUIT instead of dumping their threads
+        List<Long> javaPids = new ArrayList<>();
+        for ( Map.Entry<Long, ProcessInfo> entry : tree.entrySet() )
+        {
+            if ( new File( entry.getValue().command ).getName().equals( "java" ) )
+            {
+                javaPids.add( entry.getKey() );
+            }
+        }
+        if ( signal( "QUIT", javaPids ) )
+        {
+            Thread.sleep( DUMP_WAIT );
+        }
+
+        // the identifiers of the processes which have ended meanwhile may have been reused
+        if ( !tree.isEmpty() )
+        {
+            signal( "TERM", getRemainingProcesses( tree, getProcesses() ) );
+        }
+        process.destroy();
+        waitFor( terminateWait );
+
+        // the descendants may outlive the process, the ones which have ended are left out as above
+        if ( !tree.isEmpty() )
+        {
+            signal( "KILL", getRemainingProcesses( tree, getProcesses() ) );
+        }
+    }
+
+    private static long toSeconds( long millis )
+    {
+        return TimeUnit.MILLISECONDS.toSeconds( millis );
+    }
+
+    /**
+     * Waits until the process has ended, but not longer than the given time.
+     */
+    private void waitFor( long millis )
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + millis;
+        while ( isAlive( process ) && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( POLL_INTERVAL );
+        }
+    }
+
+    private static boolean isAlive( Process process )
+    {
+        try
+        {
+            process.exitValue();
+            return false;
+        }
+        catch ( IllegalThreadStateException e )
+        {
+            return true;
+        }
+    }
+
+    /**
+     * @return whether the signal could be sent
+     */
+    private static boolean signal( String signal, List<Long> pids )
+        throws InterruptedException
+    {
+        if ( pids.isEmpty() || isWindows() )
+        {
+            return false;
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add( "kill" );
+        command.add( "-" + signal );
+        for ( Long pid : pids )
+        {
+            command.add( pid.toString() );
+        }
+        try
+        {
+            // some of the processes may have ended already
+            new ProcessBuilder( command ).redirectErrorStream( true ).start().waitFor();
+            return true;
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return the identifier of the process, <code>-1</code> if it cannot be determined
+     */
+    static long getPid( Process process )
+    {
+        try
+        {
+            // Java 9 and later
+            Method pid = Process.class.getMethod( "pid" );
+            return (Long) pid.invoke( process );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            // fall through
+        }
+        try
+        {
+            Field pid = process.getClass().getDeclaredField( "pid" );
+            pid.setAccessible( true );
+            return pid.getLong( process );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the running processes by their identifiers, or nothing if they cannot be determined
+     */
+    static Map<Long, ProcessInfo> getProcesses()
+    {
+        Map<Long, ProcessInfo> processes = new HashMap<>();
+        if ( isWindows() )
+        {
+            return processes;
+        }
+
+        try
+        {
+            Process ps =
+                new ProcessBuilder( "ps", "-A", "-o", "pid=", "-o", "ppid=", "-o", "lstart=", "-o", "comm=" ).start();
+            try ( BufferedReader reader =
+                new BufferedReader( new InputStreamReader( ps.getInputStream(), Charset.defaultCharset() ) ) )
+            {
+                String line;
+                while ( ( line = reader.readLine() ) != null )
+                {
+                    String[] columns = line.trim().split( "\\s+", PS_COLUMNS );
+                    if ( columns.length == PS_COLUMNS )
+                    {
+                        String started = StringUtils.join( Arrays.copyOfRange( columns, 2, PS_COLUMNS - 1 ), " " );
+                        processes.put( Long.valueOf( columns[0] ), new ProcessInfo( Long.valueOf( columns[1] ),
+                                                                                    started,
+                                                                                    columns[PS_COLUMNS - 1] ) );
+                    }
+                }
+            }
+            ps.waitFor();
+        }
+        catch ( IOException | NumberFormatException e )
+        {
+            return Collections.emptyMap();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
+        }
+        return processes;
+    }
+
+    /**
+     * @param pid the identifier of the process
+     * @param processes the running processes
+     * @return the process and its descendants by their identifiers, parents before their children
+     */
+    static Map<Long, ProcessInfo> getProcessTree( long pid, Map<Long, ProcessInfo> processes )
+    {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for ( Map.Entry<Long, ProcessInfo> entry : processes.entrySet() )
+        {
+            Long parent = entry.getValue().parent;
+            if ( !children.containsKey( parent ) )
+            {
+                children.put( parent, new ArrayList<Long>() );
+            }
+            children.get( parent ).add( entry.getKey() );
+        }
+
+        List<Long> pids = new ArrayList<>();
+        pids.add( pid );
+        for ( int i = 0; i < pids.size(); i++ )
+        {
+            List<Long> childPids = children.get( pids.get( i ) );
+            if ( childPids != null )
+            {
+                Collections.sort( childPids );
+                pids.addAll( childPids );
+            }
+        }
+
+        Map<Long, ProcessInfo> tree = new LinkedHashMap<>();
+        for ( Long treePid : pids )
+        {
+            // the process itself may have ended meanwhile
+            if ( processes.containsKey( treePid ) )
+            {
+                tree.put( treePid, processes.get( treePid ) );
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * A process of the tree remains if it is still running with the same start time and command, and if its parent
+     * is the same and remains too, or has ended and left it to another parent.
+     *
+     * @param tree the process tree, parents before their children
+     * @param processes the processes running now
+     * @return the identifiers of the processes of the tree which still run
+     */
+    static List<Long> getRemainingProcesses( Map<Long, ProcessInfo> tree, Map<Long, ProcessInfo> processes )
+    {
+        Set<Long> remaining = new HashSet<>();
+        List<Long> pids = new ArrayList<>();
+        for ( Map.Entry<Long, ProcessInfo> entry : tree.entrySet() )
+        {
+            ProcessInfo recorded = entry.getValue();
+            ProcessInfo current = processes.get( entry.getKey() );
+            if ( current == null || !current.started.equals( recorded.started )
+                || !current.command.equals( recorded.command ) )
+            {
+                continue;
+            }
+
+            boolean parentRemains = remaining.contains( recorded.parent );
+            boolean sameParent = current.parent.equals( recorded.parent );
+            // the parent of the root of the tree is not part of it
+            if ( sameParent ? parentRemains || !tree.containsKey( recorded.parent ) : !parentRemains )
+            {
+                remaining.add( entry.getKey() );
+                pids.add( entry.getKey() );
+            }
+        }
+        return pids;
+    }
+
+    private static boolean isWindows()
+    {
+        return File.separatorChar == '\\';
+    }
+
+    /**
+     * An entry of the process table.
+     */
+    static class ProcessInfo
+    {
+        private final Long parent;
+
+        private final String started;
+
+        private final String command;
+
+        /**
+         * @param parent the identifier of the parent process
+         * @param started the start time, as written by <code>ps</code>
+         * @param command the command
+         */
+        ProcessInfo( Long parent, String started, String command )
+        {
+            this.parent = parent;
+            this.started = started;
+            this.command = command;
+        }
+    }
+}
@@ -24,20 +24,28 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
- *
+ * Copies a stream to another one. The output is only flushed when no more input is available right away, so a
+ * steady stream is copied in large chunks while a slow one is still forwarded without delay.
  */
 public class RawStreamPumper
     extends Thread
 {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The interval in milliseconds to check for input when polling.
+     */
+    private static final long POLL_INTERVAL = 10;
+
     private InputStream in;
 
     private OutputStream out;
 
-    boolean done;
+    volatile boolean done;
 
     boolean poll;
 
-    byte buffer[] = new byte[256];
+    byte buffer[] = new byte[BUFFER_SIZE];
 
     public RawStreamPumper( InputStream in , OutputStream out, boolean poll )
     {
@@ -70,6 +78,20 @@ public class RawStreamPumper
         out.close();
     }
 
+    /**
+     * Waits until the input has been copied completely. Once the process writing the input has ended the rest of
+     * its output is still copied, unless it takes longer than the given timeout.
+     *
+     * @param timeout the maximum time to wait in milliseconds
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void drain( long timeout )
+        throws InterruptedException
+    {
+        setDone();
+        join( timeout );
+    }
+
     @Override
     public void run()
     {
@@ -77,6 +99,7 @@ public class RawStreamPumper
         {
             if ( poll )
             {
+                // a blocking read could consume input meant for someone else after the process has ended
                 while ( !done )
                 {
                     if ( in.available() > 0 )
@@ -94,26 +117,29 @@ public class RawStreamPumper
                     }
                     else
                     {
-                        Thread.sleep( 1 );
+                        Thread.sleep( POLL_INTERVAL );
                     }
                 }
             }
             else
             {
-                int i = in.read( buffer );
-                while ( i != -1 && !done )
+                int i;
+                while ( ( i = in.read( buffer ) ) != -1 )
                 {
-                    if ( i != -1 )
+                    if ( i > 0 )
                     {
                         out.write( buffer, 0, i );
-                        out.flush();
+                        if ( in.available() == 0 )
+                        {
+                            out.flush();
+                        }
                     }
-                    else
+                    else if ( done )
                     {
-                        done = true;
+                        break;
                     }
-                    i = in.read( buffer );
                 }
+                out.flush();
             }
         }
         catch ( Throwable e )
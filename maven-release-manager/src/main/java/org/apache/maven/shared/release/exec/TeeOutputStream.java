@@ -23,72 +23,257 @@ import java.io.ByteArrayOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
- *
+ * Writes the output indented to a stream and copies it unchanged to another one, or keeps it in memory.
  */
 public class TeeOutputStream
     extends FilterOutputStream
 {
-    private ByteArrayOutputStream bout = new ByteArrayOutputStream( 1024 * 8 );
+    /**
+     * The number of lines to keep for the {@link #TeeOutputStream(OutputStream, String, OutputStream, int) tail},
+     * unless set by the system property {@value #TAIL_LINES_PROPERTY}.
+     */
+    public static final int DEFAULT_TAIL_LINES = 1000;
+
+    /**
+     * @since 3.0.0
+     */
+    public static final String TAIL_LINES_PROPERTY = "maven.release.output.tailLines";
+
+    /**
+     * Longer lines are truncated in the tail.
+     */
+    private static final int MAX_TAIL_LINE_LENGTH = 16 * 1024;
+
+    private ByteArrayOutputStream bout;
+    private OutputStream capture;
+    private Tail tail;
     private byte indent[];
     private int last = '\n';
 
+    /**
+     * The indented output of a single write, reused for the next ones.
+     */
+    private byte buffer[] = new byte[0];
+
+    private final byte single[] = new byte[1];
+
     public TeeOutputStream( OutputStream out )
     {
         this( out, "    " );
     }
 
     public TeeOutputStream( OutputStream out, String i )
+    {
+        this( out, i, null );
+    }
+
+    /**
+     * @param out the stream to indent the output to
+     * @param i the indent
+     * @param capture the stream to copy the output to, <code>null</code> to keep it in memory
+     * @since 3.0.0
+     */
+    public TeeOutputStream( OutputStream out, String i, OutputStream capture )
+    {
+        this( out, i, capture, 0 );
+    }
+
+    /**
+     * @param out the stream to indent the output to
+     * @param i the indent
+     * @param capture the stream to copy the output to, <code>null</code> to keep it in memory unless a tail is kept
+     * @param tailLines the number of last lines to keep in memory, no matter how long the output is, or
+     *            <code>0</code> to keep no tail
+     * @since 3.0.0
+     */
+    public TeeOutputStream( OutputStream out, String i, OutputStream capture, int tailLines )
     {
         super( out );
         indent = i.getBytes();
+        if ( tailLines > 0 )
+        {
+            tail = new Tail( tailLines );
+        }
+        else if ( capture == null )
+        {
+            bout = new ByteArrayOutputStream( 1024 * 8 );
+            capture = bout;
+        }
+        this.capture = capture;
+    }
+
+    /**
+     * @return the number of lines to keep for a tail, as set by the system property {@value #TAIL_LINES_PROPERTY}
+     * @since 3.0.0
+     */
+    public static int getDefaultTailLines()
+    {
+        return Integer.getInteger( TAIL_LINES_PROPERTY, DEFAULT_TAIL_LINES );
     }
 
     @Override
     public void write( byte[] b, int off, int len )
         throws IOException
     {
-        for ( int x = 0; x < len; x++ )
+        if ( len <= 0 )
+        {
+            return;
+        }
+
+        // the output is indented into the buffer, so every stream is written once per call instead of per line
+        int end = off + len;
+        int size = 0;
+        if ( last == '\n' || ( last == '\r' && b[off] != '\n' ) )
+        {
+            size = append( size, indent, 0, indent.length );
+        }
+        int run = off;
+        for ( int x = off; x < end; x++ )
         {
-            int c = b[off + x];
-            if ( last == '\n' || ( last == '\r' && c != '\n' ) )
+            byte c = b[x];
+            if ( ( c == '\n' || c == '\r' ) && x + 1 < end && !( c == '\r' && b[x + 1] == '\n' ) )
             {
-                out.write( b, off, x );
-                bout.write( b, off, x );
-                out.write( indent );
-                off += x;
-                len -= x;
-                x = 0;
+                size = append( size, b, run, x + 1 - run );
+                size = append( size, indent, 0, indent.length );
+                run = x + 1;
             }
-            last = c;
         }
-        out.write( b, off, len );
-        bout.write( b, off, len );
+        size = append( size, b, run, end - run );
+        last = b[end - 1];
+
+        out.write( buffer, 0, size );
+        if ( capture != null )
+        {
+            capture.write( b, off, len );
+        }
+        if ( tail != null )
+        {
+            tail.write( b, off, len );
+        }
     }
 
     @Override
     public void write( int b )
         throws IOException
     {
-        if ( last == '\n' || ( last == '\r' && b != '\n' ) )
+        single[0] = (byte) b;
+        write( single, 0, 1 );
+    }
+
+    private int append( int size, byte[] b, int off, int len )
+    {
+        if ( size + len > buffer.length )
+        {
+            buffer = Arrays.copyOf( buffer, Math.max( size + len, buffer.length * 2 ) );
+        }
+        System.arraycopy( b, off, buffer, size, len );
+        return size + len;
+    }
+
+    @Override
+    public void flush()
+        throws IOException
+    {
+        super.flush();
+        if ( capture != null )
         {
-            out.write( indent );
+            capture.flush();
         }
-        out.write( b );
-        bout.write( b );
-        last = b;
     }
 
+    /**
+     * @return the output kept in memory, only the last lines if a tail is kept, or empty if the output is only copied
+     *         to another stream
+     */
     @Override
     public String toString()
     {
-        return bout.toString();
+        if ( tail != null )
+        {
+            return tail.toString();
+        }
+        return bout != null ? bout.toString() : "";
     }
 
     public String getContent()
     {
-        return bout.toString();
+        return toString();
     }
 
+    /**
+     * The last lines of the output, kept in a ring.
+     */
+    private static final class Tail
+    {
+        private final byte[][] lines;
+
+        /**
+         * The index of the slot for the next complete line, which holds the oldest line once the ring is full.
+         */
+        private int next;
+
+        private byte[] line = new byte[0];
+
+        private int lineLength;
+
+        Tail( int size )
+        {
+            lines = new byte[size][];
+        }
+
+        void write( byte[] b, int off, int len )
+        {
+            int end = off + len;
+            int start = off;
+            for ( int x = off; x < end; x++ )
+            {
+                if ( b[x] == '\n' )
+                {
+                    append( b, start, x - start );
+                    byte[] complete = Arrays.copyOf( line, lineLength + 1 );
+                    complete[lineLength] = '\n';
+                    lines[next] = complete;
+                    next = ( next + 1 ) % lines.length;
+                    lineLength = 0;
+                    start = x + 1;
+                }
+            }
+            append( b, start, end - start );
+        }
+
+        private void append( byte[] b, int off, int len )
+        {
+            int length = Math.min( len, MAX_TAIL_LINE_LENGTH - lineLength );
+            if ( length <= 0 )
+            {
+                return;
+            }
+            if ( lineLength + length > line.length )
+            {
+                line = Arrays.copyOf( line, Math.min( MAX_TAIL_LINE_LENGTH,
+                                                      Math.max( lineLength + length, line.length * 2 ) ) );
+            }
+            System.arraycopy( b, off, line, lineLength, length );
+            lineLength += length;
+        }
+
+        @Override
+        public String toString()
+        {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for ( int i = 0; i < lines.length; i++ )
+            {
+                byte[] l = lines[( next + i ) % lines.length];
+                if ( l != null )
+                {
+                    content.write( l, 0, l.length );
+                }
+            }
+            content.write( line, 0, lineLength );
+            return content.toString();
+        }
+    }
 }
@@ -19,6 +19,8 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import java.io.File;
+
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.repository.ScmRepository;
@@ -29,6 +31,7 @@ import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.transform.PomCache;
 import org.codehaus.plexus.component.annotations.Requirement;
 
 /**
@@ -44,6 +47,20 @@ public abstract class AbstractReleasePomsPhase extends AbstractReleasePhase
     @Requirement
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * POMs already parsed by other phases of this release.
+     */
+    @Requirement
+    private PomCache pomCache;
+
+    /**
+     * Drops the parsed document of a release POM which is written or deleted.
+     */
+    protected void invalidatePom( File pomFile )
+    {
+        pomCache.invalidate( pomFile );
+    }
+
     protected ScmRepository getScmRepository( ReleaseDescriptor releaseDescriptor,
                                               ReleaseEnvironment releaseEnvironment )
         throws ReleaseFailureException, ReleaseExecutionException
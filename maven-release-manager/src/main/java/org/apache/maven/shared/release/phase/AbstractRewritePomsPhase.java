@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.ArtifactUtils;
@@ -42,6 +44,7 @@ import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
+import org.apache.maven.shared.release.PhaseMetrics;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
@@ -55,6 +58,7 @@ import org.apache.maven.shared.release.transform.ModelETLRequest;
 import org.apache.maven.shared.release.transform.MavenCoordinate;
 import org.apache.maven.shared.release.transform.ModelETL;
 import org.apache.maven.shared.release.transform.ModelETLFactory;
+import org.apache.maven.shared.release.transform.PomCache;
 import org.apache.maven.shared.release.transform.jdom.JDomModelETLFactory;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.component.annotations.Requirement;
@@ -82,6 +86,12 @@ public abstract class AbstractRewritePomsPhase
      */
     private String modelETL = JDomModelETLFactory.ROLE_HINT;
 
+    /**
+     * POMs already parsed by other phases of this release.
+     */
+    @Requirement
+    private PomCache pomCache;
+
     /**
      * SCM URL translators mapped by provider name.
      */
@@ -166,30 +176,6 @@ public abstract class AbstractRewritePomsPhase
                             List<MavenProject> reactorProjects, boolean simulate, ReleaseResult result )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        for ( MavenProject project : reactorProjects )
-        {
-            logInfo( result, "Transforming '" + project.getName() + "'..." );
-
-            transformProject( project, releaseDescriptor, releaseEnvironment, simulate, result );
-        }
-    }
-
-    private void transformProject( MavenProject project, ReleaseDescriptor releaseDescriptor,
-                                   ReleaseEnvironment releaseEnvironment, boolean simulate,
-                                   ReleaseResult result )
-        throws ReleaseExecutionException, ReleaseFailureException
-    {
-        File pomFile = ReleaseUtil.getStandardPom( project );
-
-        ModelETLRequest request = new ModelETLRequest();
-        request.setLineSeparator( ls );
-        request.setProject( project );
-        request.setReleaseDescriptor( releaseDescriptor );
-
-        ModelETL etl = modelETLFactories.get( modelETL ).newInstance( request );
-
-        etl.extract( pomFile );
-
         ScmRepository scmRepository = null;
         ScmProvider provider = null;
 
@@ -212,6 +198,104 @@ public abstract class AbstractRewritePomsPhase
             }
         }
 
+        int threads = Math.min( releaseDescriptor.getPomTransformThreads(), reactorProjects.size() );
+        if ( threads > 1 )
+        {
+            transformInParallel( releaseDescriptor, reactorProjects, scmRepository, provider, simulate, result,
+                                 threads );
+            return;
+        }
+
+        for ( MavenProject project : reactorProjects )
+        {
+            logInfo( result, "Transforming '" + project.getName() + "'..." );
+
+            transformProject( project, releaseDescriptor, scmRepository, provider, simulate, true, result );
+        }
+    }
+
+    /**
+     * Transforms every project on its own thread of a fork-join pool. Each project collects its output in a separate
+     * result, which is appended to the phase result in reactor order once all projects are done. The first failure
+     * in reactor order is rethrown, but unlike the sequential path the other projects have been written by then.
+     * <p>
+     * SCM providers are not thread-safe, so edit mode is enabled on the POMs one by one before the transformation
+     * starts. The parents are resolved up front as well, a project may build its parent lazily from the parent POM,
+     * which another thread may be writing by then.
+     */
+    private void transformInParallel( ReleaseDescriptor releaseDescriptor, List<MavenProject> reactorProjects,
+                                      ScmRepository scmRepository, ScmProvider provider, boolean simulate,
+                                      ReleaseResult result, int threads )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        List<ProjectTransformation> transformations = new ArrayList<>( reactorProjects.size() );
+        for ( MavenProject project : reactorProjects )
+        {
+            project.getParent();
+
+            File pomFile = ReleaseUtil.getStandardPom( project );
+            if ( !simulate && !ProjectCheckpoints.isCompleted( releaseDescriptor, project, pomFile ) )
+            {
+                prepareScm( pomFile, releaseDescriptor, scmRepository, provider );
+            }
+
+            transformations.add( new ProjectTransformation( project, releaseDescriptor, scmRepository, simulate ) );
+        }
+
+        ForkJoinPool pool = new ForkJoinPool( threads );
+        try
+        {
+            pool.invokeAll( transformations );
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        for ( ProjectTransformation transformation : transformations )
+        {
+            result.appendOutput( transformation.result );
+
+            Exception failure = transformation.failure;
+            if ( failure instanceof ReleaseFailureException )
+            {
+                throw (ReleaseFailureException) failure;
+            }
+            else if ( failure instanceof ReleaseExecutionException )
+            {
+                throw (ReleaseExecutionException) failure;
+            }
+            else if ( failure != null )
+            {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
+
+    private void transformProject( MavenProject project, ReleaseDescriptor releaseDescriptor,
+                                   ScmRepository scmRepository, ScmProvider provider, boolean simulate,
+                                   boolean editScm, ReleaseResult result )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        File pomFile = ReleaseUtil.getStandardPom( project );
+
+        if ( !simulate && ProjectCheckpoints.isCompleted( releaseDescriptor, project, pomFile ) )
+        {
+            logInfo( result, "Skipping '" + project.getName() + "', it has been transformed by a previous run" );
+            return;
+        }
+
+        ModelETLRequest request = new ModelETLRequest();
+        request.setLineSeparator( ls );
+        request.setProject( project );
+        request.setReleaseDescriptor( releaseDescriptor );
+        request.setPomCache( pomCache );
+
+        ModelETL etl = modelETLFactories.get( modelETL ).newInstance( request );
+
+        long bytesRead = pomFile.length();
+        etl.extract( pomFile );
+
         transformDocument( project, etl.getModel(), releaseDescriptor, scmRepository, result,
                            simulate );
 
@@ -223,9 +307,18 @@ public abstract class AbstractRewritePomsPhase
         else
         {
             outputFile = pomFile;
-            prepareScm( pomFile, releaseDescriptor, scmRepository, provider );
+            if ( editScm )
+            {
+                prepareScm( pomFile, releaseDescriptor, scmRepository, provider );
+            }
         }
         etl.load( outputFile );
+        PhaseMetrics.recordPom( bytesRead, outputFile.length() );
+
+        if ( !simulate )
+        {
+            ProjectCheckpoints.complete( releaseDescriptor, project, pomFile );
+        }
 
     }
 
@@ -614,6 +707,67 @@ public abstract class AbstractRewritePomsPhase
         }
     }
 
+    /**
+     * Transformation of a single project, keeping its output and failure apart from the other projects.
+     */
+    private class ProjectTransformation
+        implements Callable<Void>
+    {
+        private final MavenProject project;
+
+        private final ReleaseDescriptor releaseDescriptor;
+
+        private final ScmRepository scmRepository;
+
+        private final boolean simulate;
+
+        private final ReleaseResult result = new ReleaseResult();
+
+        /**
+         * The metrics of the phase, which are current on the thread creating the transformation.
+         */
+        private final PhaseMetrics metrics = PhaseMetrics.current();
+
+        /**
+         * The checkpoint writer of the phase, which is current on the thread creating the transformation.
+         */
+        private final ProjectCheckpoints.Writer checkpointWriter = ProjectCheckpoints.current();
+
+        private Exception failure;
+
+        ProjectTransformation( MavenProject project, ReleaseDescriptor releaseDescriptor,
+                               ScmRepository scmRepository, boolean simulate )
+        {
+            this.project = project;
+            this.releaseDescriptor = releaseDescriptor;
+            this.scmRepository = scmRepository;
+            this.simulate = simulate;
+        }
+
+        @Override
+        public Void call()
+        {
+            PhaseMetrics previous = PhaseMetrics.attach( metrics );
+            ProjectCheckpoints.Writer previousWriter = ProjectCheckpoints.attach( checkpointWriter );
+            try
+            {
+                logInfo( result, "Transforming '" + project.getName() + "'..." );
+
+                transformProject( project, releaseDescriptor, scmRepository, null, simulate, false, result );
+            }
+            catch ( ReleaseExecutionException | ReleaseFailureException | RuntimeException e )
+            {
+                failure = e;
+            }
+            finally
+            {
+                ProjectCheckpoints.restore( previousWriter );
+                PhaseMetrics.restore( previous );
+            }
+            return null;
+        }
+    }
+
     private Collection<MavenCoordinate> toMavenCoordinates( List<?> objects )
     {
         Collection<MavenCoordinate> coordinates = new ArrayList<>( objects.size() );
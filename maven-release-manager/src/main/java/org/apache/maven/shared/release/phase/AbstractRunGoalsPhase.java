@@ -20,8 +20,13 @@ package org.apache.maven.shared.release.phase;
  */
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.PhaseMetrics;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
@@ -30,6 +35,7 @@ import org.apache.maven.shared.release.exec.MavenExecutor;
 import org.apache.maven.shared.release.exec.MavenExecutorException;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
 
 /**
  * Run the integration tests for the project to verify that it builds before committing.
@@ -39,6 +45,15 @@ import org.codehaus.plexus.util.StringUtils;
 public abstract class AbstractRunGoalsPhase
     extends AbstractReleasePhase
 {
+    /**
+     * The memory in megabytes a thread of a build is assumed to need when the number of threads is adapted.
+     */
+    public static final String MEMORY_PER_THREAD_PROPERTY = "maven.release.threads.memoryPerThread";
+
+    private static final int DEFAULT_MEMORY_PER_THREAD = 512;
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
     /**
      * Component to assist in executing Maven.
      */
@@ -48,6 +63,17 @@ public abstract class AbstractRunGoalsPhase
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
                                   File workingDirectory, String additionalArguments )
         throws ReleaseExecutionException
+    {
+        return execute( releaseDescriptor, releaseEnvironment, workingDirectory, additionalArguments, null );
+    }
+
+    /**
+     * @param reactorProjects the projects built by the goals, <code>null</code> if unknown
+     */
+    public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
+                                  File workingDirectory, String additionalArguments,
+                                  List<MavenProject> reactorProjects )
+        throws ReleaseExecutionException
     {
         ReleaseResult result = new ReleaseResult();
 
@@ -79,10 +105,33 @@ public abstract class AbstractRunGoalsPhase
                     executionRoot = workingDirectory;
                     pomFileName = null;
                 }
-                
-                mavenExecutor.executeGoals( executionRoot, goals, releaseEnvironment,
-                                            releaseDescriptor.isInteractive(), additionalArguments,
-                                            pomFileName, result );
+
+                if ( releaseDescriptor.isAdaptiveThreads() && !hasThreadCount( additionalArguments ) )
+                {
+                    int threads = getThreadCount( reactorProjects != null ? reactorProjects.size() : Integer.MAX_VALUE,
+                                                  Runtime.getRuntime().availableProcessors(), getPhysicalMemory(),
+                                                  Integer.getInteger( MEMORY_PER_THREAD_PROPERTY,
+                                                                      DEFAULT_MEMORY_PER_THREAD ) * MEGABYTE );
+                    if ( threads > 1 )
+                    {
+                        logInfo( result, "Building with " + threads + " threads" );
+                        additionalArguments =
+                            StringUtils.isEmpty( additionalArguments ) ? "-T " + threads
+                                            : additionalArguments + " -T " + threads;
+                    }
+                }
+
+                long start = System.nanoTime();
+                try
+                {
+                    mavenExecutor.executeGoals( executionRoot, goals, releaseEnvironment,
+                                                releaseDescriptor.isInteractive(), additionalArguments,
+                                                pomFileName, result );
+                }
+                finally
+                {
+                    PhaseMetrics.recordForkedBuild( System.nanoTime() - start );
+                }
             }
         }
         catch ( MavenExecutorException e )
@@ -97,6 +146,67 @@ public abstract class AbstractRunGoalsPhase
 
     protected abstract String getGoals( ReleaseDescriptor releaseDescriptor );
 
+    /**
+     * @return whether the arguments set the number of threads of the build
+     * @throws MavenExecutorException if the arguments cannot be parsed
+     */
+    static boolean hasThreadCount( String additionalArguments )
+        throws MavenExecutorException
+    {
+        if ( StringUtils.isEmpty( additionalArguments ) )
+        {
+            return false;
+        }
+
+        String[] arguments;
+        try
+        {
+            arguments = CommandLineUtils.translateCommandline( additionalArguments );
+        }
+        catch ( Exception e )
+        {
+            throw new MavenExecutorException( "Failed to parse the additional arguments", e );
+        }
+        for ( String argument : arguments )
+        {
+            if ( argument.startsWith( "-T" ) || argument.equals( "--threads" ) || argument.startsWith( "--threads=" ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines the number of threads of a build: one per project, but not more than there are processors or
+     * than fit into the physical memory.
+     *
+     * @param projects the number of projects of the build
+     * @param processors the number of available processors
+     * @param physicalMemory the physical memory in bytes, <code>-1</code> if unknown
+     * @param memoryPerThread the memory a thread is assumed to need in bytes
+     * @return the number of threads, at least <code>1</code>
+     */
+    static int getThreadCount( int projects, int processors, long physicalMemory, long memoryPerThread )
+    {
+        long threads = Math.min( projects, processors );
+        if ( physicalMemory > 0 && memoryPerThread > 0 )
+        {
+            threads = Math.min( threads, physicalMemory / memoryPerThread );
+        }
+        return (int) Math.max( 1, threads );
+    }
+
+    private static long getPhysicalMemory()
+    {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if ( os instanceof com.sun.management.OperatingSystemMXBean )
+        {
+            return ( (com.sun.management.OperatingSystemMXBean) os ).getTotalPhysicalMemorySize();
+        }
+        return -1;
+    }
+
     protected String getAdditionalArguments( ReleaseDescriptor releaseDescriptor )
     {
         StringBuilder builder = new StringBuilder();
@@ -33,6 +33,7 @@ import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.scm.DeferredPush;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
@@ -116,7 +117,8 @@ public abstract class AbstractScmCommitPhase
             repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor,
                                                                             releaseEnvironment.getSettings() );
 
-            repository.getProviderRepository().setPushChanges( releaseDescriptor.isPushChanges() );
+            repository.getProviderRepository().setPushChanges( releaseDescriptor.isPushChanges()
+                && !DeferredPush.isDeferred( releaseDescriptor, repository ) );
 
             repository.getProviderRepository().setWorkItem( releaseDescriptor.getWorkItem() );
 
@@ -131,14 +133,54 @@ public abstract class AbstractScmCommitPhase
             throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
 
+        if ( DeferredPush.isDeferred( releaseDescriptor, repository ) )
+        {
+            DeferredPush.begin( releaseDescriptor, new File( releaseDescriptor.getWorkingDirectory() ) );
+        }
+
         if ( releaseDescriptor.isCommitByProject() )
         {
+            List<MavenProject> projects = new ArrayList<>();
             for ( MavenProject project : reactorProjects )
             {
-                List<File> pomFiles = createPomFiles( releaseDescriptor, project );
-                ScmFileSet fileSet = new ScmFileSet( project.getFile().getParentFile(), pomFiles );
+                if ( ProjectCheckpoints.isCompleted( releaseDescriptor, project,
+                                                     ReleaseUtil.getStandardPom( project ) ) )
+                {
+                    getLogger().info( "Skipping '" + project.getName() + "', it has been checked in before" );
+                }
+                else
+                {
+                    projects.add( project );
+                }
+            }
+
+            int batchSize = releaseDescriptor.getCommitByProjectBatchSize();
+            if ( batchSize <= 0 )
+            {
+                batchSize = Math.max( projects.size(), 1 );
+            }
 
-                checkin( provider, repository, fileSet, releaseDescriptor, message );
+            // only the last commit of a batch is pushed, which pushes the commits before it too
+            boolean pushChanges = repository.getProviderRepository().isPushChanges();
+            try
+            {
+                for ( int i = 0; i < projects.size(); i++ )
+                {
+                    MavenProject project = projects.get( i );
+                    boolean lastOfBatch = ( i + 1 ) % batchSize == 0 || i == projects.size() - 1;
+                    repository.getProviderRepository().setPushChanges( pushChanges && lastOfBatch );
+
+                    List<File> pomFiles = createPomFiles( releaseDescriptor, project );
+                    ScmFileSet fileSet = new ScmFileSet( project.getFile().getParentFile(), pomFiles );
+
+                    checkin( provider, repository, fileSet, releaseDescriptor, message );
+
+                    ProjectCheckpoints.complete( releaseDescriptor, project, ReleaseUtil.getStandardPom( project ) );
+                }
+            }
+            finally
+            {
+                repository.getProviderRepository().setPushChanges( pushChanges );
             }
         }
         else
@@ -0,0 +1,444 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+
+/**
+ * Fingerprints of the sources of the reactor projects and of the outputs of their build, which tell whether the
+ * outputs of the preparation goals can be reused to perform the release.
+ * <p>
+ * The sources are the POM, the <code>src</code> directory and the source and resource roots of every project, and
+ * the <code>.mvn</code> directory of the working directory, identified by their content. The active profiles of the
+ * projects and the arguments of the build are part of the sources too, except the ones which only change how Maven
+ * runs like <code>--batch-mode</code> or <code>-T</code>. The outputs are the files of the build directories,
+ * identified by their size and modification time, except the checkout which is usually in the build directory of the
+ * root project. All paths are relative to the working directory, so that the sources of a checkout can be compared
+ * with the working copy.
+ * <p>
+ * Other inputs of the build, like files outside of these directories read by a plugin, the settings or the
+ * environment, are not part of the fingerprint.
+ *
+ * @since 3.0.0
+ */
+final class BuildFingerprint
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int HEX_RADIX = 16;
+
+    /**
+     * The options which only change how Maven runs, not what it builds.
+     */
+    private static final List<String> IGNORED_OPTIONS =
+        Arrays.asList( "-B", "--batch-mode", "-e", "--errors", "-X", "--debug", "-q", "--quiet" );
+
+    /**
+     * The options which only change how Maven runs and are followed by a value.
+     */
+    private static final List<String> IGNORED_OPTIONS_WITH_VALUE = Arrays.asList( "-f", "--file", "-T", "--threads" );
+
+    private BuildFingerprint()
+    {
+    }
+
+    /**
+     * @param root the directory to read the sources from, the working directory or a checkout of the same sources
+     * @param workingDirectory the working directory containing the reactor projects
+     * @param reactorProjects the reactor projects
+     * @param arguments the additional arguments of the build, or <code>null</code>
+     * @return the fingerprint, or <code>null</code> if a project or one of its source roots is outside of the working
+     *         directory
+     * @throws IOException if the sources cannot be read or the arguments cannot be parsed
+     */
+    static String getSourceFingerprint( File root, File workingDirectory, List<MavenProject> reactorProjects,
+                                        String arguments )
+        throws IOException
+    {
+        List<String> basedirs = getRelativePaths( workingDirectory, getBasedirs( reactorProjects ) );
+        List<String> sourceRoots = getRelativePaths( workingDirectory, getSourceRoots( reactorProjects ) );
+        if ( basedirs == null || sourceRoots == null )
+        {
+            return null;
+        }
+
+        Path rootPath = root.toPath();
+        MessageDigest digest = newDigest();
+        update( digest, "arguments", StringUtils.join( getBuildArguments( arguments ).iterator(), " " ) );
+
+        List<String> directories = new ArrayList<>( sourceRoots );
+        directories.add( ".mvn/" );
+        for ( int i = 0; i < basedirs.size(); i++ )
+        {
+            String basedir = basedirs.get( i );
+            MavenProject project = reactorProjects.get( i );
+            String pom = basedir + project.getFile().getName();
+            File pomFile = new File( root, pom );
+            if ( !pomFile.isFile() )
+            {
+                return null;
+            }
+            update( digest, pom, digest( pomFile ) );
+            update( digest, pom + "#profiles", getProfileIds( project ) );
+            directories.add( basedir + "src/" );
+        }
+
+        for ( String directory : getOutermostPaths( directories ) )
+        {
+            Path sources = new File( root, directory ).toPath();
+            if ( Files.isDirectory( sources ) )
+            {
+                for ( Path file : listFiles( sources, null ) )
+                {
+                    update( digest, toString( rootPath.relativize( file ) ), digest( file.toFile() ) );
+                }
+            }
+        }
+        return toString( digest );
+    }
+
+    /**
+     * @param workingDirectory the working directory containing the reactor projects
+     * @param reactorProjects the reactor projects
+     * @param checkoutDirectory the checkout of the release, which is not an output, or <code>null</code>
+     * @return the fingerprint, or <code>null</code> if a project is outside of the working directory or has not been
+     *         built
+     * @throws IOException if the outputs cannot be read
+     */
+    static String getOutputFingerprint( File workingDirectory, List<MavenProject> reactorProjects,
+                                        File checkoutDirectory )
+        throws IOException
+    {
+        List<String> buildDirectories = getRelativePaths( workingDirectory, getBuildDirectories( reactorProjects ) );
+        if ( buildDirectories == null )
+        {
+            return null;
+        }
+
+        File root = workingDirectory.getCanonicalFile();
+        Path rootPath = root.toPath();
+        Path excluded = checkoutDirectory != null ? checkoutDirectory.getCanonicalFile().toPath() : null;
+        MessageDigest digest = newDigest();
+        for ( String buildDirectory : buildDirectories )
+        {
+            Path outputs = new File( root, buildDirectory ).toPath();
+            if ( !Files.isDirectory( outputs ) )
+            {
+                return null;
+            }
+            for ( Path file : listFiles( outputs, excluded ) )
+            {
+                update( digest, toString( rootPath.relativize( file ) ),
+                        Files.size( file ) + "/" + Files.getLastModifiedTime( file ).toMillis() );
+            }
+        }
+        return toString( digest );
+    }
+
+    /**
+     * Copies the build directories of the reactor projects to another copy of the sources, except that copy itself.
+     * The copies get a new modification time, so that the build considers them up to date.
+     *
+     * @param workingDirectory the working directory containing the reactor projects
+     * @param reactorProjects the reactor projects
+     * @param root the directory containing the other copy of the sources
+     * @throws IOException if the outputs cannot be copied
+     */
+    static void copyOutputs( File workingDirectory, List<MavenProject> reactorProjects, File root )
+        throws IOException
+    {
+        List<String> buildDirectories = getRelativePaths( workingDirectory, getBuildDirectories( reactorProjects ) );
+        if ( buildDirectories == null )
+        {
+            throw new IOException( "The projects are not contained in " + workingDirectory );
+        }
+
+        File canonicalWorkingDirectory = workingDirectory.getCanonicalFile();
+        Path excluded = root.getCanonicalFile().toPath();
+        for ( String buildDirectory : buildDirectories )
+        {
+            Path source = new File( canonicalWorkingDirectory, buildDirectory ).toPath();
+            Path target = new File( root, buildDirectory ).toPath();
+            for ( Path file : listFiles( source, excluded ) )
+            {
+                Path copy = target.resolve( source.relativize( file ) );
+                Files.createDirectories( copy.getParent() );
+                Files.copy( file, copy, StandardCopyOption.REPLACE_EXISTING );
+            }
+        }
+    }
+
+    private static List<File> getBasedirs( List<MavenProject> reactorProjects )
+    {
+        List<File> basedirs = new ArrayList<>();
+        for ( MavenProject project : reactorProjects )
+        {
+            basedirs.add( project.getBasedir() );
+        }
+        return basedirs;
+    }
+
+    /**
+     * @return the source and resource roots of the projects, except the ones generated in their build directory
+     */
+    private static List<File> getSourceRoots( List<MavenProject> reactorProjects )
+    {
+        List<File> sourceRoots = new ArrayList<>();
+        for ( MavenProject project : reactorProjects )
+        {
+            List<String> paths = new ArrayList<>( project.getCompileSourceRoots() );
+            paths.addAll( project.getTestCompileSourceRoots() );
+            for ( Resource resource : project.getResources() )
+            {
+                paths.add( resource.getDirectory() );
+            }
+            for ( Resource resource : project.getTestResources() )
+            {
+                paths.add( resource.getDirectory() );
+            }
+
+            Path buildDirectory = new File( project.getBuild().getDirectory() ).toPath();
+            for ( String path : paths )
+            {
+                if ( path == null )
+                {
+                    continue;
+                }
+                File sourceRoot = new File( path );
+                if ( !sourceRoot.isAbsolute() )
+                {
+                    sourceRoot = new File( project.getBasedir(), path );
+                }
+                if ( !sourceRoot.toPath().startsWith( buildDirectory ) )
+                {
+                    sourceRoots.add( sourceRoot );
+                }
+            }
+        }
+        return sourceRoots;
+    }
+
+    /**
+     * @return the paths ending with a slash, sorted and without the ones contained in another
+     */
+    private static List<String> getOutermostPaths( List<String> paths )
+    {
+        List<String> sortedPaths = new ArrayList<>( paths );
+        Collections.sort( sortedPaths );
+        List<String> outermostPaths = new ArrayList<>();
+        for ( String path : sortedPaths )
+        {
+            boolean contained = false;
+            for ( String outermostPath : outermostPaths )
+            {
+                contained |= path.startsWith( outermostPath );
+            }
+            if ( !contained )
+            {
+                outermostPaths.add( path );
+            }
+        }
+        return outermostPaths;
+    }
+
+    private static String getProfileIds( MavenProject project )
+    {
+        List<String> ids = new ArrayList<>();
+        for ( Profile profile : project.getActiveProfiles() )
+        {
+            ids.add( profile.getId() );
+        }
+        Collections.sort( ids );
+        return StringUtils.join( ids.iterator(), "," );
+    }
+
+    /**
+     * @return the arguments which change what Maven builds, sorted
+     */
+    private static List<String> getBuildArguments( String arguments )
+        throws IOException
+    {
+        List<String> buildArguments = new ArrayList<>();
+        if ( StringUtils.isEmpty( arguments ) )
+        {
+            return buildArguments;
+        }
+
+        String[] tokens;
+        try
+        {
+            tokens = CommandLineUtils.translateCommandline( arguments );
+        }
+        catch ( Exception e )
+        {
+            throw new IOException( "Cannot parse the arguments " + arguments, e );
+        }
+        for ( int i = 0; i < tokens.length; i++ )
+        {
+            String token = tokens[i];
+            if ( IGNORED_OPTIONS_WITH_VALUE.contains( token ) )
+            {
+                i++;
+            }
+            else if ( !IGNORED_OPTIONS.contains( token ) && !token.startsWith( "-T" )
+                && !token.startsWith( "--threads=" ) )
+            {
+                buildArguments.add( token );
+            }
+        }
+        Collections.sort( buildArguments );
+        return buildArguments;
+    }
+
+    private static List<File> getBuildDirectories( List<MavenProject> reactorProjects )
+    {
+        List<File> buildDirectories = new ArrayList<>();
+        for ( MavenProject project : reactorProjects )
+        {
+            buildDirectories.add( new File( project.getBuild().getDirectory() ) );
+        }
+        return buildDirectories;
+    }
+
+    /**
+     * @return the paths relative to the directory, ending with a slash unless empty, or <code>null</code> if a file
+     *         is outside of the directory
+     */
+    private static List<String> getRelativePaths( File directory, List<File> files )
+        throws IOException
+    {
+        Path root = directory.getCanonicalFile().toPath();
+        List<String> paths = new ArrayList<>();
+        for ( File file : files )
+        {
+            Path path = file.getCanonicalFile().toPath();
+            if ( !path.startsWith( root ) )
+            {
+                return null;
+            }
+            String relativePath = toString( root.relativize( path ) );
+            paths.add( relativePath.isEmpty() ? relativePath : relativePath + "/" );
+        }
+        return paths;
+    }
+
+    /**
+     * @param directory the canonical directory to list
+     * @param excluded the canonical directory to leave out, or <code>null</code>
+     * @return the regular files below the directory, sorted and without hidden files and directories, the directory
+     *         itself may be hidden
+     */
+    private static List<Path> listFiles( final Path directory, final Path excluded )
+        throws IOException
+    {
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree( directory, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs )
+            {
+                return ( isHidden( dir ) && !dir.equals( directory ) ) || dir.equals( excluded )
+                                ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+            {
+                if ( attrs.isRegularFile() && !isHidden( file ) )
+                {
+                    files.add( file );
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        } );
+        Collections.sort( files );
+        return files;
+    }
+
+    private static boolean isHidden( Path path )
+    {
+        return path.getFileName() != null && path.getFileName().toString().startsWith( "." );
+    }
+
+    private static String toString( Path path )
+    {
+        return path.toString().replace( File.separatorChar, '/' );
+    }
+
+    private static void update( MessageDigest digest, String path, String value )
+    {
+        digest.update( ( path + '\0' + value + '\n' ).getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static String digest( File file )
+        throws IOException
+    {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try ( InputStream in = Files.newInputStream( file.toPath() ) )
+        {
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        return toString( digest );
+    }
+
+    private static String toString( MessageDigest digest )
+    {
+        return new BigInteger( 1, digest.digest() ).toString( HEX_RADIX );
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-256" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.List;
  */
 public class CheckPomPhase
     extends AbstractReleasePhase
+    implements ReadOnlyPhase
 {
 
     /**
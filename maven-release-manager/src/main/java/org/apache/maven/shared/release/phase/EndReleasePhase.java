@@ -20,17 +20,26 @@ package org.apache.maven.shared.release.phase;
  */
 
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.scm.DeferredPush;
+import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 
+import java.io.File;
 import java.util.List;
 
 /**
- * Finalise release preparation so it can be flagged complete..
+ * Finalise release preparation so it can be flagged complete.. Pushes the commits and the tag of the release if
+ * their push has been deferred.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
@@ -38,6 +47,12 @@ import java.util.List;
 public class EndReleasePhase
     extends AbstractReleasePhase
 {
+    /**
+     * Tool that gets a configured SCM repository from release configuration.
+     */
+    @Requirement
+    private ScmRepositoryConfigurator scmRepositoryConfigurator;
+
     @Override
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
                                   List<MavenProject> reactorProjects )
@@ -45,6 +60,29 @@ public class EndReleasePhase
     {
         ReleaseResult result = new ReleaseResult();
 
+        // pushed even if the deferral has been turned off when resuming, the commits would be left behind otherwise
+        if ( releaseDescriptor.getDeferredPushBase() != null )
+        {
+            logInfo( result, "Pushing the commits and the tag of the release..." );
+
+            ScmRepository repository;
+            try
+            {
+                repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor,
+                                                                                releaseEnvironment.getSettings() );
+            }
+            catch ( ScmRepositoryException e )
+            {
+                throw new ReleaseScmRepositoryException( e.getMessage(), e.getValidationMessages() );
+            }
+            catch ( NoSuchScmProviderException e )
+            {
+                throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
+            }
+
+            DeferredPush.push( releaseDescriptor, repository, new File( releaseDescriptor.getWorkingDirectory() ) );
+        }
+
         logInfo( result, "Release preparation complete." );
 
         result.setResultCode( ReleaseResult.SUCCESS );
@@ -59,6 +97,11 @@ public class EndReleasePhase
     {
         ReleaseResult result = new ReleaseResult();
 
+        if ( releaseDescriptor.isDeferPush() && releaseDescriptor.isPushChanges() )
+        {
+            logInfo( result, "Full run would push the commits and the tag of the release." );
+        }
+
         logInfo( result, "Release preparation simulation complete." );
 
         result.setResultCode( ReleaseResult.SUCCESS );
@@ -0,0 +1,250 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against a set of patterns like {@link org.codehaus.plexus.util.SelectorUtils#matchPath(String,
+ * String)} does, but compiles the patterns once. The patterns are merged into a tree of their path segments, so a path
+ * is matched in a single pass over its segments, whatever the number of patterns: literal segments are looked up by
+ * name, only segments with wildcards are tested one by one.
+ * <p>
+ * Patterns starting with the separator only match paths starting with it, as with <code>SelectorUtils</code>. The
+ * <code>%regex[...]</code> patterns are matched against the whole path.
+ *
+ * @since 3.0.0
+ */
+final class ExclusionMatcher
+{
+    private static final String REGEX_PREFIX = "%regex[";
+
+    private static final String ANT_PREFIX = "%ant[";
+
+    private static final String SUFFIX = "]";
+
+    private static final String ANY_DIRECTORIES = "**";
+
+    private final String separator;
+
+    private final Node relativeRoot = new Node( false );
+
+    private final Node absoluteRoot = new Node( false );
+
+    private final List<Pattern> regexPatterns = new ArrayList<>();
+
+    /**
+     * @param patterns the patterns
+     * @param separator the separator of the path segments in the patterns and the paths
+     */
+    ExclusionMatcher( Collection<String> patterns, String separator )
+    {
+        this.separator = separator;
+        for ( String pattern : patterns )
+        {
+            add( pattern );
+        }
+    }
+
+    private void add( String pattern )
+    {
+        if ( pattern.length() > REGEX_PREFIX.length() + SUFFIX.length() && pattern.startsWith( REGEX_PREFIX )
+            && pattern.endsWith( SUFFIX ) )
+        {
+            regexPatterns.add( Pattern.compile(
+                pattern.substring( REGEX_PREFIX.length(), pattern.length() - SUFFIX.length() ) ) );
+            return;
+        }
+        if ( pattern.length() > ANT_PREFIX.length() + SUFFIX.length() && pattern.startsWith( ANT_PREFIX )
+            && pattern.endsWith( SUFFIX ) )
+        {
+            pattern = pattern.substring( ANT_PREFIX.length(), pattern.length() - SUFFIX.length() );
+        }
+
+        Node node = pattern.startsWith( separator ) ? absoluteRoot : relativeRoot;
+        StringTokenizer segments = new StringTokenizer( pattern, separator );
+        while ( segments.hasMoreTokens() )
+        {
+            node = node.child( segments.nextToken() );
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * @param path the path, with the segments separated by the separator
+     * @return whether the path matches any of the patterns
+     */
+    boolean matches( String path )
+    {
+        for ( Pattern regexPattern : regexPatterns )
+        {
+            if ( regexPattern.matcher( path ).matches() )
+            {
+                return true;
+            }
+        }
+
+        Set<Node> active = new LinkedHashSet<>();
+        addWithClosure( active, path.startsWith( separator ) ? absoluteRoot : relativeRoot );
+
+        StringTokenizer segments = new StringTokenizer( path, separator );
+        while ( segments.hasMoreTokens() && !active.isEmpty() )
+        {
+            String segment = segments.nextToken();
+            Set<Node> next = new LinkedHashSet<>();
+            for ( Node node : active )
+            {
+                node.step( segment, next );
+            }
+            active = next;
+        }
+
+        for ( Node node : active )
+        {
+            if ( node.terminal )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a node and the nodes reachable from it without consuming a segment, that is by matching no directory with
+     * <code>**</code>.
+     */
+    private static void addWithClosure( Set<Node> nodes, Node node )
+    {
+        while ( node != null && nodes.add( node ) )
+        {
+            node = node.anyDirectories;
+        }
+    }
+
+    /**
+     * A position in the patterns, after some of their segments.
+     */
+    private static final class Node
+    {
+        /**
+         * Whether this node stands for a <code>**</code> segment, which matches any number of segments.
+         */
+        private final boolean loop;
+
+        private final Map<String, Node> literals = new HashMap<>();
+
+        private final Map<String, Node> wildcards = new HashMap<>();
+
+        private final List<Pattern> wildcardPatterns = new ArrayList<>();
+
+        private final List<Node> wildcardNodes = new ArrayList<>();
+
+        private Node anyDirectories;
+
+        private boolean terminal;
+
+        Node( boolean loop )
+        {
+            this.loop = loop;
+        }
+
+        Node child( String segment )
+        {
+            if ( ANY_DIRECTORIES.equals( segment ) )
+            {
+                if ( anyDirectories == null )
+                {
+                    anyDirectories = new Node( true );
+                }
+                return anyDirectories;
+            }
+
+            boolean wildcard = segment.indexOf( '*' ) >= 0 || segment.indexOf( '?' ) >= 0;
+            Map<String, Node> children = wildcard ? wildcards : literals;
+            Node child = children.get( segment );
+            if ( child == null )
+            {
+                child = new Node( false );
+                children.put( segment, child );
+                if ( wildcard )
+                {
+                    wildcardPatterns.add( toRegex( segment ) );
+                    wildcardNodes.add( child );
+                }
+            }
+            return child;
+        }
+
+        /**
+         * Adds the nodes reached by consuming a segment.
+         */
+        void step( String segment, Set<Node> next )
+        {
+            if ( loop )
+            {
+                addWithClosure( next, this );
+            }
+            Node literal = literals.get( segment );
+            if ( literal != null )
+            {
+                addWithClosure( next, literal );
+            }
+            for ( int i = 0; i < wildcardPatterns.size(); i++ )
+            {
+                if ( wildcardPatterns.get( i ).matcher( segment ).matches() )
+                {
+                    addWithClosure( next, wildcardNodes.get( i ) );
+                }
+            }
+        }
+
+        private static Pattern toRegex( String segment )
+        {
+            StringBuilder regex = new StringBuilder();
+            int literalStart = 0;
+            for ( int i = 0; i < segment.length(); i++ )
+            {
+                char c = segment.charAt( i );
+                if ( c == '*' || c == '?' )
+                {
+                    if ( i > literalStart )
+                    {
+                        regex.append( Pattern.quote( segment.substring( literalStart, i ) ) );
+                    }
+                    regex.append( c == '*' ? ".*" : "." );
+                    literalStart = i + 1;
+                }
+            }
+            if ( literalStart < segment.length() )
+            {
+                regex.append( Pattern.quote( segment.substring( literalStart ) ) );
+            }
+            return Pattern.compile( regex.toString(), Pattern.DOTALL );
+        }
+    }
+}
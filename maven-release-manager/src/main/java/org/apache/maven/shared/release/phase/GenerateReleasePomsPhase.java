@@ -165,6 +165,7 @@ public class GenerateReleasePomsPhase
 
         
 
+        invalidatePom( releasePomFile );
         try ( Writer fileWriter = WriterFactory.newXmlWriter( releasePomFile ) ) 
         {
             pomWriter.write( fileWriter, releasePom );
@@ -686,6 +687,7 @@ public class GenerateReleasePomsPhase
             {
                 logInfo( result, "Deleting release POM for '" + project.getName() + "'..." );
 
+                invalidatePom( releasePom );
                 if ( !releasePom.delete() )
                 {
                     logWarn( result, "Cannot delete release POM: " + releasePom );
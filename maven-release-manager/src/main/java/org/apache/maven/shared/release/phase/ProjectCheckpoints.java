@@ -0,0 +1,150 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+
+/**
+ * Per project progress of a phase. After a project is done the checksum of its POM is recorded in the descriptor, a
+ * resumed phase skips the projects whose POM still has the recorded checksum. The {@link Writer} current on the
+ * thread executing the phase is told about every completed project, so it can save the progress.
+ *
+ * @since 3.0.0
+ */
+public final class ProjectCheckpoints
+{
+    private static final ThreadLocal<Writer> CURRENT = new ThreadLocal<>();
+
+    private ProjectCheckpoints()
+    {
+        // utility class
+    }
+
+    /**
+     * Saves the checkpoints of the phase in progress.
+     */
+    public interface Writer
+    {
+        /**
+         * Called whenever the phase has completed a project, possibly from several threads at once.
+         *
+         * @param releaseDescriptor the release descriptor holding the checkpoints
+         */
+        void write( ReleaseDescriptor releaseDescriptor );
+    }
+
+    /**
+     * @return the writer of the phase executed by the current thread, or <code>null</code> if there is none
+     */
+    static Writer current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes a writer current on this thread.
+     *
+     * @param writer the writer to save the checkpoints with, may be <code>null</code>
+     * @return the writer which was current before, to be restored with {@link #restore(Writer)}
+     */
+    public static Writer attach( Writer writer )
+    {
+        Writer previous = CURRENT.get();
+        CURRENT.set( writer );
+        return previous;
+    }
+
+    /**
+     * @param previous the writer returned by {@link #attach(Writer)}
+     */
+    public static void restore( Writer previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+
+    /**
+     * @param releaseDescriptor the release descriptor
+     * @param project the project
+     * @param pomFile the POM the phase writes for the project
+     * @return <code>true</code> if a previous run of the phase has completed the project and the POM is unchanged
+     */
+    static boolean isCompleted( ReleaseDescriptor releaseDescriptor, MavenProject project, File pomFile )
+    {
+        String checksum = releaseDescriptor.getProjectCheckpoint( getKey( project ) );
+        if ( checksum == null || !pomFile.exists() )
+        {
+            return false;
+        }
+
+        try
+        {
+            return checksum.equals( ReleaseUtil.checksum( pomFile ) );
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Records that the phase has completed a project.
+     *
+     * @param releaseDescriptor the release descriptor
+     * @param project the project
+     * @param pomFile the POM the phase has written for the project
+     */
+    static void complete( ReleaseDescriptor releaseDescriptor, MavenProject project, File pomFile )
+    {
+        try
+        {
+            releaseDescriptor.addProjectCheckpoint( getKey( project ), ReleaseUtil.checksum( pomFile ) );
+        }
+        catch ( IOException e )
+        {
+            // the project is just done again when resuming
+            return;
+        }
+
+        Writer writer = CURRENT.get();
+        if ( writer != null )
+        {
+            writer.write( releaseDescriptor );
+        }
+    }
+
+    private static String getKey( MavenProject project )
+    {
+        return ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() );
+    }
+}
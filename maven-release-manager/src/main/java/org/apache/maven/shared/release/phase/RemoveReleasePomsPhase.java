@@ -117,6 +117,7 @@ public class RemoveReleasePomsPhase
         {
             for ( File releasePom : releasePoms )
             {
+                invalidatePom( releasePom );
                 releasePom.delete();
             }
         }
@@ -136,6 +137,10 @@ public class RemoveReleasePomsPhase
             ScmProvider scmProvider = getScmProvider( scmRepository );
 
             ScmFileSet scmFileSet = new ScmFileSet( new File( releaseDescriptor.getWorkingDirectory() ), releasePoms );
+            for ( File releasePom : releasePoms )
+            {
+                invalidatePom( releasePom );
+            }
 
             try
             {
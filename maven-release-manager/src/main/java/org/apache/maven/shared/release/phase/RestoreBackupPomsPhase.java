@@ -35,6 +35,7 @@ import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.transform.PomCache;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
@@ -57,6 +58,12 @@ public class RestoreBackupPomsPhase
     @Requirement
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * POMs already parsed by other phases of this release.
+     */
+    @Requirement
+    private PomCache pomCache;
+
     @Override
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
                                   List<MavenProject> reactorProjects )
@@ -133,7 +140,9 @@ public class RestoreBackupPomsPhase
 
         try
         {
-            FileUtils.copyFile( getPomBackup( project ), ReleaseUtil.getStandardPom( project ) );
+            File pomFile = ReleaseUtil.getStandardPom( project );
+            pomCache.invalidate( pomFile );
+            FileUtils.copyFile( getPomBackup( project ), pomFile );
         }
         catch ( IOException e )
         {
@@ -45,7 +45,7 @@ public class RunCompleteGoalsPhase
         throws ReleaseExecutionException
     {
         return execute( releaseDescriptor, releaseEnvironment, new File( releaseDescriptor.getWorkingDirectory() ),
-                        getAdditionalArguments( releaseDescriptor ) );
+                        getAdditionalArguments( releaseDescriptor ), reactorProjects );
     }
 
     @Override
@@ -29,6 +29,7 @@ import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -134,7 +135,61 @@ public class RunPerformGoalsPhase
             }
         }
 
-        return execute( releaseDescriptor, releaseEnvironment, workDirectory, additionalArguments );
+        if ( releaseDescriptor.isReuseBuild()
+            && reuseBuild( releaseDescriptor, reactorProjects, new File( workDir ), workDirectory,
+                           additionalArguments ) )
+        {
+            // the tests have passed on the same sources in the preparation
+            additionalArguments = additionalArguments + " -DskipTests";
+        }
+
+        return execute( releaseDescriptor, releaseEnvironment, workDirectory, additionalArguments, reactorProjects );
+    }
+
+    /**
+     * Copies the outputs of the preparation goals to the checkout if it contains the sources they have been built
+     * from, the arguments match and the outputs are unchanged.
+     *
+     * @return whether the outputs have been copied
+     */
+    private boolean reuseBuild( ReleaseDescriptor releaseDescriptor, List<MavenProject> reactorProjects,
+                                File workingDirectory, File checkoutDirectory, String additionalArguments )
+    {
+        if ( releaseDescriptor.getSourceFingerprint() == null || releaseDescriptor.getOutputFingerprint() == null
+            || reactorProjects == null )
+        {
+            getLogger().info( "There are no outputs of the preparation goals to reuse" );
+            return false;
+        }
+
+        try
+        {
+            String sourceFingerprint = BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                              reactorProjects, additionalArguments );
+            if ( !releaseDescriptor.getSourceFingerprint().equals( sourceFingerprint ) )
+            {
+                getLogger().info( "The checkout or the arguments differ from the ones of the preparation goals" );
+                return false;
+            }
+
+            String outputFingerprint =
+                BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory );
+            if ( !releaseDescriptor.getOutputFingerprint().equals( outputFingerprint ) )
+            {
+                getLogger().info( "The outputs of the preparation goals have changed since" );
+                return false;
+            }
+
+            BuildFingerprint.copyOutputs( workingDirectory, reactorProjects, checkoutDirectory );
+        }
+        catch ( IOException e )
+        {
+            getLogger().warn( "Cannot reuse the outputs of the preparation goals: " + e.getMessage() );
+            return false;
+        }
+
+        getLogger().info( "Reusing the outputs of the preparation goals, the tests are skipped" );
+        return true;
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.codehaus.plexus.component.annotations.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -43,8 +44,54 @@ public class RunPrepareGoalsPhase
                                   List<MavenProject> reactorProjects )
         throws ReleaseExecutionException
     {
-        return execute( releaseDescriptor, releaseEnvironment, new File( releaseDescriptor.getWorkingDirectory() ),
-                        getAdditionalArguments( releaseDescriptor ) );
+        ReleaseResult result =
+            execute( releaseDescriptor, releaseEnvironment, new File( releaseDescriptor.getWorkingDirectory() ),
+                     getAdditionalArguments( releaseDescriptor ), reactorProjects );
+
+        if ( releaseDescriptor.isReuseBuild() )
+        {
+            recordFingerprints( releaseDescriptor, reactorProjects, getAdditionalArguments( releaseDescriptor ),
+                                result );
+        }
+
+        return result;
+    }
+
+    /**
+     * Records the fingerprints of the sources and of the outputs of the build, which allow the perform goals to reuse
+     * the outputs.
+     */
+    private void recordFingerprints( ReleaseDescriptor releaseDescriptor, List<MavenProject> reactorProjects,
+                                     String additionalArguments, ReleaseResult result )
+    {
+        String sourceFingerprint = null;
+        String outputFingerprint = null;
+        if ( reactorProjects != null )
+        {
+            File workingDirectory = new File( releaseDescriptor.getWorkingDirectory() );
+            File checkoutDirectory = releaseDescriptor.getCheckoutDirectory() != null
+                            ? new File( releaseDescriptor.getCheckoutDirectory() ) : null;
+            try
+            {
+                sourceFingerprint = BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory,
+                                                                           reactorProjects, additionalArguments );
+                outputFingerprint =
+                    BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory );
+            }
+            catch ( IOException e )
+            {
+                logWarn( result, "Cannot fingerprint the build: " + e.getMessage() );
+            }
+        }
+
+        if ( sourceFingerprint == null || outputFingerprint == null )
+        {
+            logInfo( result, "The outputs of the preparation goals cannot be reused to perform the release" );
+            sourceFingerprint = null;
+            outputFingerprint = null;
+        }
+        releaseDescriptor.setSourceFingerprint( sourceFingerprint );
+        releaseDescriptor.setOutputFingerprint( outputFingerprint );
     }
 
     @Override
@@ -39,16 +39,20 @@ import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 import org.apache.maven.shared.release.scm.ScmTranslator;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
-import org.codehaus.plexus.util.SelectorUtils;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * See if there are any local modifications to the files before proceeding with SCM operations and the release.
@@ -58,6 +62,7 @@ import java.util.Set;
 @Component( role = ReleasePhase.class, hint = "scm-check-modifications" )
 public class ScmCheckModificationsPhase
     extends AbstractReleasePhase
+    implements ReadOnlyPhase
 {
     /**
      * Tool that gets a configured SCM repository from release configuration.
@@ -72,14 +77,17 @@ public class ScmCheckModificationsPhase
     private Map<String, ScmTranslator> scmTranslators;
 
     /**
-     * The filepatterns to exclude from the status check.
+     * The filepatterns to exclude from the status check, those of the release descriptor are added for each run.
      *
      * @todo proper construction of filenames, especially release properties
      */
-    private Set<String> exclusionPatterns = new HashSet<>( Arrays.asList(
-        "**" + File.separator + "pom.xml.backup", "**" + File.separator + "pom.xml.tag",
-        "**" + File.separator + "pom.xml.next", "**" + File.separator + "pom.xml.branch",
-        "**" + File.separator + "release.properties", "**" + File.separator + "pom.xml.releaseBackup" ) );
+    private static final Set<String> EXCLUSION_PATTERNS = Collections.unmodifiableSet( new LinkedHashSet<>(
+        Arrays.asList( "**" + File.separator + "pom.xml.backup", "**" + File.separator + "pom.xml.tag",
+                       "**" + File.separator + "pom.xml.next", "**" + File.separator + "pom.xml.branch",
+                       "**" + File.separator + "release.properties",
+                       "**" + File.separator + "release.properties.journal",
+                       "**" + File.separator + "pom.xml.releaseBackup",
+                       "**" + File.separator + "release-metrics.json" ) ) );
 
     @Override
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
@@ -88,11 +96,14 @@ public class ScmCheckModificationsPhase
     {
         ReleaseResult relResult = new ReleaseResult();
 
+        // the patterns of one run must not leak into the next
+        Set<String> exclusionPatterns = new LinkedHashSet<>( EXCLUSION_PATTERNS );
+
         List<String> additionalExcludes = releaseDescriptor.getCheckModificationExcludes();
 
         if ( additionalExcludes != null )
         {
-            // SelectorUtils expects OS-specific paths and patterns
+            // the patterns are matched against OS-specific paths
             for ( String additionalExclude : additionalExcludes )
             {
                 exclusionPatterns.add( additionalExclude.replace( "\\", File.separator )
@@ -123,28 +134,41 @@ public class ScmCheckModificationsPhase
             throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
 
-        StatusScmResult result;
-        try
+        File workingDirectory = new File( releaseDescriptor.getWorkingDirectory() );
+        List<ScmFileSet> roots = Collections.singletonList( new ScmFileSet( workingDirectory ) );
+        if ( releaseDescriptor.isScopedCheckModifications() && reactorProjects != null && !reactorProjects.isEmpty() )
         {
-            result =
-                provider.status( repository, new ScmFileSet( new File( releaseDescriptor.getWorkingDirectory() ) ) );
+            roots = getStatusRoots( workingDirectory, releaseDescriptor.getCheckModificationRoots(), reactorProjects );
+            List<File> checked = new ArrayList<>();
+            for ( ScmFileSet root : roots )
+            {
+                if ( root.getFileList().isEmpty() )
+                {
+                    checked.add( root.getBasedir() );
+                }
+                for ( File file : root.getFileList() )
+                {
+                    checked.add( new File( root.getBasedir(), file.getPath() ) );
+                }
+            }
+            logDebug( relResult, "  checking: " + StringUtils.join( checked.toArray(), ", " ) );
         }
-        catch ( ScmException e )
+
+        List<ScmFile> changedFiles;
+        if ( roots.size() == 1 && roots.get( 0 ).getFileList().isEmpty()
+            && roots.get( 0 ).getBasedir().equals( workingDirectory ) )
         {
-            throw new ReleaseExecutionException( "An error occurred during the status check process: " + e.getMessage(),
-                                                 e );
+            changedFiles = checkResult( status( provider, repository, roots.get( 0 ) ) ).getChangedFiles();
         }
-
-        if ( !result.isSuccess() )
+        else
         {
-            throw new ReleaseScmCommandException( "Unable to check for local modifications", result );
+            changedFiles = status( provider, repository, workingDirectory, roots );
         }
 
-        List<ScmFile> changedFiles = result.getChangedFiles();
-
         if ( !changedFiles.isEmpty() )
         {
             ScmTranslator scmTranslator = scmTranslators.get( repository.getProvider() );
+            ExclusionMatcher exclusionMatcher = new ExclusionMatcher( exclusionPatterns, File.separator );
 
             // TODO: would be nice for SCM status command to do this for me.
             for ( Iterator<ScmFile> i = changedFiles.iterator(); i.hasNext(); )
@@ -161,17 +185,13 @@ public class ScmCheckModificationsPhase
                     path = f.getPath();
                 }
 
-                // SelectorUtils expects File.separator, don't standardize!
+                // the patterns use File.separator, don't standardize!
                 String fileName = path.replace( "\\", File.separator ).replace( "/", File.separator );
 
-                for ( String exclusionPattern : exclusionPatterns )
+                if ( exclusionMatcher.matches( fileName ) )
                 {
-                    if ( SelectorUtils.matchPath( exclusionPattern, fileName ) )
-                    {
-                        logDebug( relResult, "Ignoring changed file: " + fileName );
-                        i.remove();
-                        break;
-                    }
+                    logDebug( relResult, "Ignoring changed file: " + fileName );
+                    i.remove();
                 }
             }
         }
@@ -195,6 +215,194 @@ public class ScmCheckModificationsPhase
         return relResult;
     }
 
+    /**
+     * A reactor project with modules contains directories which may not be part of the release, like the modules
+     * left out of the reactor or the whole working copy for the root project. Such a project is checked through its
+     * POM and its directories which are not modules; its modules are checked if they are reactor projects.
+     *
+     * @return the directories of the reactor projects and the additional roots, without those within another one
+     */
+    private static List<ScmFileSet> getStatusRoots( File workingDirectory, List<String> additionalRoots,
+                                                    List<MavenProject> reactorProjects )
+    {
+        // parents sort before their descendants
+        Set<File> candidates = new TreeSet<>();
+        Map<File, MavenProject> projects = new LinkedHashMap<>();
+        for ( MavenProject project : reactorProjects )
+        {
+            File basedir = canonicalize( project.getBasedir() );
+            candidates.add( basedir );
+            projects.put( basedir, project );
+        }
+        if ( additionalRoots != null )
+        {
+            for ( String additionalRoot : additionalRoots )
+            {
+                candidates.add( canonicalize( new File( workingDirectory, additionalRoot ) ) );
+            }
+        }
+
+        File canonicalWorkingDirectory = canonicalize( workingDirectory );
+        List<File> directories = new ArrayList<>();
+        List<ScmFileSet> roots = new ArrayList<>();
+        for ( File candidate : candidates )
+        {
+            boolean nested = false;
+            for ( File directory : directories )
+            {
+                nested |= candidate.toPath().startsWith( directory.toPath() );
+            }
+            if ( nested )
+            {
+                continue;
+            }
+
+            File basedir = candidate.equals( canonicalWorkingDirectory ) ? workingDirectory : candidate;
+            MavenProject project = projects.get( candidate );
+            Set<File> modules =
+                project != null ? getModuleDirectories( candidate, project ) : Collections.<File>emptySet();
+            if ( modules.isEmpty() )
+            {
+                directories.add( candidate );
+                roots.add( new ScmFileSet( basedir ) );
+            }
+            else
+            {
+                roots.add( new ScmFileSet( basedir, new File( project.getFile().getName() ) ) );
+                addNonModuleDirectories( candidate, modules, roots, directories );
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @return the canonical directories of the modules of the project within its directory
+     */
+    private static Set<File> getModuleDirectories( File basedir, MavenProject project )
+    {
+        Set<File> modules = new TreeSet<>();
+        for ( String module : project.getModules() )
+        {
+            File moduleFile = canonicalize( new File( basedir, module ) );
+            File moduleDirectory = moduleFile.isFile() ? moduleFile.getParentFile() : moduleFile;
+            if ( !moduleDirectory.equals( basedir ) && moduleDirectory.toPath().startsWith( basedir.toPath() ) )
+            {
+                modules.add( moduleDirectory );
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Adds the directories below the given one which neither are nor contain a module, the directories of the SCM
+     * and other hidden directories left aside.
+     */
+    private static void addNonModuleDirectories( File directory, Set<File> modules, List<ScmFileSet> roots,
+                                                 List<File> directories )
+    {
+        File[] children = directory.listFiles();
+        if ( children == null )
+        {
+            return;
+        }
+        Arrays.sort( children );
+        for ( File child : children )
+        {
+            if ( !child.isDirectory() || child.getName().startsWith( "." ) || modules.contains( child ) )
+            {
+                continue;
+            }
+            boolean containsModule = false;
+            for ( File module : modules )
+            {
+                containsModule |= module.toPath().startsWith( child.toPath() );
+            }
+            if ( containsModule )
+            {
+                addNonModuleDirectories( child, modules, roots, directories );
+            }
+            else
+            {
+                directories.add( child );
+                roots.add( new ScmFileSet( child ) );
+            }
+        }
+    }
+
+    private static File canonicalize( File file )
+    {
+        try
+        {
+            return file.getCanonicalFile();
+        }
+        catch ( IOException e )
+        {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    /**
+     * Queries the status of the roots one after another on the thread of the phase, like the other phases use the
+     * provider, which is not documented to be thread safe; this also records the calls in the metrics of the phase.
+     * Some providers report the changes of the whole directory of a file set with files, those of other files are
+     * left out.
+     *
+     * @return the changed files of all roots, with their paths relative to the working directory
+     */
+    private static List<ScmFile> status( ScmProvider provider, ScmRepository repository, File workingDirectory,
+                                         List<ScmFileSet> roots )
+        throws ReleaseExecutionException, ReleaseScmCommandException
+    {
+        File canonicalWorkingDirectory = canonicalize( workingDirectory );
+        Map<String, ScmFile> changedFiles = new LinkedHashMap<>();
+        for ( ScmFileSet root : roots )
+        {
+            // the providers report the paths relative to the directory they have been given
+            String prefix = canonicalWorkingDirectory.toPath().relativize( root.getBasedir().toPath() ).toString();
+            for ( ScmFile file : checkResult( status( provider, repository, root ) ).getChangedFiles() )
+            {
+                if ( !root.getFileList().isEmpty() && !root.getFileList().contains( new File( file.getPath() ) ) )
+                {
+                    continue;
+                }
+                String path = file.getPath();
+                if ( !prefix.isEmpty() && !new File( path ).isAbsolute() )
+                {
+                    path = prefix + File.separator + path;
+                }
+                if ( !changedFiles.containsKey( path ) )
+                {
+                    changedFiles.put( path, new ScmFile( path, file.getStatus() ) );
+                }
+            }
+        }
+        return new ArrayList<>( changedFiles.values() );
+    }
+
+    private static StatusScmResult status( ScmProvider provider, ScmRepository repository, ScmFileSet fileSet )
+        throws ReleaseExecutionException
+    {
+        try
+        {
+            return provider.status( repository, fileSet );
+        }
+        catch ( ScmException e )
+        {
+            throw new ReleaseExecutionException( "An error occurred during the status check process: " + e.getMessage(),
+                                                 e );
+        }
+    }
+
+    private static StatusScmResult checkResult( StatusScmResult result )
+        throws ReleaseScmCommandException
+    {
+        if ( !result.isSuccess() )
+        {
+            throw new ReleaseScmCommandException( "Unable to check for local modifications", result );
+        }
+        return result;
+    }
+
     @Override
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
                                    List<MavenProject> reactorProjects )
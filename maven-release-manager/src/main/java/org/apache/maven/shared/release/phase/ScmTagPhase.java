@@ -20,11 +20,15 @@ package org.apache.maven.shared.release.phase;
  */
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.NoSuchCommandScmException;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmRevision;
 import org.apache.maven.scm.ScmTagParameters;
 import org.apache.maven.scm.command.tag.TagScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
@@ -36,6 +40,7 @@ import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.env.ReleaseEnvironment;
+import org.apache.maven.shared.release.scm.DeferredPush;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
@@ -52,6 +57,22 @@ import org.codehaus.plexus.component.annotations.Requirement;
 public class ScmTagPhase
     extends AbstractReleasePhase
 {
+    /**
+     * The time in milliseconds before the released revision is looked up again for the first time.
+     */
+    private static final long INITIAL_POLL_DELAY = 100;
+
+    /**
+     * The longest time in milliseconds between two lookups of the released revision.
+     */
+    private static final long MAX_POLL_DELAY = 5000;
+
+    /**
+     * The providers which look up a revision in the remote repository. The others, like git, look it up in the local
+     * clone where the released revision is always visible, so they wait for the whole configured time.
+     */
+    private static final Set<String> REMOTE_LOOKUP_PROVIDERS = Collections.singleton( "svn" );
+
     /**
      * Tool that gets a configured SCM repository from release configuration.
      */
@@ -67,22 +88,6 @@ public class ScmTagPhase
 
         validateConfiguration( releaseDescriptor );
 
-        if ( releaseDescriptor.getWaitBeforeTagging() > 0 )
-        {
-            logInfo( relResult, "Waiting for " + releaseDescriptor.getWaitBeforeTagging()
-                + " seconds before tagging the release." );
-            try
-            {
-                Thread.sleep( 1000L * releaseDescriptor.getWaitBeforeTagging() );
-            }
-            catch ( InterruptedException e )
-            {
-                // Ignore
-            }
-        }
-
-        logInfo( relResult, "Tagging release with the label " + releaseDescriptor.getScmReleaseLabel() + "..." );
-
         ReleaseDescriptor basedirAlignedReleaseDescriptor =
             ReleaseUtil.createBasedirAlignedReleaseDescriptor( releaseDescriptor, reactorProjects );
 
@@ -95,7 +100,8 @@ public class ScmTagPhase
                                                                    releaseDescriptor,
                                                                    releaseEnvironment.getSettings() );
 
-            repository.getProviderRepository().setPushChanges( releaseDescriptor.isPushChanges() );
+            repository.getProviderRepository().setPushChanges( releaseDescriptor.isPushChanges()
+                && !DeferredPush.isDeferred( releaseDescriptor, repository ) );
 
             repository.getProviderRepository().setWorkItem( releaseDescriptor.getWorkItem() );
 
@@ -110,6 +116,21 @@ public class ScmTagPhase
             throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
 
+        if ( releaseDescriptor.getWaitBeforeTagging() > 0 )
+        {
+            ScmFileSet pomFileSet =
+                new ScmFileSet( new File( basedirAlignedReleaseDescriptor.getWorkingDirectory() ),
+                                new File( ReleaseUtil.getRootProject( reactorProjects ).getFile().getName() ) );
+            waitBeforeTagging( releaseDescriptor, provider, repository, pomFileSet, relResult );
+        }
+
+        logInfo( relResult, "Tagging release with the label " + releaseDescriptor.getScmReleaseLabel() + "..." );
+
+        if ( DeferredPush.isDeferred( releaseDescriptor, repository ) )
+        {
+            DeferredPush.begin( releaseDescriptor, new File( basedirAlignedReleaseDescriptor.getWorkingDirectory() ) );
+        }
+
         TagScmResult result;
         try
         {
@@ -145,6 +166,74 @@ public class ScmTagPhase
         return relResult;
     }
 
+    /**
+     * Waits until the released revision is visible in the repository, but no longer than the configured time. If the
+     * revision is not known or the provider cannot look it up in the remote repository, the whole configured time is
+     * waited.
+     */
+    private void waitBeforeTagging( ReleaseDescriptor releaseDescriptor, ScmProvider provider,
+                                    ScmRepository repository, ScmFileSet pomFileSet, ReleaseResult relResult )
+    {
+        long deadline = System.currentTimeMillis() + 1000L * releaseDescriptor.getWaitBeforeTagging();
+        String revision = releaseDescriptor.getScmReleasedPomRevision();
+        try
+        {
+            if ( revision == null || !REMOTE_LOOKUP_PROVIDERS.contains( repository.getProvider() )
+                || !waitUntilVisible( provider, repository, pomFileSet, revision, deadline, relResult ) )
+            {
+                logInfo( relResult, "Waiting for " + releaseDescriptor.getWaitBeforeTagging()
+                    + " seconds before tagging the release." );
+                Thread.sleep( Math.max( deadline - System.currentTimeMillis(), 0 ) );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Looks up the revision with exponential backoff until it is visible or the deadline has passed.
+     *
+     * @return <code>false</code> if the provider cannot look up revisions
+     */
+    private boolean waitUntilVisible( ScmProvider provider, ScmRepository repository, ScmFileSet pomFileSet,
+                                      String revision, long deadline, ReleaseResult relResult )
+        throws InterruptedException
+    {
+        logInfo( relResult, "Waiting for revision " + revision + " to be visible before tagging the release." );
+
+        long delay = INITIAL_POLL_DELAY;
+        while ( true )
+        {
+            try
+            {
+                if ( provider.list( repository, pomFileSet, false, new ScmRevision( revision ) ).isSuccess() )
+                {
+                    return true;
+                }
+            }
+            catch ( NoSuchCommandScmException e )
+            {
+                logDebug( relResult, "The revision cannot be looked up", e );
+                return false;
+            }
+            catch ( ScmException e )
+            {
+                // not visible yet
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if ( remaining <= 0 )
+            {
+                logWarn( relResult, "Revision " + revision + " is still not visible, tagging the release anyway." );
+                return true;
+            }
+            Thread.sleep( Math.min( delay, remaining ) );
+            delay = Math.min( 2 * delay, MAX_POLL_DELAY );
+        }
+    }
+
     @Override
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, ReleaseEnvironment releaseEnvironment,
                                    List<MavenProject> reactorProjects )
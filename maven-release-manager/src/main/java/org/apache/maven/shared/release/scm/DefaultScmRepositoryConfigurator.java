@@ -19,16 +19,27 @@ package org.apache.maven.shared.release.scm;
  * under the License.
  */
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.scm.ScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.ScmProviderRepositoryWithHost;
+import org.apache.maven.scm.provider.ScmUrlUtils;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.PhaseMetrics;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
@@ -39,6 +50,11 @@ import org.sonatype.plexus.components.sec.dispatcher.SecDispatcherException;
 
 /**
  * Tool that gets a configured SCM repository from release configuration.
+ * <p>
+ * Every call returns a new repository, the phases change settings like pushing or the work item on the repositories
+ * they use. What these repositories are built from is cached for the lifetime of one release: the provider and the
+ * provider specific part of each URL, and the credentials resolved from the descriptor and the settings. The cache is
+ * dropped by {@link #clearCache()} when the release ends, or when other {@link Settings} are passed in.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
@@ -60,6 +76,23 @@ public class DefaultScmRepositoryConfigurator
     @Requirement( hint = "mng-4384" )
     private SecDispatcher secDispatcher;
 
+    /**
+     * The parsed SCM URLs of the current release, by URL.
+     */
+    private final ConcurrentMap<String, ScmUrl> urls = new ConcurrentHashMap<>();
+
+    /**
+     * The credentials resolved for the current release, including decrypted passwords.
+     */
+    private final ConcurrentMap<CredentialsKey, Credentials> credentials = new ConcurrentHashMap<>();
+
+    /**
+     * The settings the cached values belong to, {@link #NO_SETTINGS} if nothing is cached yet.
+     */
+    private Object cachedSettings = NO_SETTINGS;
+
+    private static final Object NO_SETTINGS = new Object();
+
     @Override
     public ScmRepository getConfiguredRepository( ReleaseDescriptor releaseDescriptor, Settings settings )
         throws ScmRepositoryException, NoSuchScmProviderException
@@ -72,18 +105,111 @@ public class DefaultScmRepositoryConfigurator
     public ScmRepository getConfiguredRepository( String url, ReleaseDescriptor releaseDescriptor, Settings settings )
         throws ScmRepositoryException, NoSuchScmProviderException
     {
-        String username = releaseDescriptor.getScmUsername();
-        String password = releaseDescriptor.getScmPassword();
-        String privateKey = releaseDescriptor.getScmPrivateKey();
-        String passphrase = releaseDescriptor.getScmPrivateKeyPassPhrase();
+        checkCachedSettings( settings );
 
-        ScmRepository repository = scmManager.makeScmRepository( url );
+        ScmRepository repository = makeScmRepository( url );
 
         ScmProviderRepository scmRepo = repository.getProviderRepository();
 
         //MRELEASE-76
         scmRepo.setPersistCheckout( false );
 
+        CredentialsKey key = new CredentialsKey( url, releaseDescriptor );
+        Credentials resolved = credentials.get( key );
+        if ( resolved == null )
+        {
+            resolved = resolveCredentials( repository, releaseDescriptor, settings );
+
+            Credentials existing = credentials.putIfAbsent( key, resolved );
+            if ( existing != null )
+            {
+                resolved = existing;
+            }
+        }
+
+        String username = resolved.username;
+        String password = resolved.password;
+        String privateKey = resolved.privateKey;
+        String passphrase = resolved.passphrase;
+
+        if ( !StringUtils.isEmpty( username ) )
+        {
+            scmRepo.setUser( username );
+        }
+        if ( !StringUtils.isEmpty( password ) )
+        {
+            scmRepo.setPassword( password );
+        }
+
+        if ( scmRepo instanceof ScmProviderRepositoryWithHost )
+        {
+            ScmProviderRepositoryWithHost repositoryWithHost = (ScmProviderRepositoryWithHost) scmRepo;
+            if ( !StringUtils.isEmpty( privateKey ) )
+            {
+                repositoryWithHost.setPrivateKey( privateKey );
+            }
+
+            if ( !StringUtils.isEmpty( passphrase ) )
+            {
+                repositoryWithHost.setPassphrase( passphrase );
+            }
+        }
+
+        if ( "svn".equals( repository.getProvider() ) )
+        {
+            SvnScmProviderRepository svnRepo = (SvnScmProviderRepository) repository.getProviderRepository();
+
+            String tagBase = releaseDescriptor.getScmTagBase();
+            if ( !StringUtils.isEmpty( tagBase ) )
+            {
+                svnRepo.setTagBase( tagBase );
+            }
+
+            String branchBase = releaseDescriptor.getScmBranchBase();
+            if ( !StringUtils.isEmpty( branchBase ) )
+            {
+                svnRepo.setBranchBase( branchBase );
+            }
+        }
+
+        return repository;
+    }
+
+    /**
+     * Makes a new repository for the URL, parsing the URL with the SCM manager only the first time.
+     */
+    private ScmRepository makeScmRepository( String url )
+        throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        ScmUrl scmUrl = url != null ? urls.get( url ) : null;
+        if ( scmUrl != null )
+        {
+            return new ScmRepository( scmUrl.providerType,
+                                      scmUrl.provider.makeProviderScmRepository( scmUrl.specificPart,
+                                                                                 scmUrl.delimiter ) );
+        }
+
+        ScmRepository repository = scmManager.makeScmRepository( url );
+
+        // the manager resolves relative segments itself, such URLs are left to it
+        if ( url != null && ScmUrlUtils.isValid( url ) && !url.contains( "../" ) && !url.contains( "..\\" ) )
+        {
+            ScmProvider provider = scmManager.getProviderByType( repository.getProvider() );
+            urls.putIfAbsent( url, new ScmUrl( repository.getProvider(), provider,
+                                               ScmUrlUtils.getProviderSpecificPart( url ),
+                                               ScmUrlUtils.getDelimiter( url ).charAt( 0 ) ) );
+        }
+        return repository;
+    }
+
+    private Credentials resolveCredentials( ScmRepository repository, ReleaseDescriptor releaseDescriptor,
+                                            Settings settings )
+    {
+        String username = releaseDescriptor.getScmUsername();
+        String password = releaseDescriptor.getScmPassword();
+        String privateKey = releaseDescriptor.getScmPrivateKey();
+        String passphrase = releaseDescriptor.getScmPrivateKeyPassPhrase();
+
         if ( settings != null )
         {
             Server server = null;
@@ -134,51 +260,16 @@ public class DefaultScmRepositoryConfigurator
             }
         }
 
-        if ( !StringUtils.isEmpty( username ) )
-        {
-            scmRepo.setUser( username );
-        }
-        if ( !StringUtils.isEmpty( password ) )
-        {
-            scmRepo.setPassword( password );
-        }
-
-        if ( scmRepo instanceof ScmProviderRepositoryWithHost )
-        {
-            ScmProviderRepositoryWithHost repositoryWithHost = (ScmProviderRepositoryWithHost) scmRepo;
-            if ( !StringUtils.isEmpty( privateKey ) )
-            {
-                repositoryWithHost.setPrivateKey( privateKey );
-            }
-
-            if ( !StringUtils.isEmpty( passphrase ) )
-            {
-                repositoryWithHost.setPassphrase( passphrase );
-            }
-        }
-
-        if ( "svn".equals( repository.getProvider() ) )
-        {
-            SvnScmProviderRepository svnRepo = (SvnScmProviderRepository) repository.getProviderRepository();
-
-            String tagBase = releaseDescriptor.getScmTagBase();
-            if ( !StringUtils.isEmpty( tagBase ) )
-            {
-                svnRepo.setTagBase( tagBase );
-            }
-
-            String branchBase = releaseDescriptor.getScmBranchBase();
-            if ( !StringUtils.isEmpty( branchBase ) )
-            {
-                svnRepo.setBranchBase( branchBase );
-            }
-        }
-
-        return repository;
+        return new Credentials( username, password, privateKey, passphrase );
     }
 
     private String decrypt( String str, String server )
     {
+        if ( str == null )
+        {
+            return null;
+        }
+
         try
         {
             return secDispatcher.decrypt( str );
@@ -204,11 +295,161 @@ public class DefaultScmRepositoryConfigurator
     public ScmProvider getRepositoryProvider( ScmRepository repository )
         throws NoSuchScmProviderException
     {
-        return scmManager.getProviderByRepository( repository );
+        return measure( scmManager.getProviderByRepository( repository ) );
+    }
+
+    /**
+     * Wraps a provider to record the duration of its SCM operations in the metrics of the current phase.
+     */
+    private static ScmProvider measure( final ScmProvider provider )
+    {
+        InvocationHandler handler = new InvocationHandler()
+        {
+            @Override
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Throwable
+            {
+                long start = System.nanoTime();
+                try
+                {
+                    return method.invoke( provider, args );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    throw e.getCause();
+                }
+                finally
+                {
+                    if ( ScmResult.class.isAssignableFrom( method.getReturnType() ) )
+                    {
+                        PhaseMetrics.recordScmCall( System.nanoTime() - start );
+                    }
+                }
+            }
+        };
+        return (ScmProvider) Proxy.newProxyInstance( ScmProvider.class.getClassLoader(),
+                                                     new Class<?>[] { ScmProvider.class }, handler );
+    }
+
+    @Override
+    public synchronized void clearCache()
+    {
+        urls.clear();
+        credentials.clear();
+        cachedSettings = NO_SETTINGS;
     }
 
     public void setScmManager( ScmManager scmManager )
     {
         this.scmManager = scmManager;
+        clearCache();
+    }
+
+    /**
+     * Drops the cached values when called with other settings than before, which means a new release has started.
+     */
+    private synchronized void checkCachedSettings( Settings settings )
+    {
+        if ( cachedSettings != settings )
+        {
+            urls.clear();
+            credentials.clear();
+            cachedSettings = settings;
+        }
+    }
+
+    /**
+     * The parts of an SCM URL a new repository is made from.
+     */
+    private static final class ScmUrl
+    {
+        private final String providerType;
+
+        private final ScmProvider provider;
+
+        private final String specificPart;
+
+        private final char delimiter;
+
+        ScmUrl( String providerType, ScmProvider provider, String specificPart, char delimiter )
+        {
+            this.providerType = providerType;
+            this.provider = provider;
+            this.specificPart = specificPart;
+            this.delimiter = delimiter;
+        }
+    }
+
+    /**
+     * The credentials used for the repositories.
+     */
+    private static final class Credentials
+    {
+        private final String username;
+
+        private final String password;
+
+        private final String privateKey;
+
+        private final String passphrase;
+
+        Credentials( String username, String password, String privateKey, String passphrase )
+        {
+            this.username = username;
+            this.password = password;
+            this.privateKey = privateKey;
+            this.passphrase = passphrase;
+        }
+    }
+
+    /**
+     * Everything the resolution of the credentials depends on besides the settings.
+     */
+    private static final class CredentialsKey
+    {
+        private final String url;
+
+        private final String scmId;
+
+        private final String username;
+
+        private final String password;
+
+        private final String privateKey;
+
+        private final String passphrase;
+
+        CredentialsKey( String url, ReleaseDescriptor releaseDescriptor )
+        {
+            this.url = url;
+            this.scmId = releaseDescriptor.getScmId();
+            this.username = releaseDescriptor.getScmUsername();
+            this.password = releaseDescriptor.getScmPassword();
+            this.privateKey = releaseDescriptor.getScmPrivateKey();
+            this.passphrase = releaseDescriptor.getScmPrivateKeyPassPhrase();
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof CredentialsKey ) )
+            {
+                return false;
+            }
+            CredentialsKey other = (CredentialsKey) obj;
+            return Objects.equals( url, other.url ) && Objects.equals( scmId, other.scmId )
+                && Objects.equals( username, other.username ) && Objects.equals( password, other.password )
+                && Objects.equals( privateKey, other.privateKey ) && Objects.equals( passphrase, other.passphrase );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( url, scmId, username, password, privateKey, passphrase );
+        }
     }
 }
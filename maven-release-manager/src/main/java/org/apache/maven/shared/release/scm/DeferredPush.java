@@ -0,0 +1,178 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.provider.git.repository.GitScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Keeps the commits and the tag of a release local until the end of the preparation, then pushes them at once. The
+ * SCM API has no push of its own, so this is done with the Git command line: the current branch and the release tag
+ * are pushed atomically, so that either both or none reach the remote repository. If the push fails, the local
+ * commits and tag are removed again, leaving the working copy as it was before the release but for uncommitted
+ * changes, which are kept.
+ *
+ * @since 3.0.0
+ */
+public final class DeferredPush
+{
+    private static final String GIT = "git";
+
+    private DeferredPush()
+    {
+        // utility class
+    }
+
+    /**
+     * @param releaseDescriptor the release configuration
+     * @param repository the configured repository
+     * @return whether the commits and the tag are to be pushed at the end of the preparation instead of right away
+     */
+    public static boolean isDeferred( ReleaseDescriptor releaseDescriptor, ScmRepository repository )
+    {
+        return releaseDescriptor.isDeferPush() && releaseDescriptor.isPushChanges()
+            && repository.getProviderRepository() instanceof GitScmProviderRepository;
+    }
+
+    /**
+     * Records the revision the local changes are based on, unless an earlier phase of the release has already.
+     *
+     * @param releaseDescriptor the release configuration
+     * @param workingDirectory the working copy
+     * @throws ReleaseScmCommandException if the revision cannot be determined
+     */
+    public static void begin( ReleaseDescriptor releaseDescriptor, File workingDirectory )
+        throws ReleaseScmCommandException
+    {
+        if ( releaseDescriptor.getDeferredPushBase() == null )
+        {
+            ScmResult result = git( workingDirectory, "rev-parse", "HEAD" );
+            if ( !result.isSuccess() )
+            {
+                throw new ReleaseScmCommandException( "Unable to determine the revision of the working copy", result );
+            }
+            releaseDescriptor.setDeferredPushBase( result.getCommandOutput().trim() );
+        }
+    }
+
+    /**
+     * Pushes the current branch and the release tag, if it has been created. If the push fails, the branch is reset
+     * to the revision recorded by {@link #begin(ReleaseDescriptor, File)} and the tag is deleted. The reset keeps
+     * uncommitted changes and is not done if it would have to overwrite them.
+     *
+     * @param releaseDescriptor the release configuration
+     * @param repository the configured repository
+     * @param workingDirectory the working copy
+     * @throws ReleaseFailureException if the repository is not a Git repository or the push fails
+     */
+    public static void push( ReleaseDescriptor releaseDescriptor, ScmRepository repository, File workingDirectory )
+        throws ReleaseFailureException
+    {
+        if ( !( repository.getProviderRepository() instanceof GitScmProviderRepository ) )
+        {
+            throw new ReleaseFailureException( "Cannot push the release, the SCM is no longer Git: "
+                + releaseDescriptor.getScmSourceUrl() );
+        }
+        GitScmProviderRepository gitRepository = (GitScmProviderRepository) repository.getProviderRepository();
+
+        String tag = null;
+        if ( releaseDescriptor.getScmReleaseLabel() != null )
+        {
+            tag = "refs/tags/" + releaseDescriptor.getScmReleaseLabel();
+            if ( !git( workingDirectory, "rev-parse", "--quiet", "--verify", tag ).isSuccess() )
+            {
+                tag = null;
+            }
+        }
+
+        List<String> args = new ArrayList<>( Arrays.asList( "push", "--atomic", gitRepository.getPushUrl(), "HEAD" ) );
+        if ( tag != null )
+        {
+            args.add( tag );
+        }
+        ScmResult result = git( workingDirectory, args.toArray( new String[args.size()] ) );
+        if ( result.isSuccess() )
+        {
+            releaseDescriptor.setDeferredPushBase( null );
+            return;
+        }
+
+        // the push is atomic, nothing has reached the remote repository
+        StringBuilder message = new StringBuilder( "Unable to push the release, nothing has been pushed." );
+        ScmResult reset = git( workingDirectory, "reset", "--keep", releaseDescriptor.getDeferredPushBase() );
+        ScmResult deleteTag = tag != null ? git( workingDirectory, "tag", "--delete",
+                                                 releaseDescriptor.getScmReleaseLabel() ) : null;
+        if ( reset.isSuccess() && ( deleteTag == null || deleteTag.isSuccess() ) )
+        {
+            releaseDescriptor.setDeferredPushBase( null );
+            message.append( " The local commits and tag of the release have been removed,"
+                + " clean the release before preparing it again." );
+        }
+        else
+        {
+            message.append( " The local commits and tag of the release could not be removed" );
+            if ( !reset.isSuccess() )
+            {
+                // the reset does not overwrite uncommitted changes
+                message.append( " without losing uncommitted changes ("
+                    + String.valueOf( reset.getProviderMessage() ).trim() + ")" );
+            }
+            message.append( ", reset the working copy to " + releaseDescriptor.getDeferredPushBase() );
+            if ( tag != null )
+            {
+                message.append( " and delete the tag " + releaseDescriptor.getScmReleaseLabel() );
+            }
+        }
+        throw new ReleaseScmCommandException( message.toString(), result );
+    }
+
+    private static ScmResult git( File workingDirectory, String... args )
+    {
+        Commandline cl = new Commandline();
+        cl.setExecutable( GIT );
+        cl.setWorkingDirectory( workingDirectory );
+        cl.addArguments( args );
+
+        // the command line is not reported, the push URL may hold the password
+        String command = GIT + " " + args[0];
+        CommandLineUtils.StringStreamConsumer out = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer err = new CommandLineUtils.StringStreamConsumer();
+        try
+        {
+            int exitCode = CommandLineUtils.executeCommandLine( cl, out, err );
+            return new ScmResult( command, err.getOutput(), out.getOutput(), exitCode == 0 );
+        }
+        catch ( CommandLineException e )
+        {
+            return new ScmResult( command, e.getMessage(), out.getOutput(), false );
+        }
+    }
+}
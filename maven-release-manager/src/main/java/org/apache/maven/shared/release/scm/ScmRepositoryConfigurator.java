@@ -67,4 +67,11 @@ public interface ScmRepositoryConfigurator
      */
     ScmRepository getConfiguredRepository( String url, ReleaseDescriptor releaseDescriptor, Settings settings )
         throws ScmRepositoryException, NoSuchScmProviderException;
+
+    /**
+     * Drop everything cached for the current release, including the decrypted credentials.
+     *
+     * @since 3.0.0
+     */
+    void clearCache();
 }
@@ -19,22 +19,32 @@ package org.apache.maven.shared.release.strategies;
  * under the License.
  */
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.maven.shared.release.strategy.Strategy;
+import org.apache.maven.shared.release.strategy.DependencyGraphStrategy;
+import org.codehaus.plexus.util.StringUtils;
 
 /**
  * 
  * @author Robert Scholte
  * @since 3.0.0
  */
-public class DefaultStrategy implements Strategy
+public class DefaultStrategy implements DependencyGraphStrategy
 {
     /**
      * The phases of release to run, and in what order.
      */
     private List<String> preparePhases;
 
+    /**
+     * The comma separated prerequisites of prepare phases, keyed by phase.
+     */
+    private Map<String, String> preparePhaseDependencies;
+
     /**
      * The phases of release to run to perform.
      */
@@ -66,6 +76,29 @@ public class DefaultStrategy implements Strategy
         this.preparePhases = preparePhases;
     }
 
+    @Override
+    public Map<String, List<String>> getPreparePhaseDependencies()
+    {
+        if ( preparePhaseDependencies == null )
+        {
+            return null;
+        }
+
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for ( Map.Entry<String, String> entry : preparePhaseDependencies.entrySet() )
+        {
+            String prerequisites = StringUtils.deleteWhitespace( StringUtils.defaultString( entry.getValue() ) );
+            dependencies.put( entry.getKey(), prerequisites.isEmpty() ? Collections.<String>emptyList()
+                            : Arrays.asList( StringUtils.split( prerequisites, "," ) ) );
+        }
+        return dependencies;
+    }
+
+    public void setPreparePhaseDependencies( Map<String, String> preparePhaseDependencies )
+    {
+        this.preparePhaseDependencies = preparePhaseDependencies;
+    }
+
     @Override
     public List<String> getPerformPhases()
     {
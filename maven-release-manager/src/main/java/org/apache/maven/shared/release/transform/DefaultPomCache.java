@@ -0,0 +1,129 @@
+package org.apache.maven.shared.release.transform;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Keeps the parsed documents in memory, keyed by absolute path. An entry is only returned while the content of the file
+ * has the same hash as when it was stored. Modification times are too coarse for this: a version can be rewritten
+ * to one of the same length within the same second.
+ * <p>
+ * Reading and hashing a POM is still much cheaper than parsing it.
+ *
+ * @since 3.0.0
+ */
+@Component( role = PomCache.class )
+public class DefaultPomCache
+    implements PomCache
+{
+    private final ConcurrentMap<File, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T get( File pomFile, Class<T> type )
+    {
+        File key = pomFile.getAbsoluteFile();
+        Entry entry = entries.get( key );
+        if ( entry == null )
+        {
+            return null;
+        }
+        if ( !Arrays.equals( entry.hash, hash( key ) ) )
+        {
+            entries.remove( key, entry );
+            return null;
+        }
+        return type.isInstance( entry.document ) ? type.cast( entry.document ) : null;
+    }
+
+    @Override
+    public void put( File pomFile, Object document )
+    {
+        File key = pomFile.getAbsoluteFile();
+        byte[] hash = hash( key );
+        if ( hash != null )
+        {
+            entries.put( key, new Entry( document, hash ) );
+        }
+        else
+        {
+            entries.remove( key );
+        }
+    }
+
+    @Override
+    public void invalidate( File pomFile )
+    {
+        entries.remove( pomFile.getAbsoluteFile() );
+    }
+
+    @Override
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * @return the hash of the content of the file, or <code>null</code> if it cannot be read
+     */
+    private static byte[] hash( File file )
+    {
+        byte[] content;
+        try
+        {
+            content = Files.readAllBytes( file.toPath() );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+
+        try
+        {
+            return MessageDigest.getInstance( "SHA-256" ).digest( content );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static final class Entry
+    {
+        private final Object document;
+
+        private final byte[] hash;
+
+        Entry( Object document, byte[] hash )
+        {
+            this.document = document;
+            this.hash = hash;
+        }
+    }
+}
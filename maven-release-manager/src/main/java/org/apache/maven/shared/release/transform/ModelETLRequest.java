@@ -35,6 +35,8 @@ public class ModelETLRequest
 
     private ReleaseDescriptor releaseDescriptor;
 
+    private PomCache pomCache;
+
     public String getLineSeparator()
     {
         return lineSeparator;
@@ -64,4 +66,18 @@ public class ModelETLRequest
     {
         this.releaseDescriptor = releaseDescriptor;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the documents already parsed during this release, may be <code>null</code>
+     * @since 3.0.0
+     */
+    public PomCache getPomCache()
+    {
+        return pomCache;
+    }
+
+    public void setPomCache( PomCache pomCache )
+    {
+        this.pomCache = pomCache;
+    }
+}
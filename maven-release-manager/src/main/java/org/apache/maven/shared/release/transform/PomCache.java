@@ -0,0 +1,60 @@
+package org.apache.maven.shared.release.transform;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+/**
+ * Parsed POM documents shared by the phases of a single release, so a POM is only read and parsed again once it has
+ * changed on disk.
+ *
+ * @since 3.0.0
+ */
+public interface PomCache
+{
+    /**
+     * Get the document parsed from a POM, as long as the file hasn't changed since.
+     *
+     * @param pomFile the POM
+     * @param type the type of the document, which depends on the {@link ModelETL} implementation
+     * @return the document, or <code>null</code> if the file has not been parsed into this type or has changed since
+     */
+    <T> T get( File pomFile, Class<T> type );
+
+    /**
+     * Store the document parsed from a POM or just written to it. Callers must never modify the stored instance.
+     *
+     * @param pomFile the POM
+     * @param document the document
+     */
+    void put( File pomFile, Object document );
+
+    /**
+     * Forget the document of a POM. Everything that writes a POM without storing the new document must call this.
+     *
+     * @param pomFile the POM
+     */
+    void invalidate( File pomFile );
+
+    /**
+     * Forget all documents.
+     */
+    void clear();
+}
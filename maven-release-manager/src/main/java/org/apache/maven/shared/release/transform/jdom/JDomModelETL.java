@@ -33,6 +33,7 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.transform.ModelETL;
+import org.apache.maven.shared.release.transform.PomCache;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.util.WriterFactory;
 import org.jdom.CDATA;
@@ -66,6 +67,8 @@ public class JDomModelETL implements ModelETL
 
     private String ls = ReleaseUtil.LS;
 
+    private PomCache pomCache;
+
     public void setLs( String ls )
     {
         this.ls = ls;
@@ -81,9 +84,24 @@ public class JDomModelETL implements ModelETL
         this.project = project;
     }
 
+    public void setPomCache( PomCache pomCache )
+    {
+        this.pomCache = pomCache;
+    }
+
     @Override
     public void extract( File pomFile ) throws ReleaseExecutionException
     {
+        ParsedPom parsed = pomCache != null ? pomCache.get( pomFile, ParsedPom.class ) : null;
+        if ( parsed != null && parsed.ls.equals( ls ) )
+        {
+            // the cached document must stay untouched by the transformation
+            document = (Document) parsed.document.clone();
+            intro = parsed.intro;
+            outtro = parsed.outtro;
+            return;
+        }
+
         try
         {
             String content = ReleaseUtil.readXmlFile( pomFile, ls );
@@ -157,6 +175,12 @@ public class JDomModelETL implements ModelETL
     public void load( File targetFile ) throws ReleaseExecutionException
     {
         writePom( targetFile, document, releaseDescriptor, project.getModelVersion(), intro, outtro );
+
+        if ( pomCache != null )
+        {
+            // the written document is what the file parses to, it is no longer transformed
+            pomCache.put( targetFile, new ParsedPom( document, intro, outtro, ls ) );
+        }
     }
 
     @Override
@@ -231,4 +255,25 @@ public class JDomModelETL implements ModelETL
         }
     }
 
+    /**
+     * The result of parsing a POM, as stored in the {@link PomCache}.
+     */
+    private static final class ParsedPom
+    {
+        private final Document document;
+
+        private final String intro;
+
+        private final String outtro;
+
+        private final String ls;
+
+        ParsedPom( Document document, String intro, String outtro, String ls )
+        {
+            this.document = document;
+            this.intro = intro;
+            this.outtro = outtro;
+            this.ls = ls;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+
+/**
+ * StAX implementation of poms BUILD element
+ *
+ * @since 3.0.0
+ */
+public class StaxBuild
+    extends Build
+{
+    private final StaxElement build;
+
+    StaxBuild( StaxElement build )
+    {
+        this.build = build;
+    }
+
+    @Override
+    public List<Extension> getExtensions()
+    {
+        List<Extension> extensions = new ArrayList<>();
+        StaxElement extensionsElm = build.getChild( "extensions" );
+        if ( extensionsElm != null )
+        {
+            for ( StaxElement extensionElm : extensionsElm.getChildren( "extension" ) )
+            {
+                extensions.add( new StaxExtension( extensionElm ) );
+            }
+        }
+        return extensions;
+    }
+
+    @Override
+    public PluginManagement getPluginManagement()
+    {
+        StaxElement pluginManagementElm = build.getChild( "pluginManagement" );
+        return pluginManagementElm == null ? null : new StaxPluginManagement( pluginManagementElm );
+    }
+
+    @Override
+    public List<Plugin> getPlugins()
+    {
+        return getPlugins( build );
+    }
+
+    static List<Plugin> getPlugins( StaxElement element )
+    {
+        List<Plugin> plugins = new ArrayList<>();
+        StaxElement pluginsElm = element.getChild( "plugins" );
+        if ( pluginsElm != null )
+        {
+            for ( StaxElement pluginElm : pluginsElm.getChildren( "plugin" ) )
+            {
+                plugins.add( new StaxPlugin( pluginElm ) );
+            }
+        }
+        return plugins;
+    }
+}
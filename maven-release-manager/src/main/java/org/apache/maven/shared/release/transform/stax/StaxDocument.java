@@ -0,0 +1,511 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.codehaus.stax2.LocationInfo;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+
+/**
+ * The source text of a POM together with the offsets of its elements and the pending edits. Writing the document
+ * copies all untouched ranges of the source verbatim and only splices in the edited ranges. The source is kept as it
+ * has been read, line separators included.
+ *
+ * @since 3.0.0
+ */
+final class StaxDocument
+{
+    private static final XMLInputFactory2 FACTORY;
+
+    static
+    {
+        FACTORY = new WstxInputFactory();
+        FACTORY.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, true );
+        FACTORY.setProperty( XMLInputFactory.IS_COALESCING, false );
+        FACTORY.setProperty( XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true );
+        FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, true );
+    }
+
+    private final String source;
+
+    private final String ls;
+
+    private final List<Edit> edits = new ArrayList<>();
+
+    private final List<StaxElement> appendedElements = new ArrayList<>();
+
+    private final Map<String, String> rootNamespaces = new HashMap<>();
+
+    private StaxElement root;
+
+    private boolean rootSchemaLocation;
+
+    private String indentUnit;
+
+    /**
+     * Whether an edit adds elements or attributes, which are not in the index.
+     */
+    private boolean markupAdded;
+
+    private StaxDocument( String source, String ls )
+    {
+        this.source = source;
+        this.ls = ls;
+    }
+
+    /**
+     * Indexes the elements of the given XML text.
+     *
+     * @param source the XML text
+     * @param ls the line separator of new lines if the text has no line separator of its own
+     * @return the document
+     * @throws XMLStreamException if the text is not well-formed
+     */
+    static StaxDocument parse( String source, String ls )
+        throws XMLStreamException
+    {
+        StaxDocument document = new StaxDocument( source, getLineSeparator( source, ls ) );
+
+        XMLStreamReader2 reader = (XMLStreamReader2) FACTORY.createXMLStreamReader( new StringReader( source ) );
+        try
+        {
+            Deque<StaxElement> stack = new ArrayDeque<>();
+            while ( reader.hasNext() )
+            {
+                int event = reader.next();
+                LocationInfo location = reader.getLocationInfo();
+                switch ( event )
+                {
+                    case XMLStreamConstants.START_ELEMENT:
+                        stack.push( new StaxElement( document, stack.peek(), reader.getPrefix(),
+                                                     reader.getLocalName(), reader.getNamespaceURI(),
+                                                     (int) location.getStartingCharOffset(),
+                                                     (int) location.getEndingCharOffset() ) );
+                        if ( document.root == null )
+                        {
+                            document.root = stack.peek();
+                            document.indexRootAttributes( reader );
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        stack.pop().close( (int) location.getStartingCharOffset(),
+                                           (int) location.getEndingCharOffset() );
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                    case XMLStreamConstants.CDATA:
+                        if ( !stack.isEmpty() )
+                        {
+                            String text = reader.getText();
+                            stack.peek().addText( event == XMLStreamConstants.CDATA,
+                                                  (int) location.getStartingCharOffset(),
+                                                  (int) location.getEndingCharOffset(), text );
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        if ( !stack.isEmpty() )
+                        {
+                            stack.peek().closeText( (int) location.getStartingCharOffset() );
+                        }
+                        break;
+                    default:
+                        // prolog and epilog are never touched
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+
+        return document;
+    }
+
+    /**
+     * @return a document with the same source and index, but without any edits
+     */
+    StaxDocument copy()
+    {
+        StaxDocument copy = new StaxDocument( source, ls );
+        copy.rootNamespaces.putAll( rootNamespaces );
+        copy.rootSchemaLocation = rootSchemaLocation;
+        copy.indentUnit = indentUnit;
+        copy.root = root.copy( copy, null );
+        return copy;
+    }
+
+    /**
+     * @return the separator of the first line of the text, or the default one if the text is a single line
+     */
+    private static String getLineSeparator( String source, String defaultSeparator )
+    {
+        int index = source.indexOf( '\n' );
+        if ( index > 0 && source.charAt( index - 1 ) == '\r' )
+        {
+            return "\r\n";
+        }
+        if ( index >= 0 )
+        {
+            return "\n";
+        }
+        return source.indexOf( '\r' ) >= 0 ? "\r" : defaultSeparator;
+    }
+
+    private void indexRootAttributes( XMLStreamReader2 reader )
+    {
+        for ( int i = 0; i < reader.getNamespaceCount(); i++ )
+        {
+            String prefix = reader.getNamespacePrefix( i );
+            rootNamespaces.put( prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix,
+                                reader.getNamespaceURI( i ) );
+        }
+        rootSchemaLocation =
+            reader.getAttributeValue( XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation" ) != null;
+    }
+
+    StaxElement getRootElement()
+    {
+        return root;
+    }
+
+    String getSource()
+    {
+        return source;
+    }
+
+    String getLineSeparator()
+    {
+        return ls;
+    }
+
+    /**
+     * @return the whitespace used per nesting level, derived from the first child of the root element
+     */
+    String getIndentUnit()
+    {
+        if ( indentUnit == null )
+        {
+            List<StaxElement> children = root.getChildren();
+            String unit = children.isEmpty() ? "" : getIndentation( children.get( 0 ).getStart() );
+            if ( unit.startsWith( getIndentation( root.getStart() ) ) )
+            {
+                unit = unit.substring( getIndentation( root.getStart() ).length() );
+            }
+            indentUnit = unit.isEmpty() ? "  " : unit;
+        }
+        return indentUnit;
+    }
+
+    /**
+     * @param offset the offset of a tag
+     * @return the spaces and tabs between the start of the line and the offset, or an empty string if the tag is not
+     *         the first token on its line
+     */
+    String getIndentation( int offset )
+    {
+        int index = offset;
+        while ( index > 0 && ( source.charAt( index - 1 ) == ' ' || source.charAt( index - 1 ) == '\t' ) )
+        {
+            index--;
+        }
+        if ( index == 0 || source.charAt( index - 1 ) == '\n' || source.charAt( index - 1 ) == '\r' )
+        {
+            return source.substring( index, offset );
+        }
+        return "";
+    }
+
+    Edit replace( int start, int end, String text )
+    {
+        Edit edit = new Edit( start, end, text, edits.size() );
+        edits.add( edit );
+        return edit;
+    }
+
+    void insert( int offset, String text )
+    {
+        markupAdded = true;
+        replace( offset, offset, text );
+    }
+
+    /**
+     * Replaces a range with markup which adds elements or attributes.
+     */
+    void replaceMarkup( int start, int end, String text )
+    {
+        markupAdded = true;
+        replace( start, end, text );
+    }
+
+    void registerAppend( StaxElement element )
+    {
+        appendedElements.add( element );
+    }
+
+    /**
+     * Binds the root element to the POM namespace, declares the XML Schema instance namespace and adds a schema
+     * location unless one is present. Nested elements without a namespace inherit the default namespace.
+     *
+     * @param modelVersion the model version of the POM
+     */
+    void addSchema( String modelVersion )
+    {
+        String pomNamespace = "http://maven.apache.org/POM/" + modelVersion;
+        StringBuilder attributes = new StringBuilder();
+
+        String defaultNamespace = rootNamespaces.get( XMLConstants.DEFAULT_NS_PREFIX );
+        if ( defaultNamespace == null && root.getPrefix().isEmpty() )
+        {
+            attributes.append( " xmlns=\"" ).append( pomNamespace ).append( '"' );
+        }
+
+        String xsiPrefix = null;
+        for ( Map.Entry<String, String> namespace : rootNamespaces.entrySet() )
+        {
+            if ( XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals( namespace.getValue() ) )
+            {
+                xsiPrefix = namespace.getKey();
+            }
+        }
+        if ( xsiPrefix == null )
+        {
+            xsiPrefix = "xsi";
+            attributes.append( " xmlns:xsi=\"" ).append( XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI ).append( '"' );
+        }
+
+        if ( !rootSchemaLocation )
+        {
+            attributes.append( ' ' ).append( xsiPrefix ).append( ":schemaLocation=\"" ).append( pomNamespace )
+                .append( " http://maven.apache.org/maven-v" ).append( modelVersion.replace( '.', '_' ) )
+                .append( ".xsd\"" );
+        }
+
+        if ( attributes.length() > 0 )
+        {
+            // just before the '>' of the start tag
+            insert( root.getContentStart() - 1, attributes.toString() );
+        }
+    }
+
+    /**
+     * Writes the source with all edits applied, streaming the untouched ranges and the edits to the writer.
+     *
+     * @param writer the target
+     * @param index whether to return the document of the written text
+     * @return the document of the written text, with the offsets of its elements shifted by the edits, or
+     *         <code>null</code> if it has not been asked for or if the edits have added markup, which is not indexed
+     * @throws IOException if writing fails
+     */
+    StaxDocument write( Writer writer, boolean index )
+        throws IOException
+    {
+        for ( StaxElement element : appendedElements )
+        {
+            element.flushAppended();
+        }
+
+        List<Edit> sorted = new ArrayList<>( edits );
+        Collections.sort( sorted, new Comparator<Edit>()
+        {
+            @Override
+            public int compare( Edit o1, Edit o2 )
+            {
+                int result = Integer.compare( o1.start, o2.start );
+                return result != 0 ? result : Integer.compare( o1.order, o2.order );
+            }
+        } );
+
+        List<Edit> applied = new ArrayList<>( sorted.size() );
+        int length = source.length();
+        int position = 0;
+        for ( Edit edit : sorted )
+        {
+            if ( edit.start < position )
+            {
+                // part of a range that has been replaced or removed already
+                continue;
+            }
+            writer.write( source, position, edit.start - position );
+            writer.write( edit.text );
+            position = edit.end;
+            applied.add( edit );
+            length += edit.text.length() - ( edit.end - edit.start );
+        }
+        writer.write( source, position, source.length() - position );
+
+        if ( !index || markupAdded )
+        {
+            return null;
+        }
+        return applied.isEmpty() ? copy() : rebase( applied, length );
+    }
+
+    /**
+     * @param applied the edits which have been written, in the order of the source
+     * @param length the length of the written text
+     * @return the document of the written text
+     */
+    private StaxDocument rebase( List<Edit> applied, int length )
+    {
+        StringBuilder text = new StringBuilder( length );
+        int position = 0;
+        for ( Edit edit : applied )
+        {
+            text.append( source, position, edit.start ).append( edit.text );
+            position = edit.end;
+        }
+        text.append( source, position, source.length() );
+
+        StaxDocument rebased = new StaxDocument( text.toString(), ls );
+        rebased.rootNamespaces.putAll( rootNamespaces );
+        rebased.rootSchemaLocation = rootSchemaLocation;
+        rebased.indentUnit = indentUnit;
+        rebased.root = root.rebase( rebased, null, new Shift( applied ) );
+        return rebased;
+    }
+
+    static String escape( String value )
+    {
+        StringBuilder escaped = null;
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            String entity;
+            switch ( value.charAt( i ) )
+            {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                default:
+                    entity = null;
+            }
+            if ( entity != null && escaped == null )
+            {
+                escaped = new StringBuilder( value.length() + 8 ).append( value, 0, i );
+            }
+            if ( escaped != null )
+            {
+                if ( entity != null )
+                {
+                    escaped.append( entity );
+                }
+                else
+                {
+                    escaped.append( value.charAt( i ) );
+                }
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+
+    /**
+     * Maps the offsets of the source to those of the written text. Only replacements of non-empty ranges are
+     * mapped, insertions add markup.
+     */
+    static final class Shift
+    {
+        private final int[] ends;
+
+        private final int[] deltas;
+
+        Shift( List<Edit> applied )
+        {
+            ends = new int[applied.size()];
+            deltas = new int[applied.size()];
+            for ( int i = 0; i < ends.length; i++ )
+            {
+                Edit edit = applied.get( i );
+                ends[i] = edit.end;
+                deltas[i] = edit.text.length() - ( edit.end - edit.start );
+            }
+        }
+
+        /**
+         * @param offset an offset of the source outside of any replaced range, or -1
+         * @return the offset in the written text
+         */
+        int map( int offset )
+        {
+            if ( offset < 0 )
+            {
+                return offset;
+            }
+            int result = offset;
+            for ( int i = 0; i < ends.length && ends[i] <= offset; i++ )
+            {
+                result += deltas[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Replacement of the source range {@code [start, end)}; an insertion if both are equal.
+     */
+    static final class Edit
+    {
+        private final int start;
+
+        private final int end;
+
+        private final int order;
+
+        private String text;
+
+        Edit( int start, int end, String text, int order )
+        {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+            this.order = order;
+        }
+
+        void setText( String text )
+        {
+            this.text = text;
+        }
+    }
+}
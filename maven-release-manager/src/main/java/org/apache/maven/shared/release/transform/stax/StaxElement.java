@@ -0,0 +1,524 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An element of a {@link StaxDocument}, holding the offsets of its tags and of its text value. Changes are recorded
+ * as edits of the document, the source itself is never modified.
+ *
+ * @since 3.0.0
+ */
+final class StaxElement
+{
+    private final StaxDocument document;
+
+    private final String prefix;
+
+    private final String name;
+
+    private final String namespaceURI;
+
+    private final int start;
+
+    private final int contentStart;
+
+    private int contentEnd;
+
+    private int end;
+
+    private boolean empty;
+
+    private int leadingStart;
+
+    private List<StaxElement> children;
+
+    private String text;
+
+    private boolean removed;
+
+    private StringBuilder appended;
+
+    private StaxDocument.Edit valueEdit;
+
+    private boolean valueCData;
+
+    // parse state
+
+    private StringBuilder textBuffer;
+
+    private int sequenceStart = -1;
+
+    private int nodeStart = -1;
+
+    private boolean valueOpen;
+
+    private int valueStart = -1;
+
+    private int valueEnd = -1;
+
+    StaxElement( StaxDocument document, StaxElement parent, String prefix, String name, String namespaceURI,
+                 int start, int contentStart )
+    {
+        this.document = document;
+        this.prefix = prefix == null ? "" : prefix;
+        this.name = name;
+        this.namespaceURI = namespaceURI == null ? "" : namespaceURI;
+        this.start = start;
+        this.contentStart = contentStart;
+        this.leadingStart = start;
+
+        if ( parent != null )
+        {
+            this.leadingStart = parent.closeText( start );
+            if ( parent.children == null )
+            {
+                parent.children = new ArrayList<>();
+            }
+            parent.children.add( this );
+        }
+    }
+
+    private StaxElement( StaxDocument document, StaxElement original )
+    {
+        this.document = document;
+        this.prefix = original.prefix;
+        this.name = original.name;
+        this.namespaceURI = original.namespaceURI;
+        this.start = original.start;
+        this.contentStart = original.contentStart;
+        this.contentEnd = original.contentEnd;
+        this.end = original.end;
+        this.empty = original.empty;
+        this.leadingStart = original.leadingStart;
+        this.text = original.text;
+        this.valueStart = original.valueStart;
+        this.valueEnd = original.valueEnd;
+    }
+
+    private StaxElement( StaxDocument document, StaxElement original, StaxDocument.Shift shift )
+    {
+        this.document = document;
+        this.prefix = original.prefix;
+        this.name = original.name;
+        this.namespaceURI = original.namespaceURI;
+        this.start = shift.map( original.start );
+        this.contentStart = shift.map( original.contentStart );
+        this.contentEnd = shift.map( original.contentEnd );
+        this.end = shift.map( original.end );
+        this.empty = original.empty;
+        this.leadingStart = shift.map( original.leadingStart );
+        this.text = original.text;
+        this.valueStart = shift.map( original.valueStart );
+        this.valueEnd = shift.map( original.valueEnd );
+    }
+
+    /**
+     * @param rebasedDocument the document of the written text
+     * @param rebasedParent the parent in that document, <code>null</code> for the root element
+     * @param shift the mapping of the offsets
+     * @return this element and its children as they have been written, or <code>null</code> if it has been removed
+     */
+    StaxElement rebase( StaxDocument rebasedDocument, StaxElement rebasedParent, StaxDocument.Shift shift )
+    {
+        StaxElement rebased = new StaxElement( rebasedDocument, this, shift );
+        if ( children != null )
+        {
+            List<StaxElement> rebasedChildren = new ArrayList<>( children.size() );
+            for ( StaxElement child : children )
+            {
+                if ( !child.removed )
+                {
+                    rebasedChildren.add( child.rebase( rebasedDocument, rebased, shift ) );
+                }
+            }
+            rebased.children = rebasedChildren.isEmpty() ? null : rebasedChildren;
+        }
+        return rebased;
+    }
+
+    /**
+     * @param copyDocument the document the copy belongs to
+     * @param copyParent the parent of the copy, <code>null</code> for the root element
+     * @return a copy of this element and its children, without any edits
+     */
+    StaxElement copy( StaxDocument copyDocument, StaxElement copyParent )
+    {
+        StaxElement copy = new StaxElement( copyDocument, this );
+        if ( children != null )
+        {
+            copy.children = new ArrayList<>( children.size() );
+            for ( StaxElement child : children )
+            {
+                copy.children.add( child.copy( copyDocument, copy ) );
+            }
+        }
+        return copy;
+    }
+
+    String getName()
+    {
+        return name;
+    }
+
+    String getPrefix()
+    {
+        return prefix;
+    }
+
+    String getIndentUnit()
+    {
+        return document.getIndentUnit();
+    }
+
+    int getStart()
+    {
+        return start;
+    }
+
+    int getContentStart()
+    {
+        return contentStart;
+    }
+
+    /**
+     * A text event of this element. Consecutive character events form a single text node, every CDATA section is a
+     * node on its own. Like {@code JDomUtils.rewriteValue()} the value of an element starts at the first text node
+     * which is not blank and extends over all directly following text nodes.
+     */
+    void addText( boolean cdata, int from, int to, String chars )
+    {
+        if ( sequenceStart < 0 )
+        {
+            sequenceStart = from;
+        }
+
+        int node = from;
+        if ( cdata )
+        {
+            nodeStart = -1;
+        }
+        else
+        {
+            if ( nodeStart < 0 )
+            {
+                nodeStart = from;
+            }
+            node = nodeStart;
+        }
+
+        boolean blank = chars.trim().isEmpty();
+        if ( valueStart < 0 && !blank )
+        {
+            valueStart = node;
+            valueEnd = to;
+            valueOpen = true;
+        }
+        else if ( valueOpen )
+        {
+            valueEnd = to;
+        }
+
+        if ( textBuffer != null )
+        {
+            textBuffer.append( chars );
+        }
+        else if ( !blank )
+        {
+            textBuffer = new StringBuilder( chars );
+        }
+    }
+
+    /**
+     * Ends the current sequence of text nodes.
+     *
+     * @param offset the offset of the markup ending the sequence
+     * @return the start of the sequence, or {@code offset} if there was none
+     */
+    int closeText( int offset )
+    {
+        int result = sequenceStart < 0 ? offset : sequenceStart;
+        sequenceStart = -1;
+        nodeStart = -1;
+        valueOpen = false;
+        return result;
+    }
+
+    void close( int endTagStart, int endTagEnd )
+    {
+        closeText( endTagStart );
+        if ( endTagStart == start )
+        {
+            // <element/> reports the same range for both events
+            empty = true;
+            contentEnd = contentStart;
+        }
+        else
+        {
+            contentEnd = endTagStart;
+        }
+        end = endTagEnd;
+
+        if ( textBuffer != null )
+        {
+            text = textBuffer.toString().trim();
+            textBuffer = null;
+        }
+    }
+
+    List<StaxElement> getChildren()
+    {
+        if ( children == null )
+        {
+            return Collections.emptyList();
+        }
+        List<StaxElement> result = new ArrayList<>( children.size() );
+        for ( StaxElement child : children )
+        {
+            if ( !child.removed )
+            {
+                result.add( child );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param childName the local name of the child
+     * @return the children with the given name in the namespace of this element
+     */
+    List<StaxElement> getChildren( String childName )
+    {
+        if ( children == null )
+        {
+            return Collections.emptyList();
+        }
+        List<StaxElement> result = new ArrayList<>();
+        for ( StaxElement child : children )
+        {
+            if ( child.matches( childName, namespaceURI ) )
+            {
+                result.add( child );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param childName the local name of the child
+     * @return the first child with the given name in the namespace of this element, or <code>null</code>
+     */
+    StaxElement getChild( String childName )
+    {
+        if ( children != null )
+        {
+            for ( StaxElement child : children )
+            {
+                if ( child.matches( childName, namespaceURI ) )
+                {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    String getChildTextTrim( String childName )
+    {
+        StaxElement child = getChild( childName );
+        return child == null ? null : child.getTextTrim();
+    }
+
+    String getTextTrim()
+    {
+        return text == null ? "" : text;
+    }
+
+    private boolean matches( String childName, String childNamespaceURI )
+    {
+        return !removed && name.equals( childName ) && namespaceURI.equals( childNamespaceURI );
+    }
+
+    /**
+     * Updates the text value of this element, keeping the whitespace and comments around it.
+     *
+     * @param value The text string to set, must not be <code>null</code>.
+     */
+    void rewriteValue( String value )
+    {
+        if ( valueEdit != null )
+        {
+            valueEdit.setText( valueCData ? toCData( value ) : StaxDocument.escape( value ) );
+        }
+        else if ( valueStart >= 0 )
+        {
+            String source = document.getSource();
+            int from = valueStart;
+            while ( from < valueEnd && source.charAt( from ) <= ' ' )
+            {
+                from++;
+            }
+            int to = valueEnd;
+            while ( to > from && source.charAt( to - 1 ) <= ' ' )
+            {
+                to--;
+            }
+            // like JDom the value keeps the type of its first node
+            valueCData = source.startsWith( "<![CDATA[", from );
+            valueEdit = document.replace( from, to, valueCData ? toCData( value ) : StaxDocument.escape( value ) );
+        }
+        else
+        {
+            append( StaxDocument.escape( value ) );
+        }
+        text = value;
+    }
+
+    private static String toCData( String value )
+    {
+        return "<![CDATA[" + value.replace( "]]>", "]]]]><![CDATA[>" ) + "]]>";
+    }
+
+    /**
+     * Sets the value of the named child, adding the child if it is missing or removing it if the value is
+     * <code>null</code>.
+     *
+     * @param childName the local name of the child
+     * @param value the value, may be <code>null</code>
+     */
+    void rewriteElement( String childName, String value )
+    {
+        StaxElement child = getChild( childName );
+        if ( child != null )
+        {
+            if ( value != null )
+            {
+                child.rewriteValue( value );
+            }
+            else
+            {
+                child.remove();
+            }
+        }
+        else if ( value != null )
+        {
+            append( getChildSeparator() + toElement( childName, value ) );
+        }
+    }
+
+    /**
+     * Removes this element together with the text directly preceding it.
+     */
+    void remove()
+    {
+        document.replace( leadingStart, end, "" );
+        removed = true;
+    }
+
+    /**
+     * Adds a sibling right after this element, on a line of its own with the indentation of this element.
+     *
+     * @param siblingName the local name of the new element
+     * @param value the value of the new element
+     */
+    void insertAfter( String siblingName, String value )
+    {
+        String leading = document.getSource().substring( leadingStart, start );
+        if ( leading.isEmpty() || !leading.trim().isEmpty() )
+        {
+            leading = document.getLineSeparator() + document.getIndentation( start );
+        }
+        document.insert( end, toLine( leading ) + toElement( siblingName, value ) );
+    }
+
+    /**
+     * Adds markup at the end of the content of this element, after its last child.
+     *
+     * @param markup the markup, including any leading whitespace
+     */
+    void append( String markup )
+    {
+        if ( appended == null )
+        {
+            appended = new StringBuilder();
+            document.registerAppend( this );
+        }
+        appended.append( markup );
+    }
+
+    void flushAppended()
+    {
+        if ( empty )
+        {
+            // replace "/>" to get a start and an end tag
+            document.replaceMarkup( end - 2, end, ">" + appended + "</" + getQualifiedName( name ) + ">" );
+        }
+        else if ( children != null )
+        {
+            document.insert( children.get( children.size() - 1 ).end, appended.toString() );
+        }
+        else
+        {
+            document.insert( contentEnd, appended.toString() );
+        }
+    }
+
+    /**
+     * @return the line separator and indentation of the children of this element, as found before the first child
+     */
+    String getChildSeparator()
+    {
+        if ( children != null )
+        {
+            StaxElement first = children.get( 0 );
+            String leading = document.getSource().substring( first.leadingStart, first.start );
+            if ( !leading.isEmpty() && leading.trim().isEmpty() )
+            {
+                return toLine( leading );
+            }
+        }
+        return document.getLineSeparator() + document.getIndentation( start ) + document.getIndentUnit();
+    }
+
+    /**
+     * @param whitespace whitespace preceding an element
+     * @return the whitespace without any blank lines
+     */
+    private String toLine( String whitespace )
+    {
+        String ls = document.getLineSeparator();
+        int index = whitespace.lastIndexOf( ls );
+        return index > 0 ? whitespace.substring( index ) : whitespace;
+    }
+
+    String toElement( String elementName, String value )
+    {
+        String qualifiedName = getQualifiedName( elementName );
+        return "<" + qualifiedName + ">" + StaxDocument.escape( value ) + "</" + qualifiedName + ">";
+    }
+
+    String getQualifiedName( String elementName )
+    {
+        return prefix.isEmpty() ? elementName : prefix + ':' + elementName;
+    }
+}
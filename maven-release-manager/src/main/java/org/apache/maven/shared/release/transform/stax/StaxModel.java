@@ -0,0 +1,175 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.model.Scm;
+
+/**
+ * StAX implementation of poms PROJECT element. Only the accessors used to rewrite versions and SCM information are
+ * backed by the document.
+ *
+ * @since 3.0.0
+ */
+public class StaxModel extends Model
+{
+    private final StaxElement project;
+
+    private final StaxModelBase modelBase;
+
+    StaxModel( StaxElement project )
+    {
+        this.project = project;
+        this.modelBase = new StaxModelBase( project );
+    }
+
+    @Override
+    public Build getBuild()
+    {
+        return modelBase.getBuild();
+    }
+
+    @Override
+    public List<Dependency> getDependencies()
+    {
+        return modelBase.getDependencies();
+    }
+
+    @Override
+    public DependencyManagement getDependencyManagement()
+    {
+        return modelBase.getDependencyManagement();
+    }
+
+    @Override
+    public Parent getParent()
+    {
+        StaxElement elm = project.getChild( "parent" );
+        return elm == null ? null : new StaxParent( elm );
+    }
+
+    @Override
+    public List<Profile> getProfiles()
+    {
+        List<Profile> profiles = new ArrayList<>();
+        StaxElement profilesElm = project.getChild( "profiles" );
+        if ( profilesElm != null )
+        {
+            for ( StaxElement profileElm : profilesElm.getChildren( "profile" ) )
+            {
+                profiles.add( new StaxProfile( profileElm ) );
+            }
+        }
+        return profiles;
+    }
+
+    @Override
+    public Properties getProperties()
+    {
+        StaxElement properties = project.getChild( "properties" );
+        return properties == null ? null : new StaxProperties( properties );
+    }
+
+    @Override
+    public Reporting getReporting()
+    {
+        StaxElement reporting = project.getChild( "reporting" );
+        return reporting == null ? null : new StaxReporting( reporting );
+    }
+
+    @Override
+    public void setScm( Scm scm )
+    {
+        if ( scm == null )
+        {
+            project.rewriteElement( "scm", null );
+        }
+        else
+        {
+            String separator = project.getChildSeparator();
+            String childSeparator = separator + project.getIndentUnit();
+
+            StringBuilder markup = new StringBuilder( separator ).append( '<' )
+                .append( project.getQualifiedName( "scm" ) ).append( '>' );
+            appendScmElement( markup, childSeparator, "connection", scm.getConnection() );
+            appendScmElement( markup, childSeparator, "developerConnection", scm.getDeveloperConnection() );
+            appendScmElement( markup, childSeparator, "tag", scm.getTag() );
+            appendScmElement( markup, childSeparator, "url", scm.getUrl() );
+            markup.append( separator ).append( "</" ).append( project.getQualifiedName( "scm" ) ).append( '>' );
+
+            project.append( markup.toString() );
+        }
+    }
+
+    private void appendScmElement( StringBuilder markup, String separator, String name, String value )
+    {
+        if ( value != null )
+        {
+            markup.append( separator ).append( project.toElement( name, value ) );
+        }
+    }
+
+    @Override
+    public Scm getScm()
+    {
+        StaxElement elm = project.getChild( "scm" );
+        return elm == null ? null : new StaxScm( elm );
+    }
+
+    @Override
+    public void setVersion( String version )
+    {
+        StaxElement versionElement = project.getChild( "version" );
+
+        String parentVersion;
+        StaxElement parent = project.getChild( "parent" );
+        if ( parent != null )
+        {
+            parentVersion = parent.getChildTextTrim( "version" );
+        }
+        else
+        {
+            parentVersion = null;
+        }
+
+        if ( versionElement == null )
+        {
+            if ( !version.equals( parentVersion ) )
+            {
+                // we will add this after artifactId, since it was missing but different from the inherited version
+                project.getChild( "artifactId" ).insertAfter( "version", version );
+            }
+        }
+        else
+        {
+            versionElement.rewriteValue( version );
+        }
+    }
+}
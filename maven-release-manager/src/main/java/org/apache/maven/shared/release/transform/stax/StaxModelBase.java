@@ -0,0 +1,73 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+
+/**
+ * Common elements of the PROJECT and PROFILE elements
+ *
+ * @since 3.0.0
+ */
+class StaxModelBase
+{
+    private final StaxElement modelBase;
+
+    StaxModelBase( StaxElement modelBase )
+    {
+        this.modelBase = modelBase;
+    }
+
+    public Build getBuild()
+    {
+        StaxElement elm = modelBase.getChild( "build" );
+        return elm == null ? null : new StaxBuild( elm );
+    }
+
+    public List<Dependency> getDependencies()
+    {
+        return getDependencies( modelBase );
+    }
+
+    public DependencyManagement getDependencyManagement()
+    {
+        StaxElement elm = modelBase.getChild( "dependencyManagement" );
+        return elm == null ? null : new StaxDependencyManagement( elm );
+    }
+
+    static List<Dependency> getDependencies( StaxElement element )
+    {
+        List<Dependency> dependencies = new ArrayList<>();
+        StaxElement dependenciesElm = element.getChild( "dependencies" );
+        if ( dependenciesElm != null )
+        {
+            for ( StaxElement dependencyElm : dependenciesElm.getChildren( "dependency" ) )
+            {
+                dependencies.add( new StaxDependency( dependencyElm ) );
+            }
+        }
+        return dependencies;
+    }
+}
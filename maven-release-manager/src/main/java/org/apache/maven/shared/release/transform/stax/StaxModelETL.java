@@ -0,0 +1,142 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.transform.ModelETL;
+import org.apache.maven.shared.release.transform.PomCache;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.WriterFactory;
+
+/**
+ * StAX implementation for extracting, transform, loading the Model (pom.xml). The POM is scanned once to record the
+ * offsets of its elements; loading copies the unchanged parts of the original text and only splices in the values
+ * which have been rewritten, so formatting, comments, entities, attribute order and line separators are kept as they
+ * are. The edits are streamed to the target file, and the offsets of the written POM are derived from those of the
+ * original one unless elements have been added.
+ *
+ * @since 3.0.0
+ */
+public class StaxModelETL implements ModelETL
+{
+    private ReleaseDescriptor releaseDescriptor;
+
+    private MavenProject project;
+
+    private StaxDocument document;
+
+    private String ls = ReleaseUtil.LS;
+
+    private PomCache pomCache;
+
+    public void setLs( String ls )
+    {
+        this.ls = ls;
+    }
+
+    public void setReleaseDescriptor( ReleaseDescriptor releaseDescriptor )
+    {
+        this.releaseDescriptor = releaseDescriptor;
+    }
+
+    public void setProject( MavenProject project )
+    {
+        this.project = project;
+    }
+
+    public void setPomCache( PomCache pomCache )
+    {
+        this.pomCache = pomCache;
+    }
+
+    @Override
+    public void extract( File pomFile ) throws ReleaseExecutionException
+    {
+        StaxDocument parsed = pomCache != null ? pomCache.get( pomFile, StaxDocument.class ) : null;
+        if ( parsed != null )
+        {
+            // the cached document must stay untouched by the transformation
+            document = parsed.copy();
+            return;
+        }
+
+        try ( Reader reader = ReaderFactory.newXmlReader( pomFile ) )
+        {
+            document = StaxDocument.parse( IOUtil.toString( reader ), ls );
+        }
+        catch ( XMLStreamException | IOException e )
+        {
+            throw new ReleaseExecutionException( "Error reading POM: " + e.getMessage(), e );
+        }
+    }
+
+    @Override
+    public void transform()
+    {
+
+    }
+
+    @Override
+    public void load( File targetFile ) throws ReleaseExecutionException
+    {
+        if ( releaseDescriptor.isAddSchema() )
+        {
+            document.addSchema( project.getModelVersion() );
+        }
+
+        StaxDocument written;
+        try ( Writer writer = WriterFactory.newXmlWriter( targetFile ) )
+        {
+            written = document.write( writer, pomCache != null );
+        }
+        catch ( IOException e )
+        {
+            throw new ReleaseExecutionException( "Error writing POM: " + e.getMessage(), e );
+        }
+
+        if ( written != null )
+        {
+            pomCache.put( targetFile, written );
+        }
+        else if ( pomCache != null )
+        {
+            // added elements are not indexed, the next extract reads the file again
+            pomCache.invalidate( targetFile );
+        }
+    }
+
+    @Override
+    public Model getModel()
+    {
+        return new StaxModel( document.getRootElement() );
+    }
+}
@@ -0,0 +1,48 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.transform.ModelETLFactory;
+import org.apache.maven.shared.release.transform.ModelETLRequest;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Creates {@link StaxModelETL} instances, which rewrite POMs in place instead of re-serializing them.
+ *
+ * @since 3.0.0
+ */
+@Component( role = ModelETLFactory.class, hint = StaxModelETLFactory.ROLE_HINT )
+public class StaxModelETLFactory implements ModelETLFactory
+{
+    public static final String ROLE_HINT = "stax";
+
+    @Override
+    public StaxModelETL newInstance( ModelETLRequest request )
+    {
+        StaxModelETL result = new StaxModelETL();
+
+        result.setLs( request.getLineSeparator() );
+        result.setProject( request.getProject() );
+        result.setReleaseDescriptor( request.getReleaseDescriptor() );
+        result.setPomCache( request.getPomCache() );
+
+        return result;
+    }
+}
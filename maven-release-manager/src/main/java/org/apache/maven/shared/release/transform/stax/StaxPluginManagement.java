@@ -0,0 +1,47 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+
+/**
+ * StAX implementation of poms PLUGINMANAGEMENT element
+ *
+ * @since 3.0.0
+ */
+public class StaxPluginManagement
+    extends PluginManagement
+{
+    private final StaxElement pluginManagement;
+
+    StaxPluginManagement( StaxElement pluginManagement )
+    {
+        this.pluginManagement = pluginManagement;
+    }
+
+    @Override
+    public List<Plugin> getPlugins()
+    {
+        return StaxBuild.getPlugins( pluginManagement );
+    }
+}
@@ -0,0 +1,57 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.Reporting;
+
+/**
+ * StAX implementation of poms REPORTING element
+ *
+ * @since 3.0.0
+ */
+public class StaxReporting
+    extends Reporting
+{
+    private final StaxElement reporting;
+
+    StaxReporting( StaxElement reporting )
+    {
+        this.reporting = reporting;
+    }
+
+    @Override
+    public List<ReportPlugin> getPlugins()
+    {
+        List<ReportPlugin> plugins = new ArrayList<>();
+        StaxElement pluginsElm = reporting.getChild( "plugins" );
+        if ( pluginsElm != null )
+        {
+            for ( StaxElement pluginElm : pluginsElm.getChildren( "plugin" ) )
+            {
+                plugins.add( new StaxReportPlugin( pluginElm ) );
+            }
+        }
+        return plugins;
+    }
+}
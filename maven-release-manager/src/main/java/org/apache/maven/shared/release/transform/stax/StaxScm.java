@@ -0,0 +1,61 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Scm;
+
+/**
+ * StAX implementation of poms SCM element
+ *
+ * @since 3.0.0
+ */
+public class StaxScm extends Scm
+{
+    private final StaxElement scm;
+
+    StaxScm( StaxElement scm )
+    {
+        this.scm = scm;
+    }
+
+    @Override
+    public void setConnection( String connection )
+    {
+        scm.rewriteElement( "connection", connection );
+    }
+
+    @Override
+    public void setDeveloperConnection( String developerConnection )
+    {
+        scm.rewriteElement( "developerConnection", developerConnection );
+    }
+
+    @Override
+    public void setTag( String tag )
+    {
+        scm.rewriteElement( "tag", tag );
+    }
+
+    @Override
+    public void setUrl( String url )
+    {
+        scm.rewriteElement( "url", url );
+    }
+}
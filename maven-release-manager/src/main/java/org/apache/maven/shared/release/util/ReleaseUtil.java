@@ -22,8 +22,11 @@ package org.apache.maven.shared.release.util;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -144,6 +147,37 @@ public class ReleaseUtil
         }
     }
 
+    /**
+     * Computes the SHA-1 checksum of a file.
+     *
+     * @param file the file, must not be <code>null</code>
+     * @return the checksum in hexadecimal notation
+     * @throws IOException if the file could not be read
+     * @since 3.0.0
+     */
+    public static String checksum( File file )
+        throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        digest.update( Files.readAllBytes( file.toPath() ) );
+
+        StringBuilder checksum = new StringBuilder();
+        for ( byte b : digest.digest() )
+        {
+            checksum.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return checksum.toString();
+    }
+
     /**
      * Normalizes the line separators in the specified string.
      *
@@ -30,7 +30,9 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 
@@ -47,9 +49,11 @@ import org.apache.maven.scm.provider.ScmProviderStub;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
+import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder.BuilderReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStore;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStoreException;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStoreStub;
+import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
 import org.apache.maven.shared.release.phase.ReleasePhase;
 import org.apache.maven.shared.release.phase.ReleasePhaseStub;
@@ -103,6 +107,44 @@ public class DefaultReleaseManagerTest
         assertFalse( "step3 not simulated", phase.isSimulated() );
     }
 
+    public void testPrepareMetrics()
+        throws Exception
+    {
+        ReleaseManager releaseManager = lookup( ReleaseManager.class, "test" );
+
+        File workingDirectory = getTestFile( "target/metrics-directory" );
+        FileUtils.deleteDirectory( workingDirectory );
+        workingDirectory.mkdirs();
+
+        ReleaseDescriptorBuilder builder = configStore.getReleaseConfiguration();
+        builder.setCompletedPhase( "step1" );
+        builder.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        builder.setMetricsReport( true );
+
+        ReleaseManagerMetricsListener managerListener = mock( ReleaseManagerMetricsListener.class );
+
+        ReleasePrepareRequest prepareRequest = new ReleasePrepareRequest();
+        prepareRequest.setReleaseDescriptorBuilder( builder );
+        prepareRequest.setReleaseEnvironment( new DefaultReleaseEnvironment() );
+        prepareRequest.setUserProperties( new Properties() );
+        prepareRequest.setReleaseManagerListener( managerListener );
+
+        ReleaseResult result = releaseManager.prepareWithResult( prepareRequest );
+
+        assertEquals( ReleaseResult.SUCCESS, result.getResultCode() );
+        List<PhaseMetrics> metrics = result.getPhaseMetrics();
+        assertEquals( 2, metrics.size() );
+        assertEquals( "step2", metrics.get( 0 ).getPhase() );
+        assertEquals( "step3", metrics.get( 1 ).getPhase() );
+        assertTrue( metrics.get( 0 ).getWallTime() >= 0 );
+        verify( managerListener ).phaseMetrics( metrics.get( 0 ) );
+        verify( managerListener ).phaseMetrics( metrics.get( 1 ) );
+
+        String report = FileUtils.fileRead( new File( workingDirectory, "release-metrics.json" ), "UTF-8" );
+        assertTrue( report.contains( "\"goal\": \"prepare\"" ) );
+        assertTrue( report.contains( "\"phase\": \"step3\"" ) );
+    }
+
     public void testPrepareCompletedPhase()
         throws Exception
     {
@@ -129,6 +171,60 @@ public class DefaultReleaseManagerTest
         assertFalse( "step3 not simulated", phase.isSimulated() );
     }
 
+    public void testPrepareDependencyGraph()
+        throws Exception
+    {
+        ReleaseManager releaseManager = lookup( ReleaseManager.class, "test" );
+
+        ReleaseDescriptorBuilder builder = configStore.getReleaseConfiguration();
+        builder.setReleaseStrategyId( "graph" );
+        builder.setCompletedPhase( null );
+
+        ReleasePrepareRequest prepareRequest = new ReleasePrepareRequest();
+        prepareRequest.setReleaseDescriptorBuilder( builder );
+        prepareRequest.setReleaseEnvironment( new DefaultReleaseEnvironment() );
+        prepareRequest.setUserProperties( new Properties() );
+
+        releaseManager.prepare( prepareRequest );
+
+        ReleasePhaseStub phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step1" );
+        assertTrue( "step1 executed", phase.isExecuted() );
+        phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step2" );
+        assertTrue( "step2 executed", phase.isExecuted() );
+        phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step3" );
+        assertTrue( "step3 executed", phase.isExecuted() );
+
+        BuilderReleaseDescriptor descriptor = ReleaseUtils.buildReleaseDescriptor( builder );
+        assertEquals( "step3", descriptor.getCompletedPhase() );
+        assertEquals( new HashSet<>( Arrays.asList( "step1", "step2", "step3" ) ), descriptor.getCompletedPhases() );
+    }
+
+    public void testPrepareDependencyGraphCompletedPhases()
+        throws Exception
+    {
+        ReleaseManager releaseManager = lookup( ReleaseManager.class, "test" );
+
+        ReleaseDescriptorBuilder builder = configStore.getReleaseConfiguration();
+        builder.setReleaseStrategyId( "graph" );
+        builder.setCompletedPhase( null );
+        builder.addCompletedPhase( "step2" );
+
+        ReleasePrepareRequest prepareRequest = new ReleasePrepareRequest();
+        prepareRequest.setReleaseDescriptorBuilder( builder );
+        prepareRequest.setReleaseEnvironment( new DefaultReleaseEnvironment() );
+        prepareRequest.setUserProperties( new Properties() );
+
+        releaseManager.prepare( prepareRequest );
+
+        ReleasePhaseStub phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step1" );
+        assertTrue( "step1 executed", phase.isExecuted() );
+        phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step2" );
+        assertFalse( "step2 not executed", phase.isExecuted() );
+        phase = (ReleasePhaseStub) lookup( ReleasePhase.class, "step3" );
+        assertTrue( "step3 executed", phase.isExecuted() );
+        assertEquals( "step3", ReleaseUtils.buildReleaseDescriptor( builder ).getCompletedPhase() );
+    }
+
     public void testPrepareCompletedPhaseNoResume()
         throws Exception
     {
@@ -472,6 +568,38 @@ public class DefaultReleaseManagerTest
         return Collections.singletonList( project );
     }
 
+    public void testPrepareJournalReleaseProperties()
+        throws Exception
+    {
+        // prepare
+        File workingDirectory = getTestFile( "target/journaled-working-directory" );
+        FileUtils.deleteDirectory( workingDirectory );
+        workingDirectory.mkdirs();
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setScmSourceUrl( "scm-url" );
+        builder.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        builder.setJournalReleaseProperties( true );
+
+        DefaultReleaseManager releaseManager = (DefaultReleaseManager) lookup( ReleaseManager.class, "test" );
+
+        ReleaseDescriptorStore configStoreMock = mock( ReleaseDescriptorStore.class );
+        releaseManager.setConfigStore( configStoreMock );
+
+        ReleasePrepareRequest prepareRequest = new ReleasePrepareRequest();
+        prepareRequest.setReleaseDescriptorBuilder( builder );
+        prepareRequest.setReleaseEnvironment( new DefaultReleaseEnvironment() );
+        prepareRequest.setUserProperties( new Properties() );
+
+        // execute
+        releaseManager.prepare( prepareRequest );
+
+        // verify
+        assertTrue( "journal written", new File( workingDirectory, "release.properties.journal" ).exists() );
+        assertFalse( "properties not rewritten", new File( workingDirectory, "release.properties" ).exists() );
+        verifyNoMoreInteractions( configStoreMock );
+    }
+
     public void testReleasePerformWithResult()
         throws Exception
     {
@@ -0,0 +1,211 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.Reader;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Test;
+
+public class OutputSinkTest
+{
+    @Test
+    public void testAppendInMemory() throws Exception
+    {
+        OutputSink sink = new OutputSink( 100 );
+        sink.append( "first " );
+        sink.append( "second" );
+
+        assertEquals( "first second", sink.toString() );
+    }
+
+    @Test
+    public void testSpillToDisk() throws Exception
+    {
+        OutputSink sink = new OutputSink( 10 );
+        sink.append( "0123456789" );
+        sink.append( "éè" );
+        sink.append( "abc" );
+
+        assertEquals( "0123456789éèabc", sink.toString() );
+
+        sink.append( "def" );
+        assertEquals( "0123456789éèabcdef", sink.toString() );
+    }
+
+    @Test
+    public void testCloseDeletesSpillFile() throws Exception
+    {
+        OutputSink phase = new OutputSink( 5 );
+        OutputSink goal = new OutputSink( 5 );
+        goal.append( phase );
+        phase.append( "0123456789" );
+
+        File spillFile = phase.getSpillFile();
+        assertTrue( spillFile.exists() );
+
+        goal.close();
+
+        assertFalse( spillFile.exists() );
+        assertNull( phase.getSpillFile() );
+        assertEquals( "", goal.toString() );
+    }
+
+    @Test
+    public void testAppendSink() throws Exception
+    {
+        OutputSink phase = new OutputSink( 5 );
+        OutputSink goal = new OutputSink( 5 );
+
+        goal.append( "[INFO] " );
+        goal.append( phase );
+        goal.append( "[END]" );
+
+        // changes of the appended sink are visible
+        phase.append( "phase output" );
+        assertEquals( "[INFO] phase output[END]", goal.toString() );
+
+        goal.append( " done" );
+        phase.append( "!" );
+        assertEquals( "[INFO] phase output![END] done", goal.toString() );
+    }
+
+    @Test
+    public void testLinkedSinksShareSpillFile() throws Exception
+    {
+        OutputSink phase = new OutputSink( 5 );
+        phase.append( "0123456789" );
+        File phaseFile = phase.getSpillFile();
+        assertNotNull( phaseFile );
+
+        OutputSink goal = new OutputSink( 5 );
+        goal.append( "[INFO] " );
+        goal.append( phase );
+
+        // the spilled output has been moved to the file of the goal
+        assertFalse( phaseFile.exists() );
+        assertNotNull( goal.getSpillFile() );
+        assertEquals( goal.getSpillFile(), phase.getSpillFile() );
+        assertEquals( "[INFO] 0123456789", goal.toString() );
+
+        phase.append( "abcdef" );
+        goal.append( "[END]" );
+        assertEquals( "[INFO] 0123456789abcdef[END]", goal.toString() );
+        assertEquals( "0123456789abcdef", phase.toString() );
+
+        File spillFile = goal.getSpillFile();
+        phase.close();
+        assertTrue( spillFile.exists() );
+        goal.close();
+        assertFalse( spillFile.exists() );
+    }
+
+    @Test
+    public void testLinkedSinksShareMemoryLimit() throws Exception
+    {
+        OutputSink goal = new OutputSink( 10 );
+        OutputSink first = new OutputSink( 1000 );
+        OutputSink second = new OutputSink( 1000 );
+        goal.append( first );
+        goal.append( second );
+
+        first.append( "012345" );
+        assertNull( goal.getSpillFile() );
+        second.append( "6789ab" );
+        assertNotNull( goal.getSpillFile() );
+
+        assertEquals( "0123456789ab", goal.toString() );
+        goal.close();
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void testReaderAfterClose() throws Exception
+    {
+        OutputSink sink = new OutputSink( 5 );
+        sink.append( "0123456789" );
+
+        try ( Reader reader = sink.getReader() )
+        {
+            sink.close();
+            IOUtil.toString( reader );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testAppendCycle()
+    {
+        OutputSink phase = new OutputSink();
+        OutputSink goal = new OutputSink();
+        goal.append( phase );
+
+        phase.append( goal );
+    }
+
+    @Test
+    public void testReaderIsStreamed() throws Exception
+    {
+        OutputSink sink = new OutputSink( 1024 );
+        StringBuilder expected = new StringBuilder();
+        for ( int i = 0; i < 10000; i++ )
+        {
+            String line = "[INFO] line " + i + "\n";
+            sink.append( line );
+            expected.append( line );
+        }
+
+        try ( Reader reader = sink.getReader() )
+        {
+            assertEquals( expected.toString(), IOUtil.toString( reader ) );
+        }
+
+        // output appended after the reader has been created is not read
+        try ( BufferedReader reader = new BufferedReader( sink.getReader() ) )
+        {
+            sink.append( "late\n" );
+            int lines = 0;
+            while ( reader.readLine() != null )
+            {
+                lines++;
+            }
+            assertEquals( 10000, lines );
+        }
+    }
+
+    @Test
+    public void testReleaseResultAppendOutput()
+    {
+        ReleaseResult phaseResult = new ReleaseResult( new OutputSink( 10 ) );
+        phaseResult.appendOutput( "phase output" );
+
+        ReleaseResult result = new ReleaseResult();
+        result.appendOutput( phaseResult );
+        result.appendOutput( "goal output" );
+
+        assertEquals( "phase outputgoal output", result.getOutput() );
+    }
+}
@@ -0,0 +1,242 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PhaseSchedulerTest
+{
+    private final Map<String, List<String>> dependencies = new HashMap<>();
+
+    private final Set<String> readOnlyPhases = new HashSet<>();
+
+    @Test
+    public void testPhaseWithoutDependenciesDependsOnPreviousPhase() throws Exception
+    {
+        dependencies.put( "c", Arrays.asList( "a" ) );
+
+        PhaseScheduler scheduler = new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases );
+
+        assertEquals( Collections.emptyList(), scheduler.getPrerequisites( "a" ) );
+        assertEquals( Arrays.asList( "a" ), scheduler.getPrerequisites( "b" ) );
+        assertEquals( Arrays.asList( "a" ), scheduler.getPrerequisites( "c" ) );
+    }
+
+    @Test
+    public void testIndependentPhasesRunConcurrently() throws Exception
+    {
+        dependencies.put( "b", Collections.<String>emptyList() );
+        dependencies.put( "c", Arrays.asList( "a", "b" ) );
+        readOnlyPhases.addAll( Arrays.asList( "a", "b" ) );
+
+        final CountDownLatch latch = new CountDownLatch( 2 );
+        RecordingRunner runner = new RecordingRunner()
+        {
+            @Override
+            public ReleaseResult execute( String phase )
+                throws ReleaseExecutionException, ReleaseFailureException
+            {
+                if ( !"c".equals( phase ) )
+                {
+                    latch.countDown();
+                    try
+                    {
+                        // only succeeds if the other phase is running at the same time
+                        assertTrue( latch.await( 10, TimeUnit.SECONDS ) );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new ReleaseExecutionException( e.getMessage(), e );
+                    }
+                }
+                return super.execute( phase );
+            }
+        };
+
+        new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases ).run( Collections.<String>emptyList(),
+                                                                                  runner );
+
+        assertEquals( Arrays.asList( "a", "b" ), runner.started.subList( 0, 2 ) );
+        assertEquals( "c", runner.completed.get( 2 ) );
+        assertEquals( 3, runner.completed.size() );
+    }
+
+    @Test
+    public void testModifyingPhaseRunsAlone() throws Exception
+    {
+        dependencies.put( "b", Collections.<String>emptyList() );
+        dependencies.put( "c", Collections.<String>emptyList() );
+        readOnlyPhases.addAll( Arrays.asList( "a", "c" ) );
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        RecordingRunner runner = new RecordingRunner()
+        {
+            @Override
+            public ReleaseResult execute( String phase )
+                throws ReleaseExecutionException, ReleaseFailureException
+            {
+                // b must not start while a or c are running
+                if ( running.incrementAndGet() > 1 && "b".equals( phase ) )
+                {
+                    overlaps.incrementAndGet();
+                }
+                try
+                {
+                    // gives another phase the chance to overlap
+                    Thread.sleep( 100 );
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new ReleaseExecutionException( e.getMessage(), e );
+                }
+                finally
+                {
+                    running.decrementAndGet();
+                }
+                return super.execute( phase );
+            }
+        };
+
+        new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases ).run(
+            Collections.<String>emptyList(), runner );
+
+        assertEquals( 0, overlaps.get() );
+        assertEquals( Arrays.asList( "a", "c", "b" ), runner.started );
+        assertEquals( "b", runner.completed.get( 2 ) );
+    }
+
+    @Test
+    public void testCompletedPhasesSkipped() throws Exception
+    {
+        RecordingRunner runner = new RecordingRunner();
+
+        new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases ).run( Arrays.asList( "a", "b" ), runner );
+
+        assertEquals( Arrays.asList( "c" ), runner.started );
+        assertEquals( Arrays.asList( "c" ), runner.completed );
+    }
+
+    @Test
+    public void testFailureStopsDependentPhases() throws Exception
+    {
+        dependencies.put( "b", Collections.<String>emptyList() );
+        dependencies.put( "c", Arrays.asList( "a", "b" ) );
+        readOnlyPhases.addAll( Arrays.asList( "a", "b" ) );
+
+        final ReleaseFailureException failure = new ReleaseFailureException( "a failed" );
+        RecordingRunner runner = new RecordingRunner()
+        {
+            @Override
+            public ReleaseResult execute( String phase )
+                throws ReleaseExecutionException, ReleaseFailureException
+            {
+                if ( "a".equals( phase ) )
+                {
+                    throw failure;
+                }
+                return super.execute( phase );
+            }
+        };
+
+        try
+        {
+            new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases ).run( Collections.<String>emptyList(),
+                                                                                      runner );
+            fail( "Expected failure" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertSame( failure, e );
+        }
+
+        assertEquals( Arrays.asList( "a", "b" ), runner.started );
+        assertEquals( Arrays.asList( "b" ), runner.completed );
+        assertEquals( Arrays.asList( "a" ), runner.failed );
+    }
+
+    @Test( expected = ReleaseExecutionException.class )
+    public void testCyclicDependencies() throws Exception
+    {
+        dependencies.put( "a", Arrays.asList( "c" ) );
+
+        new PhaseScheduler( Arrays.asList( "a", "b", "c" ), dependencies, readOnlyPhases );
+    }
+
+    @Test( expected = ReleaseExecutionException.class )
+    public void testUnknownPrerequisite() throws Exception
+    {
+        dependencies.put( "b", Arrays.asList( "x" ) );
+
+        new PhaseScheduler( Arrays.asList( "a", "b" ), dependencies, readOnlyPhases );
+    }
+
+    private static class RecordingRunner
+        implements PhaseScheduler.PhaseRunner
+    {
+        final List<String> started = new ArrayList<>();
+
+        final List<String> completed = new ArrayList<>();
+
+        final List<String> failed = new ArrayList<>();
+
+        @Override
+        public void start( String phase )
+        {
+            started.add( phase );
+        }
+
+        @Override
+        public ReleaseResult execute( String phase )
+            throws ReleaseExecutionException, ReleaseFailureException
+        {
+            return new ReleaseResult();
+        }
+
+        @Override
+        public void complete( String phase, ReleaseResult result, boolean idle )
+        {
+            completed.add( phase );
+        }
+
+        @Override
+        public void fail( String phase, Exception failure )
+        {
+            failed.add( phase );
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.apache.maven.shared.release.config;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.apache.maven.shared.release.phase.AbstractReleaseTestCase;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Test the journaled store.
+ */
+public class JournaledReleaseDescriptorStoreTest
+    extends PlexusTestCase
+{
+    private JournaledReleaseDescriptorStore store;
+
+    private File file;
+
+    private File journalFile;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        store = (JournaledReleaseDescriptorStore) lookup( ReleaseDescriptorStore.class, "journaled" );
+
+        File dir = getTestFile( "target/test-classes/journaled" );
+        FileUtils.deleteDirectory( dir );
+        dir.mkdirs();
+        file = new File( dir, "release.properties" );
+        journalFile = JournaledReleaseDescriptorStore.getJournalFile( file );
+    }
+
+    public void testWriteAppendsChanges()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseConfiguration();
+        builder.setCompletedPhase( "check-poms" );
+        store.write( builder.build() );
+
+        assertFalse( "Check no snapshot written", file.exists() );
+        long length = journalFile.length();
+        assertTrue( "Check journal written", length > 0 );
+
+        store.write( builder.build() );
+        assertEquals( "Check unchanged configuration not journaled", length, journalFile.length() );
+
+        builder.setCompletedPhase( "map-release-versions" );
+        builder.addReleaseVersion( "groupId:artifactId", "1.0" );
+        store.write( builder.build() );
+        long delta = journalFile.length() - length;
+        assertTrue( "Check only the changes are journaled", delta > 0 && delta < length );
+
+        ReleaseDescriptor descriptor = read();
+        assertEquals( "map-release-versions", descriptor.getCompletedPhase() );
+        assertEquals( "url", descriptor.getScmSourceUrl() );
+        assertEquals( "1.0", descriptor.getProjectReleaseVersion( "groupId:artifactId" ) );
+    }
+
+    public void testEndReleaseCompactsJournal()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseConfiguration();
+        builder.setCompletedPhase( "check-poms" );
+        store.write( builder.build() );
+
+        builder.setCompletedPhase( "end-release" );
+        store.write( builder.build() );
+
+        assertTrue( "Check snapshot written", file.exists() );
+        assertFalse( "Check journal removed", journalFile.exists() );
+
+        PropertiesReleaseDescriptorStore propertiesStore =
+            (PropertiesReleaseDescriptorStore) lookup( ReleaseDescriptorStore.class, "properties" );
+        ReleaseDescriptor descriptor = propertiesStore.read( file ).build();
+        assertEquals( "end-release", descriptor.getCompletedPhase() );
+        assertEquals( "url", descriptor.getScmSourceUrl() );
+    }
+
+    public void testIncompleteRecordIgnored()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseConfiguration();
+        builder.setCompletedPhase( "check-poms" );
+        store.write( builder.build() );
+        long length = journalFile.length();
+
+        builder.setCompletedPhase( "scm-check-modifications" );
+        store.write( builder.build() );
+
+        // simulate a crash while writing the second record
+        try ( RandomAccessFile raf = new RandomAccessFile( journalFile, "rw" ) )
+        {
+            raf.setLength( journalFile.length() - 3 );
+        }
+        assertEquals( "check-poms", read().getCompletedPhase() );
+
+        builder.setCompletedPhase( "create-backup-poms" );
+        store.write( builder.build() );
+        assertTrue( "Check incomplete record dropped", journalFile.length() < 2 * length );
+        assertEquals( "create-backup-poms", read().getCompletedPhase() );
+    }
+
+    public void testClearCache()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseConfiguration();
+        builder.setCompletedPhase( "check-poms" );
+        store.write( builder.build() );
+        long length = journalFile.length();
+
+        // the journal is read again, an unchanged configuration is still not journaled
+        store.clearCache();
+        store.write( builder.build() );
+        assertEquals( length, journalFile.length() );
+
+        store.clearCache();
+        builder.setCompletedPhase( "scm-check-modifications" );
+        store.write( builder.build() );
+        assertEquals( "scm-check-modifications", read().getCompletedPhase() );
+    }
+
+    public void testDelete()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseConfiguration();
+        builder.setCompletedPhase( "check-poms" );
+        store.write( builder.build() );
+
+        store.delete( builder.build() );
+
+        assertFalse( "Check journal removed", journalFile.exists() );
+        assertNull( read().getCompletedPhase() );
+    }
+
+    private ReleaseDescriptor read()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setWorkingDirectory( AbstractReleaseTestCase.getPath( file.getParentFile() ) );
+        return store.read( builder ).build();
+    }
+
+    private ReleaseDescriptorBuilder createReleaseConfiguration()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setWorkingDirectory( AbstractReleaseTestCase.getPath( file.getParentFile() ) );
+        builder.setScmSourceUrl( "url" );
+        builder.setScmUsername( "username" );
+        builder.setPreparationGoals( "clean verify" );
+        for ( int i = 0; i < 20; i++ )
+        {
+            builder.addDevelopmentVersion( "groupId:module" + i, "1.1-SNAPSHOT" );
+        }
+        return builder;
+    }
+}
@@ -134,6 +134,8 @@ public class PropertiesReleaseDescriptorStoreTest
         assertAndAdjustScmPrivateKeyPassPhrase( config, rereadDescriptor );
 
         assertEquals( "compare configuration", config.build(), rereadDescriptor );
+        assertEquals( "source-fingerprint-write", rereadDescriptor.getSourceFingerprint() );
+        assertEquals( "output-fingerprint-write", rereadDescriptor.getOutputFingerprint() );
     }
 
     public void testWriteToWorkingDirectory()
@@ -294,6 +296,8 @@ public class PropertiesReleaseDescriptorStoreTest
         builder.setScmPrivateKeyPassPhrase( "passphrase-write" );
         builder.setScmTagBase( "tag-base-write" );
         builder.setScmBranchBase( "branch-base-write" );
+        builder.setSourceFingerprint( "source-fingerprint-write" );
+        builder.setOutputFingerprint( "output-fingerprint-write" );
         builder.setScmReleaseLabel( "tag-write" );
         builder.setAdditionalArguments( "additional-args-write" );
         builder.setPreparationGoals( "preparation-goals-write" );
@@ -0,0 +1,85 @@
+package org.apache.maven.shared.release.config;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Measures reading the <code>release.properties</code> of large reactors. Only runs if the number of modules is set
+ * with the <code>releasePropertiesModules</code> system property, the time taken is in the test report. The test fails
+ * if a descriptor is not read completely.
+ */
+public class ReleaseUtilsBenchmarkTest
+{
+    @Test
+    public void testReadLargeReactor()
+    {
+        Integer modules = Integer.getInteger( "releasePropertiesModules" );
+        assumeNotNull( modules );
+
+        read( createProperties( modules ), modules );
+    }
+
+    private static void read( Properties properties, int modules )
+    {
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+        ReleaseDescriptor descriptor = builder.build();
+
+        assertEquals( "scm:svn:http://localhost/trunk", descriptor.getScmSourceUrl() );
+        for ( int i = 0; i < modules; i++ )
+        {
+            String key = "groupId:module" + i;
+            assertEquals( "1.0", descriptor.getProjectReleaseVersion( key ) );
+            assertEquals( "1.1-SNAPSHOT", descriptor.getProjectDevelopmentVersion( key ) );
+            assertEquals( "scm:svn:http://localhost/trunk/module" + i,
+                          descriptor.getOriginalScmInfo( key ).getConnection() );
+            assertEquals( "1.0", descriptor.getDependencyReleaseVersion( "dependency:module" + i ) );
+        }
+    }
+
+    private static Properties createProperties( int modules )
+    {
+        Properties properties = new Properties();
+        properties.setProperty( "completedPhase", "end-release" );
+        properties.setProperty( "scm.url", "scm:svn:http://localhost/trunk" );
+        properties.setProperty( "scm.tag", "release-1.0" );
+        properties.setProperty( "preparationGoals", "clean verify" );
+        for ( int i = 0; i < modules; i++ )
+        {
+            String key = "groupId:module" + i;
+            properties.setProperty( "project.rel." + key, "1.0" );
+            properties.setProperty( "project.dev." + key, "1.1-SNAPSHOT" );
+            properties.setProperty( "project.scm." + key + ".connection", "scm:svn:http://localhost/trunk/module" + i );
+            properties.setProperty( "project.scm." + key + ".developerConnection",
+                                    "scm:svn:https://localhost/trunk/module" + i );
+            properties.setProperty( "project.scm." + key + ".url", "http://localhost/trunk/module" + i );
+            properties.setProperty( "project.scm." + key + ".tag", "HEAD" );
+            properties.setProperty( "dependency.dependency:module" + i + ".release", "1.0" );
+            properties.setProperty( "dependency.dependency:module" + i + ".development", "1.1-SNAPSHOT" );
+        }
+        return properties;
+    }
+}
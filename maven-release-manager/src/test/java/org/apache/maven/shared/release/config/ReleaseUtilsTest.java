@@ -28,6 +28,8 @@ import org.apache.maven.shared.release.phase.AbstractReleaseTestCase;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Properties;
 
 /**
@@ -250,6 +252,63 @@ public class ReleaseUtilsTest
         ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, new ReleaseDescriptorBuilder() );
     }
 
+    public void testActivateProfiles()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( "exec.activateProfiles", "a,b" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+
+        assertEquals( Arrays.asList( "a", "b" ), builder.build().getActivateProfiles() );
+    }
+
+    public void testCompletedPhases()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( "completedPhases", "check-poms,scm-check-modifications" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+
+        assertEquals( new LinkedHashSet<>( Arrays.asList( "check-poms", "scm-check-modifications" ) ),
+                      builder.build().getCompletedPhases() );
+    }
+
+    public void testProjectCheckpoints()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( "checkpoint.project.groupId:artifactId", "checksum" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+        assertNull( "Check checkpoints ignored without phase",
+                    builder.build().getProjectCheckpoint( "groupId:artifactId" ) );
+
+        properties.setProperty( "checkpoint.phase", "scm-commit-release" );
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+        assertEquals( "checksum", builder.build().getProjectCheckpoint( "groupId:artifactId" ) );
+    }
+
+    public void testOriginalScmInfo()
+    {
+        Properties properties = new Properties();
+        properties.setProperty( "project.scm.groupId:artifactId.connection", "conn" );
+        properties.setProperty( "project.scm.groupId:artifactId.tag", "tag" );
+        properties.setProperty( "project.scm.groupId:empty.empty", "true" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.addOriginalScmInfo( "groupId:merged", getScm( "merged", null, null, null ) );
+        properties.setProperty( "project.scm.groupId:merged.connection", "conn" );
+        ReleaseUtils.copyPropertiesToReleaseDescriptor( properties, builder );
+        ReleaseDescriptor descriptor = builder.build();
+
+        assertEquals( "conn", descriptor.getOriginalScmInfo( "groupId:artifactId" ).getConnection() );
+        assertEquals( "tag", descriptor.getOriginalScmInfo( "groupId:artifactId" ).getTag() );
+        assertNull( descriptor.getOriginalScmInfo( "groupId:empty" ) );
+        assertEquals( "merged", descriptor.getOriginalScmInfo( "groupId:merged" ).getConnection() );
+    }
+
     private static ReleaseDescriptorBuilder copyReleaseDescriptor( ReleaseDescriptor originalReleaseDescriptor )
     {
         return createReleaseDescriptor( originalReleaseDescriptor.getWorkingDirectory() );
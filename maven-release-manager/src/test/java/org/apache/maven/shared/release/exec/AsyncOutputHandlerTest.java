@@ -0,0 +1,184 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.junit.Test;
+
+public class AsyncOutputHandlerTest
+{
+    private static final int LINES = 1000;
+
+    private static final int CAPACITY = 10;
+
+    @Test
+    public void testBlock()
+        throws InterruptedException
+    {
+        assertEquals( expectedLines( LINES ), handle( AsyncOutputHandler.Overflow.BLOCK ) );
+    }
+
+    @Test
+    public void testSpill()
+        throws InterruptedException
+    {
+        assertEquals( expectedLines( LINES ), handle( AsyncOutputHandler.Overflow.SPILL ) );
+    }
+
+    @Test
+    public void testDrop()
+        throws InterruptedException
+    {
+        List<String> lines = handle( AsyncOutputHandler.Overflow.DROP );
+
+        // the first line blocks the handler until all lines have been passed, so only the queued ones remain
+        List<String> expected = expectedLines( CAPACITY + 1 );
+        expected.add( ( LINES - CAPACITY - 1 ) + " lines of the build output have been dropped" );
+        assertEquals( expected, lines );
+    }
+
+    @Test
+    public void testFailingHandler()
+    {
+        final List<String> lines = new ArrayList<>();
+        AsyncOutputHandler handler = new AsyncOutputHandler( new InvocationOutputHandler()
+        {
+            @Override
+            public void consumeLine( String line )
+            {
+                if ( line.startsWith( "line " ) && line.endsWith( "1" ) )
+                {
+                    throw new IllegalStateException( line );
+                }
+                lines.add( line );
+            }
+        }, CAPACITY, AsyncOutputHandler.Overflow.BLOCK );
+
+        for ( int i = 0; i < LINES; i++ )
+        {
+            handler.consumeLine( "line " + i );
+        }
+        handler.close();
+
+        List<String> expected = new ArrayList<>();
+        for ( String line : expectedLines( LINES ) )
+        {
+            if ( !line.endsWith( "1" ) )
+            {
+                expected.add( line );
+            }
+        }
+        expected.add( ( LINES / 10 ) + " lines of the build output could not be handled: "
+            + "java.lang.IllegalStateException: line 1" );
+        assertEquals( expected, lines );
+    }
+
+    @Test
+    public void testWrap()
+    {
+        InvocationOutputHandler handler = new RecordingHandler( new CountDownLatch( 0 ) );
+        System.setProperty( AsyncOutputHandler.QUEUE_SIZE_PROPERTY, "0" );
+        try
+        {
+            assertSame( handler, AsyncOutputHandler.wrap( handler ) );
+        }
+        finally
+        {
+            System.clearProperty( AsyncOutputHandler.QUEUE_SIZE_PROPERTY );
+        }
+
+        AsyncOutputHandler async = (AsyncOutputHandler) AsyncOutputHandler.wrap( handler );
+        async.close();
+    }
+
+    private static List<String> handle( AsyncOutputHandler.Overflow overflow )
+        throws InterruptedException
+    {
+        CountDownLatch passed = new CountDownLatch( 1 );
+        RecordingHandler recorder = new RecordingHandler( passed );
+        AsyncOutputHandler handler = new AsyncOutputHandler( recorder, CAPACITY, overflow );
+
+        handler.consumeLine( "line 0" );
+        recorder.started.await();
+        for ( int i = 1; i < LINES; i++ )
+        {
+            if ( overflow == AsyncOutputHandler.Overflow.BLOCK && i == CAPACITY + 1 )
+            {
+                // the next line waits for room in the queue
+                passed.countDown();
+            }
+            handler.consumeLine( "line " + i );
+        }
+        passed.countDown();
+        handler.close();
+        return recorder.lines;
+    }
+
+    private static List<String> expectedLines( int count )
+    {
+        List<String> lines = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            lines.add( "line " + i );
+        }
+        return lines;
+    }
+
+    /**
+     * Records the lines, the first one is only handled once all lines have been passed.
+     */
+    private static class RecordingHandler
+        implements InvocationOutputHandler
+    {
+        final List<String> lines = Collections.synchronizedList( new ArrayList<String>() );
+
+        final CountDownLatch started = new CountDownLatch( 1 );
+
+        private final CountDownLatch passed;
+
+        RecordingHandler( CountDownLatch passed )
+        {
+            this.passed = passed;
+        }
+
+        @Override
+        public void consumeLine( String line )
+        {
+            started.countDown();
+            try
+            {
+                passed.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            lines.add( line );
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.shared.release.BuildEvent;
+import org.apache.maven.shared.release.BuildEventListener;
+import org.apache.maven.shared.release.PhaseMetrics;
+import org.junit.Test;
+
+public class BuildOutputParserTest
+{
+    private static final String LS = System.getProperty( "line.separator" );
+
+    @Test
+    public void testReactorBuild()
+        throws IOException
+    {
+        PhaseMetrics metrics = new PhaseMetrics( "run-preparation-goals" );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( BuildOutputParser parser = new BuildOutputParser( metrics, out ) )
+        {
+            write( parser, "[INFO] Reactor Build Order:",
+                   "[INFO] ------------------< org.example:parent >------------------",
+                   "[INFO] Building Parent 1.0                                     [1/2]",
+                   "[INFO] --------------------------------[ pom ]---------------------------------",
+                   "[INFO] \u001B[1mBuilding Module 1.0                                     [2/2]\u001B[m",
+                   "[INFO] Tests run: 3, Failures: 0, Errors: 0, Skipped: 0, Time elapsed: 0.1 s - in example.Test",
+                   "[INFO] Tests run: 3, Failures: 0, Errors: 0, Skipped: 1",
+                   "[INFO] Building jar: /tmp/module/target/module-1.0.jar",
+                   "[INFO] Reactor Summary for Parent 1.0:",
+                   "[INFO] Parent ............................................. SUCCESS [  0.512 s]",
+                   "[INFO] Module ............................................. SUCCESS [01:02 min]",
+                   "[INFO] BUILD SUCCESS",
+                   "[INFO] Total time:  01:03 min" );
+        }
+
+        List<BuildEvent> events = metrics.getBuildEvents();
+        assertEquals( 6, events.size() );
+        assertEvent( events.get( 0 ), BuildEvent.Type.MODULE_STARTED, "Parent", null, -1 );
+        assertEvent( events.get( 1 ), BuildEvent.Type.MODULE_STARTED, "Module", null, -1 );
+        assertEvent( events.get( 2 ), BuildEvent.Type.TESTS_COMPLETED, "Module", null, -1 );
+        assertEquals( 3, events.get( 2 ).getTestsRun() );
+        assertEquals( 1, events.get( 2 ).getSkipped() );
+        assertEvent( events.get( 3 ), BuildEvent.Type.MODULE_FINISHED, "Parent", BuildEvent.SUCCESS, 512 );
+        assertEvent( events.get( 4 ), BuildEvent.Type.MODULE_FINISHED, "Module", BuildEvent.SUCCESS, 62000 );
+        assertEvent( events.get( 5 ), BuildEvent.Type.BUILD_FINISHED, null, BuildEvent.SUCCESS, 63000 );
+
+        // the output is passed on unchanged
+        assertEquals( 13, out.toString().split( LS ).length );
+    }
+
+    @Test
+    public void testSingleModuleBuild()
+        throws IOException
+    {
+        PhaseMetrics metrics = new PhaseMetrics( "run-perform-goals" );
+        BuildEventListener listener = mock( BuildEventListener.class );
+        metrics.setBuildEventListener( listener );
+
+        BuildOutputParser parser = new BuildOutputParser( metrics, null );
+        write( parser, "[INFO] Building Module 1.0", "Tests run: 2, Failures: 1, Errors: 0, Skipped: 0",
+               "[INFO] BUILD FAILURE" );
+        // the duration has not been printed
+        parser.write( "[INFO] ----".getBytes() );
+        parser.close();
+
+        List<BuildEvent> events = metrics.getBuildEvents();
+        assertEquals( 4, events.size() );
+        assertEquals( 1, events.get( 1 ).getFailures() );
+        assertEvent( events.get( 2 ), BuildEvent.Type.MODULE_FINISHED, "Module", BuildEvent.FAILURE, -1 );
+        assertEvent( events.get( 3 ), BuildEvent.Type.BUILD_FINISHED, null, BuildEvent.FAILURE, -1 );
+        for ( BuildEvent event : events )
+        {
+            verify( listener ).buildEvent( metrics, event );
+        }
+    }
+
+    @Test
+    public void testMultithreadedBuild()
+        throws IOException
+    {
+        PhaseMetrics metrics = new PhaseMetrics( "run-preparation-goals" );
+        try ( BuildOutputParser parser = new BuildOutputParser( metrics, null ) )
+        {
+            // several lines in one write, and a line split across writes
+            parser.write( ( "[INFO] Using the MultiThreadedBuilder implementation with a thread count of 2" + LS
+                + "[INFO] Building Module 1.0" + LS + "[INFO] Building Other 1.0" + LS
+                + "[INFO] Tests run: 3, Failures: 0, " ).getBytes() );
+            parser.write( ( "Errors: 0, Skipped: 0" + LS ).getBytes() );
+        }
+
+        List<BuildEvent> events = metrics.getBuildEvents();
+        assertEquals( 3, events.size() );
+        assertEvent( events.get( 0 ), BuildEvent.Type.MODULE_STARTED, "Module", null, -1 );
+        assertEvent( events.get( 1 ), BuildEvent.Type.MODULE_STARTED, "Other", null, -1 );
+        // the tests may have been run by either module
+        assertEvent( events.get( 2 ), BuildEvent.Type.TESTS_COMPLETED, null, null, -1 );
+        assertEquals( 3, events.get( 2 ).getTestsRun() );
+    }
+
+    @Test
+    public void testParse()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertSame( out, BuildOutputParser.parse( out ) );
+
+        PhaseMetrics metrics = new PhaseMetrics( "run-completion-goals" );
+        PhaseMetrics previous = PhaseMetrics.attach( metrics );
+        try
+        {
+            assertEquals( BuildOutputParser.class, BuildOutputParser.parse( out ).getClass() );
+        }
+        finally
+        {
+            PhaseMetrics.restore( previous );
+        }
+    }
+
+    @Test
+    public void testParseDuration()
+    {
+        assertEquals( 1234, BuildOutputParser.parseDuration( "1.234", "s" ) );
+        assertEquals( 1234, BuildOutputParser.parseDuration( "1,234", "s" ) );
+        assertEquals( 62345, BuildOutputParser.parseDuration( "1:02.345", "s" ) );
+        assertEquals( 62000, BuildOutputParser.parseDuration( "01:02", "min" ) );
+        assertEquals( 3720000, BuildOutputParser.parseDuration( "01:02", "h" ) );
+        assertEquals( -1, BuildOutputParser.parseDuration( "1..2", "s" ) );
+    }
+
+    private static void write( BuildOutputParser parser, String... lines )
+        throws IOException
+    {
+        for ( String line : lines )
+        {
+            parser.write( ( line + LS ).getBytes() );
+        }
+    }
+
+    private static void assertEvent( BuildEvent event, BuildEvent.Type type, String module, String result,
+                                     long duration )
+    {
+        assertEquals( type, event.getType() );
+        assertEquals( module, event.getModule() );
+        assertEquals( result, event.getResult() );
+        assertEquals( duration, event.getDuration() );
+    }
+}
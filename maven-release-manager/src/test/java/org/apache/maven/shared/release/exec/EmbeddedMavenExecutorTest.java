@@ -0,0 +1,194 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.Maven;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequestPopulator;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Test the embedded Maven executor.
+ */
+public class EmbeddedMavenExecutorTest
+    extends PlexusTestCase
+{
+    private EmbeddedMavenExecutor executor;
+
+    private Maven maven;
+
+    private MavenExecutionRequestPopulator populator;
+
+    private LegacySupport legacySupport;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        executor = (EmbeddedMavenExecutor) lookup( MavenExecutor.class, "embedded" );
+
+        maven = mock( Maven.class );
+        populator = mock( MavenExecutionRequestPopulator.class );
+        legacySupport = mock( LegacySupport.class );
+        executor.setMaven( maven );
+        executor.setPopulator( populator );
+        executor.setLegacySupport( legacySupport );
+    }
+
+    public void testExecution()
+        throws Exception
+    {
+        File workingDirectory = getTestFile( "target/working-directory" );
+        MavenSession session = mock( MavenSession.class );
+        when( legacySupport.getSession() ).thenReturn( session );
+        when( maven.execute( any( MavenExecutionRequest.class ) ) ).thenReturn( new DefaultMavenExecutionResult() );
+
+        DefaultReleaseEnvironment releaseEnvironment = new DefaultReleaseEnvironment();
+        Settings settings = new Settings();
+        releaseEnvironment.setSettings( settings );
+
+        executor.executeGoals( workingDirectory, Arrays.asList( "clean", "verify" ), releaseEnvironment, false,
+                               "-o -Dkey=value -P release -fae -T 2C", "release-pom.xml", new ReleaseResult() );
+
+        ArgumentCaptor<MavenExecutionRequest> request = ArgumentCaptor.forClass( MavenExecutionRequest.class );
+        verify( maven ).execute( request.capture() );
+        MavenExecutionRequest executionRequest = request.getValue();
+        assertEquals( Arrays.asList( "clean", "verify" ), executionRequest.getGoals() );
+        assertEquals( new File( workingDirectory, "release-pom.xml" ), executionRequest.getPom() );
+        assertFalse( executionRequest.isInteractiveMode() );
+        assertTrue( executionRequest.isOffline() );
+        assertEquals( "value", executionRequest.getUserProperties().getProperty( "key" ) );
+        assertEquals( Collections.singletonList( "release" ), executionRequest.getActiveProfiles() );
+        assertEquals( MavenExecutionRequest.REACTOR_FAIL_AT_END, executionRequest.getReactorFailureBehavior() );
+        assertEquals( "2", executionRequest.getThreadCount() );
+        assertTrue( executionRequest.isPerCoreThreadCount() );
+
+        verify( populator ).populateFromSettings( executionRequest, settings );
+        verify( populator ).populateDefaults( executionRequest );
+        verify( legacySupport ).setSession( session );
+    }
+
+    public void testAlternateSettingsFile()
+        throws Exception
+    {
+        File workingDirectory = getTestFile( "target/working-directory" );
+        File settingsFile = getTestFile( "target/embedded-settings.xml" );
+        FileUtils.fileWrite( settingsFile, "UTF-8",
+                             "<settings><localRepository>/alternate/repository</localRepository></settings>" );
+        when( maven.execute( any( MavenExecutionRequest.class ) ) ).thenReturn( new DefaultMavenExecutionResult() );
+
+        DefaultReleaseEnvironment releaseEnvironment = new DefaultReleaseEnvironment();
+        releaseEnvironment.setSettings( new Settings() );
+
+        executor.executeGoals( workingDirectory, Collections.singletonList( "verify" ), releaseEnvironment, false,
+                               "-s " + settingsFile.getAbsolutePath(), null, new ReleaseResult() );
+
+        ArgumentCaptor<MavenExecutionRequest> request = ArgumentCaptor.forClass( MavenExecutionRequest.class );
+        verify( maven ).execute( request.capture() );
+        assertEquals( settingsFile.getAbsoluteFile(), request.getValue().getUserSettingsFile().getAbsoluteFile() );
+        ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass( Settings.class );
+        verify( populator ).populateFromSettings( same( request.getValue() ), settings.capture() );
+        assertEquals( "/alternate/repository", settings.getValue().getLocalRepository() );
+    }
+
+    public void testOutputCopied()
+        throws Exception
+    {
+        when( maven.execute( any( MavenExecutionRequest.class ) ) ).thenAnswer( new Answer<Object>()
+        {
+            @Override
+            public Object answer( InvocationOnMock invocation )
+            {
+                System.out.println( "[INFO] output of the build" );
+                return new DefaultMavenExecutionResult();
+            }
+        } );
+
+        ReleaseResult result = new ReleaseResult();
+        executor.executeGoals( getTestFile( "target/working-directory" ), Collections.singletonList( "verify" ),
+                               new DefaultReleaseEnvironment(), false, null, null, result );
+
+        assertTrue( result.getOutput().contains( "[INFO] output of the build" ) );
+    }
+
+    public void testForkReason()
+        throws Exception
+    {
+        File workingDirectory = getTestFile( "target/working-directory-fork" );
+        FileUtils.deleteDirectory( workingDirectory );
+        DefaultReleaseEnvironment releaseEnvironment = new DefaultReleaseEnvironment();
+        assertNull( executor.getForkReason( workingDirectory, releaseEnvironment ) );
+
+        releaseEnvironment.setJavaHome( new File( System.getProperty( "java.home" ) ) );
+        assertNull( executor.getForkReason( workingDirectory, releaseEnvironment ) );
+
+        releaseEnvironment.setMavenHome( getTestFile( "target/other-maven" ) );
+        assertNotNull( executor.getForkReason( workingDirectory, releaseEnvironment ) );
+
+        releaseEnvironment.setMavenHome( null );
+        File extensions = new File( workingDirectory, ".mvn/extensions.xml" );
+        extensions.getParentFile().mkdirs();
+        FileUtils.fileWrite( extensions, "UTF-8", "<extensions/>" );
+        assertNotNull( executor.getForkReason( workingDirectory, releaseEnvironment ) );
+    }
+
+    public void testExecutionFailure()
+        throws Exception
+    {
+        DefaultMavenExecutionResult executionResult = new DefaultMavenExecutionResult();
+        executionResult.addException( new IllegalStateException( "build failure" ) );
+        when( maven.execute( any( MavenExecutionRequest.class ) ) ).thenReturn( executionResult );
+
+        ReleaseResult result = new ReleaseResult();
+        try
+        {
+            executor.executeGoals( getTestFile( "target/working-directory" ), Collections.singletonList( "verify" ),
+                                   new DefaultReleaseEnvironment(), false, null, null, result );
+            fail( "Should have thrown an exception" );
+        }
+        catch ( MavenExecutorException e )
+        {
+            assertTrue( e.getMessage().contains( "build failure" ) );
+        }
+        assertTrue( result.getOutput().contains( "build failure" ) );
+    }
+}
@@ -0,0 +1,109 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.codehaus.plexus.util.cli.Commandline;
+import org.junit.Test;
+
+/**
+ * Measures copying the output of a forked process. Only runs if the number of bytes to copy is set with the
+ * <code>forkedOutputSize</code> system property, the time taken is in the test report. The test fails if the output
+ * is not copied completely.
+ */
+public class ForkedMavenExecutorBenchmarkTest
+{
+    @Test
+    public void testExecuteCommandLineThroughput()
+        throws Exception
+    {
+        Long size = Long.getLong( "forkedOutputSize" );
+        assumeNotNull( size );
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( new File( System.getProperty( "java.home" ), "bin/java" ).getAbsolutePath() );
+        cl.createArg().setValue( "-cp" );
+        cl.createArg().setValue( new File( getClass().getProtectionDomain().getCodeSource().getLocation().toURI() )
+                                     .getAbsolutePath() );
+        cl.createArg().setValue( OutputGenerator.class.getName() );
+        cl.createArg().setValue( Long.toString( size ) );
+
+        CountingOutputStream out = new CountingOutputStream();
+        CountingOutputStream err = new CountingOutputStream();
+
+        int result = ForkedMavenExecutor.executeCommandLine( cl, null, out, err );
+
+        assertEquals( 0, result );
+        assertEquals( size.longValue(), out.count );
+        assertEquals( 0, err.count );
+    }
+
+    private static class CountingOutputStream
+        extends OutputStream
+    {
+        private long count;
+
+        @Override
+        public void write( int b )
+        {
+            count++;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            count += len;
+        }
+    }
+
+    /**
+     * Writes the given number of bytes of log-like lines to its standard output.
+     */
+    public static class OutputGenerator
+    {
+        public static void main( String[] args )
+            throws IOException
+        {
+            long remaining = Long.parseLong( args[0] );
+
+            byte[] line = "[INFO] Building module 1.0-SNAPSHOT\n".getBytes( "US-ASCII" );
+            byte[] chunk = new byte[line.length * 2048];
+            for ( int i = 0; i < chunk.length; i += line.length )
+            {
+                System.arraycopy( line, 0, chunk, i, line.length );
+            }
+
+            OutputStream out = System.out;
+            while ( remaining > 0 )
+            {
+                int length = (int) Math.min( chunk.length, remaining );
+                out.write( chunk, 0, length );
+                remaining -= length;
+            }
+            out.flush();
+        }
+    }
+}
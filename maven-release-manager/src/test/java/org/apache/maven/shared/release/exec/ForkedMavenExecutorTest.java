@@ -362,4 +362,28 @@ public class ForkedMavenExecutorTest
             assertFalse( "proxy_password".equals( encryptedProxy.getPassword() ) );
         }
     }
+
+    public void testSettingsFileReused()
+        throws Exception
+    {
+        Settings settings = new Settings();
+        Server server = new Server();
+        server.setId( "server" );
+        server.setPassword( "server_password" );
+        settings.addServer( server );
+
+        File settingsFile = executor.getSettingsFile( settings );
+        assertTrue( settingsFile.exists() );
+        assertSame( settingsFile, executor.getSettingsFile( settings.clone() ) );
+        assertEquals( "server_password", settings.getServers().get( 0 ).getPassword() );
+
+        Settings changedSettings = settings.clone();
+        changedSettings.getServers().get( 0 ).setPassword( "other_password" );
+        File changedSettingsFile = executor.getSettingsFile( changedSettings );
+        assertNotSame( settingsFile, changedSettingsFile );
+
+        executor.dispose();
+        assertFalse( settingsFile.exists() );
+        assertFalse( changedSettingsFile.exists() );
+    }
 }
\ No newline at end of file
@@ -38,6 +38,7 @@ import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
 import org.codehaus.plexus.PlexusTestCase;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcher;
@@ -138,6 +139,43 @@ public class InvokerMavenExecutorTest
         assertEquals( "other-settings.xml", req.getGlobalSettingsFile().getPath() );
     }
 
+    public void testInactivityTimeout()
+        throws Exception
+    {
+        // the process is ended with signals
+        if ( File.separatorChar != '/' )
+        {
+            return;
+        }
+
+        File mavenHome = getTestFile( "target/invoker-maven-home" );
+        File mvn = new File( mavenHome, "bin/mvn" );
+        mvn.getParentFile().mkdirs();
+        FileUtils.fileWrite( mvn, "#!/bin/sh\necho started\nsleep 60\n" );
+        mvn.setExecutable( true );
+
+        Logger logger = mock( Logger.class );
+        executor.enableLogging( logger );
+
+        DefaultReleaseEnvironment releaseEnvironment = new DefaultReleaseEnvironment();
+        releaseEnvironment.setMavenHome( mavenHome );
+        releaseEnvironment.setInactivityTimeout( 1 );
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            executor.executeGoals( mavenHome, "verify", releaseEnvironment, false, null, null, new ReleaseResult() );
+            fail( "The execution should have been ended" );
+        }
+        catch ( MavenExecutorException e )
+        {
+            assertTrue( e.getCause().getMessage(),
+                        e.getCause().getMessage().contains( "has not written any output for 1 seconds" ) );
+        }
+        assertTrue( System.currentTimeMillis() - start < 60000 );
+        verify( logger ).info( "started" );
+    }
+
     public void testEncryptSettings()
         throws Exception
     {
@@ -0,0 +1,245 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MavenWorkerPoolTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWorkersAreReusedAndRecycled()
+        throws Exception
+    {
+        MavenWorkerPool pool = createPool( 2 );
+
+        String first = execute( pool, "0", "first" );
+        assertTrue( first, first.contains( "args=[0, first]" ) );
+        assertTrue( first, first.contains( "leaked=null" ) );
+
+        String second = execute( pool, "0", "second" );
+        assertEquals( "Check same worker", worker( first ), worker( second ) );
+        assertTrue( "Check system properties reset", second.contains( "leaked=null" ) );
+
+        // the worker has ended after two builds
+        String third = execute( pool, "0", "third" );
+        assertNotEquals( "Check new worker", worker( first ), worker( third ) );
+    }
+
+    @Test
+    public void testExitCodeAndError()
+        throws Exception
+    {
+        MavenWorkerPool pool = createPool( 1 );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals( 3, pool.execute( folder.getRoot(), Arrays.asList( "3", "failing" ), out, err ) );
+        assertEquals( "error output\n", err.toString() );
+    }
+
+    @Test
+    public void testAcceptedBuildNotRepeated()
+        throws Exception
+    {
+        MavenWorkerPool pool = createPool( 2 );
+        File builds = new File( folder.getRoot(), "builds.txt" );
+
+        try
+        {
+            execute( pool, "0", "crash", builds.getPath() );
+            fail( "Expected the build to fail" );
+        }
+        catch ( IOException e )
+        {
+            // the worker has ended during the build
+        }
+        assertEquals( "Check build run once", Collections.singletonList( "crash" ),
+                      Files.readAllLines( builds.toPath(), StandardCharsets.UTF_8 ) );
+    }
+
+    @Test
+    public void testStaleWorkerFileIgnored()
+        throws Exception
+    {
+        MavenWorkerPool pool = createPool( 1 );
+        pool.getDirectory().mkdirs();
+        File stale = new File( pool.getDirectory(), "worker-stale.properties" );
+        try ( PrintStream out = new PrintStream( stale ) )
+        {
+            out.println( "port=1" );
+            out.println( "secret=none" );
+        }
+
+        String output = execute( pool, "0", "build" );
+        assertTrue( output, output.contains( "args=[0, build]" ) );
+        assertFalse( "Check stale file removed", stale.exists() );
+    }
+
+    @Test
+    public void testEnvironmentSeparatesWorkers()
+        throws Exception
+    {
+        File directory = folder.newFolder();
+        Map<String, String> environment = new HashMap<>( System.getenv() );
+        environment.put( "RELEASE_WORKER_TEST", "first" );
+        MavenWorkerPool first = createPool( directory, 2, environment );
+        environment.put( "RELEASE_WORKER_TEST", "second" );
+        MavenWorkerPool second = createPool( directory, 2, environment );
+        assertNotEquals( first.getDirectory(), second.getDirectory() );
+
+        String firstOutput = execute( first, "0", "build" );
+        assertTrue( firstOutput, firstOutput.contains( "environment=first" ) );
+        String secondOutput = execute( second, "0", "build" );
+        assertTrue( secondOutput, secondOutput.contains( "environment=second" ) );
+        assertNotEquals( "Check other worker", worker( firstOutput ), worker( secondOutput ) );
+    }
+
+    @Test
+    public void testWorkerFileOwnerOnly()
+        throws Exception
+    {
+        assumeTrue( FileSystems.getDefault().supportedFileAttributeViews().contains( "posix" ) );
+
+        MavenWorkerPool pool = createPool( 2 );
+        execute( pool, "0", "build" );
+
+        File[] files = pool.getDirectory().listFiles( new FilenameFilter()
+        {
+            @Override
+            public boolean accept( File dir, String name )
+            {
+                return name.startsWith( "worker-" ) && name.endsWith( ".properties" );
+            }
+        } );
+        assertEquals( 1, files.length );
+        assertEquals( PosixFilePermissions.fromString( "rw-------" ),
+                      Files.getPosixFilePermissions( files[0].toPath() ) );
+    }
+
+    @Test
+    public void testStaleLockFileRemoved()
+        throws Exception
+    {
+        MavenWorkerPool pool = createPool( 1 );
+        pool.getDirectory().mkdirs();
+        File stale = new File( pool.getDirectory(), "worker-stale.properties.lock" );
+        stale.createNewFile();
+
+        execute( pool, "0", "build" );
+        assertFalse( "Check stale lock removed", stale.exists() );
+    }
+
+    private MavenWorkerPool createPool( int maxBuilds )
+        throws Exception
+    {
+        return createPool( folder.newFolder(), maxBuilds, System.getenv() );
+    }
+
+    private MavenWorkerPool createPool( File directory, int maxBuilds, Map<String, String> environment )
+        throws Exception
+    {
+        File classes = new File( MavenWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI() );
+        File testClasses = new File( getClass().getProtectionDomain().getCodeSource().getLocation().toURI() );
+
+        MavenWorkerPool pool =
+            new MavenWorkerPool( directory, Arrays.asList( classes, testClasses ),
+                                 Collections.singletonList( "-D" + MavenWorker.CLI_PROPERTY + "="
+                                     + StubMavenCli.class.getName() ), environment );
+        pool.setMaxBuilds( maxBuilds );
+        pool.setMaxMemory( Long.MAX_VALUE );
+        pool.setIdleTimeout( 10000 );
+        return pool;
+    }
+
+    private String execute( MavenWorkerPool pool, String... args )
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals( 0, pool.execute( folder.getRoot(), Arrays.asList( args ), out, new ByteArrayOutputStream() ) );
+        return out.toString();
+    }
+
+    private static String worker( String output )
+    {
+        return output.substring( output.indexOf( "worker=" ), output.indexOf( '\n', output.indexOf( "worker=" ) ) );
+    }
+
+    /**
+     * Stands in for <code>MavenCli</code>: the first argument is the exit code.
+     */
+    public static class StubMavenCli
+    {
+        public int doMain( String[] args, String workingDirectory, PrintStream stdout, PrintStream stderr )
+        {
+            stdout.println( "worker=" + ManagementFactory.getRuntimeMXBean().getName() );
+            stdout.println( "args=" + Arrays.toString( args ) );
+            stdout.println( "leaked=" + System.getProperty( "leaked" ) );
+            stdout.println( "environment=" + System.getenv( "RELEASE_WORKER_TEST" ) );
+            if ( "crash".equals( args[1] ) )
+            {
+                try ( PrintStream builds = new PrintStream( new FileOutputStream( args[2], true ), true ) )
+                {
+                    builds.println( "crash" );
+                }
+                catch ( IOException e )
+                {
+                    throw new IllegalStateException( e );
+                }
+                // ends the worker before the buffered output has been sent
+                Runtime.getRuntime().halt( 1 );
+            }
+            System.setProperty( "leaked", "true" );
+            int exitCode = Integer.parseInt( args[0] );
+            if ( exitCode != 0 )
+            {
+                System.err.print( "error output\n" );
+            }
+            return exitCode;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
+import org.apache.maven.shared.release.exec.ProcessWatchdog.ProcessInfo;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ProcessWatchdogTest
+{
+    @Test
+    public void testInactivityTimeout()
+        throws Exception
+    {
+        // the thread dump is requested with a signal
+        Assume.assumeTrue( File.separatorChar == '/' );
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( new File( System.getProperty( "java.home" ), "bin/java" ).getAbsolutePath() );
+        cl.createArg().setValue( "-cp" );
+        cl.createArg().setValue( new File( getClass().getProtectionDomain().getCodeSource().getLocation().toURI() )
+                                     .getAbsolutePath() );
+        cl.createArg().setValue( Sleeper.class.getName() );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.currentTimeMillis();
+        try
+        {
+            ForkedMavenExecutor.executeCommandLine( cl, null, out, new ByteArrayOutputStream(), 0, 2000 );
+            fail( "The process should have been ended" );
+        }
+        catch ( CommandLineException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "has not written any output for 2 seconds" ) );
+        }
+        assertTrue( System.currentTimeMillis() - start < Sleeper.SLEEP );
+        assertTrue( out.toString().startsWith( "sleeping" ) );
+        assertTrue( out.toString(), out.toString().contains( Sleeper.class.getName() + ".main" ) );
+    }
+
+    @Test
+    public void testTimeout()
+        throws Exception
+    {
+        Assume.assumeTrue( File.separatorChar == '/' );
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( "sleep" );
+        cl.createArg().setValue( "60" );
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            ForkedMavenExecutor.executeCommandLine( cl, null, new ByteArrayOutputStream(),
+                                                    new ByteArrayOutputStream(), 500, 0 );
+            fail( "The process should have been ended" );
+        }
+        catch ( CommandLineException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "has not ended within" ) );
+        }
+        assertTrue( System.currentTimeMillis() - start < Sleeper.SLEEP );
+    }
+
+    @Test
+    public void testGetRemainingProcesses()
+    {
+        String started = "Thu Oct 15 10:00:00 2026";
+        String later = "Thu Oct 15 10:00:30 2026";
+        Map<Long, ProcessInfo> processes = new HashMap<>();
+        processes.put( 10L, new ProcessInfo( 5L, started, "sh" ) );
+        processes.put( 11L, new ProcessInfo( 10L, started, "java" ) );
+        processes.put( 12L, new ProcessInfo( 11L, started, "java" ) );
+        processes.put( 13L, new ProcessInfo( 12L, started, "git" ) );
+        processes.put( 14L, new ProcessInfo( 10L, started, "java" ) );
+        processes.put( 15L, new ProcessInfo( 14L, started, "java" ) );
+        processes.put( 20L, new ProcessInfo( 1L, started, "java" ) );
+        Map<Long, ProcessInfo> tree = ProcessWatchdog.getProcessTree( 10L, processes );
+        assertEquals( Arrays.asList( 10L, 11L, 14L, 12L, 15L, 13L ), Arrays.asList( tree.keySet().toArray() ) );
+
+        Map<Long, ProcessInfo> now = new HashMap<>();
+        // the root has ended, its child has been left to init
+        now.put( 11L, new ProcessInfo( 1L, started, "java" ) );
+        now.put( 12L, new ProcessInfo( 11L, started, "java" ) );
+        // the identifier has been reused by another process
+        now.put( 13L, new ProcessInfo( 12L, later, "git" ) );
+        // the root has ended, its child has been left to a subreaper
+        now.put( 14L, new ProcessInfo( 30L, started, "java" ) );
+        // the parent still runs, so another parent means another process
+        now.put( 15L, new ProcessInfo( 40L, started, "java" ) );
+        assertEquals( Arrays.asList( 11L, 14L, 12L ), ProcessWatchdog.getRemainingProcesses( tree, now ) );
+    }
+
+    @Test
+    public void testGetTimeout()
+    {
+        DefaultReleaseEnvironment releaseEnvironment = new DefaultReleaseEnvironment();
+        assertEquals( 0, ForkedMavenExecutor.getTimeout( Arrays.asList( "clean", "deploy" ), releaseEnvironment ) );
+        assertEquals( 0, ForkedMavenExecutor.getInactivityTimeout( releaseEnvironment ) );
+
+        releaseEnvironment.setTimeout( 5 ).setInactivityTimeout( 30 );
+        assertEquals( 5 * 60 * 1000,
+                      ForkedMavenExecutor.getTimeout( Arrays.asList( "clean", "deploy" ), releaseEnvironment ) );
+        assertEquals( 30 * 1000, ForkedMavenExecutor.getInactivityTimeout( releaseEnvironment ) );
+
+        System.setProperty( ForkedMavenExecutor.TIMEOUT_PROPERTY, "10" );
+        System.setProperty( ForkedMavenExecutor.TIMEOUT_PROPERTY + ".deploy", "60" );
+        try
+        {
+            assertEquals( 10 * 60 * 1000,
+                          ForkedMavenExecutor.getTimeout( Arrays.asList( "clean", "verify" ), releaseEnvironment ) );
+            assertEquals( 60 * 60 * 1000,
+                          ForkedMavenExecutor.getTimeout( Arrays.asList( "clean", "deploy" ), releaseEnvironment ) );
+        }
+        finally
+        {
+            System.clearProperty( ForkedMavenExecutor.TIMEOUT_PROPERTY );
+            System.clearProperty( ForkedMavenExecutor.TIMEOUT_PROPERTY + ".deploy" );
+        }
+    }
+
+    /**
+     * Writes a line and hangs.
+     */
+    public static class Sleeper
+    {
+        static final long SLEEP = 60000;
+
+        public static void main( String[] args )
+            throws InterruptedException
+        {
+            System.out.println( "sleeping" );
+            Thread.sleep( SLEEP );
+        }
+    }
+}
@@ -60,4 +60,34 @@ public class TeeOutputStreamTest
 
         assertEquals( "Check toString", "the first line" + LS + "line2" + LS + "3" + LS, stream.toString() );
     }
+
+    public void testConsumeLineInPieces()
+        throws Exception
+    {
+        stream.write( "one\r".getBytes() );
+        stream.write( "\ntwo\rthree\n\nfo".getBytes() );
+        stream.write( 'u' );
+        stream.write( "r\r".getBytes() );
+        stream.write( 'f' );
+
+        assertEquals( "Check output", "xxx one\r\nxxx two\rxxx three\nxxx \nxxx four\rxxx f", out.toString() );
+        assertEquals( "Check content", "one\r\ntwo\rthree\n\nfour\rf", stream.getContent() );
+    }
+
+    public void testTail()
+        throws Exception
+    {
+        ByteArrayOutputStream capture = new ByteArrayOutputStream();
+        stream = new TeeOutputStream( new PrintStream( out ), "xxx ", capture, 2 );
+
+        stream.write( "line1\nline2\nli".getBytes() );
+        stream.write( "ne3\nline4".getBytes() );
+
+        assertEquals( "Check output", "xxx line1\nxxx line2\nxxx line3\nxxx line4", out.toString() );
+        assertEquals( "Check capture", "line1\nline2\nline3\nline4", capture.toString() );
+        assertEquals( "Check tail", "line2\nline3\nline4", stream.toString() );
+
+        stream.write( "\n".getBytes() );
+        assertEquals( "Check tail", "line3\nline4\n", stream.toString() );
+    }
 }
@@ -25,10 +25,13 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.maven.project.MavenProject;
@@ -41,6 +44,7 @@ import org.apache.maven.scm.provider.ScmProviderStub;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
 import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
@@ -48,6 +52,8 @@ import org.apache.maven.shared.release.scm.DefaultScmRepositoryConfigurator;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 /**
  * Base class with tests for rewriting POMs with edit mode.
@@ -76,6 +82,70 @@ public abstract class AbstractEditModeRewritingReleasePhaseTestCase
         assertTrue( comparePomFiles( reactorProjects ) );
     }
 
+    @Test
+    public void testRewritePomDependenciesInParallel()
+        throws Exception
+    {
+        List<MavenProject> reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptorBuilder builder = createDefaultConfiguration( reactorProjects, "internal-snapshot-dependencies" );
+        mapNextVersion( builder, "groupId:subsubproject" );
+        builder.setPomTransformThreads( 4 );
+
+        ReleaseResult result =
+            phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), reactorProjects );
+
+        assertTrue( comparePomFiles( reactorProjects ) );
+
+        // output must be reported in reactor order
+        String output = result.getOutput();
+        int index = -1;
+        for ( MavenProject project : reactorProjects )
+        {
+            int projectIndex = output.indexOf( "Transforming '" + project.getName() + "'..." );
+            assertTrue( "Output of " + project.getName() + " is out of order", projectIndex > index );
+            index = projectIndex;
+        }
+    }
+
+    @Test
+    public void testRewritePomsInParallelWithEditMode()
+        throws Exception
+    {
+        List<MavenProject> reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptorBuilder builder = createDefaultConfiguration( reactorProjects, "internal-snapshot-dependencies" );
+        mapNextVersion( builder, "groupId:subsubproject" );
+        builder.setPomTransformThreads( 4 );
+        builder.setScmUseEditMode( true );
+
+        final List<Thread> editThreads = Collections.synchronizedList( new ArrayList<Thread>() );
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.edit( isA( ScmRepository.class ),
+                                    isA( ScmFileSet.class ) ) ).thenAnswer( new Answer<EditScmResult>()
+        {
+            @Override
+            public EditScmResult answer( InvocationOnMock invocation )
+            {
+                editThreads.add( Thread.currentThread() );
+                return new EditScmResult( "", "", "", true );
+            }
+        } );
+
+        ScmManagerStub scmManager = new ScmManagerStub();
+        DefaultScmRepositoryConfigurator configurator =
+            (DefaultScmRepositoryConfigurator) lookup( ScmRepositoryConfigurator.class, "default" );
+        configurator.setScmManager( scmManager );
+        scmManager.setScmProvider( scmProviderMock );
+
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), reactorProjects );
+
+        assertTrue( comparePomFiles( reactorProjects ) );
+
+        // the provider is only used by the calling thread
+        verify( scmProviderMock, times( reactorProjects.size() ) ).edit( isA( ScmRepository.class ),
+                                                                         isA( ScmFileSet.class ) );
+        assertEquals( Collections.nCopies( reactorProjects.size(), Thread.currentThread() ), editThreads );
+    }
+
     @Test
     public void testRewriteBasicPomWithEditModeFailure()
         throws Exception
@@ -48,6 +48,7 @@ import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 import org.apache.maven.shared.release.stubs.ScmManagerStub;
 import org.apache.maven.shared.release.transform.jdom.JDomModelETLFactory;
+import org.apache.maven.shared.release.transform.stax.StaxModelETLFactory;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -69,7 +70,7 @@ public abstract class AbstractRewritingReleasePhaseTestCase
     @Parameters
     public static Collection<Object[]> data()
     {
-        return Arrays.asList( new Object[][] { { JDomModelETLFactory.ROLE_HINT } } );
+        return Arrays.asList( new Object[][] { { JDomModelETLFactory.ROLE_HINT }, { StaxModelETLFactory.ROLE_HINT } } );
     }
 
     public AbstractRewritingReleasePhaseTestCase( String modelETL )
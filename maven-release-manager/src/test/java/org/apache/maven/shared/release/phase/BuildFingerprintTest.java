@@ -0,0 +1,244 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BuildFingerprintTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File workingDirectory;
+
+    private File checkoutDirectory;
+
+    private List<MavenProject> reactorProjects;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        workingDirectory = folder.newFolder( "working-directory" );
+        checkoutDirectory = folder.newFolder( "checkout" );
+
+        reactorProjects = Arrays.asList( createProject( workingDirectory ),
+                                         createProject( new File( workingDirectory, "module" ) ) );
+        for ( File root : Arrays.asList( workingDirectory, checkoutDirectory ) )
+        {
+            write( new File( root, "pom.xml" ), "<project/>" );
+            write( new File( root, "src/main/java/Main.java" ), "class Main {}" );
+            write( new File( root, "module/pom.xml" ), "<project/>" );
+            write( new File( root, "module/src/main/java/Module.java" ), "class Module {}" );
+        }
+        write( new File( workingDirectory, "target/classes/Main.class" ), "main" );
+        write( new File( workingDirectory, "module/target/classes/Module.class" ), "module" );
+        write( new File( workingDirectory, "module/target/module.jar" ), "jar" );
+    }
+
+    @Test
+    public void testSourceFingerprint()
+        throws IOException
+    {
+        String fingerprint =
+            BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, reactorProjects, null );
+        assertNotNull( fingerprint );
+
+        // neither the outputs nor the files of the SCM are sources
+        new File( checkoutDirectory, ".git" ).mkdir();
+        write( new File( checkoutDirectory, ".git/HEAD" ), "ref: refs/heads/master" );
+        assertEquals( fingerprint, BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                          reactorProjects, null ) );
+
+        write( new File( checkoutDirectory, "module/src/main/java/Module.java" ), "class Module { int i; }" );
+        assertFalse( fingerprint.equals( BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                                reactorProjects, null ) ) );
+    }
+
+    @Test
+    public void testSourceFingerprintArguments()
+        throws IOException
+    {
+        String fingerprint = BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory,
+                                                                    reactorProjects, "-Dfoo=bar -Pa" );
+
+        assertEquals( fingerprint,
+                      BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory, reactorProjects,
+                                                             "-Pa --batch-mode -T 4 -Dfoo=bar -f pom.xml" ) );
+        String performArguments = "-Dfoo=bar -Pa -DperformRelease=true";
+        assertFalse( fingerprint.equals( BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                                reactorProjects, performArguments ) ) );
+    }
+
+    @Test
+    public void testSourceFingerprintActiveProfiles()
+        throws IOException
+    {
+        String fingerprint =
+            BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, reactorProjects, null );
+
+        Profile profile = new Profile();
+        profile.setId( "release" );
+        reactorProjects.get( 1 ).setActiveProfiles( Collections.singletonList( profile ) );
+        assertFalse( fingerprint.equals( BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                                reactorProjects, null ) ) );
+    }
+
+    @Test
+    public void testSourceFingerprintMavenConfiguration()
+        throws IOException
+    {
+        write( new File( workingDirectory, ".mvn/maven.config" ), "-Dfoo=bar" );
+        write( new File( checkoutDirectory, ".mvn/maven.config" ), "-Dfoo=bar" );
+        String fingerprint =
+            BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, reactorProjects, null );
+        assertEquals( fingerprint, BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                          reactorProjects, null ) );
+
+        write( new File( checkoutDirectory, ".mvn/maven.config" ), "-Dfoo=baz" );
+        assertFalse( fingerprint.equals( BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                                reactorProjects, null ) ) );
+    }
+
+    @Test
+    public void testSourceFingerprintResourceRoot()
+        throws IOException
+    {
+        Resource resource = new Resource();
+        resource.setDirectory( new File( workingDirectory, "module/resources" ).getPath() );
+        reactorProjects.get( 1 ).addResource( resource );
+        // a generated root is an output
+        reactorProjects.get( 1 ).addCompileSourceRoot(
+            new File( workingDirectory, "module/target/generated-sources" ).getPath() );
+        write( new File( workingDirectory, "module/resources/module.properties" ), "foo=bar" );
+        write( new File( checkoutDirectory, "module/resources/module.properties" ), "foo=bar" );
+        write( new File( workingDirectory, "module/target/generated-sources/Generated.java" ), "class Generated {}" );
+        String fingerprint =
+            BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, reactorProjects, null );
+        assertEquals( fingerprint, BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                          reactorProjects, null ) );
+
+        write( new File( checkoutDirectory, "module/resources/module.properties" ), "foo=baz" );
+        assertFalse( fingerprint.equals( BuildFingerprint.getSourceFingerprint( checkoutDirectory, workingDirectory,
+                                                                                reactorProjects, null ) ) );
+    }
+
+    @Test
+    public void testSourceFingerprintWithSourceRootOutside()
+        throws IOException
+    {
+        reactorProjects.get( 1 ).addCompileSourceRoot( folder.newFolder( "shared-sources" ).getPath() );
+        assertNull( BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, reactorProjects,
+                                                           null ) );
+    }
+
+    @Test
+    public void testSourceFingerprintWithProjectOutside()
+        throws IOException
+    {
+        List<MavenProject> projects = Arrays.asList( createProject( workingDirectory ),
+                                                     createProject( folder.newFolder( "outside" ) ) );
+        assertNull( BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory, projects, null ) );
+    }
+
+    @Test
+    public void testOutputFingerprint()
+        throws IOException
+    {
+        String fingerprint = BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory );
+        assertNotNull( fingerprint );
+        assertEquals( fingerprint, BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory ) );
+
+        write( new File( workingDirectory, "module/target/module.jar" ), "other jar" );
+        assertFalse( fingerprint.equals( BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory ) ) );
+
+        FileUtils.deleteDirectory( new File( workingDirectory, "target" ) );
+        assertNull( BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkoutDirectory ) );
+    }
+
+    @Test
+    public void testCopyOutputs()
+        throws IOException
+    {
+        BuildFingerprint.copyOutputs( workingDirectory, reactorProjects, checkoutDirectory );
+
+        assertEquals( "main", FileUtils.fileRead( new File( checkoutDirectory, "target/classes/Main.class" ) ) );
+        assertEquals( "jar", FileUtils.fileRead( new File( checkoutDirectory, "module/target/module.jar" ) ) );
+        assertTrue( new File( checkoutDirectory, "module/target/classes/Module.class" ).isFile() );
+    }
+
+    @Test
+    public void testCheckoutInBuildDirectory()
+        throws IOException
+    {
+        File checkout = new File( workingDirectory, "target/checkout" );
+        write( new File( checkout, "pom.xml" ), "<project/>" );
+        write( new File( checkout, "src/main/java/Main.java" ), "class Main {}" );
+
+        String fingerprint = BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkout );
+        write( new File( checkout, "target/classes/Main.class" ), "checkout" );
+        assertEquals( "Check checkout is no output", fingerprint,
+                      BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects, checkout ) );
+
+        BuildFingerprint.copyOutputs( workingDirectory, reactorProjects, checkout );
+
+        assertEquals( "main", FileUtils.fileRead( new File( checkout, "target/classes/Main.class" ) ) );
+        assertEquals( "jar", FileUtils.fileRead( new File( checkout, "module/target/module.jar" ) ) );
+        assertFalse( "Check checkout not copied into itself", new File( checkout, "target/checkout" ).exists() );
+    }
+
+    private static MavenProject createProject( File basedir )
+    {
+        Model model = new Model();
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( new File( basedir, "target" ).getPath() );
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( basedir, "pom.xml" ) );
+        return project;
+    }
+
+    private static void write( File file, String content )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file, content );
+    }
+}
@@ -0,0 +1,96 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.plexus.util.SelectorUtils;
+import org.junit.Test;
+
+public class ExclusionMatcherTest
+{
+    private static final List<String> PATTERNS =
+        Arrays.asList( "**/pom.xml.backup", "**/release.properties", "release.properties", "something.*",
+                       "target/**", "**/target/**/*.class", "src/*/java/A?.java", "/abs/**", "a/**/**/b",
+                       "**", "**/*", "*.txt", "docs/**/index.html", "a/b/", "%regex[.*\\.tmp]",
+                       "%ant[build/**]", "x*y*z", "**/.git/**", "" );
+
+    private static final List<String> PATHS =
+        Arrays.asList( "pom.xml.backup", "module/pom.xml.backup", "a/b/c/pom.xml.backup", "pom.xml",
+                       "release.properties", "module/release.properties", "something.txt", "dir/something.txt",
+                       "target", "target/classes/A.class", "module/target/classes/a/B.class", "module/target/B.java",
+                       "src/main/java/AB.java", "src/main/java/ABC.java", "src/java/AB.java", "/abs/file", "abs/file",
+                       "a/b", "a/x/b", "a/x/y/b", "a/x/y/c", "a//b", "docs/index.html", "docs/x/y/index.html",
+                       "notes.tmp", "dir/notes.tmp", "build/out", "build", "xaybz", "xyz", "xz",
+                       "module/.git/HEAD", "", "/" );
+
+    @Test
+    public void testSameAsSelectorUtils()
+    {
+        for ( String pattern : PATTERNS )
+        {
+            String osPattern = pattern.startsWith( "%regex[" ) ? pattern : toOsPath( pattern );
+            ExclusionMatcher matcher = new ExclusionMatcher( Collections.singleton( osPattern ), File.separator );
+            for ( String path : PATHS )
+            {
+                String osPath = toOsPath( path );
+                assertEquals( pattern + " on " + path, SelectorUtils.matchPath( osPattern, osPath ),
+                              matcher.matches( osPath ) );
+            }
+        }
+    }
+
+    @Test
+    public void testCombinedPatterns()
+    {
+        List<String> osPatterns = new ArrayList<>();
+        for ( String pattern : Arrays.asList( "**/pom.xml.backup", "**/release.properties", "something.*",
+                                              "target/**", "src/*/java/A?.java" ) )
+        {
+            osPatterns.add( toOsPath( pattern ) );
+        }
+        ExclusionMatcher matcher = new ExclusionMatcher( osPatterns, File.separator );
+
+        for ( String path : PATHS )
+        {
+            boolean expected = false;
+            for ( String osPattern : osPatterns )
+            {
+                expected |= SelectorUtils.matchPath( osPattern, toOsPath( path ) );
+            }
+            assertEquals( path, expected, matcher.matches( toOsPath( path ) ) );
+        }
+        assertTrue( matcher.matches( toOsPath( "a/b/release.properties" ) ) );
+        assertFalse( matcher.matches( toOsPath( "a/b/release.properties.txt" ) ) );
+    }
+
+    private static String toOsPath( String path )
+    {
+        return path.replace( "/", File.separator );
+    }
+}
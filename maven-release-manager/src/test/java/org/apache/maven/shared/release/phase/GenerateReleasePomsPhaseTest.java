@@ -21,8 +21,11 @@ package org.apache.maven.shared.release.phase;
 
 import static org.junit.Assert.assertTrue;
 
+import static org.mockito.Matchers.anyChar;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -202,6 +205,9 @@ public class GenerateReleasePomsPhaseTest
 
         ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
         stub.setScmProvider( scmProviderMock );
+        // the repositories of an URL that has been parsed once are made by the provider
+        when( scmProviderMock.makeProviderScmRepository( anyString(), anyChar() ) )
+            .thenReturn( stub.getScmRepository().getProviderRepository() );
 
         return reactorProjects;
     }
@@ -226,6 +232,7 @@ public class GenerateReleasePomsPhaseTest
         ScmFileSet fileSet = new ScmFileSet( rootProject.getFile().getParentFile(), releasePoms );
 
         verify( scmProviderMock ).add( isA( ScmRepository.class ), argThat( new IsScmFileSetEquals( fileSet ) ) );
+        verify( scmProviderMock, atLeast( 0 ) ).makeProviderScmRepository( anyString(), anyChar() );
         verifyNoMoreInteractions( scmProviderMock );
     }
 
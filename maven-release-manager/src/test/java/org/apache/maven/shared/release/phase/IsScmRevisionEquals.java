@@ -0,0 +1,44 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmRevision;
+import org.mockito.ArgumentMatcher;
+
+/**
+ * Mockito constraint to compare revisions since it has no equals method.
+ */
+public class IsScmRevisionEquals extends ArgumentMatcher<ScmRevision>
+{
+    private final ScmRevision revision;
+
+    public IsScmRevisionEquals( ScmRevision revision )
+    {
+        this.revision = revision;
+    }
+
+    @Override
+    public boolean matches( Object argument )
+    {
+        ScmRevision revision = (ScmRevision) argument;
+
+        return revision != null && revision.getName().equals( this.revision.getName() );
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.maven.shared.release.phase;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
@@ -29,12 +30,16 @@ import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
 import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
 import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Test;
 
 /**
@@ -102,6 +107,90 @@ public class RewritePomsForReleasePhaseTest
         assertEquals( "Check the transformed POM", expected, actual );
     }
 
+    @Test
+    public void testRewriteSkipsCompletedProjects()
+        throws Exception
+    {
+        List<MavenProject> reactorProjects = createReactorProjects( "basic-pom" );
+        ReleaseDescriptorBuilder builder = createDescriptorFromBasicPom( reactorProjects, "basic-pom" );
+        builder.addReleaseVersion( "groupId:artifactId", NEXT_VERSION );
+        builder.setCheckpointPhase( getRoleHint() );
+        ReleaseDescriptor descriptor = ReleaseUtils.buildReleaseDescriptor( builder );
+
+        phase.execute( descriptor, new DefaultReleaseEnvironment(), reactorProjects );
+
+        File pomFile = ReleaseUtil.getStandardPom( reactorProjects.get( 0 ) );
+        assertEquals( ReleaseUtil.checksum( pomFile ), descriptor.getProjectCheckpoint( "groupId:artifactId" ) );
+
+        // a resumed run skips the project as long as its POM is unchanged
+        String released = readTestProjectFile( "basic-pom/pom.xml" );
+        builder.addReleaseVersion( "groupId:artifactId", ALTERNATIVE_NEXT_VERSION );
+        phase.execute( descriptor, new DefaultReleaseEnvironment(), reactorProjects );
+        assertEquals( released, readTestProjectFile( "basic-pom/pom.xml" ) );
+
+        FileUtils.fileAppend( pomFile.getPath(), "\n" );
+        phase.execute( descriptor, new DefaultReleaseEnvironment(), reactorProjects );
+        assertTrue( readTestProjectFile( "basic-pom/pom.xml" ).contains( "<version>" + ALTERNATIVE_NEXT_VERSION ) );
+    }
+
+    @Test
+    public void testRewriteWritesCheckpointOfEveryProject()
+        throws Exception
+    {
+        List<MavenProject> reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptorBuilder builder = createDefaultConfiguration( reactorProjects, "internal-snapshot-dependencies" );
+        mapNextVersion( builder, "groupId:subsubproject" );
+        builder.setPomTransformThreads( 4 );
+        builder.setCheckpointPhase( getRoleHint() );
+        final ReleaseDescriptor descriptor = ReleaseUtils.buildReleaseDescriptor( builder );
+
+        // the projects are transformed by other threads, which must see the writer of the phase
+        final AtomicInteger writes = new AtomicInteger();
+        ProjectCheckpoints.Writer previous = ProjectCheckpoints.attach( new ProjectCheckpoints.Writer()
+        {
+            @Override
+            public void write( ReleaseDescriptor releaseDescriptor )
+            {
+                if ( releaseDescriptor == descriptor )
+                {
+                    writes.incrementAndGet();
+                }
+            }
+        } );
+        try
+        {
+            phase.execute( descriptor, new DefaultReleaseEnvironment(), reactorProjects );
+        }
+        finally
+        {
+            ProjectCheckpoints.restore( previous );
+        }
+
+        assertEquals( reactorProjects.size(), writes.get() );
+    }
+
+    @Test
+    public void testRewritePomsInParallelReportsFirstFailure()
+        throws Exception
+    {
+        // none of the projects is mapped, so every one of them fails
+        List<MavenProject> reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptorBuilder builder =
+            createDescriptorFromProjects( reactorProjects, "internal-snapshot-dependencies" );
+        builder.setPomTransformThreads( 4 );
+
+        try
+        {
+            phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), reactorProjects );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertEquals( "Version for '" + reactorProjects.get( 0 ).getName() + "' was not mapped", e.getMessage() );
+        }
+    }
+
     @Test
     public void testRewriteWithDashedComments()
         throws Exception
@@ -20,6 +20,7 @@ package org.apache.maven.shared.release.phase;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
@@ -35,6 +36,8 @@ import java.io.File;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmFile;
@@ -55,6 +58,7 @@ import org.apache.maven.shared.release.env.ReleaseEnvironment;
 import org.apache.maven.shared.release.exec.MavenExecutor;
 import org.apache.maven.shared.release.exec.MavenExecutorException;
 import org.apache.maven.shared.release.stubs.MavenExecutorWrapper;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Test;
 
 /**
@@ -132,6 +136,96 @@ public class RunPerformGoalsPhaseTest
         verifyNoMoreInteractions( mock );
     }
 
+    @Test
+    public void testReuseBuild()
+        throws Exception
+    {
+        // prepare
+        File workingDirectory = getTestFile( "target/reuse-build/working-directory" );
+        File checkoutDirectory = getTestFile( "target/reuse-build/checkout" );
+        FileUtils.deleteDirectory( workingDirectory.getParentFile() );
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>groupId</groupId>"
+            + "<artifactId>artifactId</artifactId><version>1.0</version></project>";
+        for ( File root : new File[] { workingDirectory, checkoutDirectory } )
+        {
+            new File( root, "src" ).mkdirs();
+            FileUtils.fileWrite( new File( root, "pom.xml" ), pom );
+            FileUtils.fileWrite( new File( root, "src/Main.java" ), "class Main {}" );
+        }
+        new File( workingDirectory, "target" ).mkdirs();
+        FileUtils.fileWrite( new File( workingDirectory, "target/artifactId-1.0.jar" ), "jar" );
+
+        Model model = new Model();
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( new File( workingDirectory, "target" ).getPath() );
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( workingDirectory, "pom.xml" ) );
+        List<MavenProject> reactorProjects = Collections.singletonList( project );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setPerformGoals( "deploy" );
+        builder.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        builder.setCheckoutDirectory( checkoutDirectory.getAbsolutePath() );
+        builder.setReuseBuild( true );
+        // the preparation goals have been run with the release profile too
+        builder.setSourceFingerprint( BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory,
+                                                                             reactorProjects,
+                                                                             "-DperformRelease=true" ) );
+        builder.setOutputFingerprint( BuildFingerprint.getOutputFingerprint( workingDirectory, reactorProjects,
+                                                                             checkoutDirectory ) );
+
+        MavenExecutor mock = mock( MavenExecutor.class );
+        mavenExecutorWrapper.setMavenExecutor( mock );
+
+        // execute
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), releaseEnvironment, reactorProjects );
+
+        // verify
+        verify( mock ).executeGoals( eq( checkoutDirectory ),
+                                     eq( "deploy" ),
+                                     isA( ReleaseEnvironment.class ),
+                                     eq( true ),
+                                     eq( "-DperformRelease=true -f pom.xml -DskipTests" ),
+                                     isNull( String.class ),
+                                     isA( ReleaseResult.class ) );
+        verifyNoMoreInteractions( mock );
+        assertTrue( new File( checkoutDirectory, "target/artifactId-1.0.jar" ).isFile() );
+
+        // the sources of the checkout differ
+        FileUtils.fileWrite( new File( checkoutDirectory, "src/Main.java" ), "class Main { int i; }" );
+        mock = mock( MavenExecutor.class );
+        mavenExecutorWrapper.setMavenExecutor( mock );
+
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), releaseEnvironment, reactorProjects );
+
+        verify( mock ).executeGoals( eq( checkoutDirectory ),
+                                     eq( "deploy" ),
+                                     isA( ReleaseEnvironment.class ),
+                                     eq( true ),
+                                     eq( "-DperformRelease=true -f pom.xml" ),
+                                     isNull( String.class ),
+                                     isA( ReleaseResult.class ) );
+        verifyNoMoreInteractions( mock );
+
+        // the preparation goals have been run without the release profile
+        FileUtils.fileWrite( new File( checkoutDirectory, "src/Main.java" ), "class Main {}" );
+        builder.setSourceFingerprint( BuildFingerprint.getSourceFingerprint( workingDirectory, workingDirectory,
+                                                                             reactorProjects, null ) );
+        mock = mock( MavenExecutor.class );
+        mavenExecutorWrapper.setMavenExecutor( mock );
+
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), releaseEnvironment, reactorProjects );
+
+        verify( mock ).executeGoals( eq( checkoutDirectory ),
+                                     eq( "deploy" ),
+                                     isA( ReleaseEnvironment.class ),
+                                     eq( true ),
+                                     eq( "-DperformRelease=true -f pom.xml" ),
+                                     isNull( String.class ),
+                                     isA( ReleaseResult.class ) );
+        verifyNoMoreInteractions( mock );
+    }
+
     @Test
     public void testCustomPomFile() throws Exception
     {
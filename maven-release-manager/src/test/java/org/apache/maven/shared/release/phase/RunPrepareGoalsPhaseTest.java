@@ -20,6 +20,8 @@ package org.apache.maven.shared.release.phase;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -30,6 +32,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.maven.project.MavenProject;
@@ -99,6 +102,93 @@ public class RunPrepareGoalsPhaseTest
         verifyNoMoreInteractions( mock );
     }
 
+    @Test
+    public void testExecuteAdaptiveThreads()
+        throws ReleaseExecutionException, ReleaseFailureException, MavenExecutorException
+    {
+        // prepare
+        File testFile = getTestFile( "target/working-directory" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setPreparationGoals( "clean integration-test" );
+        builder.setWorkingDirectory( testFile.getAbsolutePath() );
+        builder.setAdditionalArguments( "-Dmaven.test.skip=true" );
+        builder.setAdaptiveThreads( true );
+
+        MavenExecutor mock = mock( MavenExecutor.class );
+
+        mavenExecutorWrapper.setMavenExecutor( mock );
+
+        List<MavenProject> reactorProjects = Arrays.asList( new MavenProject(), new MavenProject() );
+
+        // execute
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), releaseEnvironment, reactorProjects );
+
+        // verify
+        String arguments = "-Dmaven.test.skip=true";
+        if ( Runtime.getRuntime().availableProcessors() > 1 )
+        {
+            arguments += " -T 2";
+        }
+        verify( mock ).executeGoals( eq( testFile ), eq( "clean integration-test" ), isA( ReleaseEnvironment.class ),
+                                     eq( true ), eq( arguments ), isNull( String.class ),
+                                     isA( ReleaseResult.class ) );
+        verifyNoMoreInteractions( mock );
+    }
+
+    @Test
+    public void testExecuteAdaptiveThreadsWithThreadCount()
+        throws ReleaseExecutionException, ReleaseFailureException, MavenExecutorException
+    {
+        // prepare
+        File testFile = getTestFile( "target/working-directory" );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setPreparationGoals( "clean integration-test" );
+        builder.setWorkingDirectory( testFile.getAbsolutePath() );
+        builder.setAdditionalArguments( "--threads 1C" );
+        builder.setAdaptiveThreads( true );
+
+        MavenExecutor mock = mock( MavenExecutor.class );
+
+        mavenExecutorWrapper.setMavenExecutor( mock );
+
+        List<MavenProject> reactorProjects = Arrays.asList( new MavenProject(), new MavenProject() );
+
+        // execute
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), releaseEnvironment, reactorProjects );
+
+        // verify
+        verify( mock ).executeGoals( eq( testFile ), eq( "clean integration-test" ), isA( ReleaseEnvironment.class ),
+                                     eq( true ), eq( "--threads 1C" ), isNull( String.class ),
+                                     isA( ReleaseResult.class ) );
+        verifyNoMoreInteractions( mock );
+    }
+
+    @Test
+    public void testHasThreadCount()
+        throws MavenExecutorException
+    {
+        assertFalse( AbstractRunGoalsPhase.hasThreadCount( null ) );
+        assertFalse( AbstractRunGoalsPhase.hasThreadCount( "-DskipTests -t toolchains.xml" ) );
+        assertTrue( AbstractRunGoalsPhase.hasThreadCount( "-DskipTests -T 4" ) );
+        assertTrue( AbstractRunGoalsPhase.hasThreadCount( "-T2C" ) );
+        assertTrue( AbstractRunGoalsPhase.hasThreadCount( "--threads 4" ) );
+        assertTrue( AbstractRunGoalsPhase.hasThreadCount( "--threads=4" ) );
+    }
+
+    @Test
+    public void testThreadCount()
+    {
+        long gigabyte = 1024L * 1024L * 1024L;
+        assertEquals( 8, AbstractRunGoalsPhase.getThreadCount( 8, 32, 64 * gigabyte, gigabyte ) );
+        assertEquals( 32, AbstractRunGoalsPhase.getThreadCount( 100, 32, 64 * gigabyte, gigabyte ) );
+        assertEquals( 4, AbstractRunGoalsPhase.getThreadCount( 100, 32, 4 * gigabyte, gigabyte ) );
+        assertEquals( 32, AbstractRunGoalsPhase.getThreadCount( 100, 32, -1, gigabyte ) );
+        assertEquals( 1, AbstractRunGoalsPhase.getThreadCount( 100, 32, gigabyte / 2, gigabyte ) );
+        assertEquals( 1, AbstractRunGoalsPhase.getThreadCount( 0, 32, 64 * gigabyte, gigabyte ) );
+    }
+
     @Test
     public void testSimulate()
         throws ReleaseExecutionException, MavenExecutorException
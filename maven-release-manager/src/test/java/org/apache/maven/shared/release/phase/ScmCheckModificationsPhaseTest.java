@@ -30,12 +30,16 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
@@ -58,6 +62,9 @@ import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.stubs.ScmManagerStub;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 /**
  * Test the SCM modification check phase.
@@ -393,6 +400,31 @@ public class ScmCheckModificationsPhaseTest
                       phase.simulate( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), null ).getResultCode() );
     }
 
+    @Test
+    public void testAdditionalExcludesNotKeptBetweenRuns()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseDescriptorBuilder();
+        builder.setCheckModificationExcludes( Collections.singletonList( "something.*" ) );
+        setChangedFiles( builder, Collections.singletonList( "something.txt" ) );
+
+        assertEquals( ReleaseResult.SUCCESS,
+                      phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), null ).getResultCode() );
+
+        builder.setCheckModificationExcludes( null );
+        setChangedFiles( builder, Collections.singletonList( "something.txt" ) );
+        try
+        {
+            phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), null );
+
+            fail( "Status check should have failed" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( e.getMessage().contains( "something.txt" ) );
+        }
+    }
+
     // MRELEASE-775
     @Test
     public void testMultipleExclusionPatternMatch()
@@ -411,6 +443,133 @@ public class ScmCheckModificationsPhaseTest
                       phase.simulate( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), null ).getResultCode() );
     }
 
+    @Test
+    public void testScopedToReactorProjects()
+        throws Exception
+    {
+        ReleaseDescriptorBuilder builder = createReleaseDescriptorBuilder();
+        builder.setScopedCheckModifications( true );
+        builder.setCheckModificationRoots( Collections.singletonList( "src/site" ) );
+
+        File workingDirectory = getTestFile( "target/test/checkout" );
+        List<MavenProject> reactorProjects =
+            Arrays.asList( createProject( new File( workingDirectory, "module-a" ) ),
+                           createProject( new File( workingDirectory, "module-a/sub" ) ),
+                           createProject( new File( workingDirectory, "module-b" ) ) );
+
+        final Set<Thread> threads = new HashSet<>();
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.status( isA( ScmRepository.class ),
+                                      isA( ScmFileSet.class ) ) ).thenAnswer( new Answer<StatusScmResult>()
+        {
+            @Override
+            public StatusScmResult answer( InvocationOnMock invocation )
+            {
+                threads.add( Thread.currentThread() );
+                ScmFileSet fileSet = (ScmFileSet) invocation.getArguments()[1];
+                String root = fileSet.getBasedir().getName();
+                List<String> changedFiles = root.equals( "module-b" ) ? Arrays.asList( "pom.xml.backup", "Foo.java" )
+                                : Collections.singletonList( "pom.xml.backup" );
+                return new StatusScmResult( "", createScmFiles( changedFiles ) );
+            }
+        } );
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
+        stub.setScmProvider( scmProviderMock );
+
+        try
+        {
+            phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(),
+                           reactorProjects );
+
+            fail( "Status check should have failed" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "module-b" + File.separator + "Foo.java" ) );
+            assertEquals( e.getMessage(), 1, e.getMessage().split( "\n" ).length - 1 );
+        }
+
+        // the nested project is covered by its parent
+        ArgumentCaptor<ScmFileSet> fileSets = ArgumentCaptor.forClass( ScmFileSet.class );
+        verify( scmProviderMock, times( 3 ) ).status( isA( ScmRepository.class ), fileSets.capture() );
+        Set<String> roots = new HashSet<>();
+        for ( ScmFileSet fileSet : fileSets.getAllValues() )
+        {
+            roots.add( fileSet.getBasedir().getName() );
+        }
+        assertEquals( new HashSet<>( Arrays.asList( "module-a", "module-b", "site" ) ), roots );
+
+        // the provider is not used concurrently
+        assertEquals( Collections.singleton( Thread.currentThread() ), threads );
+    }
+
+    @Test
+    public void testScopedWithRootProject()
+        throws Exception
+    {
+        // other tests add directories to the usual working directory
+        File workingDirectory = getTestFile( "target/test/scoped-root" );
+        ReleaseDescriptorBuilder builder = createReleaseDescriptorBuilder();
+        builder.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        builder.setScopedCheckModifications( true );
+
+        for ( String directory : Arrays.asList( "src", "modules/module-a", "modules/module-b", "module-c", ".git" ) )
+        {
+            new File( workingDirectory, directory ).mkdirs();
+        }
+        MavenProject root = createProject( workingDirectory );
+        root.getModel().setModules( Arrays.asList( "modules/module-a", "modules/module-b/pom.xml", "module-c" ) );
+        List<MavenProject> reactorProjects =
+            Arrays.asList( root, createProject( new File( workingDirectory, "modules/module-a" ) ) );
+
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.status( isA( ScmRepository.class ),
+                                      isA( ScmFileSet.class ) ) ).thenAnswer( new Answer<StatusScmResult>()
+        {
+            @Override
+            public StatusScmResult answer( InvocationOnMock invocation )
+            {
+                // like git, the status of the root project covers the whole working copy
+                ScmFileSet fileSet = (ScmFileSet) invocation.getArguments()[1];
+                List<String> changedFiles = fileSet.getFileList().isEmpty() ? Collections.<String>emptyList()
+                                : Arrays.asList( "pom.xml", "module-c" + File.separator + "Foo.java" );
+                return new StatusScmResult( "", createScmFiles( changedFiles ) );
+            }
+        } );
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
+        stub.setScmProvider( scmProviderMock );
+
+        try
+        {
+            phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(),
+                           reactorProjects );
+
+            fail( "Status check should have failed" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "pom.xml" ) );
+            assertEquals( e.getMessage(), 1, e.getMessage().split( "\n" ).length - 1 );
+        }
+
+        // the modules left out of the reactor are not checked
+        ArgumentCaptor<ScmFileSet> fileSets = ArgumentCaptor.forClass( ScmFileSet.class );
+        verify( scmProviderMock, times( 3 ) ).status( isA( ScmRepository.class ), fileSets.capture() );
+        Set<String> roots = new HashSet<>();
+        for ( ScmFileSet fileSet : fileSets.getAllValues() )
+        {
+            roots.add( fileSet.getBasedir().getName() + fileSet.getFileList() );
+        }
+        assertEquals( new HashSet<>( Arrays.asList( "scoped-root[pom.xml]", "src[]", "module-a[]" ) ), roots );
+    }
+
+    private static MavenProject createProject( File basedir )
+    {
+        MavenProject project = new MavenProject();
+        project.setFile( new File( basedir, "pom.xml" ) );
+        return project;
+    }
+
     private void setChangedFiles( ReleaseDescriptorBuilder builder, List<String> changedFiles )
         throws Exception
     {
@@ -34,6 +34,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -53,6 +54,7 @@ import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
 import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.apache.maven.shared.release.env.DefaultReleaseEnvironment;
@@ -61,6 +63,8 @@ import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.stubs.ScmManagerStub;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 /**
  * Test the release or branch preparation SCM commit phase.
@@ -168,6 +172,56 @@ public class ScmCommitPreparationPhaseTest
         verifyNoMoreInteractions( scmProviderMock );
     }
 
+    @Test
+    public void testCommitByProjectInBatches()
+        throws Exception
+    {
+        // prepare
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        String dir = "scm-commit/multiple-poms";
+        List<MavenProject> reactorProjects = createReactorProjects( dir, dir, null );
+        builder.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        builder.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        builder.setScmReleaseLabel( "release-label" );
+        builder.setCommitByProject( true );
+        builder.setCommitByProjectBatchSize( 2 );
+        builder.setRemoteTagging( true );
+
+        final List<Boolean> pushes = new ArrayList<>();
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.checkIn( isA( ScmRepository.class ), isA( ScmFileSet.class ), isNull( ScmVersion.class ),
+                                       eq( PREFIX + "release-label" ) ) ).thenAnswer( new Answer<CheckInScmResult>()
+        {
+            @Override
+            public CheckInScmResult answer( InvocationOnMock invocation )
+            {
+                ScmRepository repository = (ScmRepository) invocation.getArguments()[0];
+                pushes.add( repository.getProviderRepository().isPushChanges() );
+                return new CheckInScmResult( "...", Collections.<ScmFile>emptyList(),
+                                             String.valueOf( pushes.size() ) );
+            }
+        } );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
+        stub.setScmProvider( scmProviderMock );
+
+        // execute
+        ReleaseDescriptor releaseDescriptor = ReleaseUtils.buildReleaseDescriptor( builder );
+        phase.execute( releaseDescriptor, new DefaultReleaseEnvironment(), reactorProjects );
+
+        // verify
+        for ( MavenProject project : reactorProjects )
+        {
+            ScmFileSet fileSet = new ScmFileSet( project.getFile().getParentFile(), project.getFile() );
+            verify( scmProviderMock ).checkIn( isA( ScmRepository.class ), argThat( new IsScmFileSetEquals( fileSet ) ),
+                                               isNull( ScmVersion.class ), eq( PREFIX + "release-label" ) );
+        }
+        verifyNoMoreInteractions( scmProviderMock );
+        assertEquals( Arrays.asList( false, true, true ), pushes );
+        assertEquals( "3", releaseDescriptor.getScmReleasedPomRevision() );
+    }
+
     @Test
     public void testCommitDevelopment()
         throws Exception
@@ -27,6 +27,7 @@ import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -43,12 +44,15 @@ import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmRevision;
 import org.apache.maven.scm.ScmTagParameters;
+import org.apache.maven.scm.command.list.ListScmResult;
 import org.apache.maven.scm.command.tag.TagScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderStub;
+import org.apache.maven.scm.provider.git.repository.GitScmProviderRepository;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
@@ -128,6 +132,87 @@ public class ScmTagPhaseTest
         verifyNoMoreInteractions( scmProviderMock );
     }
 
+    @Test
+    public void testWaitUntilReleasedRevisionIsVisible()
+        throws Exception
+    {
+        // prepare
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        List<MavenProject> reactorProjects = createReactorProjects();
+        builder.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        builder.setWorkingDirectory( getPath( rootProject.getFile().getParentFile() ) );
+        builder.setPomFileName( rootProject.getFile().getName() );
+        builder.setScmReleaseLabel( "release-label" );
+        builder.setScmReleasedPomRevision( "42" );
+        builder.setWaitBeforeTagging( 30 );
+
+        ScmFileSet pomFileSet =
+            new ScmFileSet( rootProject.getFile().getParentFile(), new File( rootProject.getFile().getName() ) );
+
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.list( isA( ScmRepository.class ), argThat( new IsScmFileSetEquals( pomFileSet ) ),
+                                    eq( false ), argThat( new IsScmRevisionEquals( new ScmRevision( "42" ) ) ) ) )
+            .thenReturn( new ListScmResult( "...", "not visible yet", "", false ) )
+            .thenReturn( new ListScmResult( "...", "not visible yet", "", false ) )
+            .thenReturn( new ListScmResult( "...", Collections.<ScmFile>emptyList() ) );
+        when( scmProviderMock.tag( isA( ScmRepository.class ), isA( ScmFileSet.class ), eq( "release-label" ),
+                                   isA( ScmTagParameters.class ) ) )
+            .thenReturn( new TagScmResult( "...", Collections.<ScmFile>emptyList() ) );
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
+        stub.setScmProvider( scmProviderMock );
+        stub.addScmRepositoryForUrl( "scm-url", new ScmRepository( "svn", new SvnScmProviderRepository(
+            "http://svn.example.com/repos/project/trunk" ) ) );
+
+        // execute
+        long start = System.currentTimeMillis();
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), reactorProjects );
+
+        // verify
+        assertTrue( "Tagging should not wait for the whole time", System.currentTimeMillis() - start < 10000 );
+        verify( scmProviderMock, times( 3 ) ).list( isA( ScmRepository.class ),
+                                                    argThat( new IsScmFileSetEquals( pomFileSet ) ), eq( false ),
+                                                    argThat( new IsScmRevisionEquals( new ScmRevision( "42" ) ) ) );
+        verify( scmProviderMock ).tag( isA( ScmRepository.class ), isA( ScmFileSet.class ), eq( "release-label" ),
+                                       isA( ScmTagParameters.class ) );
+        verifyNoMoreInteractions( scmProviderMock );
+    }
+
+    @Test
+    public void testFixedWaitWhenRevisionIsLookedUpLocally()
+        throws Exception
+    {
+        // prepare
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        List<MavenProject> reactorProjects = createReactorProjects();
+        builder.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        builder.setWorkingDirectory( getPath( rootProject.getFile().getParentFile() ) );
+        builder.setPomFileName( rootProject.getFile().getName() );
+        builder.setScmReleaseLabel( "release-label" );
+        builder.setScmReleasedPomRevision( "42" );
+        builder.setWaitBeforeTagging( 1 );
+
+        ScmProvider scmProviderMock = mock( ScmProvider.class );
+        when( scmProviderMock.tag( isA( ScmRepository.class ), isA( ScmFileSet.class ), eq( "release-label" ),
+                                   isA( ScmTagParameters.class ) ) )
+            .thenReturn( new TagScmResult( "...", Collections.<ScmFile>emptyList() ) );
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.class );
+        stub.setScmProvider( scmProviderMock );
+        stub.addScmRepositoryForUrl( "scm-url", new ScmRepository( "git", new GitScmProviderRepository(
+            "https://git.example.com/project.git" ) ) );
+
+        // execute
+        long start = System.currentTimeMillis();
+        phase.execute( ReleaseUtils.buildReleaseDescriptor( builder ), new DefaultReleaseEnvironment(), reactorProjects );
+
+        // verify: the local clone always knows the revision, so it is not looked up
+        assertTrue( "Tagging should wait for the whole time", System.currentTimeMillis() - start >= 900 );
+        verify( scmProviderMock ).tag( isA( ScmRepository.class ), isA( ScmFileSet.class ), eq( "release-label" ),
+                                       isA( ScmTagParameters.class ) );
+        verifyNoMoreInteractions( scmProviderMock );
+    }
+
     @Test
     public void testCommitMultiModuleDeepFolders()
         throws Exception
@@ -19,7 +19,13 @@ package org.apache.maven.shared.release.scm;
  * under the License.
  */
 
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderRepositoryWithHost;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
@@ -27,6 +33,7 @@ import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
 import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.codehaus.plexus.PlexusTestCase;
@@ -204,6 +211,46 @@ public class DefaultScmRepositoryConfiguratorTest
         assertEquals( "Check SCM provider", "cvs", provider.getScmType() );
     }
 
+    public void testGetConfiguredRepositoryIsNotShared()
+        throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        Settings settings = new Settings();
+        ReleaseDescriptor releaseDescriptor = ReleaseUtils.buildReleaseDescriptor( createReleaseDescriptorBuilder() );
+
+        ScmRepository repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+        repository.getProviderRepository().setPushChanges( false );
+
+        ScmRepository other = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+        assertNotSame( repository, other );
+        assertTrue( "Check push changes", other.getProviderRepository().isPushChanges() );
+    }
+
+    public void testGetConfiguredRepositoryParsesUrlOnce()
+        throws Exception
+    {
+        ScmManager scmManager = spy( (ScmManager) lookup( ScmManager.class ) );
+        ( (DefaultScmRepositoryConfigurator) scmRepositoryConfigurator ).setScmManager( scmManager );
+        Settings settings = new Settings();
+        ReleaseDescriptor releaseDescriptor =
+            ReleaseUtils.buildReleaseDescriptor( createReleaseDescriptorBuilder( "username", "password" ) );
+
+        ScmRepository repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+        ScmRepository other = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+
+        assertNotSame( repository.getProviderRepository(), other.getProviderRepository() );
+        assertEquals( "check provider", "cvs", other.getProvider() );
+        assertEquals( "check host", "localhost",
+                      ( (ScmProviderRepositoryWithHost) other.getProviderRepository() ).getHost() );
+        assertEquals( "check username", "username", other.getProviderRepository().getUser() );
+        assertEquals( "check password", "password", other.getProviderRepository().getPassword() );
+        verify( scmManager ).makeScmRepository( anyString() );
+
+        // the end of the release drops the cache
+        scmRepositoryConfigurator.clearCache();
+        scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+        verify( scmManager, times( 2 ) ).makeScmRepository( anyString() );
+    }
+
     private static ReleaseDescriptorBuilder createReleaseDescriptorBuilder()
     {
         ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
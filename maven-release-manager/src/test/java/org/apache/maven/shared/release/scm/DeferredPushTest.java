@@ -0,0 +1,271 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.scm.provider.git.repository.GitScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
+import org.apache.maven.shared.release.config.ReleaseUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeferredPushTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File remote;
+
+    private File workingCopy;
+
+    private ScmRepository repository;
+
+    private ReleaseDescriptor releaseDescriptor;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        Assume.assumeTrue( isGitAvailable() );
+
+        remote = folder.newFolder( "remote" );
+        git( remote, "init", "--bare" );
+        workingCopy = folder.newFolder( "working-copy" );
+        git( workingCopy, "init" );
+        git( workingCopy, "config", "user.name", "Test" );
+        git( workingCopy, "config", "user.email", "test@example.org" );
+        commit( "1.0-SNAPSHOT" );
+        String url = "file://" + remote.getAbsolutePath();
+        git( workingCopy, "push", url, "HEAD" );
+
+        repository = new ScmRepository( "git", new GitScmProviderRepository( url ) );
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setScmSourceUrl( "scm:git:" + url );
+        builder.setScmReleaseLabel( "release-1.0" );
+        builder.setDeferPush( true );
+        releaseDescriptor = ReleaseUtils.buildReleaseDescriptor( builder );
+    }
+
+    @Test
+    public void testPush()
+        throws Exception
+    {
+        assertTrue( DeferredPush.isDeferred( releaseDescriptor, repository ) );
+
+        DeferredPush.begin( releaseDescriptor, workingCopy );
+        String base = releaseDescriptor.getDeferredPushBase();
+        commit( "1.0" );
+        git( workingCopy, "tag", "-a", "-m", "release", "release-1.0" );
+        DeferredPush.begin( releaseDescriptor, workingCopy );
+        assertEquals( base, releaseDescriptor.getDeferredPushBase() );
+        commit( "1.1-SNAPSHOT" );
+
+        // nothing has been pushed yet
+        assertEquals( base, git( remote, "rev-parse", "HEAD" ) );
+
+        DeferredPush.push( releaseDescriptor, repository, workingCopy );
+
+        assertNull( releaseDescriptor.getDeferredPushBase() );
+        assertEquals( git( workingCopy, "rev-parse", "HEAD" ), git( remote, "rev-parse", "HEAD" ) );
+        assertEquals( git( workingCopy, "rev-parse", "release-1.0" ), git( remote, "rev-parse", "release-1.0" ) );
+    }
+
+    @Test
+    public void testRollbackWhenPushFails()
+        throws Exception
+    {
+        DeferredPush.begin( releaseDescriptor, workingCopy );
+        String base = releaseDescriptor.getDeferredPushBase();
+        commit( "1.0" );
+        git( workingCopy, "tag", "-a", "-m", "release", "release-1.0" );
+        commit( "1.1-SNAPSHOT" );
+        String remoteHead = pushOther();
+
+        try
+        {
+            DeferredPush.push( releaseDescriptor, repository, workingCopy );
+            fail( "The push should have been rejected" );
+        }
+        catch ( ReleaseScmCommandException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "have been removed" ) );
+        }
+
+        assertEquals( remoteHead, git( remote, "rev-parse", "HEAD" ) );
+        assertEquals( "", git( remote, "tag", "--list" ) );
+        assertEquals( base, git( workingCopy, "rev-parse", "HEAD" ) );
+        assertEquals( "", git( workingCopy, "tag", "--list" ) );
+        assertEquals( "1.0-SNAPSHOT", read( "pom.xml" ) );
+    }
+
+    @Test
+    public void testRollbackKeepsUncommittedChanges()
+        throws Exception
+    {
+        write( "notes.txt", "notes" );
+        git( workingCopy, "add", "notes.txt" );
+        git( workingCopy, "commit", "-m", "notes" );
+
+        DeferredPush.begin( releaseDescriptor, workingCopy );
+        String base = releaseDescriptor.getDeferredPushBase();
+        commit( "1.0" );
+        commit( "1.1-SNAPSHOT" );
+        write( "notes.txt", "uncommitted notes" );
+        pushOther();
+
+        try
+        {
+            DeferredPush.push( releaseDescriptor, repository, workingCopy );
+            fail( "The push should have been rejected" );
+        }
+        catch ( ReleaseScmCommandException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "have been removed" ) );
+        }
+
+        assertEquals( base, git( workingCopy, "rev-parse", "HEAD" ) );
+        assertEquals( "1.0-SNAPSHOT", read( "pom.xml" ) );
+        assertEquals( "uncommitted notes", read( "notes.txt" ) );
+    }
+
+    @Test
+    public void testRollbackRefusedToLoseUncommittedChanges()
+        throws Exception
+    {
+        DeferredPush.begin( releaseDescriptor, workingCopy );
+        String base = releaseDescriptor.getDeferredPushBase();
+        commit( "1.0" );
+        commit( "1.1-SNAPSHOT" );
+        write( "pom.xml", "1.1-SNAPSHOT edited" );
+        String head = git( workingCopy, "rev-parse", "HEAD" );
+        pushOther();
+
+        try
+        {
+            DeferredPush.push( releaseDescriptor, repository, workingCopy );
+            fail( "The push should have been rejected" );
+        }
+        catch ( ReleaseScmCommandException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "without losing uncommitted changes" ) );
+            assertTrue( e.getMessage(), e.getMessage().contains( "reset the working copy to " + base ) );
+        }
+
+        assertEquals( base, releaseDescriptor.getDeferredPushBase() );
+        assertEquals( head, git( workingCopy, "rev-parse", "HEAD" ) );
+        assertEquals( "1.1-SNAPSHOT edited", read( "pom.xml" ) );
+    }
+
+    @Test
+    public void testNotDeferred()
+    {
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setDeferPush( true );
+        builder.setPushChanges( false );
+        assertFalse( DeferredPush.isDeferred( ReleaseUtils.buildReleaseDescriptor( builder ), repository ) );
+    }
+
+    private boolean isGitAvailable()
+    {
+        try
+        {
+            return git( folder.getRoot(), "--version" ).startsWith( "git version" );
+        }
+        catch ( IOException | InterruptedException e )
+        {
+            return false;
+        }
+    }
+
+    private void commit( String version )
+        throws Exception
+    {
+        write( "pom.xml", version );
+        git( workingCopy, "add", "pom.xml" );
+        git( workingCopy, "commit", "-m", version );
+    }
+
+    private void write( String file, String content )
+        throws IOException
+    {
+        Files.write( new File( workingCopy, file ).toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private String read( String file )
+        throws IOException
+    {
+        return new String( Files.readAllBytes( new File( workingCopy, file ).toPath() ), StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Pushes a commit from another clone, so that the push of the release is rejected.
+     *
+     * @return the new head of the remote repository
+     */
+    private String pushOther()
+        throws Exception
+    {
+        File other = folder.newFolder( "other" );
+        git( other, "clone", remote.getAbsolutePath(), "." );
+        git( other, "config", "user.name", "Other" );
+        git( other, "config", "user.email", "other@example.org" );
+        Files.write( new File( other, "other.txt" ).toPath(), "other".getBytes( StandardCharsets.UTF_8 ) );
+        git( other, "add", "other.txt" );
+        git( other, "commit", "-m", "other" );
+        git( other, "push", "origin", "HEAD" );
+        return git( remote, "rev-parse", "HEAD" );
+    }
+
+    private static String git( File directory, String... args )
+        throws IOException, InterruptedException
+    {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy( args, 0, command, 1, args.length );
+        Process process = new ProcessBuilder( command ).directory( directory ).redirectErrorStream( true ).start();
+        try ( InputStream in = process.getInputStream() )
+        {
+            String output = IOUtil.toString( in, "UTF-8" ).trim();
+            if ( process.waitFor() != 0 && !"rev-parse".equals( args[0] ) )
+            {
+                throw new IOException( "git " + args[0] + " failed: " + output );
+            }
+            return output;
+        }
+    }
+}
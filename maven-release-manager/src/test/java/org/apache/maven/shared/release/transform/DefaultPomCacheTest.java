@@ -0,0 +1,164 @@
+package org.apache.maven.shared.release.transform;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
+import org.apache.maven.shared.release.config.ReleaseUtils;
+import org.apache.maven.shared.release.transform.jdom.JDomModelETLFactory;
+import org.apache.maven.shared.release.transform.stax.StaxModelETLFactory;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DefaultPomCacheTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PomCache pomCache = new DefaultPomCache();
+
+    @Test
+    public void testGet() throws Exception
+    {
+        File pomFile = folder.newFile( "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project/>" );
+
+        assertNull( pomCache.get( pomFile, String.class ) );
+
+        pomCache.put( pomFile, "document" );
+        assertSame( "document", pomCache.get( pomFile, String.class ) );
+        assertSame( "document", pomCache.get( new File( pomFile.getPath() ), String.class ) );
+        assertNull( pomCache.get( pomFile, Integer.class ) );
+
+        pomCache.invalidate( pomFile );
+        assertNull( pomCache.get( pomFile, String.class ) );
+
+        pomCache.put( pomFile, "document" );
+        pomCache.clear();
+        assertNull( pomCache.get( pomFile, String.class ) );
+    }
+
+    @Test
+    public void testChangedFile() throws Exception
+    {
+        File pomFile = folder.newFile( "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project/>" );
+
+        pomCache.put( pomFile, "document" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project></project>" );
+
+        assertNull( pomCache.get( pomFile, String.class ) );
+    }
+
+    @Test
+    public void testChangedFileWithSameTimeAndLength() throws Exception
+    {
+        File pomFile = folder.newFile( "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project><version>1.0.1</version></project>" );
+
+        pomCache.put( pomFile, "document" );
+        long lastModified = pomFile.lastModified();
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project><version>1.0.2</version></project>" );
+        assertTrue( pomFile.setLastModified( lastModified ) );
+
+        assertNull( pomCache.get( pomFile, String.class ) );
+    }
+
+    @Test
+    public void testDeletedFile() throws Exception
+    {
+        File pomFile = folder.newFile( "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project/>" );
+
+        pomCache.put( pomFile, "document" );
+        assertTrue( pomFile.delete() );
+
+        assertNull( pomCache.get( pomFile, String.class ) );
+    }
+
+    @Test
+    public void testJDomModelETLReuse() throws Exception
+    {
+        testModelETLReuse( new JDomModelETLFactory() );
+    }
+
+    @Test
+    public void testStaxModelETLReuse() throws Exception
+    {
+        testModelETLReuse( new StaxModelETLFactory() );
+    }
+
+    private void testModelETLReuse( ModelETLFactory factory ) throws Exception
+    {
+        File pomFile = folder.newFile( "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", "<project>\n  <version>1.0-SNAPSHOT</version>\n</project>\n" );
+        File tagFile = new File( folder.getRoot(), "pom.xml.tag" );
+        File nextFile = new File( folder.getRoot(), "pom.xml.next" );
+
+        ModelETL etl = newModelETL( factory );
+        etl.extract( pomFile );
+        etl.getModel().setVersion( "1.0" );
+        etl.load( pomFile );
+        assertEquals( "1.0", readVersion( pomFile ) );
+        Object document = pomCache.get( pomFile, Object.class );
+        assertNotNull( document );
+
+        // the next phase must reuse the written document
+        etl = newModelETL( factory );
+        etl.extract( pomFile );
+        assertSame( document, pomCache.get( pomFile, Object.class ) );
+        etl.getModel().setVersion( "1.1-SNAPSHOT" );
+        etl.load( nextFile );
+        assertEquals( "1.1-SNAPSHOT", readVersion( nextFile ) );
+
+        // the cached document is not affected by the previous transformation
+        etl = newModelETL( factory );
+        etl.extract( pomFile );
+        etl.load( tagFile );
+        assertEquals( "1.0", readVersion( tagFile ) );
+    }
+
+    private ModelETL newModelETL( ModelETLFactory factory )
+    {
+        ModelETLRequest request = new ModelETLRequest();
+        request.setLineSeparator( "\n" );
+        request.setProject( new MavenProject() );
+        request.setReleaseDescriptor( ReleaseUtils.buildReleaseDescriptor( new ReleaseDescriptorBuilder() ) );
+        request.setPomCache( pomCache );
+
+        return factory.newInstance( request );
+    }
+
+    private String readVersion( File file ) throws Exception
+    {
+        String content = FileUtils.fileRead( file, "UTF-8" );
+        return content.substring( content.indexOf( "<version>" ) + 9, content.indexOf( "</version>" ) );
+    }
+}
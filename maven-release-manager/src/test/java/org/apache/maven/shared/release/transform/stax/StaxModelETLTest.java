@@ -0,0 +1,250 @@
+package org.apache.maven.shared.release.transform.stax;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Scm;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.config.ReleaseDescriptorBuilder;
+import org.apache.maven.shared.release.config.ReleaseUtils;
+import org.apache.maven.shared.release.transform.DefaultPomCache;
+import org.apache.maven.shared.release.transform.ModelETLRequest;
+import org.apache.maven.shared.release.transform.PomCache;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StaxModelETLTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLoadUnchanged() throws Exception
+    {
+        String content = "<?xml version=\"1.0\"?>\n<!DOCTYPE project [ <!ENTITY v \"1.0\"> ]>\n"
+            + "<!-- prolog -->\n<project  b='2'\n   a=\"1\" >\n  <version>&v;</version>\n"
+            + "  <name>caf&#xE9; &amp; co</name>\n  <empty/>\n</project>\n<!-- epilog -->\n";
+
+        assertEquals( content, transform( content, new ReleaseDescriptorBuilder() ) );
+    }
+
+    @Test
+    public void testRewriteVersionKeepsFormatting() throws Exception
+    {
+        String content = "<project>\n  <version>\n    <!-- keep -->\n    1.0-SNAPSHOT  </version>\n"
+            + "  <name>x &lt; y</name>\n</project>\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        etl.getModel().setVersion( "1.0" );
+
+        assertEquals( content.replace( "1.0-SNAPSHOT", "1.0" ), load( etl ) );
+    }
+
+    @Test
+    public void testRewriteCDataValue() throws Exception
+    {
+        String content = "<project>\n  <version><![CDATA[1.0]]>-SNAPSHOT</version>\n</project>\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        etl.getModel().setVersion( "1.0" );
+
+        assertEquals( "<project>\n  <version><![CDATA[1.0]]></version>\n</project>\n", load( etl ) );
+    }
+
+    @Test
+    public void testSetVersionAfterArtifactId() throws Exception
+    {
+        String content = "<project>\n\t<parent>\n\t\t<version>1</version>\n\t</parent>\n"
+            + "\t<artifactId>a</artifactId>\n</project>\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        Model model = etl.getModel();
+        model.getParent().setVersion( "2" );
+        model.setVersion( "3" );
+
+        assertEquals( "<project>\n\t<parent>\n\t\t<version>2</version>\n\t</parent>\n"
+            + "\t<artifactId>a</artifactId>\n\t<version>3</version>\n</project>\n", load( etl ) );
+    }
+
+    @Test
+    public void testSetScm() throws Exception
+    {
+        String content = "<project>\n    <artifactId>a</artifactId>\n    <scm>\n"
+            + "        <connection>scm:svn:trunk</connection>\n        <url>trunk</url>\n    </scm>\n</project>\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        Model model = etl.getModel();
+        Scm scm = model.getScm();
+        scm.setConnection( "scm:svn:tags/a-1" );
+        scm.setTag( "a-1" );
+        scm.setUrl( null );
+
+        assertEquals( "<project>\n    <artifactId>a</artifactId>\n    <scm>\n"
+            + "        <connection>scm:svn:tags/a-1</connection>\n        <tag>a-1</tag>\n    </scm>\n"
+            + "</project>\n", load( etl ) );
+
+        etl = extract( content, new ReleaseDescriptorBuilder() );
+        model = etl.getModel();
+        model.setScm( null );
+        assertNull( model.getScm() );
+
+        Scm newScm = new Scm();
+        newScm.setConnection( "scm:svn:tags/a-1" );
+        newScm.setTag( "a-1" );
+        newScm.setUrl( "tags/a-1" );
+        model.setScm( newScm );
+
+        assertEquals( "<project>\n    <artifactId>a</artifactId>\n    <scm>\n"
+            + "        <connection>scm:svn:tags/a-1</connection>\n        <tag>a-1</tag>\n"
+            + "        <url>tags/a-1</url>\n    </scm>\n</project>\n", load( etl ) );
+    }
+
+    @Test
+    public void testRewriteProperty() throws Exception
+    {
+        String content = "<project>\n  <properties>\n    <v>1.0-SNAPSHOT</v>\n  </properties>\n</project>\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        Model model = etl.getModel();
+        assertEquals( "1.0-SNAPSHOT", model.getProperties().getProperty( "v" ) );
+
+        model.getProperties().setProperty( "v", "1.0" );
+        assertEquals( "1.0", model.getProperties().getProperty( "v" ) );
+
+        assertEquals( content.replace( "1.0-SNAPSHOT", "1.0" ), load( etl ) );
+    }
+
+    @Test
+    public void testAddSchema() throws Exception
+    {
+        String content = "<project>\n  <modelVersion>4.0.0</modelVersion>\n</project>\n";
+
+        ReleaseDescriptorBuilder builder = new ReleaseDescriptorBuilder();
+        builder.setAddSchema( true );
+
+        assertEquals( "<project xmlns=\"http://maven.apache.org/POM/4.0.0\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0"
+            + " http://maven.apache.org/maven-v4_0_0.xsd\">\n  <modelVersion>4.0.0</modelVersion>\n</project>\n",
+                      transform( content, builder ) );
+    }
+
+    @Test
+    public void testKeepLineSeparators() throws Exception
+    {
+        String content = "<project>\r\n\t<parent>\r\n\t\t<version>1</version>\r\n\t</parent>\r\n"
+            + "\t<artifactId>a</artifactId>\r\n</project>\r\n";
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder() );
+        Model model = etl.getModel();
+        model.getParent().setVersion( "2" );
+        model.setVersion( "3" );
+
+        assertEquals( "<project>\r\n\t<parent>\r\n\t\t<version>2</version>\r\n\t</parent>\r\n"
+            + "\t<artifactId>a</artifactId>\r\n\t<version>3</version>\r\n</project>\r\n", load( etl ) );
+    }
+
+    @Test
+    public void testRewriteCachedDocument() throws Exception
+    {
+        String content = "<project>\n  <version>1.0-SNAPSHOT</version>\n  <properties>\n    <v>1.0-SNAPSHOT</v>\n"
+            + "  </properties>\n  <scm>\n    <tag>HEAD</tag>\n    <url>trunk</url>\n  </scm>\n</project>\n";
+        PomCache pomCache = new DefaultPomCache();
+        File pomFile = new File( folder.getRoot(), "pom.xml" );
+
+        StaxModelETL etl = extract( content, new ReleaseDescriptorBuilder(), pomCache );
+        Model model = etl.getModel();
+        model.setVersion( "1.0" );
+        model.getProperties().setProperty( "v", "1.0" );
+        model.getScm().setTag( "a-1.0" );
+        model.getScm().setUrl( null );
+        String released = "<project>\n  <version>1.0</version>\n  <properties>\n    <v>1.0</v>\n"
+            + "  </properties>\n  <scm>\n    <tag>a-1.0</tag>\n  </scm>\n</project>\n";
+        assertEquals( released, load( etl ) );
+        assertNotNull( pomCache.get( pomFile, StaxDocument.class ) );
+
+        // the offsets of the cached document have been shifted by the edits
+        etl = new StaxModelETLFactory().newInstance( newRequest( new ReleaseDescriptorBuilder(), pomCache ) );
+        etl.extract( pomFile );
+        model = etl.getModel();
+        assertEquals( "1.0", model.getProperties().getProperty( "v" ) );
+        model.setVersion( "1.1-SNAPSHOT" );
+        model.getProperties().setProperty( "v", "1.1-SNAPSHOT" );
+        model.getScm().setTag( "HEAD" );
+        assertEquals( "<project>\n  <version>1.1-SNAPSHOT</version>\n  <properties>\n    <v>1.1-SNAPSHOT</v>\n"
+            + "  </properties>\n  <scm>\n    <tag>HEAD</tag>\n  </scm>\n</project>\n", load( etl ) );
+
+        // added elements are not indexed
+        etl = new StaxModelETLFactory().newInstance( newRequest( new ReleaseDescriptorBuilder(), pomCache ) );
+        etl.extract( pomFile );
+        etl.getModel().getScm().setUrl( "trunk" );
+        load( etl );
+        assertNull( pomCache.get( pomFile, StaxDocument.class ) );
+    }
+
+    private String transform( String content, ReleaseDescriptorBuilder builder ) throws Exception
+    {
+        return load( extract( content, builder ) );
+    }
+
+    private StaxModelETL extract( String content, ReleaseDescriptorBuilder builder ) throws Exception
+    {
+        return extract( content, builder, null );
+    }
+
+    private StaxModelETL extract( String content, ReleaseDescriptorBuilder builder, PomCache pomCache )
+        throws Exception
+    {
+        File pomFile = new File( folder.getRoot(), "pom.xml" );
+        FileUtils.fileWrite( pomFile, "UTF-8", content );
+
+        StaxModelETL etl = new StaxModelETLFactory().newInstance( newRequest( builder, pomCache ) );
+        etl.extract( pomFile );
+        return etl;
+    }
+
+    private ModelETLRequest newRequest( ReleaseDescriptorBuilder builder, PomCache pomCache )
+    {
+        MavenProject project = new MavenProject();
+        project.setModelVersion( "4.0.0" );
+
+        ModelETLRequest request = new ModelETLRequest();
+        request.setLineSeparator( "\n" );
+        request.setProject( project );
+        request.setReleaseDescriptor( ReleaseUtils.buildReleaseDescriptor( builder ) );
+        request.setPomCache( pomCache );
+        return request;
+    }
+
+    private String load( StaxModelETL etl ) throws Exception
+    {
+        File pomFile = new File( folder.getRoot(), "pom.xml" );
+        etl.load( pomFile );
+        return FileUtils.fileRead( pomFile, "UTF-8" );
+    }
+}
@@ -111,13 +111,40 @@ public abstract class AbstractReleaseMojo
     private File localRepoDirectory;
 
     /**
-     * Role hint of the {@link org.apache.maven.shared.release.exec.MavenExecutor} implementation to use.
+     * Role hint of the {@link org.apache.maven.shared.release.exec.MavenExecutor} implementation to use:
+     * <code>invoker</code> and <code>forked-path</code> start a new Maven, <code>embedded</code> (since 3.0.0)
+     * executes the goals inside the running Maven, <code>pooled</code> (since 3.0.0) in long-lived Maven workers.
+     * The <code>embedded</code> executions share the core, the core extensions and the loaded plugins of the running
+     * Maven; they fall back to the <code>invoker</code> when another Maven or Java home is configured or when the
+     * project configures Maven in <code>.mvn</code>.
      *
      * @since 2.0-beta-8
      */
     @Parameter( defaultValue = "invoker", property = "mavenExecutorId" )
     private String mavenExecutorId;
 
+    /**
+     * The time in minutes an execution of goals may take, <code>0</code> for no limit. When it is exceeded, the
+     * forked Maven is asked for a thread dump and ended. A limit for the executions running a goal can be set with
+     * the system property <code>maven.release.timeout</code> followed by a dot and the goal, like
+     * <code>maven.release.timeout.deploy</code>. Applies to the <code>invoker</code> and <code>forked-path</code>
+     * executors.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "0", property = "maven.release.timeout" )
+    private int timeout;
+
+    /**
+     * The time in seconds an execution of goals may run without writing any output, <code>0</code> for no limit.
+     * When it is exceeded, the forked Maven is asked for a thread dump and ended. Applies to the <code>invoker</code>
+     * and <code>forked-path</code> executors.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "0", property = "maven.release.inactivityTimeout" )
+    private int inactivityTimeout;
+
     /**
      * @since 2.0
      */
@@ -133,6 +160,50 @@ public abstract class AbstractReleaseMojo
      */
     @Parameter( defaultValue = "default", property = "releaseStrategyId" )
     private String releaseStrategyId;
+
+    /**
+     * Whether to write the timings and counters of the executed phases to <code>release-metrics.json</code>.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "metricsReport" )
+    private boolean metricsReport;
+
+    /**
+     * Whether to run the goals of the release with a number of threads (<code>-T</code>) derived from the number of
+     * projects, the available processors and the physical memory. Ignored if the arguments already set one.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "adaptiveThreads" )
+    private boolean adaptiveThreads;
+
+    /**
+     * Whether to append the changes of the release configuration to <code>release.properties.journal</code> instead
+     * of rewriting <code>release.properties</code> after every phase. The journal is compacted into
+     * <code>release.properties</code> once the release has been prepared.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "journalReleaseProperties" )
+    private boolean journalReleaseProperties;
+
+    /**
+     * Whether <code>release:perform</code> deploys the outputs of the preparation goals instead of building and
+     * testing the tagged sources again, provided they match the sources the preparation goals have been run on and
+     * the outputs are unchanged. The preparation goals must build and test the projects, like
+     * <code>clean verify</code> does.
+     * <p>
+     * The sources are compared through the POMs, the <code>src</code> directories, the source and resource roots of
+     * the projects, the <code>.mvn</code> directory, the active profiles and the arguments. The perform goals add
+     * <code>-DperformRelease=true</code> when <code>useReleaseProfile</code> is set, so the outputs are only reused
+     * when the preparation goals get it too. Reuse is not safe if the build reads other files of the sources, like a
+     * plugin configuration outside of these directories.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "reuseBuild" )
+    private boolean reuseBuild;
     
     /**
      * Gets the enviroment settings configured for this release.
@@ -145,7 +216,9 @@ public abstract class AbstractReleaseMojo
                                               .setJavaHome( javaHome )
                                               .setMavenHome( mavenHome )
                                               .setLocalRepositoryDirectory( localRepoDirectory )
-                                              .setMavenExecutorId( mavenExecutorId );
+                                              .setMavenExecutorId( mavenExecutorId )
+                                              .setTimeout( timeout )
+                                              .setInactivityTimeout( inactivityTimeout );
     }
 
     /**
@@ -205,6 +278,14 @@ public abstract class AbstractReleaseMojo
         
         descriptor.setReleaseStrategyId( releaseStrategyId );
 
+        descriptor.setMetricsReport( metricsReport );
+
+        descriptor.setAdaptiveThreads( adaptiveThreads );
+
+        descriptor.setJournalReleaseProperties( journalReleaseProperties );
+
+        descriptor.setReuseBuild( reuseBuild );
+
         return descriptor;
     }
 
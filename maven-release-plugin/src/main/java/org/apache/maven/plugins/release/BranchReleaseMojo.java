@@ -172,6 +172,34 @@ public class BranchReleaseMojo
     @Parameter( property = "checkModificationExcludeList" )
     private String checkModificationExcludeList;
 
+    /**
+     * Whether to check for local modifications in the directories of the reactor projects and the
+     * checkModificationRoots only, instead of in the whole working copy. The directories are checked one by one.
+     * Of a project with modules, like the root project, only the POM and the directories which are not modules are
+     * checked.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "scopedCheckModifications" )
+    private boolean scopedCheckModifications;
+
+    /**
+     * A list of directories, relative to the working copy, to check for local modifications in addition to the
+     * directories of the reactor projects when scopedCheckModifications is set.
+     *
+     * @since 3.0.0
+     */
+    @Parameter
+    private String[] checkModificationRoots;
+
+    /**
+     * Command-line version of checkModificationRoots.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( property = "checkModificationRootList" )
+    private String checkModificationRootList;
+
     /**
      * Specify the new version for the branch.
      * This parameter is only meaningful if {@link #updateBranchVersions} = {@code true}.
@@ -210,6 +238,18 @@ public class BranchReleaseMojo
     @Parameter( property = "projectNamingPolicyId" )
     private String projectBranchNamingPolicyId;
 
+    /**
+     * The number of threads used to rewrite the POMs of the reactor. With a value greater than 1 independent POMs are
+     * rewritten concurrently.
+     * <p>
+     * A POM which cannot be rewritten does not stop the others then: unlike a sequential rewrite, the POMs which
+     * follow it in the reactor may have been rewritten already when the first failure in reactor order is reported.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "1", property = "pomTransformThreads" )
+    private int pomTransformThreads;
+
     @Override
     public void execute()
         throws MojoExecutionException, MojoFailureException
@@ -233,6 +273,7 @@ public class BranchReleaseMojo
         config.setSuppressCommitBeforeTagOrBranch( suppressCommitBeforeBranch );
         config.setProjectVersionPolicyId( projectVersionPolicyId );
         config.setProjectNamingPolicyId( projectBranchNamingPolicyId );
+        config.setPomTransformThreads( pomTransformThreads );
 
         if ( checkModificationExcludeList != null )
         {
@@ -244,6 +285,18 @@ public class BranchReleaseMojo
             config.setCheckModificationExcludes( Arrays.asList( checkModificationExcludes ) );
         }
 
+        config.setScopedCheckModifications( scopedCheckModifications );
+
+        if ( checkModificationRootList != null )
+        {
+            checkModificationRoots = checkModificationRootList.replaceAll( "\\s", "" ).split( "," );
+        }
+
+        if ( checkModificationRoots != null )
+        {
+            config.setCheckModificationRoots( Arrays.asList( checkModificationRoots ) );
+        }
+
         try
         {
             ReleaseBranchRequest branchRequest = new ReleaseBranchRequest();
@@ -123,6 +123,26 @@ public class PrepareReleaseMojo
     @Parameter( defaultValue = "false", property = "commitByProject" )
     private boolean commitByProject;
 
+    /**
+     * The number of projects whose commits are pushed together when committing by project, 0 to push the commits of
+     * all projects at once. Each project is still committed on its own, but with a distributed SCM only every
+     * commitByProjectBatchSize-th commit makes a round trip to the remote repository.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "1", property = "commitByProjectBatchSize" )
+    private int commitByProjectBatchSize;
+
+    /**
+     * Keep the release commits and tag local until the end of the preparation, then push them at once with an atomic
+     * push. If the push fails, the local commits and tag are removed again. Only supported by Git, other SCMs push as
+     * usual. Has no effect unless pushChanges is set.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "deferPush" )
+    private boolean deferPush;
+
     /**
      * Whether to allow timestamped SNAPSHOT dependencies. Default is to fail when finding any SNAPSHOT.
      *
@@ -157,6 +177,34 @@ public class PrepareReleaseMojo
     @Parameter( property = "checkModificationExcludeList" )
     private String checkModificationExcludeList;
 
+    /**
+     * Whether to check for local modifications in the directories of the reactor projects and the
+     * checkModificationRoots only, instead of in the whole working copy. The directories are checked one by one.
+     * Of a project with modules, like the root project, only the POM and the directories which are not modules are
+     * checked.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "false", property = "scopedCheckModifications" )
+    private boolean scopedCheckModifications;
+
+    /**
+     * A list of directories, relative to the working copy, to check for local modifications in addition to the
+     * directories of the reactor projects when scopedCheckModifications is set.
+     *
+     * @since 3.0.0
+     */
+    @Parameter
+    private String[] checkModificationRoots;
+
+    /**
+     * Command-line version of checkModificationRoots.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( property = "checkModificationRootList" )
+    private String checkModificationRootList;
+
     /**
      * Default version to use when preparing a release or a branch.
      *
@@ -212,6 +260,8 @@ public class PrepareReleaseMojo
      * Wait the specified number of seconds before creating the tag. <br/>
      * <code>waitBeforeTagging</code> is useful when your source repository is synced between several instances and
      * access to it is determined by geographical location, like the SVN repository at the Apache Software Foundation.
+     * Since 3.0.0, the tag is created as soon as the released revision can be looked up in the remote repository for
+     * SVN; other SCM providers, like Git which looks up revisions in the local clone, wait the whole time.
      *
      * @since 2.2
      */
@@ -238,6 +288,18 @@ public class PrepareReleaseMojo
     @Parameter( property = "projectNamingPolicyId" )
     private String projectTagNamingPolicyId;
 
+    /**
+     * The number of threads used to rewrite the POMs of the reactor. With a value greater than 1 independent POMs are
+     * rewritten concurrently.
+     * <p>
+     * A POM which cannot be rewritten does not stop the others then: unlike a sequential rewrite, the POMs which
+     * follow it in the reactor may have been rewritten already when the first failure in reactor order is reported.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "1", property = "pomTransformThreads" )
+    private int pomTransformThreads;
+
     @Override
     public void execute()
         throws MojoExecutionException, MojoFailureException
@@ -265,6 +327,8 @@ public class PrepareReleaseMojo
         config.setPreparationGoals( preparationGoals );
         config.setCompletionGoals( completionGoals );
         config.setCommitByProject( commitByProject );
+        config.setCommitByProjectBatchSize( commitByProjectBatchSize );
+        config.setDeferPush( deferPush );
         config.setUpdateDependencies( updateDependencies );
         config.setAutoVersionSubmodules( autoVersionSubmodules );
         config.setAllowTimestampedSnapshots( allowTimestampedSnapshots );
@@ -277,6 +341,7 @@ public class PrepareReleaseMojo
         config.setWaitBeforeTagging( waitBeforeTagging );
         config.setProjectVersionPolicyId( projectVersionPolicyId );
         config.setProjectNamingPolicyId( projectTagNamingPolicyId );
+        config.setPomTransformThreads( pomTransformThreads );
 
         if ( checkModificationExcludeList != null )
         {
@@ -287,6 +352,18 @@ public class PrepareReleaseMojo
         {
             config.setCheckModificationExcludes( Arrays.asList( checkModificationExcludes ) );
         }
+
+        config.setScopedCheckModifications( scopedCheckModifications );
+
+        if ( checkModificationRootList != null )
+        {
+            checkModificationRoots = checkModificationRootList.replaceAll( "\\s", "" ).split( "," );
+        }
+
+        if ( checkModificationRoots != null )
+        {
+            config.setCheckModificationRoots( Arrays.asList( checkModificationRoots ) );
+        }
         
         ReleasePrepareRequest prepareRequest = new ReleasePrepareRequest();
         prepareRequest.setReleaseDescriptorBuilder( config );
@@ -93,6 +93,18 @@ public class UpdateVersionsMojo
     @Parameter( defaultValue = "default", property = "projectVersionPolicyId" )
     private String projectVersionPolicyId;
 
+    /**
+     * The number of threads used to rewrite the POMs of the reactor. With a value greater than 1 independent POMs are
+     * rewritten concurrently.
+     * <p>
+     * A POM which cannot be rewritten does not stop the others then: unlike a sequential rewrite, the POMs which
+     * follow it in the reactor may have been rewritten already when the first failure in reactor order is reported.
+     *
+     * @since 3.0.0
+     */
+    @Parameter( defaultValue = "1", property = "pomTransformThreads" )
+    private int pomTransformThreads;
+
     @Override
     public void execute()
         throws MojoExecutionException, MojoFailureException
@@ -104,6 +116,7 @@ public class UpdateVersionsMojo
         config.setScmUseEditMode( useEditMode );
         config.setUpdateDependencies( updateDependencies );
         config.setProjectVersionPolicyId( projectVersionPolicyId );
+        config.setPomTransformThreads( pomTransformThreads );
 
         config.addOriginalScmInfo( ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() ),
                                    project.getScm() );